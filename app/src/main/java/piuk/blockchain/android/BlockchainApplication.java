@@ -34,8 +34,12 @@ import io.reactivex.plugins.RxJavaPlugins;
 import piuk.blockchain.android.data.answers.AppLaunchEvent;
 import piuk.blockchain.android.data.answers.Logging;
 import piuk.blockchain.android.data.api.EnvironmentSettings;
+import piuk.blockchain.android.data.api.SharedObjectMapper;
 import piuk.blockchain.android.data.connectivity.ConnectivityManager;
 import piuk.blockchain.android.data.rxjava.RxBus;
+import piuk.blockchain.android.data.startup.DeferredInitializer;
+import piuk.blockchain.android.data.startup.StartupTracer;
+import piuk.blockchain.android.data.stores.TransactionDiskStore;
 import piuk.blockchain.android.injection.Injector;
 import piuk.blockchain.android.util.AndroidUtils;
 import piuk.blockchain.android.util.AppUtil;
@@ -65,6 +69,7 @@ public class BlockchainApplication extends Application implements FrameworkInter
     @Inject RxBus rxBus;
     @Inject EnvironmentSettings environmentSettings;
     @Inject AppUtil appUtil;
+    @Inject Lazy<TransactionDiskStore> transactionDiskStore;
 
     @Override
     protected void attachBaseContext(Context base) {
@@ -84,34 +89,43 @@ public class BlockchainApplication extends Application implements FrameworkInter
     @Override
     public void onCreate() {
         super.onCreate();
+        StartupTracer tracer = StartupTracer.getInstance();
+        tracer.reset();
+        tracer.beginSection("Application.onCreate");
+
         if (BuildConfig.USE_CRASHLYTICS) {
-            // Init crash reporting
+            // Init crash reporting first so that crashes during startup are reported. Kits are
+            // initialized on Fabric's own executor, so this doesn't block the first screen
+            tracer.beginSection("Fabric.with");
             Fabric.with(this, new Crashlytics(), new Answers());
+            tracer.endSection("Fabric.with");
         }
         // Init Timber
         if (BuildConfig.DEBUG) {
             Timber.plant(new Timber.DebugTree());
         }
         // Init objects first
+        tracer.beginSection("Injector.init");
         Injector.getInstance().init(this);
         // Inject into Application
         Injector.getInstance().getAppComponent().inject(this);
+        tracer.endSection("Injector.init");
         // Pass objects to JAR
+        tracer.beginSection("BlockchainFramework.init");
         BlockchainFramework.init(this);
+        tracer.endSection("BlockchainFramework.init");
 
         new LoggingExceptionHandler();
 
         RxJavaPlugins.setErrorHandler(throwable -> Log.e(RX_ERROR_TAG, throwable.getMessage(), throwable));
 
-        AccessState.getInstance().initAccessState(this, prefsUtil, rxBus);
+        AccessState.getInstance().initAccessState(this, prefsUtil, rxBus, transactionDiskStore);
         CurrencyState.getInstance().init(prefsUtil);
 
         // Apply PRNG fixes on app start if needed
+        tracer.beginSection("PRNGFixes");
         appUtil.applyPRNGFixes();
-
-        ConnectivityManager.getInstance().registerNetworkListener(this);
-
-        checkSecurityProviderAndPatchIfNeeded();
+        tracer.endSection("PRNGFixes");
 
         AppCompatDelegate.setCompatVectorFromResourcesEnabled(true);
 
@@ -129,8 +143,23 @@ public class BlockchainApplication extends Application implements FrameworkInter
             }
         });
 
-        // Report Google Play Services availability
-        Logging.INSTANCE.logCustom(new AppLaunchEvent(isGooglePlayServicesAvailable(this)));
+        // Anything not needed to draw the first screen waits until it has been drawn
+        initDeferred(tracer);
+
+        tracer.endSection("Application.onCreate");
+    }
+
+    private void initDeferred(StartupTracer tracer) {
+        new DeferredInitializer(tracer)
+                // Must be called on the UI thread, installs asynchronously
+                .onIdle("SecurityProvider", this::checkSecurityProviderAndPatchIfNeeded)
+                .onIdle("ConnectivityManager",
+                        () -> ConnectivityManager.getInstance().registerNetworkListener(this))
+                .inBackground("SharedObjectMapper.warmUp", SharedObjectMapper::warmUp)
+                // Report Google Play Services availability
+                .inBackground("AppLaunchEvent",
+                        () -> Logging.INSTANCE.logCustom(new AppLaunchEvent(isGooglePlayServicesAvailable(this))))
+                .start();
     }
 
     // Pass instances to JAR Framework, evaluate after object graph instantiated fully
@@ -7,7 +7,10 @@ import android.content.Intent;
 import android.os.SystemClock;
 import android.support.annotation.Nullable;
 
+import dagger.Lazy;
+import piuk.blockchain.android.data.auth.DerivedKeyCache;
 import piuk.blockchain.android.data.rxjava.RxBus;
+import piuk.blockchain.android.data.stores.TransactionDiskStore;
 import piuk.blockchain.android.ui.auth.LogoutActivity;
 import piuk.blockchain.android.ui.base.BaseAuthActivity;
 import piuk.blockchain.android.util.PrefsUtil;
@@ -22,15 +25,20 @@ public class AccessState {
 
     private PrefsUtil prefs;
     private RxBus rxBus;
+    private Lazy<TransactionDiskStore> transactionDiskStore;
 
     private String pin;
     private PendingIntent logoutPendingIntent;
     private boolean isLoggedIn = false;
     private boolean canAutoLogout = true;
 
-    public void initAccessState(Context context, PrefsUtil prefs, RxBus rxBus) {
+    public void initAccessState(Context context,
+                                PrefsUtil prefs,
+                                RxBus rxBus,
+                                Lazy<TransactionDiskStore> transactionDiskStore) {
         this.prefs = prefs;
         this.rxBus = rxBus;
+        this.transactionDiskStore = transactionDiskStore;
 
         Intent intent = new Intent(context, LogoutActivity.class);
         intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -72,6 +80,7 @@ public class AccessState {
 
     public void logout(Context context) {
         pin = null;
+        clearSessionKeys();
         Intent intent = new Intent(context, LogoutActivity.class);
         intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
         intent.setAction(LOGOUT_ACTION);
@@ -92,6 +101,8 @@ public class AccessState {
         if (isLoggedIn) {
             rxBus.emitEvent(AuthEvent.class, AuthEvent.LOGIN);
         } else {
+            // Also reached by auto-logout, which skips logout()
+            clearSessionKeys();
             rxBus.emitEvent(AuthEvent.class, AuthEvent.LOGOUT);
         }
     }
@@ -108,4 +119,16 @@ public class AccessState {
     public void enableAutoLogout() {
         canAutoLogout = true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Wipes every key derived from the password during this session. Encrypted data on disk is
+     * left in place for the next login.
+     */
+    private void clearSessionKeys() {
+        DerivedKeyCache.getInstance().clear();
+        if (transactionDiskStore != null) {
+            transactionDiskStore.get().clearKey();
+        }
+    }
+
+}
@@ -2,6 +2,7 @@ package piuk.blockchain.android.data.answers
 
 import com.crashlytics.android.Crashlytics
 import com.crashlytics.android.answers.*
+import io.fabric.sdk.android.Fabric
 import piuk.blockchain.android.BuildConfig
 
 /**
@@ -10,37 +11,43 @@ import piuk.blockchain.android.BuildConfig
  *
  * Note: absolutely no identifying information should be included in an [AnswersEvent], ever.
  * These should be used to get a feel for how often features are used, but that's it.
+ *
+ * Events logged before Fabric is initialized, or in builds which never initialize it, are dropped
+ * rather than crashing.
  */
 object Logging {
 
     private val shouldLog = BuildConfig.USE_CRASHLYTICS || BuildConfig.DOGFOOD
 
+    private val canLog
+        get() = shouldLog && Fabric.isInitialized()
+
     fun logCustom(customEvent: CustomEvent) {
-        if (shouldLog) Answers.getInstance().logCustom(customEvent)
+        if (canLog) Answers.getInstance().logCustom(customEvent)
     }
 
     fun logContentView(contentViewEvent: ContentViewEvent) {
-        if (shouldLog) Answers.getInstance().logContentView(contentViewEvent)
+        if (canLog) Answers.getInstance().logContentView(contentViewEvent)
     }
 
     fun logLogin(loginEvent: LoginEvent) {
-        if (shouldLog) Answers.getInstance().logLogin(loginEvent)
+        if (canLog) Answers.getInstance().logLogin(loginEvent)
     }
 
     fun logSignUp(signUpEvent: SignUpEvent) {
-        if (shouldLog) Answers.getInstance().logSignUp(signUpEvent)
+        if (canLog) Answers.getInstance().logSignUp(signUpEvent)
     }
 
     fun logShare(shareEvent: ShareEvent) {
-        if (shouldLog) Answers.getInstance().logShare(shareEvent)
+        if (canLog) Answers.getInstance().logShare(shareEvent)
     }
 
     fun logPurchase(purchaseEvent: PurchaseEvent) {
-        if (shouldLog) Answers.getInstance().logPurchase(purchaseEvent)
+        if (canLog) Answers.getInstance().logPurchase(purchaseEvent)
     }
 
     fun logException(throwable: Throwable) {
-        if (shouldLog) Crashlytics.logException(throwable)
+        if (canLog) Crashlytics.logException(throwable)
     }
 
 }
\ No newline at end of file
@@ -1,28 +1,51 @@
 package piuk.blockchain.android.data.api
 
+import okhttp3.Headers
 import okhttp3.Interceptor
 import okhttp3.RequestBody
 import okhttp3.Response
-import okhttp3.ResponseBody
 import okio.Buffer
 import timber.log.Timber
 import java.io.IOException
 import java.util.*
 
-class ApiInterceptor : Interceptor {
+/**
+ * Logs requests and responses. Only added to debuggable builds, see
+ * [piuk.blockchain.android.injection.ApiModule].
+ *
+ * Bodies are never read in full. At [Level.BODY] only the first [maxBodyBytes] of a response are
+ * peeked, which leaves the body to stream to the caller as usual.
+ *
+ * @param level How much to log, can be changed at runtime
+ * @param maxBodyBytes The most bytes of any body to log
+ */
+class ApiInterceptor(
+        @Volatile var level: Level = Level.BODY,
+        private val maxBodyBytes: Long = DEFAULT_MAX_BODY_BYTES
+) : Interceptor {
+
+    enum class Level {
+        /** Logs nothing */
+        NONE,
+        /** Logs the method, URL, status code and time taken */
+        BASIC,
+        /** As [BASIC], plus the request and response headers */
+        HEADERS,
+        /** As [HEADERS], plus the start of POST bodies and of every response body */
+        BODY
+    }
 
     @Throws(IOException::class)
     override fun intercept(chain: Interceptor.Chain): Response {
+        val level = level
         val request = chain.request()
-        val startTime = System.nanoTime()
+        if (level == Level.NONE) return chain.proceed(request)
 
-        var requestLog = String.format(
-                "Sending request of type %s to %s with headers %s",
-                request.method(),
-                request.url(),
-                request.headers())
+        val startTime = System.nanoTime()
 
-        if (request.method().compareTo("post", ignoreCase = true) == 0) {
+        var requestLog = "Sending request of type ${request.method()} to ${request.url()}"
+        if (level >= Level.HEADERS) requestLog += " with headers ${request.headers()}"
+        if (level == Level.BODY && request.method().equals("post", ignoreCase = true)) {
             requestLog = "\n$requestLog\n${requestBodyToString(request.body())}"
         }
 
@@ -31,38 +54,68 @@ class ApiInterceptor : Interceptor {
         val response = chain.proceed(request)
         val endTime = System.nanoTime()
 
-        val responseLog = String.format(
+        var responseLog = String.format(
                 Locale.ENGLISH,
-                "Received response from %s in %.1fms%n%s",
+                "Received response from %s in %.1fms",
                 response.request().url(),
-                (endTime - startTime) / 1e6,
-                response.headers())
+                (endTime - startTime) / 1e6)
+        if (level >= Level.HEADERS) responseLog += "\n${response.headers()}"
+        if (level == Level.BODY) responseLog += "\n${peekBody(response)}"
 
-        val bodyString = response.body()!!.string()
         if (response.code() == 200) {
-            Timber.v("Response: ${response.code()}\n$responseLog\n$bodyString")
+            Timber.v("Response: ${response.code()}\n$responseLog")
         } else {
-            Timber.e("Response: ${response.code()}\n$responseLog\n$bodyString")
+            Timber.e("Response: ${response.code()}\n$responseLog")
         }
 
-        return response.newBuilder()
-                .body(ResponseBody.create(response.body()!!.contentType(), bodyString))
-                .build()
+        return response
+    }
+
+    private fun peekBody(response: Response): String {
+        if (response.body() == null || isBinary(response.headers())) return ""
+        return try {
+            // Peek one byte more than is logged, so a body of exactly maxBodyBytes isn't truncated
+            response.peekBody(maxBodyBytes + 1).use {
+                if (it.contentLength() > maxBodyBytes) {
+                    "${it.source().readUtf8(maxBodyBytes)}… (truncated)"
+                } else {
+                    it.string()
+                }
+            }
+        } catch (e: IOException) {
+            "IOException reading response body"
+        }
     }
 
     private fun requestBodyToString(request: RequestBody?): String {
+        if (request == null) return ""
+        val length = try {
+            request.contentLength()
+        } catch (e: IOException) {
+            -1L
+        }
+        if (length < 0 || length > maxBodyBytes) return "($length byte body)"
+
         val buffer = Buffer()
         return try {
-            if (request != null) {
-                request.writeTo(buffer)
-                buffer.readUtf8()
-            } else {
-                ""
-            }
+            request.writeTo(buffer)
+            buffer.readUtf8()
         } catch (e: IOException) {
             "IOException reading request body"
         } finally {
             buffer.close()
         }
     }
-}
\ No newline at end of file
+
+    private fun isBinary(headers: Headers): Boolean {
+        val contentType = headers.get("Content-Type") ?: return false
+        return contentType.startsWith("image/") || contentType.startsWith("application/octet-stream")
+    }
+
+    companion object {
+
+        const val DEFAULT_MAX_BODY_BYTES = 4_096L
+
+    }
+
+}
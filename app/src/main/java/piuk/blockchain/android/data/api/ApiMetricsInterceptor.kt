@@ -0,0 +1,103 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.Interceptor
+import okhttp3.MediaType
+import okhttp3.Response
+import okhttp3.ResponseBody
+import okio.Buffer
+import okio.BufferedSource
+import okio.ForwardingSource
+import okio.Okio
+import okio.Source
+import java.io.IOException
+import java.net.HttpURLConnection
+
+/**
+ * Records latency, response size, errors and cache hits per endpoint into [EndpointMetrics]. Response bodies
+ * are counted as the caller streams them, so nothing is buffered. Cheap enough to run in every
+ * build type.
+ */
+class ApiMetricsInterceptor(private val metrics: EndpointMetrics) : Interceptor {
+
+    @Throws(IOException::class)
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val endpoint = metrics.getEndpoint(chain.request())
+        val startTime = System.nanoTime()
+
+        val response = try {
+            chain.proceed(chain.request())
+        } catch (e: IOException) {
+            endpoint.recordError()
+            throw e
+        }
+
+        endpoint.latency.record((System.nanoTime() - startTime) / 1_000_000L)
+        if (!response.isSuccessful) endpoint.recordError()
+
+        val cacheResult = cacheResultOf(response)
+        if (cacheResult != null) endpoint.recordCacheResult(cacheResult)
+        val fromCache = cacheResult == EndpointMetrics.CacheResult.HIT
+                || cacheResult == EndpointMetrics.CacheResult.CONDITIONAL_HIT
+
+        val body = response.body() ?: return response
+        return response.newBuilder()
+                .body(CountingResponseBody(body) {
+                    endpoint.responseBytes.record(it)
+                    if (fromCache) endpoint.recordBytesSaved(it)
+                })
+                .build()
+    }
+
+    private fun cacheResultOf(response: Response): EndpointMetrics.CacheResult? {
+        if (response.request().method() != "GET") return null
+        val cacheResponse = response.cacheResponse()
+        val networkResponse = response.networkResponse()
+        return when {
+            cacheResponse == null -> EndpointMetrics.CacheResult.MISS
+            networkResponse == null -> EndpointMetrics.CacheResult.HIT
+            networkResponse.code() == HttpURLConnection.HTTP_NOT_MODIFIED -> EndpointMetrics.CacheResult.CONDITIONAL_HIT
+            else -> EndpointMetrics.CacheResult.MISS
+        }
+    }
+
+    private class CountingResponseBody(
+            private val delegate: ResponseBody,
+            private val onDone: (Long) -> Unit
+    ) : ResponseBody() {
+
+        private val source: BufferedSource by lazy { Okio.buffer(CountingSource(delegate.source())) }
+
+        override fun contentType(): MediaType? = delegate.contentType()
+
+        override fun contentLength() = delegate.contentLength()
+
+        override fun source() = source
+
+        private inner class CountingSource(delegate: Source) : ForwardingSource(delegate) {
+
+            private var bytesRead = 0L
+            private var reported = false
+
+            override fun read(sink: Buffer, byteCount: Long): Long {
+                val read = super.read(sink, byteCount)
+                if (read == -1L) report() else bytesRead += read
+                return read
+            }
+
+            override fun close() {
+                report()
+                super.close()
+            }
+
+            private fun report() {
+                if (!reported) {
+                    reported = true
+                    onDone(bytesRead)
+                }
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.CacheControl
+import okhttp3.Interceptor
+import okhttp3.Response
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+/**
+ * A network interceptor which marks successful responses from cacheable endpoints as cacheable for
+ * their [HttpCachePolicy.maxAgeSeconds], as our servers don't send caching headers for them.
+ * Responses which do have caching headers are left as they are, so a server can still opt out with
+ * no-store or shorten the max-age. ETag and Last-Modified headers are kept, so OkHttp can
+ * revalidate conditionally.
+ */
+class CachePolicyInterceptor(private val policies: HttpCachePolicies) : Interceptor {
+
+    @Throws(IOException::class)
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val response = chain.proceed(chain.request())
+        val policy = policies.forRequest(chain.request())
+        if (policy == null || !response.isSuccessful || hasCachingHeaders(response)) return response
+
+        return response.newBuilder()
+                .header("Cache-Control", "public, max-age=${policy.maxAgeSeconds}")
+                .build()
+    }
+
+    private fun hasCachingHeaders(response: Response) =
+            CACHING_HEADERS.any { response.header(it) != null }
+
+    companion object {
+
+        private val CACHING_HEADERS = listOf("Cache-Control", "Expires", "Pragma")
+
+    }
+
+}
+
+/**
+ * An application interceptor which serves cacheable endpoints from the cache when offline, for up
+ * to their [HttpCachePolicy.maxStaleSeconds]. If nothing usable is cached the request goes to the
+ * network as usual, so callers still see the same connection errors as before.
+ *
+ * @param isOnline Returns false when there's no connectivity
+ */
+class OfflineCacheInterceptor(
+        private val policies: HttpCachePolicies,
+        private val isOnline: () -> Boolean
+) : Interceptor {
+
+    @Throws(IOException::class)
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val policy = policies.forRequest(request)
+        if (policy == null || isOnline()) return chain.proceed(request)
+
+        val cachedOnly = request.newBuilder()
+                .cacheControl(CacheControl.Builder()
+                        .onlyIfCached()
+                        .maxStale(policy.maxStaleSeconds, TimeUnit.SECONDS)
+                        .build())
+                .build()
+        val response = chain.proceed(cachedOnly)
+        if (response.code() != UNSATISFIABLE_REQUEST) return response
+
+        response.close()
+        return chain.proceed(request)
+    }
+
+    companion object {
+
+        // What OkHttp returns for an only-if-cached request it can't satisfy
+        private const val UNSATISFIABLE_REQUEST = 504
+
+    }
+
+}
@@ -0,0 +1,174 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.Protocol
+import okhttp3.Request
+import piuk.blockchain.android.data.metrics.Histogram
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Latency and response size histograms, errors and HTTP cache effectiveness for every endpoint the
+ * app calls, recorded by [ApiMetricsInterceptor], plus network phase timings recorded by
+ * [NetworkEventListener]. Endpoints are keyed by method, host and path, with identifiers such as
+ * addresses and hashes in the path collapsed so that they share one entry.
+ *
+ * Shown in the debug menu alongside [piuk.blockchain.android.data.metrics.OperationMetrics].
+ */
+class EndpointMetrics {
+
+    class Endpoint(val name: String) {
+
+        /**
+         * Time until the response headers were received, in milliseconds.
+         */
+        val latency = Histogram(Histogram.LATENCY_MILLIS)
+        /**
+         * Bytes read from each response body, once it has been read or closed.
+         */
+        val responseBytes = Histogram(Histogram.SIZE_BYTES)
+        /**
+         * Network phases from [NetworkEventListener], in milliseconds. Connect includes TLS, and
+         * only new connections are counted.
+         */
+        val dnsLatency = Histogram(Histogram.LATENCY_MILLIS)
+        val connectLatency = Histogram(Histogram.LATENCY_MILLIS)
+        val tlsLatency = Histogram(Histogram.LATENCY_MILLIS)
+        val timeToFirstByte = Histogram(Histogram.LATENCY_MILLIS)
+        private val errors = AtomicLong()
+        private val cacheHits = AtomicLong()
+        private val conditionalCacheHits = AtomicLong()
+        private val cacheMisses = AtomicLong()
+        private val bytesSaved = AtomicLong()
+        private val protocols = ConcurrentHashMap<Protocol, AtomicLong>()
+        private val reusedConnections = AtomicLong()
+        private val newConnections = AtomicLong()
+        private val connectFailures = AtomicLong()
+
+        fun getErrorCount() = errors.get()
+
+        /**
+         * Responses served from the cache without contacting the server.
+         */
+        fun getCacheHitCount() = cacheHits.get()
+
+        /**
+         * Responses served from the cache after the server confirmed them unchanged with a 304.
+         */
+        fun getConditionalCacheHitCount() = conditionalCacheHits.get()
+
+        fun getCacheMissCount() = cacheMisses.get()
+
+        /**
+         * The share of GET requests answered from the cache, including after revalidation.
+         */
+        fun getCacheHitRatio(): Double {
+            val hits = getCacheHitCount() + getConditionalCacheHitCount()
+            val total = hits + getCacheMissCount()
+            return if (total == 0L) 0.0 else hits.toDouble() / total
+        }
+
+        /**
+         * Body bytes served from the cache rather than downloaded.
+         */
+        fun getBytesSaved() = bytesSaved.get()
+
+        /**
+         * How many calls used each protocol.
+         */
+        fun getProtocolCounts(): Map<Protocol, Long> = protocols.mapValues { it.value.get() }
+
+        fun getReusedConnectionCount() = reusedConnections.get()
+
+        fun getNewConnectionCount() = newConnections.get()
+
+        /**
+         * Calls which failed before a request could be sent, such as on DNS or connect.
+         */
+        fun getConnectFailureCount() = connectFailures.get()
+
+        internal fun recordConnection(protocol: Protocol, reused: Boolean) {
+            protocols.getOrPut(protocol) { AtomicLong() }.incrementAndGet()
+            if (reused) reusedConnections.incrementAndGet() else newConnections.incrementAndGet()
+        }
+
+        internal fun recordConnectFailure() {
+            connectFailures.incrementAndGet()
+        }
+
+        internal fun recordError() {
+            errors.incrementAndGet()
+        }
+
+        internal fun recordCacheResult(result: CacheResult) {
+            when (result) {
+                CacheResult.HIT -> cacheHits.incrementAndGet()
+                CacheResult.CONDITIONAL_HIT -> conditionalCacheHits.incrementAndGet()
+                CacheResult.MISS -> cacheMisses.incrementAndGet()
+            }
+        }
+
+        internal fun recordBytesSaved(bytes: Long) {
+            bytesSaved.addAndGet(bytes)
+        }
+
+        override fun toString() = String.format(
+                Locale.ENGLISH,
+                "%s%n  latency ms: %s%n  dns ms: %s%n  connect ms: %s%n  tls ms: %s%n  ttfb ms: %s%n" +
+                        "  connections: %d new, %d reused, %d failed, protocols %s%n  bytes: %s%n  errors: %d%n" +
+                        "  cache: %.0f%% hits (%d, %d revalidated, %d misses), %d bytes saved",
+                name,
+                latency.snapshot(),
+                dnsLatency.snapshot(),
+                connectLatency.snapshot(),
+                tlsLatency.snapshot(),
+                timeToFirstByte.snapshot(),
+                getNewConnectionCount(),
+                getReusedConnectionCount(),
+                getConnectFailureCount(),
+                getProtocolCounts(),
+                responseBytes.snapshot(),
+                getErrorCount(),
+                getCacheHitRatio() * 100,
+                getCacheHitCount(),
+                getConditionalCacheHitCount(),
+                getCacheMissCount(),
+                getBytesSaved())
+
+    }
+
+    enum class CacheResult { HIT, CONDITIONAL_HIT, MISS }
+
+    private val endpoints = ConcurrentHashMap<String, Endpoint>()
+
+    fun getEndpoint(request: Request): Endpoint {
+        val name = nameOf(request)
+        return endpoints.getOrPut(name) { Endpoint(name) }
+    }
+
+    /**
+     * Returns every endpoint called so far, sorted by name.
+     */
+    fun getEndpoints(): List<Endpoint> = endpoints.values.sortedBy { it.name }
+
+    fun clear() = endpoints.clear()
+
+    override fun toString() = getEndpoints().joinToString(separator = "\n")
+
+    companion object {
+
+        private const val ID_PLACEHOLDER = ":id"
+        // Addresses, xpubs and hashes are all far longer than any fixed path segment
+        private const val MIN_ID_LENGTH = 24
+
+        internal fun nameOf(request: Request): String {
+            val url = request.url()
+            val path = url.pathSegments().joinToString(separator = "/", prefix = "/") {
+                if (it.length >= MIN_ID_LENGTH || (it.isNotEmpty() && it.all(Char::isDigit))) ID_PLACEHOLDER else it
+            }
+            return "${request.method()} ${url.host()}$path"
+        }
+
+    }
+
+}
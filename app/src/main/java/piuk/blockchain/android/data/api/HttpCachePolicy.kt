@@ -0,0 +1,57 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.Request
+
+/**
+ * How long responses from an idempotent endpoint may be reused. Once [maxAgeSeconds] has passed the
+ * cached response is revalidated with the server using its ETag or Last-Modified date, so an
+ * unchanged resource costs a 304 rather than the full body. This applies to the OkHttp cache only,
+ * see [piuk.blockchain.android.data.stores.CachePolicy] for the app's own stores.
+ *
+ * @param pathPrefix Matches any GET request whose path starts with this
+ * @param maxAgeSeconds How long a response is fresh and served without contacting the server
+ * @param maxStaleSeconds How old a cached response may be and still be served when offline
+ */
+class HttpCachePolicy(val pathPrefix: String, val maxAgeSeconds: Int, val maxStaleSeconds: Int) {
+
+    override fun toString() = "$pathPrefix max-age=$maxAgeSeconds max-stale=$maxStaleSeconds"
+
+}
+
+/**
+ * The [HttpCachePolicy] for every endpoint whose responses may be cached. Requests to anything
+ * else, and anything other than GET, are never cached by the app.
+ */
+class HttpCachePolicies(private val policies: List<HttpCachePolicy>) {
+
+    fun forRequest(request: Request): HttpCachePolicy? {
+        if (request.method() != "GET") return null
+        val path = request.url().encodedPath()
+        return policies.firstOrNull { path.startsWith(it.pathPrefix) }
+    }
+
+    companion object {
+
+        private const val MINUTE = 60
+        private const val HOUR = 60 * MINUTE
+        private const val DAY = 24 * HOUR
+
+        /**
+         * Our public, unauthenticated endpoints. Prices go stale quickly, so they're only reused
+         * briefly online, but the last known values are better than nothing offline.
+         */
+        @JvmField
+        val DEFAULT = HttpCachePolicies(listOf(
+                HttpCachePolicy("/ticker", MINUTE, DAY),
+                HttpCachePolicy("/eth/latestprice", MINUTE, DAY),
+                HttpCachePolicy("/price/index-series", 5 * MINUTE, 7 * DAY),
+                HttpCachePolicy("/charts/", 5 * MINUTE, 7 * DAY),
+                HttpCachePolicy("/mempool/fees", MINUTE, HOUR),
+                HttpCachePolicy("/eth/fees", MINUTE, HOUR),
+                HttpCachePolicy("/Resources/wallet-options.json", HOUR, 7 * DAY),
+                HttpCachePolicy("/merchant", DAY, 30 * DAY)
+        ))
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.Call
+import okhttp3.Connection
+import okhttp3.EventListener
+import okhttp3.Handshake
+import okhttp3.Protocol
+import java.io.IOException
+import java.net.InetAddress
+import java.net.InetSocketAddress
+import java.net.Proxy
+
+/**
+ * Times the phases of each call which reaches the network, DNS, connect, TLS and time to first
+ * byte, and records them into the call's endpoint in [EndpointMetrics]. Calls answered by the
+ * cache fire none of these events. Also records which protocol each call used and whether it
+ * reused a pooled connection, which is where HTTP/2 and keep-alive pay off.
+ */
+class NetworkEventListener private constructor(
+        private val endpoint: EndpointMetrics.Endpoint,
+        private val clock: () -> Long
+) : EventListener() {
+
+    class Factory @JvmOverloads constructor(
+            private val metrics: EndpointMetrics,
+            private val clock: () -> Long = { System.nanoTime() }
+    ) : EventListener.Factory {
+
+        override fun create(call: Call): EventListener =
+                NetworkEventListener(metrics.getEndpoint(call.request()), clock)
+
+    }
+
+    private var dnsStart = 0L
+    private var connectStart = 0L
+    private var secureConnectStart = 0L
+    private var requestStart = 0L
+    private var connected = false
+
+    override fun dnsStart(call: Call, domainName: String) {
+        dnsStart = clock()
+    }
+
+    override fun dnsEnd(call: Call, domainName: String, inetAddressList: List<InetAddress>) {
+        endpoint.dnsLatency.record(millisSince(dnsStart))
+    }
+
+    override fun connectStart(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy) {
+        connectStart = clock()
+    }
+
+    override fun secureConnectStart(call: Call) {
+        secureConnectStart = clock()
+    }
+
+    override fun secureConnectEnd(call: Call, handshake: Handshake?) {
+        endpoint.tlsLatency.record(millisSince(secureConnectStart))
+    }
+
+    override fun connectEnd(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy, protocol: Protocol?) {
+        connected = true
+        endpoint.connectLatency.record(millisSince(connectStart))
+    }
+
+    override fun connectionAcquired(call: Call, connection: Connection) {
+        endpoint.recordConnection(connection.protocol(), reused = !connected)
+    }
+
+    override fun requestHeadersStart(call: Call) {
+        requestStart = clock()
+    }
+
+    override fun responseHeadersStart(call: Call) {
+        endpoint.timeToFirstByte.record(millisSince(requestStart))
+    }
+
+    override fun callFailed(call: Call, ioe: IOException) {
+        if (requestStart == 0L) endpoint.recordConnectFailure()
+    }
+
+    private fun millisSince(startNanos: Long) = (clock() - startNanos) / 1_000_000L
+
+}
@@ -0,0 +1,70 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.ConnectionPool
+import okhttp3.Protocol
+import okhttp3.Request
+import java.util.concurrent.TimeUnit
+
+/**
+ * The tunable parts of the shared OkHttpClient, see
+ * [piuk.blockchain.android.injection.ApiModule.provideOkHttpClient].
+ *
+ * @param maxIdleConnections How many idle connections the pool keeps, shared by every host
+ * @param keepAliveMinutes How long an idle connection is kept before being closed
+ * @param protocols Protocols offered to servers via ALPN. With HTTP/2, every call to a host shares
+ * a single multiplexed connection, saving a TCP and TLS handshake per concurrent request
+ * @param connectTimeoutSeconds The connect timeout, including the TLS handshake
+ * @param readTimeoutSeconds The read timeout for endpoints not in [readTimeoutOverrides]
+ * @param writeTimeoutSeconds The write timeout
+ * @param readTimeoutOverrides Read timeouts in seconds keyed by path prefix, for endpoints which
+ * are known to be much faster or slower than most
+ * @param maxIdempotentRetries How many times a failed idempotent request is retried. Other
+ * requests are never retried, as the server may have acted on them
+ */
+data class NetworkProfile(
+        val maxIdleConnections: Int,
+        val keepAliveMinutes: Long,
+        val protocols: List<Protocol>,
+        val connectTimeoutSeconds: Int,
+        val readTimeoutSeconds: Int,
+        val writeTimeoutSeconds: Int,
+        val readTimeoutOverrides: Map<String, Int>,
+        val maxIdempotentRetries: Int
+) {
+
+    fun createConnectionPool() = ConnectionPool(maxIdleConnections, keepAliveMinutes, TimeUnit.MINUTES)
+
+    /**
+     * Returns the read timeout for this request in seconds.
+     */
+    fun readTimeoutFor(request: Request): Int {
+        val path = request.url().encodedPath()
+        return readTimeoutOverrides.entries.firstOrNull { path.startsWith(it.key) }?.value
+                ?: readTimeoutSeconds
+    }
+
+    companion object {
+
+        @JvmField
+        val DEFAULT = NetworkProfile(
+                maxIdleConnections = 8,
+                keepAliveMinutes = 5,
+                protocols = listOf(Protocol.HTTP_2, Protocol.HTTP_1_1),
+                // Connecting on a poor cellular connection rarely succeeds after this long
+                connectTimeoutSeconds = 15,
+                readTimeoutSeconds = 30,
+                writeTimeoutSeconds = 30,
+                readTimeoutOverrides = linkedMapOf(
+                        // Small and cached, so a slow response is better retried
+                        "/ticker" to 10,
+                        "/mempool/fees" to 10,
+                        "/eth/fees" to 10,
+                        // Large wallets can take the server a while
+                        "/multiaddr" to 60
+                ),
+                maxIdempotentRetries = 1
+        )
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.Interceptor
+import okhttp3.Request
+import okhttp3.Response
+import timber.log.Timber
+import java.io.IOException
+import java.io.InterruptedIOException
+import java.net.SocketTimeoutException
+import java.util.concurrent.TimeUnit
+import javax.net.ssl.SSLPeerUnverifiedException
+
+/**
+ * Applies the per-endpoint read timeouts of a [NetworkProfile], and retries idempotent requests
+ * which fail with an I/O error. The client itself doesn't retry, as OkHttp would also retry
+ * requests such as a transaction push.
+ */
+class NetworkProfileInterceptor(private val profile: NetworkProfile) : Interceptor {
+
+    @Throws(IOException::class)
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val timedChain = chain.withReadTimeout(profile.readTimeoutFor(request), TimeUnit.SECONDS)
+        val attempts = if (isIdempotent(request)) profile.maxIdempotentRetries + 1 else 1
+
+        var attempt = 1
+        while (true) {
+            try {
+                return timedChain.proceed(request)
+            } catch (e: IOException) {
+                if (attempt >= attempts || !isRetryable(e)) throw e
+                Timber.w(e, "Retrying %s %s", request.method(), request.url().encodedPath())
+                attempt++
+            }
+        }
+    }
+
+    private fun isIdempotent(request: Request) = request.method() in IDEMPOTENT_METHODS
+
+    private fun isRetryable(e: IOException) = when (e) {
+        // Pinning failures are handled by RxPinning and will fail again
+        is SSLPeerUnverifiedException -> false
+        is SocketTimeoutException -> true
+        // Otherwise the call was cancelled
+        is InterruptedIOException -> false
+        else -> true
+    }
+
+    companion object {
+
+        private val IDEMPOTENT_METHODS = setOf("GET", "HEAD", "PUT", "DELETE", "OPTIONS")
+
+    }
+
+}
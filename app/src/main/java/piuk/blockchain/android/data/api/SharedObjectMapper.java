@@ -0,0 +1,74 @@
+package piuk.blockchain.android.data.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import piuk.blockchain.android.data.exchange.models.ExchangeData;
+import piuk.blockchain.android.data.websocket.models.BlockMessage;
+import piuk.blockchain.android.data.websocket.models.EthWebsocketResponse;
+import piuk.blockchain.android.data.websocket.models.OnChangeMessage;
+import piuk.blockchain.android.data.websocket.models.UtxMessage;
+import piuk.blockchain.android.data.websocket.models.WebSocketMessage;
+
+/**
+ * Holds the single Jackson {@link ObjectMapper} shared by Retrofit and every other parse path.
+ * Jackson caches the deserializer it builds for each type inside the mapper, so creating a new
+ * mapper per parse means introspecting the model again every time.
+ *
+ * The mapper is thread safe once configured, and must not be reconfigured after creation. Prefer
+ * {@link #readerFor(Class)} on hot paths, which returns an immutable reader cached per type.
+ */
+public final class SharedObjectMapper {
+
+    /**
+     * Models parsed on hot paths, whose deserializers are built by {@link #warmUp()} rather than
+     * on first use. Subtypes are listed as well as {@link WebSocketMessage}, as polymorphic
+     * subtypes are otherwise only resolved when their type id is first seen.
+     */
+    private static final Class<?>[] WARM_UP_TYPES = {
+            WebSocketMessage.class,
+            UtxMessage.class,
+            OnChangeMessage.class,
+            BlockMessage.class,
+            EthWebsocketResponse.class,
+            ExchangeData.class
+    };
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ConcurrentHashMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private SharedObjectMapper() {
+        throw new AssertionError("This class shouldn't be instantiated");
+    }
+
+    public static ObjectMapper getInstance() {
+        return OBJECT_MAPPER;
+    }
+
+    /**
+     * Returns a reader for {@code type}, built once and then shared.
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        ObjectReader reader = READERS.get(type);
+        if (reader == null) {
+            // Building a reader for a type resolves its deserializer up front
+            reader = OBJECT_MAPPER.readerFor(type);
+            ObjectReader existing = READERS.putIfAbsent(type, reader);
+            if (existing != null) reader = existing;
+        }
+        return reader;
+    }
+
+    /**
+     * Builds the deserializers for our hot models, so that the first websocket frame or metadata
+     * parse doesn't pay for introspection. Should be called off the main thread.
+     */
+    public static void warmUp() {
+        for (Class<?> type : WARM_UP_TYPES) {
+            readerFor(type);
+        }
+    }
+
+}
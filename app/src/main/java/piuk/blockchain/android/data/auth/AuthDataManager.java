@@ -65,7 +65,7 @@ public class AuthDataManager {
      * @see #getSessionId(String)
      */
     public Observable<Response<ResponseBody>> getEncryptedPayload(String guid, String sessionId) {
-        return rxPinning.call(() -> authService.getEncryptedPayload(guid, sessionId))
+        return rxPinning.call("AuthDataManager.getEncryptedPayload", () -> authService.getEncryptedPayload(guid, sessionId))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -76,7 +76,7 @@ public class AuthDataManager {
      * @return An {@link Observable} wrapping a session ID as a String
      */
     public Observable<String> getSessionId(String guid) {
-        return rxPinning.call(() -> authService.getSessionId(guid))
+        return rxPinning.call("AuthDataManager.getSessionId", () -> authService.getSessionId(guid))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -90,7 +90,7 @@ public class AuthDataManager {
      * @see #getSessionId(String)
      */
     public Observable<ResponseBody> submitTwoFactorCode(String sessionId, String guid, String twoFactorCode) {
-        return rxPinning.call(() -> authService.submitTwoFactorCode(sessionId, guid, twoFactorCode))
+        return rxPinning.call("AuthDataManager.submitTwoFactorCode", () -> authService.submitTwoFactorCode(sessionId, guid, twoFactorCode))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -101,7 +101,7 @@ public class AuthDataManager {
      * @return An {@link Observable} wrapping a {@link WalletOptions} object
      */
     public Observable<WalletOptions> getWalletOptions() {
-        return rxPinning.call(() -> authService.getWalletOptions())
+        return rxPinning.call("AuthDataManager.getWalletOptions", () -> authService.getWalletOptions())
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -156,7 +156,7 @@ public class AuthDataManager {
      * @return An {@link Observable} where the wrapped String is the user's decrypted password
      */
     public Observable<String> validatePin(String passedPin) {
-        return rxPinning.call(() -> getValidatePinObservable(passedPin))
+        return rxPinning.call("AuthDataManager.validatePin", () -> getValidatePinObservable(passedPin))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -168,7 +168,7 @@ public class AuthDataManager {
      * @return A {@link Completable} object
      */
     public Completable createPin(String password, String pin) {
-        return rxPinning.call(() -> getCreatePinObservable(password, pin))
+        return rxPinning.call("AuthDataManager.createPin", () -> getCreatePinObservable(password, pin))
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -185,12 +185,15 @@ public class AuthDataManager {
                      */
 
                     if (response.isSuccessful()) {
+                        LoginTimer.getInstance().mark(LoginTimer.Phase.VALIDATE_ACCESS);
                         appUtil.setNewlyCreated(false);
                         String decryptionKey = response.body().getSuccess();
 
-                        return aesUtilWrapper.decrypt(encryptedPassword,
+                        String password = aesUtilWrapper.decrypt(encryptedPassword,
                                 decryptionKey,
                                 AESUtil.PIN_PBKDF2_ITERATIONS);
+                        LoginTimer.getInstance().mark(LoginTimer.Phase.DECRYPT_PASSWORD);
+                        return password;
                     } else {
                         if (response.code() == 500) {
                             // Invalid PIN
@@ -253,7 +256,7 @@ public class AuthDataManager {
      * @return {@link Observable<ResponseBody>} wrapping the pairing encryption password
      */
     public Observable<ResponseBody> getPairingEncryptionPassword(String guid) {
-        return rxPinning.call(() -> authService.getPairingEncryptionPassword(guid))
+        return rxPinning.call("AuthDataManager.getPairingEncryptionPassword", () -> authService.getPairingEncryptionPassword(guid))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 }
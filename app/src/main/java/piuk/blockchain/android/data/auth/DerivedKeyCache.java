@@ -0,0 +1,138 @@
+package piuk.blockchain.android.data.auth;
+
+import android.support.annotation.VisibleForTesting;
+
+import org.spongycastle.crypto.PBEParametersGenerator;
+import org.spongycastle.crypto.digests.SHA256Digest;
+import org.spongycastle.crypto.generators.PKCS5S2ParametersGenerator;
+import org.spongycastle.crypto.params.KeyParameter;
+import org.spongycastle.util.encoders.Hex;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import timber.log.Timber;
+
+/**
+ * Holds AES keys derived with PBKDF2 for the rest of the session, so that decrypting the same
+ * ciphertext with the same password again doesn't repeat thousands of iterations on the CPU. This
+ * happens every time the PIN is validated, for example, as the encrypted password and the key
+ * returned by the server don't change between PIN entries.
+ *
+ * Keys are only reusable with the same salt, which for AES-CBC payloads is the IV prepended to the
+ * ciphertext, so there is nothing to gain for data which is re-encrypted on every save. Entries are
+ * stored against a digest of the password, salt and iterations rather than the password itself,
+ * and every key is zeroed by {@link #clear()} on logout.
+ */
+public class DerivedKeyCache {
+
+    private static final int KEY_BIT_LENGTH = 256;
+    private static final int MAX_ENTRIES = 8;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static DerivedKeyCache instance;
+
+    private final Map<String, byte[]> keys = new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true);
+    private int hits;
+    private int misses;
+
+    @VisibleForTesting
+    DerivedKeyCache() {
+        // Empty constructor
+    }
+
+    public static synchronized DerivedKeyCache getInstance() {
+        if (instance == null) {
+            instance = new DerivedKeyCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the PBKDF2-HMAC-SHA1 key for the password, salt and iterations, only running the
+     * derivation if it isn't cached already.
+     *
+     * @param password   The password to derive the key from
+     * @param salt       The salt, ie the IV for payloads encrypted with AES-CBC
+     * @param iterations The number of PBKDF2 iterations
+     * @return A copy of the 256 bit key, which the caller is free to zero once done with it
+     */
+    public byte[] getOrDerive(String password, byte[] salt, int iterations) {
+        String id = toCacheKey(password, salt, iterations);
+
+        synchronized (this) {
+            byte[] key = keys.get(id);
+            if (key != null) {
+                hits++;
+                return key.clone();
+            }
+            misses++;
+        }
+
+        long start = System.currentTimeMillis();
+        byte[] key = derive(password, salt, iterations);
+        Timber.d("Derived key with %d iterations in %d ms", iterations, System.currentTimeMillis() - start);
+
+        synchronized (this) {
+            byte[] previous = keys.put(id, key.clone());
+            if (previous != null) Arrays.fill(previous, (byte) 0);
+            evictEldestIfFull();
+        }
+        return key;
+    }
+
+    /**
+     * Zeroes and removes every cached key. Must be called whenever the session ends.
+     */
+    public synchronized void clear() {
+        for (byte[] key : keys.values()) {
+            Arrays.fill(key, (byte) 0);
+        }
+        keys.clear();
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    private void evictEldestIfFull() {
+        Iterator<byte[]> iterator = keys.values().iterator();
+        while (keys.size() > MAX_ENTRIES && iterator.hasNext()) {
+            Arrays.fill(iterator.next(), (byte) 0);
+            iterator.remove();
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEParametersGenerator generator = new PKCS5S2ParametersGenerator();
+        generator.init(PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(password.toCharArray()), salt, iterations);
+        return ((KeyParameter) generator.generateDerivedParameters(KEY_BIT_LENGTH)).getKey();
+    }
+
+    private static String toCacheKey(String password, byte[] salt, int iterations) {
+        SHA256Digest digest = new SHA256Digest();
+        byte[] passwordBytes = password.getBytes(UTF_8);
+        digest.update(passwordBytes, 0, passwordBytes.length);
+        digest.update(salt, 0, salt.length);
+        digest.update((byte) (iterations >>> 24));
+        digest.update((byte) (iterations >>> 16));
+        digest.update((byte) (iterations >>> 8));
+        digest.update((byte) iterations);
+        byte[] out = new byte[digest.getDigestSize()];
+        digest.doFinal(out, 0);
+        Arrays.fill(passwordBytes, (byte) 0);
+        return Hex.toHexString(out);
+    }
+
+}
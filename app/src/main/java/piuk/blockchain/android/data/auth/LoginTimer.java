@@ -0,0 +1,95 @@
+package piuk.blockchain.android.data.auth;
+
+import android.support.annotation.VisibleForTesting;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import timber.log.Timber;
+
+/**
+ * Measures how long it takes from entering a PIN until the dashboard is displayed, split by phase.
+ * The login spans several screens, so this is kept as a singleton in the same way as {@link
+ * piuk.blockchain.android.data.access.AccessState}.
+ */
+public class LoginTimer {
+
+    public enum Phase {
+        /** Round trip to the server which returns the key for the stored password */
+        VALIDATE_ACCESS,
+        /** PBKDF2 and AES decryption of the stored password */
+        DECRYPT_PASSWORD,
+        /** Downloading, decrypting and parsing the wallet payload */
+        DECRYPT_PAYLOAD,
+        /** Restarting into the main screen until it's ready to use */
+        LOAD_DASHBOARD
+    }
+
+    private static final long NOT_STARTED = -1L;
+
+    private static LoginTimer instance;
+
+    private final Map<Phase, Long> durations = new EnumMap<>(Phase.class);
+    private Map<Phase, Long> lastTimings = Collections.emptyMap();
+    private long startedAt = NOT_STARTED;
+    private long lastMarkAt;
+
+    @VisibleForTesting
+    LoginTimer() {
+        // Empty constructor
+    }
+
+    public static synchronized LoginTimer getInstance() {
+        if (instance == null) {
+            instance = new LoginTimer();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts timing a new login, discarding any login which didn't finish.
+     */
+    public synchronized void start() {
+        durations.clear();
+        startedAt = now();
+        lastMarkAt = startedAt;
+    }
+
+    /**
+     * Records the time since the previous phase ended as the duration of this phase. Ignored if no
+     * login is being timed, eg when the app is opened without entering a PIN.
+     */
+    public synchronized void mark(Phase phase) {
+        if (startedAt == NOT_STARTED) return;
+
+        long now = now();
+        durations.put(phase, now - lastMarkAt);
+        lastMarkAt = now;
+    }
+
+    /**
+     * Records {@link Phase#LOAD_DASHBOARD} and logs the breakdown of the whole login.
+     */
+    public synchronized void finish() {
+        if (startedAt == NOT_STARTED) return;
+
+        mark(Phase.LOAD_DASHBOARD);
+        Timber.d("PIN to dashboard in %d ms: %s", lastMarkAt - startedAt, durations);
+        lastTimings = Collections.unmodifiableMap(new EnumMap<>(durations));
+        startedAt = NOT_STARTED;
+    }
+
+    /**
+     * Returns the duration in milliseconds of each phase of the last finished login.
+     */
+    public synchronized Map<Phase, Long> getLastTimings() {
+        return lastTimings;
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+}
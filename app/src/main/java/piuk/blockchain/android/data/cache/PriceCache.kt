@@ -0,0 +1,155 @@
+package piuk.blockchain.android.data.cache
+
+import com.fasterxml.jackson.core.type.TypeReference
+import info.blockchain.api.data.TickerItem
+import piuk.blockchain.android.data.api.SharedObjectMapper
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.util.PrefsUtil
+import piuk.blockchain.android.util.annotations.Mockable
+import timber.log.Timber
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Holds the most recent BTC and ETH tickers, for
+ * [piuk.blockchain.android.util.ExchangeRateFactory].
+ *
+ * Tickers are replaced as a whole by [update] and read without locking, so prices can be read on
+ * every bind. The last price of every currency is persisted as a single snapshot so that it
+ * survives the app being killed, which is only written when a price has changed.
+ *
+ * @param prefsUtil Where the last prices are persisted
+ * @param timeToLive The time in milliseconds after an [update] that the tickers become stale
+ * @param clock Returns the current time in milliseconds, replaceable for testing
+ */
+@Mockable
+class PriceCache @JvmOverloads constructor(
+        private val prefsUtil: PrefsUtil,
+        val timeToLive: Long = DEFAULT_TIME_TO_LIVE,
+        private val clock: () -> Long = { System.currentTimeMillis() }
+) {
+
+    private val snapshot = AtomicReference<PriceSnapshot?>()
+    private val lastPrices = AtomicReference<Map<String, Map<String, Double>>?>()
+
+    /**
+     * Returns true if tickers have been fetched within the [timeToLive].
+     */
+    fun isFresh(): Boolean = getTimeUntilStale() > 0
+
+    /**
+     * Returns the time in milliseconds until the held tickers become stale, or 0 if they already
+     * are or there are none.
+     */
+    fun getTimeUntilStale(): Long {
+        val current = snapshot.get() ?: return 0
+        return Math.max(0, current.fetchedAt + timeToLive - clock())
+    }
+
+    /**
+     * Returns the held tickers regardless of their age, or null if none have been fetched.
+     */
+    fun getSnapshot(): PriceSnapshot? = snapshot.get()
+
+    /**
+     * Replaces the held tickers, and persists their last prices if any have changed.
+     *
+     * @return The new [PriceSnapshot]
+     */
+    fun update(btc: Map<String, TickerItem>, eth: Map<String, TickerItem>): PriceSnapshot {
+        val updated = PriceSnapshot(btc, eth, clock())
+        snapshot.set(updated)
+
+        val prices = updated.lastPrices
+        if (prices != getLastPrices()) {
+            lastPrices.set(prices)
+            writeLastPrices(prices)
+        }
+        return updated
+    }
+
+    /**
+     * Returns the last price of a cryptocurrency in a fiat currency, from the held tickers if
+     * they contain one, otherwise the last persisted price, otherwise 0.0.
+     */
+    fun getLastPrice(currency: String, cryptoCurrency: CryptoCurrencies): Double {
+        snapshot.get()?.getLastPrice(currency, cryptoCurrency)?.let { return it }
+
+        return getLastPrices()?.get(cryptoCurrency.symbol)?.get(currency)
+                ?: readLegacyPrice(currency, cryptoCurrency)
+    }
+
+    /**
+     * Returns the ticker for a fiat currency, or null if none has been fetched.
+     */
+    fun getTickerItem(currency: String, cryptoCurrency: CryptoCurrencies): TickerItem? =
+            snapshot.get()?.getTickerItem(currency, cryptoCurrency)
+
+    /**
+     * Returns every fiat currency with a BTC price, from the held tickers if there are any,
+     * otherwise from the persisted prices.
+     */
+    fun getCurrencies(): Set<String> = snapshot.get()?.btc?.keys
+            ?: getLastPrices()?.get(CryptoCurrencies.BTC.symbol)?.keys
+            ?: emptySet()
+
+    private fun getLastPrices(): Map<String, Map<String, Double>>? {
+        lastPrices.get()?.let { return it }
+        // Racing reads parse the same snapshot, so whichever is set first is equivalent
+        val persisted = readLastPrices() ?: return null
+        lastPrices.compareAndSet(null, persisted)
+        return lastPrices.get()
+    }
+
+    private fun readLastPrices(): Map<String, Map<String, Double>>? {
+        val json = prefsUtil.getValue(PREF_LAST_KNOWN_PRICES, "")
+        if (json.isEmpty()) return null
+
+        return try {
+            SharedObjectMapper.getInstance().readValue(json, LAST_PRICES_TYPE)
+        } catch (e: Exception) {
+            Timber.e(e, "Unable to read last known prices, discarding")
+            prefsUtil.removeValue(PREF_LAST_KNOWN_PRICES)
+            null
+        }
+    }
+
+    private fun writeLastPrices(prices: Map<String, Map<String, Double>>) {
+        try {
+            prefsUtil.setValue(
+                    PREF_LAST_KNOWN_PRICES,
+                    SharedObjectMapper.getInstance().writeValueAsString(prices)
+            )
+        } catch (e: Exception) {
+            Timber.e(e, "Unable to write last known prices")
+        }
+    }
+
+    /**
+     * Prices were once persisted under a key per currency, which are still read until the first
+     * snapshot has been written.
+     */
+    private fun readLegacyPrice(currency: String, cryptoCurrency: CryptoCurrencies): Double {
+        val prefix = when (cryptoCurrency) {
+            CryptoCurrencies.BTC -> PREF_LEGACY_BTC_PRICE
+            CryptoCurrencies.ETHER -> PREF_LEGACY_ETH_PRICE
+            else -> throw IllegalArgumentException("BCC is not currently supported")
+        }
+        return prefsUtil.getValue("$prefix$currency", "0.0").toDouble()
+    }
+
+    companion object {
+
+        /**
+         * Prices on the ticker endpoint are updated every minute.
+         */
+        const val DEFAULT_TIME_TO_LIVE = 60_000L
+
+        private const val PREF_LAST_KNOWN_PRICES = "LAST_KNOWN_PRICES"
+        private const val PREF_LEGACY_BTC_PRICE = "LAST_KNOWN_BTC_VALUE_FOR_CURRENCY_"
+        private const val PREF_LEGACY_ETH_PRICE = "LAST_KNOWN_ETH_VALUE_FOR_CURRENCY_"
+
+        private val LAST_PRICES_TYPE = object : TypeReference<Map<String, Map<String, Double>>>() {}
+
+    }
+
+}
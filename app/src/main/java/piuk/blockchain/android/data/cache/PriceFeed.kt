@@ -0,0 +1,92 @@
+package piuk.blockchain.android.data.cache
+
+import io.reactivex.Completable
+import io.reactivex.Observable
+import io.reactivex.Scheduler
+import io.reactivex.android.schedulers.AndroidSchedulers
+import io.reactivex.functions.BiFunction
+import io.reactivex.schedulers.Schedulers
+import piuk.blockchain.android.util.ApplicationLifeCycle
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+
+/**
+ * Polls for prices while the app is in the foreground, and emits a [PriceSnapshot] on the main
+ * thread whenever they change.
+ *
+ * Tickers are refreshed each time those held by the [PriceCache] go stale, so refreshes made
+ * elsewhere push the next poll back rather than adding to it. Failed refreshes are retried with
+ * an exponential backoff. Polling stops when the app goes to the background and resumes, with a
+ * refresh if the held tickers went stale meanwhile, when it returns.
+ *
+ * Every subscriber shares one poll, and is sent the latest snapshot on subscribing.
+ *
+ * @param priceCache Holds the tickers, and is updated by [refresh]
+ * @param refresh Fetches the latest tickers into the [priceCache]
+ * @param foreground Emits true when the app enters the foreground and false when it leaves, see
+ * [foregroundOf]
+ * @param scheduler The [Scheduler] for waiting between polls, replaceable for testing
+ */
+class PriceFeed @JvmOverloads constructor(
+        private val priceCache: PriceCache,
+        private val refresh: Completable,
+        foreground: Observable<Boolean>,
+        private val scheduler: Scheduler = Schedulers.computation()
+) {
+
+    val prices: Observable<PriceSnapshot> = foreground.distinctUntilChanged()
+            .switchMap { if (it) poll() else Observable.empty() }
+            .distinctUntilChanged { previous, current -> previous.hasSamePrices(current) }
+            .observeOn(AndroidSchedulers.mainThread())
+            .replay(1)
+            .refCount()
+
+    private fun poll(): Observable<PriceSnapshot> = Observable.defer {
+        val snapshot = priceCache.getSnapshot()
+        if (snapshot != null && priceCache.isFresh()) {
+            Observable.just(snapshot)
+        } else {
+            refresh.andThen(Observable.fromCallable { priceCache.getSnapshot()!! })
+        }
+    }.retryWhen { errors ->
+        errors.zipWith(
+                Observable.range(1, Int.MAX_VALUE),
+                BiFunction<Throwable, Int, Int> { throwable, attempt ->
+                    Timber.e(throwable, "Unable to refresh prices, attempt %d", attempt)
+                    attempt
+                }
+        ).flatMap { Observable.timer(getRetryDelay(it), TimeUnit.MILLISECONDS, scheduler) }
+    }.repeatWhen { completions ->
+        completions.flatMap {
+            Observable.timer(priceCache.getTimeUntilStale(), TimeUnit.MILLISECONDS, scheduler)
+        }
+    }
+
+    companion object {
+
+        internal const val INITIAL_RETRY_DELAY = 5_000L
+        internal const val MAX_RETRY_DELAY = 300_000L
+
+        internal fun getRetryDelay(attempt: Int): Long =
+                Math.min(INITIAL_RETRY_DELAY shl Math.min(attempt - 1, 16), MAX_RETRY_DELAY)
+
+        /**
+         * Returns an [Observable] which emits whether the app is in the foreground on subscribing,
+         * then each time that changes.
+         */
+        @JvmStatic
+        fun foregroundOf(lifeCycle: ApplicationLifeCycle): Observable<Boolean> =
+                Observable.create { emitter ->
+                    val listener = object : ApplicationLifeCycle.LifeCycleListener {
+                        override fun onBecameForeground() = emitter.onNext(true)
+
+                        override fun onBecameBackground() = emitter.onNext(false)
+                    }
+                    lifeCycle.addListener(listener)
+                    emitter.setCancellable { lifeCycle.removeListener(listener) }
+                    emitter.onNext(lifeCycle.isForeground)
+                }
+
+    }
+
+}
@@ -0,0 +1,48 @@
+package piuk.blockchain.android.data.cache
+
+import info.blockchain.api.data.TickerItem
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+
+/**
+ * The BTC and ETH tickers fetched together, keyed by fiat currency.
+ *
+ * @param fetchedAt The time in milliseconds at which the tickers were fetched
+ */
+class PriceSnapshot(
+        val btc: Map<String, TickerItem>,
+        val eth: Map<String, TickerItem>,
+        val fetchedAt: Long
+) {
+
+    /**
+     * The last price of every fiat currency with one, keyed by cryptocurrency symbol. Computed
+     * up front, as snapshots are read from other threads once published by the [PriceCache].
+     */
+    val lastPrices: Map<String, Map<String, Double>> = mapOf(
+            CryptoCurrencies.BTC.symbol to btc.toLastPrices(),
+            CryptoCurrencies.ETHER.symbol to eth.toLastPrices()
+    )
+
+    /**
+     * Returns the last price of a cryptocurrency in a fiat currency, or null if there isn't one.
+     */
+    fun getLastPrice(currency: String, cryptoCurrency: CryptoCurrencies): Double? =
+            lastPrices[cryptoCurrency.symbol]?.get(currency)
+
+    fun getTickerItem(currency: String, cryptoCurrency: CryptoCurrencies): TickerItem? =
+            when (cryptoCurrency) {
+                CryptoCurrencies.BTC -> btc[currency]
+                CryptoCurrencies.ETHER -> eth[currency]
+                else -> throw IllegalArgumentException("BCC is not currently supported")
+            }
+
+    /**
+     * Returns true if every last price matches those of [other], regardless of when either was
+     * fetched.
+     */
+    fun hasSamePrices(other: PriceSnapshot): Boolean = lastPrices == other.lastPrices
+
+    private fun Map<String, TickerItem>.toLastPrices(): Map<String, Double> =
+            filterValues { (it.last ?: 0.0) > 0.0 }.mapValues { it.value.last }
+
+}
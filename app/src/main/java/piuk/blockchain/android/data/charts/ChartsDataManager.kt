@@ -27,7 +27,7 @@ class ChartsDataManager(private val historicPriceApi: PriceApi, rxBus: RxBus) {
      * @return A stream of [ChartDatumDto] objects via an [Observable]
      */
     fun getAllTimePrice(cryptoCurrency: CryptoCurrencies, fiatCurrency: String): Observable<ChartDatumDto> =
-            rxPinning.call<ChartDatumDto> {
+            rxPinning.call<ChartDatumDto>("ChartsDataManager.getAllTimePrice") {
                 getHistoricPriceObservable(cryptoCurrency, fiatCurrency, TimeSpan.ALL_TIME)
             }
 
@@ -41,7 +41,7 @@ class ChartsDataManager(private val historicPriceApi: PriceApi, rxBus: RxBus) {
      * @return A stream of [ChartDatumDto] objects via an [Observable]
      */
     fun getYearPrice(cryptoCurrency: CryptoCurrencies, fiatCurrency: String): Observable<ChartDatumDto> =
-            rxPinning.call<ChartDatumDto> {
+            rxPinning.call<ChartDatumDto>("ChartsDataManager.getYearPrice") {
                 getHistoricPriceObservable(cryptoCurrency, fiatCurrency, TimeSpan.YEAR)
             }
 
@@ -55,7 +55,7 @@ class ChartsDataManager(private val historicPriceApi: PriceApi, rxBus: RxBus) {
      * @return A stream of [ChartDatumDto] objects via an [Observable]
      */
     fun getMonthPrice(cryptoCurrency: CryptoCurrencies, fiatCurrency: String): Observable<ChartDatumDto> =
-            rxPinning.call<ChartDatumDto> {
+            rxPinning.call<ChartDatumDto>("ChartsDataManager.getMonthPrice") {
                 getHistoricPriceObservable(cryptoCurrency, fiatCurrency, TimeSpan.MONTH)
             }
 
@@ -69,7 +69,7 @@ class ChartsDataManager(private val historicPriceApi: PriceApi, rxBus: RxBus) {
      * @return A stream of [ChartDatumDto] objects via an [Observable]
      */
     fun getWeekPrice(cryptoCurrency: CryptoCurrencies, fiatCurrency: String): Observable<ChartDatumDto> =
-            rxPinning.call<ChartDatumDto> {
+            rxPinning.call<ChartDatumDto>("ChartsDataManager.getWeekPrice") {
                 getHistoricPriceObservable(cryptoCurrency, fiatCurrency, TimeSpan.WEEK)
             }
 
@@ -83,7 +83,7 @@ class ChartsDataManager(private val historicPriceApi: PriceApi, rxBus: RxBus) {
      * @return A stream of [ChartDatumDto] objects via an [Observable]
      */
     fun getDayPrice(cryptoCurrency: CryptoCurrencies, fiatCurrency: String): Observable<ChartDatumDto> =
-            rxPinning.call<ChartDatumDto> {
+            rxPinning.call<ChartDatumDto>("ChartsDataManager.getDayPrice") {
                 getHistoricPriceObservable(cryptoCurrency, fiatCurrency, TimeSpan.DAY)
             }
     //endregion
@@ -59,7 +59,7 @@ class ContactsDataManager(
      * @return A [Completable] object, ie an asynchronous void operation
      */
     fun initContactsService(metadataNode: DeterministicKey, sharedMetadataNode: DeterministicKey): Completable {
-        return rxPinning.call { contactsService.initContactsService(metadataNode, sharedMetadataNode) }
+        return rxPinning.call("ContactsDataManager.initContactsService") { contactsService.initContactsService(metadataNode, sharedMetadataNode) }
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -67,7 +67,7 @@ class ContactsDataManager(
      * Invalidates the access token for re-authing, if needed.
      */
     private fun invalidate(): Completable {
-        return rxPinning.call { contactsService.invalidate() }
+        return rxPinning.call("ContactsDataManager.invalidate") { contactsService.invalidate() }
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -82,7 +82,7 @@ class ContactsDataManager(
      * @return A [Completable] object, ie an asynchronous void operation
      */
     fun fetchContacts(): Completable {
-        return rxPinning.call { contactsService.fetchContacts() }
+        return rxPinning.call("ContactsDataManager.fetchContacts") { contactsService.fetchContacts() }
                 .andThen(contactsService.getContactList())
                 .doOnNext { contact ->
                     contactsMapStore.displayMap.putAll(
@@ -109,7 +109,7 @@ class ContactsDataManager(
      * @return A [Completable] object, ie an asynchronous void operation≈≈
      */
     fun saveContacts(): Completable {
-        return rxPinning.call { contactsService.saveContacts() }
+        return rxPinning.call("ContactsDataManager.saveContacts") { contactsService.saveContacts() }
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -119,7 +119,7 @@ class ContactsDataManager(
      * @return A [Completable] object, ie an asynchronous void operation
      */
     fun wipeContacts(): Completable {
-        return rxPinning.call { contactsService.wipeContacts() }
+        return rxPinning.call("ContactsDataManager.wipeContacts") { contactsService.wipeContacts() }
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -138,7 +138,7 @@ class ContactsDataManager(
      * @return A stream of [Contact] objects
      */
     fun getContactsWithUnreadPaymentRequests(): Observable<Contact> =
-            callWithToken(contactsService.getContactsWithUnreadPaymentRequests())
+            callWithToken("ContactsDataManager.getContactsWithUnreadPaymentRequests", contactsService.getContactsWithUnreadPaymentRequests())
                     .compose(RxUtil.applySchedulersToObservable())
 
     /**
@@ -149,7 +149,7 @@ class ContactsDataManager(
      * @return A [Completable] object, ie an asynchronous void operation
      */
     fun addContact(contact: Contact): Completable {
-        return rxPinning.call { contactsService.addContact(contact) }
+        return rxPinning.call("ContactsDataManager.addContact") { contactsService.addContact(contact) }
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -161,7 +161,7 @@ class ContactsDataManager(
      * @return A [Completable] object, ie an asynchronous void operation
      */
     fun removeContact(contact: Contact): Completable {
-        return rxPinning.call { contactsService.removeContact(contact) }
+        return rxPinning.call("ContactsDataManager.removeContact") { contactsService.removeContact(contact) }
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -174,7 +174,7 @@ class ContactsDataManager(
      * @return A [Completable] object, ie an asynchronous void operation
      */
     fun renameContact(contactId: String, name: String): Completable {
-        return rxPinning.call { contactsService.renameContact(contactId, name) }
+        return rxPinning.call("ContactsDataManager.renameContact") { contactsService.renameContact(contactId, name) }
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -192,7 +192,7 @@ class ContactsDataManager(
      * it's the sender's own contact details
      */
     fun createInvitation(myDetails: Contact, recipientDetails: Contact): Observable<Contact> {
-        return callWithToken(contactsService.createInvitation(myDetails, recipientDetails))
+        return callWithToken("ContactsDataManager.createInvitation", contactsService.createInvitation(myDetails, recipientDetails))
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
@@ -204,7 +204,7 @@ class ContactsDataManager(
      * @return A [Contact] object representing the other user
      */
     fun acceptInvitation(invitationUrl: String): Observable<Contact> {
-        return callWithToken(contactsService.acceptInvitation(invitationUrl))
+        return callWithToken("ContactsDataManager.acceptInvitation", contactsService.acceptInvitation(invitationUrl))
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
@@ -216,7 +216,7 @@ class ContactsDataManager(
      * @return An [Observable] wrapping a Contact
      */
     fun readInvitationLink(url: String): Observable<Contact> {
-        return callWithToken(contactsService.readInvitationLink(url))
+        return callWithToken("ContactsDataManager.readInvitationLink", contactsService.readInvitationLink(url))
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
@@ -229,7 +229,7 @@ class ContactsDataManager(
      * been accepted
      */
     fun readInvitationSent(contact: Contact): Observable<Boolean> {
-        return callWithToken(contactsService.readInvitationSent(contact))
+        return callWithToken("ContactsDataManager.readInvitationSent", contactsService.readInvitationSent(contact))
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
@@ -247,7 +247,7 @@ class ContactsDataManager(
      * @return A [Completable] object
      */
     fun requestSendPayment(mdid: String, request: PaymentRequest): Completable {
-        return callWithToken(contactsService.requestSendPayment(mdid, request))
+        return callWithToken("ContactsDataManager.requestSendPayment", contactsService.requestSendPayment(mdid, request))
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -261,7 +261,7 @@ class ContactsDataManager(
      * @return A [Completable] object
      */
     fun requestReceivePayment(mdid: String, request: RequestForPaymentRequest): Completable {
-        return callWithToken(contactsService.requestReceivePayment(mdid, request))
+        return callWithToken("ContactsDataManager.requestReceivePayment", contactsService.requestReceivePayment(mdid, request))
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -276,7 +276,7 @@ class ContactsDataManager(
      * @return A [Completable] object
      */
     fun sendPaymentRequestResponse(mdid: String, paymentRequest: PaymentRequest, facilitatedTxId: String): Completable {
-        return callWithToken(contactsService.sendPaymentRequestResponse(mdid, paymentRequest, facilitatedTxId))
+        return callWithToken("ContactsDataManager.sendPaymentRequestResponse", contactsService.sendPaymentRequestResponse(mdid, paymentRequest, facilitatedTxId))
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -290,7 +290,7 @@ class ContactsDataManager(
      * @return A [Completable] object
      */
     fun sendPaymentBroadcasted(mdid: String, txHash: String, facilitatedTxId: String): Completable {
-        return callWithToken(contactsService.sendPaymentBroadcasted(mdid, txHash, facilitatedTxId))
+        return callWithToken("ContactsDataManager.sendPaymentBroadcasted", contactsService.sendPaymentBroadcasted(mdid, txHash, facilitatedTxId))
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -303,7 +303,7 @@ class ContactsDataManager(
      * @return A [Completable] object
      */
     fun sendPaymentDeclinedResponse(mdid: String, fctxId: String): Completable {
-        return callWithToken(contactsService.sendPaymentDeclinedResponse(mdid, fctxId))
+        return callWithToken("ContactsDataManager.sendPaymentDeclinedResponse", contactsService.sendPaymentDeclinedResponse(mdid, fctxId))
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -316,7 +316,7 @@ class ContactsDataManager(
      * @return A [Completable] object
      */
     fun sendPaymentCancelledResponse(mdid: String, fctxId: String): Completable {
-        return callWithToken(contactsService.sendPaymentCancelledResponse(mdid, fctxId))
+        return callWithToken("ContactsDataManager.sendPaymentCancelledResponse", contactsService.sendPaymentCancelledResponse(mdid, fctxId))
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -333,7 +333,7 @@ class ContactsDataManager(
      * @return A [Observable] wrapping a String
      */
     fun fetchXpub(mdid: String): Observable<String> {
-        return rxPinning.call<String> { contactsService.fetchXpub(mdid) }
+        return rxPinning.call<String>("ContactsDataManager.fetchXpub") { contactsService.fetchXpub(mdid) }
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
@@ -343,7 +343,7 @@ class ContactsDataManager(
      * @return A [Completable] object, ie an asynchronous void operation
      */
     fun publishXpub(): Completable {
-        return rxPinning.call { contactsService.publishXpub() }
+        return rxPinning.call("ContactsDataManager.publishXpub") { contactsService.publishXpub() }
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -360,7 +360,7 @@ class ContactsDataManager(
      * @return An [Observable] wrapping a list of Message objects
      */
     fun getMessages(onlyNew: Boolean): Observable<List<Message>> {
-        return callWithToken(contactsService.getMessages(onlyNew))
+        return callWithToken("ContactsDataManager.getMessages", contactsService.getMessages(onlyNew))
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
@@ -372,7 +372,7 @@ class ContactsDataManager(
      * @return An [Observable] wrapping a [Message]
      */
     fun readMessage(messageId: String): Observable<Message> {
-        return callWithToken(contactsService.readMessage(messageId))
+        return callWithToken("ContactsDataManager.readMessage", contactsService.readMessage(messageId))
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
@@ -385,7 +385,7 @@ class ContactsDataManager(
      * @return A [Completable] object, ie an asynchronous void operation
      */
     fun markMessageAsRead(messageId: String, markAsRead: Boolean): Completable {
-        return callWithToken(contactsService.markMessageAsRead(messageId, markAsRead))
+        return callWithToken("ContactsDataManager.markMessageAsRead", contactsService.markMessageAsRead(messageId, markAsRead))
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -454,7 +454,7 @@ class ContactsDataManager(
      * @return A [Completable] object, ie an asynchronous void operation
      */
     fun deleteFacilitatedTransaction(mdid: String, fctxId: String): Completable {
-        return callWithToken(contactsService.deleteFacilitatedTransaction(mdid, fctxId))
+        return callWithToken("ContactsDataManager.deleteFacilitatedTransaction", contactsService.deleteFacilitatedTransaction(mdid, fctxId))
                 .compose(RxUtil.applySchedulersToCompletable())
     }
 
@@ -482,8 +482,8 @@ class ContactsDataManager(
      * function again, which will trigger getting another access token. Called via [RxPinning]
      * which propagates an error to the UI when SSL pinning fails.
      */
-    private fun <T> callWithToken(observable: Observable<T>): Observable<T> {
-        return rxPinning.call<T> { getRetry(observable) }
+    private fun <T> callWithToken(operation: String, observable: Observable<T>): Observable<T> {
+        return rxPinning.call<T>(operation) { getRetry(observable) }
     }
 
     /**
@@ -491,8 +491,8 @@ class ContactsDataManager(
      * function again, which will trigger getting another access token. Called via [RxPinning]
      * which propagates an error to the UI when SSL pinning fails.
      */
-    private fun callWithToken(completable: Completable): Completable {
-        return rxPinning.call { getRetry(completable) }
+    private fun callWithToken(operation: String, completable: Completable): Completable {
+        return rxPinning.call(operation) { getRetry(completable) }
     }
 
     private fun <T> getRetry(observable: Observable<T>): Observable<T> {
@@ -25,7 +25,7 @@ public class FeeDataManager {
      * @return An {@link Observable} wrapping a {@link FeeOptions} object
      */
     public Observable<FeeOptions> getBtcFeeOptions() {
-        return rxPinning.call(() -> feeApi.getFeeOptions())
+        return rxPinning.call("FeeDataManager.getBtcFeeOptions", () -> feeApi.getFeeOptions())
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -36,7 +36,7 @@ public class FeeDataManager {
      * @return An {@link Observable} wrapping a {@link FeeOptions} object
      */
     public Observable<FeeOptions> getEthFeeOptions() {
-        return rxPinning.call(() -> feeApi.getEthFeeOptions())
+        return rxPinning.call("FeeDataManager.getEthFeeOptions", () -> feeApi.getEthFeeOptions())
                 .compose(RxUtil.applySchedulersToObservable());
     }
 }
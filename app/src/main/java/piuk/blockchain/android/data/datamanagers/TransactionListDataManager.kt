@@ -2,25 +2,49 @@ package piuk.blockchain.android.data.datamanagers
 
 import info.blockchain.wallet.payload.PayloadManager
 import info.blockchain.wallet.util.FormatsUtil
+import io.reactivex.Maybe
 import io.reactivex.Observable
 import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
 import piuk.blockchain.android.data.ethereum.EthDataManager
 import piuk.blockchain.android.data.rxjava.RxUtil
+import piuk.blockchain.android.data.stores.TransactionDiskStore
 import piuk.blockchain.android.data.stores.TransactionListStore
 import piuk.blockchain.android.data.transactions.BtcDisplayable
 import piuk.blockchain.android.data.transactions.Displayable
+import piuk.blockchain.android.data.transactions.DisplayableDateComparator
 import piuk.blockchain.android.data.transactions.EthDisplayable
+import piuk.blockchain.android.data.transactions.TransactionCursor
 import piuk.blockchain.android.ui.account.ItemAccount
 import piuk.blockchain.android.util.annotations.Mockable
+import timber.log.Timber
 import java.util.*
 
 @Mockable
 class TransactionListDataManager(
         private val payloadManager: PayloadManager,
         private val ethDataManager: EthDataManager,
-        private val transactionListStore: TransactionListStore
+        private val transactionListStore: TransactionListStore,
+        private val transactionDiskStore: TransactionDiskStore
 ) {
 
+    private val pageLoadTimes = ArrayDeque<Long>()
+    @Volatile private var cursor: TransactionCursor? = null
+    @Volatile private var nextOffset = 0
+    @Volatile private var hasMorePages = true
+    @Volatile private var isLoadingPage = false
+
+    /**
+     * Fetches a page of Txs for the given [ItemAccount] and stores them in memory. If this is the
+     * first page and nothing has been loaded yet, the Txs persisted from a previous session are
+     * emitted first so that the UI can render immediately, followed by the network result. The
+     * first page is then written back to disk for next time.
+     *
+     * @param itemAccount The account to fetch Txs for
+     * @param limit The maximum number of Txs to return
+     * @param offset The number of Txs to skip
+     * @return An [Observable] emitting the updated, sorted list of Txs
+     */
     fun fetchTransactions(itemAccount: ItemAccount, limit: Int, offset: Int): Observable<List<Displayable>> {
         val observable: Observable<List<Displayable>> = when (itemAccount.type) {
             ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY -> getAllTransactionsObservable(limit, offset)
@@ -33,12 +57,68 @@ class TransactionListDataManager(
             }
         }
 
-        return observable.doOnNext { insertTransactionList(it.toMutableList()) }
-                .map { transactionListStore.list }
+        val accountKey = getAccountKey(itemAccount)
+        val network = Observable.defer {
+            val startTime = System.currentTimeMillis()
+            observable.doOnNext { recordPageLoadTime(System.currentTimeMillis() - startTime) }
+        }.doOnNext {
+            if (offset == 0) transactionDiskStore.write(accountKey, it)
+            updatePagingState(itemAccount, it, limit, offset)
+            insertTransactionList(it, offset)
+        }.map { transactionListStore.list }
                 .doOnError { emptyList<Displayable>() }
-                .compose(RxUtil.applySchedulersToObservable())
+                .subscribeOn(Schedulers.io())
+
+        return if (offset == 0 && transactionListStore.list.isEmpty()) {
+            // Emit cached Txs until the network responds, but never after
+            network.publish { fresh ->
+                Observable.merge(fresh, getPersistedTransactionsObservable(accountKey).takeUntil(fresh))
+            }
+        } else {
+            network
+        }.compose(RxUtil.applySchedulersToObservable())
+    }
+
+    /**
+     * Fetches the next page of Txs for the given [ItemAccount], following on from those already
+     * loaded, and merges them into the list. Returns an empty [Observable] if a page is already
+     * loading or the end of the history has been reached. ETH Txs aren't paged, so these always
+     * return empty.
+     *
+     * The API only supports offsets, so the offset is the number of Txs paged so far. If new Txs
+     * arrive between pages the offsets shift, but the resulting duplicates are dropped by hash
+     * when merging. The [TransactionCursor] of the oldest Tx is used to detect when a page makes
+     * no progress, which ends paging.
+     *
+     * At most [MAX_TRANSACTIONS] are held in memory; beyond that the newest are dropped as older
+     * pages arrive, and are loaded again by refreshing from the first page.
+     *
+     * @param itemAccount The account to fetch Txs for
+     * @return An [Observable] emitting the updated, sorted list of Txs
+     */
+    fun fetchNextPage(itemAccount: ItemAccount): Observable<List<Displayable>> = Observable.defer {
+        if (itemAccount.type == ItemAccount.TYPE.ETHEREUM || !hasMorePages || isLoadingPage) {
+            Observable.empty()
+        } else {
+            fetchTransactions(itemAccount, PAGE_SIZE, nextOffset)
+                    .doOnSubscribe { isLoadingPage = true }
+                    .doFinally { isLoadingPage = false }
+        }
     }
 
+    /**
+     * Returns whether or not there may be older Txs left to load via [fetchNextPage].
+     */
+    fun hasMorePages(): Boolean = hasMorePages
+
+    /**
+     * Returns the network time taken to load the most recent pages of Txs in milliseconds,
+     * oldest first. Useful for monitoring how paging performs on slow connections.
+     *
+     * @return A list of up to [MAX_PAGE_LOAD_SAMPLES] load times
+     */
+    fun getPageLoadTimes(): List<Long> = synchronized(pageLoadTimes) { pageLoadTimes.toList() }
+
     /**
      * Returns a list of [Displayable] objects generated by [getTransactionList]
      *
@@ -47,10 +127,18 @@ class TransactionListDataManager(
     fun getTransactionList(): List<Displayable> = transactionListStore.list
 
     /**
-     * Resets the list of Transactions.
+     * Resets the list of Transactions, the index of their hashes and all known confirmations.
      */
     fun clearTransactionList() {
-        transactionListStore.clearList()
+        transactionListStore.clearAll()
+    }
+
+    /**
+     * Deletes all Txs persisted to disk and wipes the session key. Should be called when the
+     * wallet is unpaired.
+     */
+    fun clearPersistedTransactions() {
+        transactionDiskStore.invalidate()
     }
 
     /**
@@ -83,26 +171,82 @@ class TransactionListDataManager(
      * Get a specific [Displayable] from a hash
      *
      * @param transactionHash The hash of the Tx to be returned
-     * @return An Observable object wrapping a Tx. Will call onError if not found with a
-     * NullPointerException
+     * @return A Single object wrapping a Tx. Will call onError if not found with a
+     * NoSuchElementException
      */
     fun getTxFromHash(transactionHash: String): Single<Displayable> =
-            Observable.fromIterable(getTransactionList())
-                    .filter { it.hash == transactionHash }
-                    .firstOrError()
+            Maybe.fromCallable<Displayable> { transactionListStore.getTxFromHash(transactionHash) }
+                    .toSingle()
 
     /**
-     * Returns a [HashMap] where a [Displayable] hash is used as a key against
-     * the confirmation number. This is for displaying the confirmation number in the Contacts page.
-     * Please note that this is deliberately not cleared when switching accounts.
+     * Returns all known [Displayable] objects matching the supplied hashes, in the same order.
+     * Hashes which aren't found are skipped.
+     *
+     * @param transactionHashes A list of Tx hashes
+     * @return A list of matching Txs
      */
-    fun getTxConfirmationsMap(): HashMap<String, Int> = transactionListStore.txConfirmationsMap
+    fun getTxsFromHashes(transactionHashes: List<String>): List<Displayable> =
+            transactionListStore.getTxsFromHashes(transactionHashes)
 
-    private fun insertTransactionList(txList: MutableList<Displayable>) {
-        val pendingTxs = getRemainingPendingTransactionList(txList)
-        clearTransactionList()
-        txList.addAll(pendingTxs)
+    /**
+     * Returns the number of confirmations for a Tx if it has been seen recently, in any account.
+     * This is for displaying the confirmation number in the Contacts page.
+     *
+     * @param transactionHash The hash of the Tx
+     * @return The number of confirmations, or null if the Tx isn't known
+     */
+    fun getTxConfirmations(transactionHash: String): Int? =
+            transactionListStore.getConfirmations(transactionHash)
+
+    private fun updatePagingState(
+            itemAccount: ItemAccount,
+            page: List<Displayable>,
+            limit: Int,
+            offset: Int
+    ) {
+        val previousCursor = if (offset == 0) null else cursor
+        val oldest = page.minBy { it.timeStamp }
+        cursor = oldest?.let { TransactionCursor(it.timeStamp, it.hash) } ?: previousCursor
+        nextOffset = offset + page.size
+
+        hasMorePages = itemAccount.type != ItemAccount.TYPE.ETHEREUM
+                && limit > 0
+                && page.size >= limit
+                && (previousCursor == null || page.any { isPastCursor(it, previousCursor) })
+    }
+
+    /**
+     * Returns true if a Tx is older than the [TransactionCursor], or shares its timestamp but
+     * hasn't been loaded yet. Checking the hash means a page boundary falling between Txs with
+     * the same timestamp doesn't end paging early. Must be called before the page is merged.
+     */
+    private fun isPastCursor(tx: Displayable, cursor: TransactionCursor): Boolean =
+            tx.timeStamp < cursor.timeStamp || (tx.timeStamp == cursor.timeStamp
+                    && tx.hash != cursor.hash
+                    && transactionListStore.getTxFromHash(tx.hash) == null)
+
+    private fun recordPageLoadTime(millis: Long) {
+        Timber.d("Tx page loaded in %d ms", millis)
+        synchronized(pageLoadTimes) {
+            pageLoadTimes.addLast(millis)
+            if (pageLoadTimes.size > MAX_PAGE_LOAD_SAMPLES) pageLoadTimes.removeFirst()
+        }
+    }
+
+    /**
+     * Merges a page of Txs into the store. The first page replaces the list, keeping only pending
+     * Txs that the network doesn't yet know about; subsequent pages are merged into what's there,
+     * dropping the newest Txs beyond [MAX_TRANSACTIONS].
+     */
+    private fun insertTransactionList(txList: List<Displayable>, offset: Int) {
+        if (offset == 0) {
+            val pendingTxs = getRemainingPendingTransactionList(txList)
+            // Keeps confirmations, so that they survive switching accounts
+            transactionListStore.clearList()
+            transactionListStore.insertTransactions(pendingTxs)
+        }
         transactionListStore.insertTransactions(txList)
+        if (offset > 0) transactionListStore.trimNewest(MAX_TRANSACTIONS)
     }
 
     /**
@@ -129,6 +273,23 @@ class TransactionListDataManager(
                 .forEach { pendingMap.remove(it.hash) }
     }
 
+    private fun getPersistedTransactionsObservable(accountKey: String): Observable<List<Displayable>> =
+            Observable.fromCallable { transactionDiskStore.read(accountKey) }
+                    .filter { it.isNotEmpty() }
+                    .map { it.sortedWith(DisplayableDateComparator.INSTANCE) }
+                    .subscribeOn(Schedulers.io())
+
+    private fun getAccountKey(itemAccount: ItemAccount): String = when (itemAccount.type) {
+        ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY -> PayloadManager.MULTI_ADDRESS_ALL
+        ItemAccount.TYPE.ALL_LEGACY -> PayloadManager.MULTI_ADDRESS_ALL_LEGACY
+        ItemAccount.TYPE.ETHEREUM -> KEY_ETHEREUM
+        else -> if (FormatsUtil.isValidXpub(itemAccount.address)) {
+            itemAccount.address!!
+        } else {
+            PayloadManager.MULTI_ADDRESS_ALL_LEGACY
+        }
+    }
+
     private fun getAllTransactionsObservable(limit: Int, offset: Int): Observable<List<Displayable>> =
             Observable.fromCallable {
                 payloadManager.getAllTransactions(limit, offset)
@@ -160,4 +321,20 @@ class TransactionListDataManager(
                         .toObservable()
             }
 
+    companion object {
+
+        /**
+         * The number of Txs requested per page.
+         */
+        const val PAGE_SIZE = 50
+        /**
+         * The maximum number of Txs held in memory while paging, after which the newest are
+         * dropped to make room for older ones.
+         */
+        const val MAX_TRANSACTIONS = 1000
+        private const val MAX_PAGE_LOAD_SAMPLES = 20
+        private const val KEY_ETHEREUM = "eth"
+
+    }
+
 }
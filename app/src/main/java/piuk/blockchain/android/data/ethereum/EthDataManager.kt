@@ -43,15 +43,19 @@ class EthDataManager(
     /**
      * Returns an [EthAddressResponse] object for a given ETH address as an [Observable]. An
      * [CombinedEthModel] contains a list of transactions associated with the account, as well
-     * as a final balance. Calling this function also caches the [CombinedEthModel].
+     * as a final balance. Calling this function also caches the [CombinedEthModel]. Concurrent
+     * callers share a single request.
      *
      * @return An [Observable] wrapping an [CombinedEthModel]
      */
-    fun fetchEthAddress(): Observable<CombinedEthModel> = rxPinning.call<CombinedEthModel> {
-        ethAccountApi.getEthAddress(listOf(ethDataStore.ethWallet!!.account.address))
-                .map(::CombinedEthModel)
-                .doOnNext { ethDataStore.ethAddressResponse = it }
-                .compose(RxUtil.applySchedulersToObservable())
+    fun fetchEthAddress(): Observable<CombinedEthModel> = Observable.defer {
+        val address = ethDataStore.ethWallet!!.account.address
+        rxPinning.callShared<CombinedEthModel>("EthDataManager.fetchEthAddress:$address") {
+            ethAccountApi.getEthAddress(listOf(address))
+                    .map(::CombinedEthModel)
+                    .doOnNext { ethDataStore.ethAddressResponse = it }
+                    .compose(RxUtil.applySchedulersToObservable())
+        }
     }
 
     /**
@@ -113,7 +117,7 @@ class EthDataManager(
      *
      * @return An [Observable] wrapping an [EthLatestBlock]
      */
-    fun getLatestBlock(): Observable<EthLatestBlock> = rxPinning.call<EthLatestBlock> {
+    fun getLatestBlock(): Observable<EthLatestBlock> = rxPinning.call<EthLatestBlock>("EthDataManager.getLatestBlock") {
         ethAccountApi.latestBlock
                 .compose(RxUtil.applySchedulersToObservable())
     }
@@ -126,7 +130,7 @@ class EthDataManager(
      * @param address The ETH address to be queried
      * @return An [Observable] returning true or false based on the address's contract status
      */
-    fun getIfContract(address: String): Observable<Boolean> = rxPinning.call<Boolean> {
+    fun getIfContract(address: String): Observable<Boolean> = rxPinning.call<Boolean>("EthDataManager.getIfContract") {
         ethAccountApi.getIfContract(address)
                 .compose(RxUtil.applySchedulersToObservable())
     }
@@ -142,7 +146,7 @@ class EthDataManager(
      *
      * @return A [Completable] object
      */
-    fun updateTransactionNotes(hash: String, note: String): Completable = rxPinning.call {
+    fun updateTransactionNotes(hash: String, note: String): Completable = rxPinning.call("EthDataManager.updateTransactionNotes") {
         Completable.fromCallable {
             if (ethDataStore.ethWallet != null) {
                 ethDataStore.ethWallet?.let {
@@ -165,7 +169,7 @@ class EthDataManager(
     fun initEthereumWallet(
             metadataNode: DeterministicKey,
             defaultLabel: String
-    ): Observable<EthereumWallet> = rxPinning.call<EthereumWallet> {
+    ): Observable<EthereumWallet> = rxPinning.call<EthereumWallet>("EthDataManager.initEthereumWallet") {
         Observable.fromCallable { fetchOrCreateEthereumWallet(metadataNode, defaultLabel) }
                 .doOnNext { ethDataStore.ethWallet = it }
                 .compose(RxUtil.applySchedulersToObservable())
@@ -197,12 +201,12 @@ class EthDataManager(
                 ethDataStore.ethWallet!!.account!!.signTransaction(rawTransaction, ecKey)
             }
 
-    fun pushEthTx(signedTxBytes: ByteArray): Observable<String> = rxPinning.call<String> {
+    fun pushEthTx(signedTxBytes: ByteArray): Observable<String> = rxPinning.call<String>("EthDataManager.pushEthTx") {
         ethAccountApi.pushTx("0x" + String(Hex.encode(signedTxBytes)))
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
-    fun setLastTxHashObservable(txHash: String): Observable<String> = rxPinning.call<String> {
+    fun setLastTxHashObservable(txHash: String): Observable<String> = rxPinning.call<String>("EthDataManager.setLastTxHashObservable") {
         Observable.fromCallable { setLastTxHash(txHash) }
                 .compose(RxUtil.applySchedulersToObservable())
     }
@@ -4,6 +4,7 @@ import info.blockchain.wallet.ethereum.data.EthAddressResponse
 import info.blockchain.wallet.ethereum.data.EthAddressResponseMap
 import info.blockchain.wallet.ethereum.data.EthTransaction
 import piuk.blockchain.android.util.annotations.Mockable
+import piuk.blockchain.android.util.helperfunctions.unsafeLazy
 import java.math.BigInteger
 
 /**
@@ -12,6 +13,11 @@ import java.math.BigInteger
 @Mockable
 class CombinedEthModel(private val ethAddressResponseMap: EthAddressResponseMap) {
 
+    // The response is never modified, so the account list is only built once per model
+    private val accounts: List<String> by unsafeLazy {
+        ethAddressResponseMap.ethAddressResponseMap.values.map { it.account }
+    }
+
     fun getTotalBalance(): BigInteger {
         val values = ethAddressResponseMap.ethAddressResponseMap.values
         var total = BigInteger.ZERO
@@ -48,8 +54,7 @@ class CombinedEthModel(private val ethAddressResponseMap: EthAddressResponseMap)
         return null
     }
 
-    fun getAccounts(): List<String> =
-            ethAddressResponseMap.ethAddressResponseMap.values.map { it.account }
+    fun getAccounts(): List<String> = accounts
 
     fun getNonce(): BigInteger {
         return BigInteger.valueOf(getAddressResponse()!!.nonce.toLong())
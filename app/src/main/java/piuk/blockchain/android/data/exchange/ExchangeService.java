@@ -1,6 +1,7 @@
 package piuk.blockchain.android.data.exchange;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import info.blockchain.wallet.metadata.Metadata;
 import info.blockchain.wallet.metadata.MetadataNodeFactory;
@@ -32,14 +33,17 @@ public class ExchangeService {
 
     private PayloadManager payloadManager;
     private RxBus rxBus;
+    private ObjectReader exchangeDataReader;
 
     private ReplaySubject<Metadata> metadataSubject;
     private boolean didStartLoad;
 
     public ExchangeService(PayloadManager payloadManager,
-                           RxBus rxBus) {
+                           RxBus rxBus,
+                           ObjectMapper objectMapper) {
         this.payloadManager = payloadManager;
         this.rxBus = rxBus;
+        exchangeDataReader = objectMapper.readerFor(ExchangeData.class);
 
         metadataSubject = ReplaySubject.create(1);
     }
@@ -105,8 +109,7 @@ public class ExchangeService {
 
                     if (exchangeData.isEmpty()) return new ArrayList<>();
 
-                    ObjectMapper mapper = new ObjectMapper();
-                    ExchangeData data = mapper.readValue(exchangeData, ExchangeData.class);
+                    ExchangeData data = exchangeDataReader.readValue(exchangeData);
 
                     List<TradeData> trades = new ArrayList<>();
                     if (data.getCoinify() != null) {
@@ -163,8 +166,7 @@ public class ExchangeService {
                 .map(exchangeData -> {
                     if (exchangeData.isEmpty()) return false;
 
-                    ObjectMapper mapper = new ObjectMapper();
-                    ExchangeData data = mapper.readValue(exchangeData, ExchangeData.class);
+                    ExchangeData data = exchangeDataReader.readValue(exchangeData);
 
                     return data.getCoinify().getUser() != 0;
                 });
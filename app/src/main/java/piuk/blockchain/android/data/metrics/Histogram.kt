@@ -0,0 +1,89 @@
+package piuk.blockchain.android.data.metrics
+
+/**
+ * A thread safe histogram which counts values into buckets with fixed upper bounds. Recording is
+ * constant time and allocates nothing, so it's cheap enough for every network call.
+ *
+ * @param bounds The inclusive upper bound of each bucket, ascending. Values above the last bound
+ * are counted in an overflow bucket.
+ */
+class Histogram(private val bounds: LongArray) {
+
+    /**
+     * A consistent copy of a [Histogram] at a point in time.
+     */
+    class Snapshot(
+            val count: Long,
+            val sum: Long,
+            val max: Long,
+            private val bounds: LongArray,
+            private val counts: LongArray
+    ) {
+
+        val mean: Long
+            get() = if (count == 0L) 0L else sum / count
+
+        /**
+         * Returns the upper bound of the bucket containing the given percentile, or [max] if it
+         * falls in the overflow bucket.
+         *
+         * @param percentile Between 0 and 100
+         */
+        fun percentile(percentile: Double): Long {
+            if (count == 0L) return 0L
+            val rank = Math.ceil(count * percentile / 100.0).toLong().coerceAtLeast(1L)
+            var seen = 0L
+            counts.forEachIndexed { index, bucketCount ->
+                seen += bucketCount
+                if (seen >= rank) return if (index < bounds.size) Math.min(bounds[index], max) else max
+            }
+            return max
+        }
+
+        override fun toString() =
+                "n=$count mean=$mean p50=${percentile(50.0)} p90=${percentile(90.0)} p99=${percentile(99.0)} max=$max"
+
+    }
+
+    private val counts = LongArray(bounds.size + 1)
+    private var count = 0L
+    private var sum = 0L
+    private var max = 0L
+
+    init {
+        require(bounds.isNotEmpty()) { "A histogram needs at least one bucket" }
+        (1 until bounds.size).forEach {
+            require(bounds[it] > bounds[it - 1]) { "Bucket bounds must be ascending" }
+        }
+    }
+
+    @Synchronized
+    fun record(value: Long) {
+        var index = 0
+        while (index < bounds.size && value > bounds[index]) index++
+        counts[index]++
+        count++
+        sum += value
+        if (value > max) max = value
+    }
+
+    @Synchronized
+    fun snapshot() = Snapshot(count, sum, max, bounds, counts.copyOf())
+
+    companion object {
+
+        /**
+         * Buckets for latencies in milliseconds, from a cached response to a timeout.
+         */
+        @JvmField
+        val LATENCY_MILLIS = longArrayOf(10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000)
+
+        /**
+         * Buckets for payload sizes in bytes, from an empty response to a large multiaddr.
+         */
+        @JvmField
+        val SIZE_BYTES = longArrayOf(1_024, 4_096, 16_384, 65_536, 262_144, 1_048_576, 4_194_304)
+
+    }
+
+}
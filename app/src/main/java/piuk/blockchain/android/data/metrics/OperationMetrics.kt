@@ -0,0 +1,93 @@
+package piuk.blockchain.android.data.metrics
+
+import android.support.annotation.VisibleForTesting
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Latency, errors and in-flight counts for every network operation made through
+ * [piuk.blockchain.android.data.rxjava.RxPinning], keyed by the operation name passed at each call
+ * site. Unlike [piuk.blockchain.android.data.api.EndpointMetrics], an operation covers everything
+ * the call does, such as several requests plus decryption for a wallet sync.
+ *
+ * Shown in the debug menu, and can be read with [dump] or [getOperations] from tests.
+ */
+class OperationMetrics @VisibleForTesting constructor() {
+
+    class Operation(val name: String) {
+
+        /**
+         * Time from subscription until completion or error, in milliseconds. Disposed calls are
+         * not included.
+         */
+        val latency = Histogram(Histogram.LATENCY_MILLIS)
+        private val inFlight = AtomicInteger()
+        private val errors = ConcurrentHashMap<String, AtomicLong>()
+
+        /**
+         * How many calls are currently subscribed and haven't terminated.
+         */
+        fun getInFlightCount() = inFlight.get()
+
+        /**
+         * Error counts keyed by the simple name of the exception class.
+         */
+        fun getErrorCounts(): Map<String, Long> = errors.mapValues { it.value.get() }
+
+        fun getErrorCount() = errors.values.map { it.get() }.sum()
+
+        /**
+         * Marks a call as started, returning a timestamp to pass to [terminated].
+         */
+        fun started(): Long {
+            inFlight.incrementAndGet()
+            return System.nanoTime()
+        }
+
+        fun terminated(startNanos: Long) {
+            latency.record((System.nanoTime() - startNanos) / 1_000_000L)
+        }
+
+        fun failed(throwable: Throwable) {
+            errors.getOrPut(throwable.javaClass.simpleName) { AtomicLong() }.incrementAndGet()
+        }
+
+        /**
+         * Called once a call terminates or is disposed.
+         */
+        fun finished() {
+            inFlight.decrementAndGet()
+        }
+
+        override fun toString() =
+                "$name\n  latency ms: ${latency.snapshot()}\n  in flight: ${getInFlightCount()}\n  errors: ${getErrorCounts()}"
+
+    }
+
+    private val operations = ConcurrentHashMap<String, Operation>()
+
+    fun getOperation(name: String): Operation = operations.getOrPut(name) { Operation(name) }
+
+    /**
+     * Returns every operation called so far, sorted by name.
+     */
+    fun getOperations(): List<Operation> = operations.values.sortedBy { it.name }
+
+    /**
+     * Returns a readable summary of every operation.
+     */
+    fun dump(): String = getOperations().joinToString(separator = "\n")
+
+    fun clear() = operations.clear()
+
+    companion object {
+
+        private val instance = OperationMetrics()
+
+        @JvmStatic
+        fun getInstance() = instance
+
+    }
+
+}
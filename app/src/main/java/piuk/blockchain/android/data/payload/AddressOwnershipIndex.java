@@ -0,0 +1,205 @@
+package piuk.blockchain.android.data.payload;
+
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
+import info.blockchain.wallet.payload.PayloadManager;
+import info.blockchain.wallet.payload.data.Wallet;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Answers "does this address belong to the wallet?" in constant time. Legacy addresses are held
+ * in a {@link HashSet} behind a compact bloom filter, so the majority of foreign addresses seen in
+ * websocket frames are rejected without touching the set. HD addresses are resolved through the
+ * address to xPub map already maintained by the {@link PayloadManager}.
+ *
+ * The index follows the current {@link Wallet}: it is rebuilt whenever the wallet instance is
+ * replaced, its legacy address count changes or a {@link WalletDiff} adds or removes legacy
+ * addresses, and single additions are applied in place. The count alone would miss a removal
+ * and an addition together, so payload syncs must pass their diff to {@link
+ * #onWalletChanged(WalletDiff)}. Archiving an address doesn't affect ownership, so doesn't
+ * trigger a rebuild.
+ *
+ * This is shared process-wide, as the {@link PayloadDataManager} is scoped to a single presenter.
+ */
+public class AddressOwnershipIndex {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private final PayloadManager payloadManager;
+    private final Set<String> legacyAddresses = new HashSet<>();
+    private BloomFilter bloomFilter = new BloomFilter(MIN_CAPACITY);
+    private Wallet indexedWallet;
+    private int indexedCount;
+    private String ethAccount;
+    private int rebuildCount;
+
+    public AddressOwnershipIndex(PayloadManager payloadManager) {
+        this.payloadManager = payloadManager;
+    }
+
+    /**
+     * Returns true if the address is a legacy, imported or watch-only address held in the wallet.
+     *
+     * @param address The address you want to query as a String
+     * @return true if the address belongs to the user
+     */
+    public synchronized boolean isOwnLegacyAddress(@Nullable String address) {
+        if (address == null) return false;
+        sync();
+        return bloomFilter.mightContain(address) && legacyAddresses.contains(address);
+    }
+
+    /**
+     * Returns true if the address is the wallet's ETH account.
+     *
+     * @param address The address you want to query as a String
+     * @return true if the address belongs to the user
+     */
+    public synchronized boolean isOwnEthAccount(@Nullable String address) {
+        return ethAccount != null && ethAccount.equalsIgnoreCase(address);
+    }
+
+    /**
+     * Returns true if the address belongs to the user's wallet in any form: a legacy address, an
+     * address on the receive or change chain of an HD account, or the ETH account.
+     *
+     * @param address The address you want to query as a String
+     * @return true if the address belongs to the user
+     */
+    public boolean isOwnAddress(@Nullable String address) {
+        return isOwnLegacyAddress(address)
+                || isOwnEthAccount(address)
+                || (address != null && payloadManager.isOwnHDAddress(address));
+    }
+
+    /**
+     * Records the ETH account for the current wallet, or clears it if null.
+     *
+     * @param ethAccount The ETH account address
+     */
+    public synchronized void setEthAccount(@Nullable String ethAccount) {
+        this.ethAccount = ethAccount;
+    }
+
+    /**
+     * Adds a single legacy address which has just been added to the wallet, without rebuilding the
+     * whole index.
+     *
+     * @param address The new address
+     */
+    public synchronized void addLegacyAddress(String address) {
+        Wallet wallet = payloadManager.getPayload();
+        // Anything other than exactly one new address is left for the next query to rebuild
+        if (wallet == null
+                || wallet != indexedWallet
+                || wallet.getLegacyAddressList().size() != indexedCount + 1) {
+            return;
+        }
+
+        indexedCount++;
+        if (!legacyAddresses.add(address)) return;
+
+        if (legacyAddresses.size() > bloomFilter.capacity) {
+            rebuildBloomFilter();
+        } else {
+            bloomFilter.put(address);
+        }
+    }
+
+    /**
+     * Rebuilds the index if a payload sync added or removed any legacy addresses.
+     *
+     * @param diff The changes made by the sync
+     */
+    public synchronized void onWalletChanged(WalletDiff diff) {
+        if (!diff.getAddedLegacyAddresses().isEmpty()
+                || !diff.getRemovedLegacyAddresses().isEmpty()) {
+            rebuild(payloadManager.getPayload());
+        }
+    }
+
+    @VisibleForTesting
+    synchronized int getRebuildCount() {
+        return rebuildCount;
+    }
+
+    private void sync() {
+        Wallet wallet = payloadManager.getPayload();
+        if (wallet != indexedWallet
+                || (wallet != null && wallet.getLegacyAddressList().size() != indexedCount)) {
+            rebuild(wallet);
+        }
+    }
+
+    private void rebuild(@Nullable Wallet wallet) {
+        legacyAddresses.clear();
+        if (wallet != null) {
+            legacyAddresses.addAll(wallet.getLegacyAddressStringList());
+        }
+        indexedWallet = wallet;
+        indexedCount = wallet != null ? wallet.getLegacyAddressList().size() : 0;
+        rebuildBloomFilter();
+        rebuildCount++;
+    }
+
+    private void rebuildBloomFilter() {
+        // Leave room for addresses imported later before resizing again
+        bloomFilter = new BloomFilter(Math.max(MIN_CAPACITY, legacyAddresses.size() * 2));
+        for (String address : legacyAddresses) {
+            bloomFilter.put(address);
+        }
+    }
+
+    /**
+     * A fixed size bloom filter sized at ~10 bits per entry with three hash functions, giving a
+     * false positive rate of under 2% at capacity. Hashes are derived from two base hashes using
+     * the Kirsch-Mitzenmacher technique.
+     */
+    private static final class BloomFilter {
+
+        private static final int BITS_PER_ENTRY = 10;
+        private static final int HASH_COUNT = 3;
+
+        private final int capacity;
+        private final int mask;
+        private final BitSet bits;
+
+        BloomFilter(int capacity) {
+            this.capacity = capacity;
+            int size = Integer.highestOneBit(capacity * BITS_PER_ENTRY - 1) << 1;
+            mask = size - 1;
+            bits = new BitSet(size);
+        }
+
+        void put(String value) {
+            int hash1 = value.hashCode();
+            int hash2 = secondaryHash(hash1);
+            for (int i = 0; i < HASH_COUNT; i++) {
+                bits.set((hash1 + i * hash2) & mask);
+            }
+        }
+
+        boolean mightContain(String value) {
+            int hash1 = value.hashCode();
+            int hash2 = secondaryHash(hash1);
+            for (int i = 0; i < HASH_COUNT; i++) {
+                if (!bits.get((hash1 + i * hash2) & mask)) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Remixes the cached String hash rather than hashing the characters again, forced odd so
+         * that every probe lands on a different bit.
+         */
+        private static int secondaryHash(int hash) {
+            return Integer.rotateLeft(hash * 0x9E3779B9, 16) | 1;
+        }
+
+    }
+
+}
@@ -40,15 +40,18 @@ public class PayloadDataManager {
     private final PayloadService payloadService;
     private final PrivateKeyFactory privateKeyFactory;
     private final PayloadManager payloadManager;
+    private final AddressOwnershipIndex addressOwnershipIndex;
     private final RxPinning rxPinning;
 
     public PayloadDataManager(PayloadService payloadService,
                               PrivateKeyFactory privateKeyFactory,
                               PayloadManager payloadManager,
+                              AddressOwnershipIndex addressOwnershipIndex,
                               RxBus rxBus) {
         this.payloadService = payloadService;
         this.privateKeyFactory = privateKeyFactory;
         this.payloadManager = payloadManager;
+        this.addressOwnershipIndex = addressOwnershipIndex;
         rxPinning = new RxPinning(rxBus);
     }
 
@@ -66,7 +69,7 @@ public class PayloadDataManager {
      * @return A {@link Completable} object
      */
     public Completable initializeFromPayload(String payload, String password) {
-        return rxPinning.call(() -> payloadService.initializeFromPayload(payload, password))
+        return rxPinning.call("PayloadDataManager.initializeFromPayload", () -> payloadService.initializeFromPayload(payload, password))
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -81,7 +84,7 @@ public class PayloadDataManager {
      * @return An {@link Observable<Wallet>}
      */
     public Observable<Wallet> restoreHdWallet(String mnemonic, String walletName, String email, String password) {
-        return rxPinning.call(() -> payloadService.restoreHdWallet(mnemonic, walletName, email, password))
+        return rxPinning.call("PayloadDataManager.restoreHdWallet", () -> payloadService.restoreHdWallet(mnemonic, walletName, email, password))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -94,7 +97,7 @@ public class PayloadDataManager {
      * @return An {@link Observable<Wallet>}
      */
     public Observable<Wallet> createHdWallet(String password, String walletName, String email) {
-        return rxPinning.call(() -> payloadService.createHdWallet(password, walletName, email))
+        return rxPinning.call("PayloadDataManager.createHdWallet", () -> payloadService.createHdWallet(password, walletName, email))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -108,7 +111,7 @@ public class PayloadDataManager {
      * @return A {@link Completable} object
      */
     public Completable initializeAndDecrypt(String sharedKey, String guid, String password) {
-        return rxPinning.call(() -> payloadService.initializeAndDecrypt(sharedKey, guid, password))
+        return rxPinning.call("PayloadDataManager.initializeAndDecrypt", () -> payloadService.initializeAndDecrypt(sharedKey, guid, password))
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -119,7 +122,7 @@ public class PayloadDataManager {
      * @return A {@link Completable} object
      */
     public Completable handleQrCode(String data) {
-        return rxPinning.call(() -> payloadService.handleQrCode(data))
+        return rxPinning.call("PayloadDataManager.handleQrCode", () -> payloadService.handleQrCode(data))
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -132,7 +135,7 @@ public class PayloadDataManager {
      * @return A {@link Completable} object
      */
     public Completable upgradeV2toV3(@Nullable String secondPassword, String defaultAccountName) {
-        return rxPinning.call(() -> payloadService.upgradeV2toV3(secondPassword, defaultAccountName))
+        return rxPinning.call("PayloadDataManager.upgradeV2toV3", () -> payloadService.upgradeV2toV3(secondPassword, defaultAccountName))
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -146,7 +149,7 @@ public class PayloadDataManager {
      * @return A {@link Completable} object
      */
     public Completable syncPayloadWithServer() {
-        return rxPinning.call(payloadService::syncPayloadWithServer)
+        return rxPinning.call("PayloadDataManager.syncPayloadWithServer", payloadService::syncPayloadWithServer)
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -159,7 +162,7 @@ public class PayloadDataManager {
      * @return A {@link Completable} object
      */
     public Completable syncPayloadAndPublicKeys() {
-        return rxPinning.call(payloadService::syncPayloadAndPublicKeys)
+        return rxPinning.call("PayloadDataManager.syncPayloadAndPublicKeys", payloadService::syncPayloadAndPublicKeys)
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -176,19 +179,20 @@ public class PayloadDataManager {
      * @see IgnorableDefaultObserver
      */
     public Completable updateAllTransactions() {
-        return rxPinning.call(payloadService::updateAllTransactions)
+        return rxPinning.call("PayloadDataManager.updateAllTransactions", payloadService::updateAllTransactions)
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
     /**
      * Returns a {@link Completable} which updates all balances in the PayloadManager. Completable
      * returns no value, and is used to call functions that return void but have side effects.
+     * Concurrent callers share a single request.
      *
      * @return A {@link Completable} object
      * @see IgnorableDefaultObserver
      */
     public Completable updateAllBalances() {
-        return rxPinning.call(payloadService::updateAllBalances)
+        return rxPinning.callShared("PayloadDataManager.updateAllBalances", payloadService::updateAllBalances)
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -200,7 +204,7 @@ public class PayloadDataManager {
      * @return A {@link Completable} object
      */
     public Completable updateTransactionNotes(String transactionHash, String notes) {
-        return rxPinning.call(() -> payloadService.updateTransactionNotes(transactionHash, notes))
+        return rxPinning.call("PayloadDataManager.updateTransactionNotes", () -> payloadService.updateTransactionNotes(transactionHash, notes))
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -215,7 +219,7 @@ public class PayloadDataManager {
      * @return A {@link LinkedHashMap}
      */
     public Observable<LinkedHashMap<String, Balance>> getBalanceOfAddresses(List<String> addresses) {
-        return rxPinning.call(() -> payloadService.getBalanceOfAddresses(addresses))
+        return rxPinning.call("PayloadDataManager.getBalanceOfAddresses", () -> payloadService.getBalanceOfAddresses(addresses))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -316,7 +320,7 @@ public class PayloadDataManager {
      * @return An {@link Observable<Account>} wrapping the newly created Account
      */
     public Observable<Account> createNewAccount(String accountLabel, @Nullable String secondPassword) {
-        return rxPinning.call(() -> payloadService.createNewAccount(accountLabel, secondPassword))
+        return rxPinning.call("PayloadDataManager.createNewAccount", () -> payloadService.createNewAccount(accountLabel, secondPassword))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -329,7 +333,7 @@ public class PayloadDataManager {
      * @return An {@link Observable<Boolean>} representing a successful save
      */
     public Observable<LegacyAddress> setKeyForLegacyAddress(ECKey key, @Nullable String secondPassword) {
-        return rxPinning.call(() -> payloadService.setKeyForLegacyAddress(key, secondPassword))
+        return rxPinning.call("PayloadDataManager.setKeyForLegacyAddress", () -> payloadService.setKeyForLegacyAddress(key, secondPassword))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -340,7 +344,8 @@ public class PayloadDataManager {
      * @return A {@link Completable} object representing a successful save
      */
     public Completable addLegacyAddress(LegacyAddress legacyAddress) {
-        return rxPinning.call(() -> payloadService.addLegacyAddress(legacyAddress))
+        return rxPinning.call("PayloadDataManager.addLegacyAddress", () -> payloadService.addLegacyAddress(legacyAddress))
+                .doOnComplete(() -> addressOwnershipIndex.addLegacyAddress(legacyAddress.getAddress()))
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -351,7 +356,7 @@ public class PayloadDataManager {
      * @return A {@link Completable} object representing a successful save
      */
     public Completable updateLegacyAddress(LegacyAddress legacyAddress) {
-        return rxPinning.call(() -> payloadService.updateLegacyAddress(legacyAddress))
+        return rxPinning.call("PayloadDataManager.updateLegacyAddress", () -> payloadService.updateLegacyAddress(legacyAddress))
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -483,6 +488,17 @@ public class PayloadDataManager {
         return payloadManager.isOwnHDAddress(address);
     }
 
+    /**
+     * Returns true if the supplied address is a legacy, imported or watch-only address held in the
+     * user's wallet. This is a constant time lookup regardless of how many addresses are imported.
+     *
+     * @param address The address you want to query as a String
+     * @return true if the address belongs to the user
+     */
+    public boolean isOwnLegacyAddress(String address) {
+        return addressOwnershipIndex.isOwnLegacyAddress(address);
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // CONTACTS/METADATA/IWCS/CRYPTO-MATRIX METHODS
     ///////////////////////////////////////////////////////////////////////////
@@ -495,7 +511,7 @@ public class PayloadDataManager {
      * loaded nodes
      */
     public Observable<Boolean> loadNodes() {
-        return rxPinning.call(payloadService::loadNodes)
+        return rxPinning.call("PayloadDataManager.loadNodes", payloadService::loadNodes)
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -506,7 +522,7 @@ public class PayloadDataManager {
      * @return A {@link Completable} object, ie an asynchronous void operation
      */
     public Completable generateNodes(@Nullable String secondPassword) {
-        return rxPinning.call(() -> payloadService.generateNodes(secondPassword))
+        return rxPinning.call("PayloadDataManager.generateNodes", () -> payloadService.generateNodes(secondPassword))
                 .compose(RxUtil.applySchedulersToCompletable());
     }
 
@@ -526,7 +542,7 @@ public class PayloadDataManager {
      * @return An {@link Observable} wrapping a {@link ResponseBody}
      */
     public Observable<ResponseBody> registerMdid() {
-        return rxPinning.call(payloadService::registerMdid)
+        return rxPinning.call("PayloadDataManager.registerMdid", payloadService::registerMdid)
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -536,7 +552,7 @@ public class PayloadDataManager {
      * @return An {@link Observable} wrapping a {@link ResponseBody}
      */
     public Observable<ResponseBody> unregisterMdid() {
-        return rxPinning.call(payloadService::unregisterMdid)
+        return rxPinning.call("PayloadDataManager.unregisterMdid", payloadService::unregisterMdid)
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -0,0 +1,45 @@
+package piuk.blockchain.android.data.payload
+
+import io.reactivex.Observable
+import piuk.blockchain.android.data.rxjava.SingleFlight
+import piuk.blockchain.android.util.annotations.Mockable
+
+/**
+ * Brings the in-memory wallet up to date after another device changes the payload, and reports
+ * exactly what changed so that callers only refresh what they need to.
+ *
+ * The payload is only downloaded when the remote checksum differs from both the local payload and
+ * the last payload synced, and concurrent requests for the same checksum share one download. The
+ * download itself can't be avoided: each save re-encrypts the whole payload under a fresh salt.
+ */
+@Mockable
+class PayloadSyncEngine(private val payloadDataManager: PayloadDataManager) {
+
+    @Volatile private var lastSyncedChecksum: String? = null
+
+    /**
+     * Downloads and decrypts the payload if [remoteChecksum] is new, then emits the [WalletDiff]
+     * between the old and new wallet. Completes without emitting if there is nothing to sync.
+     *
+     * @param remoteChecksum The checksum announced by the server
+     * @return An [Observable] emitting at most one [WalletDiff]
+     */
+    fun sync(remoteChecksum: String?): Observable<WalletDiff> = Observable.defer<WalletDiff> {
+        val wallet = payloadDataManager.wallet
+        val password = payloadDataManager.tempPassword
+        when {
+            wallet == null || password == null -> Observable.empty()
+            remoteChecksum != null && remoteChecksum == payloadDataManager.payloadChecksum -> Observable.empty()
+            remoteChecksum != null && remoteChecksum == lastSyncedChecksum -> Observable.empty()
+            else -> SingleFlight.getInstance().call<WalletDiff>("payloadSync:$remoteChecksum") {
+                val before = WalletSnapshot.of(wallet)
+                payloadDataManager.initializeAndDecrypt(wallet.sharedKey, wallet.guid, password)
+                        .andThen(Observable.fromCallable {
+                            lastSyncedChecksum = payloadDataManager.payloadChecksum
+                            WalletDiff.between(before, WalletSnapshot.of(payloadDataManager.wallet))
+                        })
+            }
+        }
+    }
+
+}
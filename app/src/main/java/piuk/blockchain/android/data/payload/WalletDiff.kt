@@ -0,0 +1,146 @@
+package piuk.blockchain.android.data.payload
+
+import info.blockchain.wallet.payload.data.LegacyAddress
+import info.blockchain.wallet.payload.data.Wallet
+
+/**
+ * The changes between two versions of a wallet payload, limited to the parts the app displays or
+ * watches: HD accounts, legacy addresses, Tx notes and the address book.
+ *
+ * @param addedAccounts The xPubs of accounts only in the new payload
+ * @param removedAccounts The xPubs of accounts only in the old payload
+ * @param changedAccounts The xPubs of accounts whose label or archived state changed
+ * @param archivedAccounts The xPubs of accounts which were archived, a subset of [changedAccounts]
+ * @param unarchivedAccounts The xPubs of accounts which were restored from the archive, a subset
+ * of [changedAccounts]
+ * @param addedLegacyAddresses Legacy addresses only in the new payload
+ * @param removedLegacyAddresses Legacy addresses only in the old payload
+ * @param changedLegacyAddresses Legacy addresses whose label or tag changed
+ * @param archivedLegacyAddresses Legacy addresses which were archived, a subset of
+ * [changedLegacyAddresses]
+ * @param unarchivedLegacyAddresses Legacy addresses which were restored from the archive, a
+ * subset of [changedLegacyAddresses]
+ * @param changedNotes The hashes of Txs whose note was added, edited or removed
+ * @param addressBookChanged Whether any address book entry was added, edited or removed
+ */
+data class WalletDiff(
+        val addedAccounts: Set<String> = emptySet(),
+        val removedAccounts: Set<String> = emptySet(),
+        val changedAccounts: Set<String> = emptySet(),
+        val archivedAccounts: Set<String> = emptySet(),
+        val unarchivedAccounts: Set<String> = emptySet(),
+        val addedLegacyAddresses: Set<String> = emptySet(),
+        val removedLegacyAddresses: Set<String> = emptySet(),
+        val changedLegacyAddresses: Set<String> = emptySet(),
+        val archivedLegacyAddresses: Set<String> = emptySet(),
+        val unarchivedLegacyAddresses: Set<String> = emptySet(),
+        val changedNotes: Set<String> = emptySet(),
+        val addressBookChanged: Boolean = false
+) {
+
+    /**
+     * True if nothing the app displays has changed, eg if only the payload's encryption changed.
+     */
+    val isEmpty: Boolean
+        get() = this == EMPTY
+
+    /**
+     * True if the set of watched addresses changed, or an account or address moved in or out of
+     * the archive, either of which changes balances and the Tx list. Label, note and address book
+     * edits only need the UI to redraw.
+     */
+    val requiresTransactionRefresh: Boolean
+        get() = addedAccounts.isNotEmpty()
+                || removedAccounts.isNotEmpty()
+                || changedAccounts.isNotEmpty()
+                || addedLegacyAddresses.isNotEmpty()
+                || removedLegacyAddresses.isNotEmpty()
+                || changedLegacyAddresses.isNotEmpty()
+
+    companion object {
+
+        @JvmField
+        val EMPTY = WalletDiff()
+
+        /**
+         * Compares two snapshots taken with [WalletSnapshot.of].
+         */
+        @JvmStatic
+        fun between(old: WalletSnapshot, new: WalletSnapshot) = WalletDiff(
+                addedAccounts = new.accounts.keys - old.accounts.keys,
+                removedAccounts = old.accounts.keys - new.accounts.keys,
+                changedAccounts = changedKeys(old.accounts, new.accounts),
+                archivedAccounts = movedKeys(old.accounts, new.accounts) { it.second },
+                unarchivedAccounts = movedKeys(new.accounts, old.accounts) { it.second },
+                addedLegacyAddresses = new.legacyAddresses.keys - old.legacyAddresses.keys,
+                removedLegacyAddresses = old.legacyAddresses.keys - new.legacyAddresses.keys,
+                changedLegacyAddresses = changedKeys(old.legacyAddresses, new.legacyAddresses),
+                archivedLegacyAddresses = movedKeys(old.legacyAddresses, new.legacyAddresses) {
+                    it.second == LegacyAddress.ARCHIVED_ADDRESS
+                },
+                unarchivedLegacyAddresses = movedKeys(new.legacyAddresses, old.legacyAddresses) {
+                    it.second == LegacyAddress.ARCHIVED_ADDRESS
+                },
+                changedNotes = (old.txNotes.keys + new.txNotes.keys)
+                        .filter { old.txNotes[it] != new.txNotes[it] }
+                        .toSet(),
+                addressBookChanged = old.addressBook != new.addressBook
+        )
+
+        private fun <V> changedKeys(old: Map<String, V>, new: Map<String, V>): Set<String> =
+                old.keys.intersect(new.keys).filter { old[it] != new[it] }.toSet()
+
+        /**
+         * Returns the keys in both maps whose value is [isArchived] in [to] but not in [from].
+         */
+        private fun <V> movedKeys(
+                from: Map<String, V>,
+                to: Map<String, V>,
+                isArchived: (V) -> Boolean
+        ): Set<String> = from.keys.intersect(to.keys)
+                .filter { !isArchived(from.getValue(it)) && isArchived(to.getValue(it)) }
+                .toSet()
+
+    }
+
+}
+
+/**
+ * An immutable copy of the parts of a [Wallet] compared by [WalletDiff]. Taken before a new
+ * payload replaces the wallet in memory, as the old [Wallet] object isn't guaranteed to survive.
+ */
+class WalletSnapshot private constructor(
+        internal val accounts: Map<String, Pair<String?, Boolean>>,
+        internal val legacyAddresses: Map<String, Pair<String?, Int>>,
+        internal val txNotes: Map<String, String>,
+        internal val addressBook: Map<String, String?>
+) {
+
+    companion object {
+
+        @JvmStatic
+        fun of(wallet: Wallet?): WalletSnapshot {
+            if (wallet == null) return WalletSnapshot(emptyMap(), emptyMap(), emptyMap(), emptyMap())
+
+            val accounts = wallet.hdWallets.orEmpty()
+                    .flatMap { it.accounts.orEmpty() }
+                    .filter { it.xpub != null }
+                    .associate { it.xpub to Pair(it.label, it.isArchived) }
+            val legacyAddresses = wallet.legacyAddressList.orEmpty()
+                    .filter { it.address != null }
+                    .associate { it.address to Pair(it.label, it.tag) }
+            val addressBook = wallet.addressBook.orEmpty()
+                    .filter { it.address != null }
+                    .associate { it.address to it.label }
+
+            return WalletSnapshot(
+                    accounts,
+                    legacyAddresses,
+                    HashMap(wallet.txNotes.orEmpty()),
+                    addressBook
+            )
+        }
+
+    }
+
+}
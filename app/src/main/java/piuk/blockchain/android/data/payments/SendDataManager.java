@@ -45,7 +45,7 @@ public class SendDataManager {
                                             BigInteger bigIntFee,
                                             BigInteger bigIntAmount) {
 
-        return rxPinning.call(() -> paymentService.submitPayment(
+        return rxPinning.call("SendDataManager.submitPayment", () -> paymentService.submitPayment(
                 unspentOutputBundle,
                 keys,
                 toAddress,
@@ -78,7 +78,7 @@ public class SendDataManager {
      * @return An {@link Observable<UnspentOutputs>}
      */
     public Observable<UnspentOutputs> getUnspentOutputs(String address) {
-        return rxPinning.call(() -> paymentService.getUnspentOutputs(address))
+        return rxPinning.call("SendDataManager.getUnspentOutputs", () -> paymentService.getUnspentOutputs(address))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -1,5 +1,7 @@
 package piuk.blockchain.android.data.rxjava;
 
+import android.support.annotation.VisibleForTesting;
+
 import java.io.IOException;
 
 import javax.net.ssl.SSLPeerUnverifiedException;
@@ -7,31 +9,41 @@ import javax.net.ssl.SSLPeerUnverifiedException;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
 import piuk.blockchain.android.data.connectivity.ConnectionEvent;
+import piuk.blockchain.android.data.metrics.OperationMetrics;
 
 @SuppressWarnings("AnonymousInnerClassMayBeStatic")
 public class RxPinning {
 
     private RxBus rxBus;
+    private OperationMetrics metrics;
 
     public RxPinning(RxBus rxBus) {
+        this(rxBus, OperationMetrics.getInstance());
+    }
+
+    @VisibleForTesting
+    RxPinning(RxBus rxBus, OperationMetrics metrics) {
         this.rxBus = rxBus;
+        this.metrics = metrics;
         rxBus.register(ConnectionEvent.class);
     }
 
     /**
      * Wraps an {@link Observable} and calls it, handling any errors and emitting {@link
      * ConnectionEvent} objects in response if necessary. Specifically, this method handles SSL
-     * pinning issues and network I/O problems.
+     * pinning issues and network I/O problems. Latency, errors and in-flight calls are recorded in
+     * {@link OperationMetrics} under the operation name.
      *
      * Please note that this is not necessary for calls which don't hit the network, as this method
      * interprets {@link IOException} errors as connectivity issues, which will frustrate/confuse
      * the user.
      *
-     * @param function An {@link Observable} function
-     * @param <T>      The {@link Observable} type
+     * @param operation The name to record metrics under, by convention "Class.method"
+     * @param function  An {@link Observable} function
+     * @param <T>       The {@link Observable} type
      * @return A wrapped {@link Observable}
      */
-    public <T> Observable<T> call(RxLambdas.ObservableRequest<T> function) {
+    public <T> Observable<T> call(String operation, RxLambdas.ObservableRequest<T> function) {
         RxLambdas.ObservableFunction<T> tokenFunction = new RxLambdas.ObservableFunction<T>() {
             @Override
             public Observable<T> apply(Void empty) {
@@ -39,8 +51,7 @@ public class RxPinning {
             }
         };
 
-        return Observable.defer(() -> tokenFunction.apply(null))
-                .doOnError(this::handleError);
+        return instrument(operation, () -> tokenFunction.apply(null)).doOnError(this::handleError);
     }
 
     /**
@@ -52,10 +63,11 @@ public class RxPinning {
      * interprets {@link IOException} errors as connectivity issues, which will frustrate/confuse
      * the user.
      *
-     * @param function A {@link Completable} function
+     * @param operation The name to record metrics under, by convention "Class.method"
+     * @param function  A {@link Completable} function
      * @return A wrapped {@link Completable}
      */
-    public Completable call(RxLambdas.CompletableRequest function) {
+    public Completable call(String operation, RxLambdas.CompletableRequest function) {
         RxLambdas.CompletableFunction tokenFunction = new RxLambdas.CompletableFunction() {
             @Override
             public Completable apply(Void empty) {
@@ -63,10 +75,88 @@ public class RxPinning {
             }
         };
 
-        return Completable.defer(() -> tokenFunction.apply(null))
+        return instrument(operation, () -> tokenFunction.apply(null)).doOnError(this::handleError);
+    }
+
+    /**
+     * As {@link #call(String, RxLambdas.ObservableRequest)}, but concurrent callers passing the
+     * same key share a single request via {@link SingleFlight}. Metrics are recorded once for the
+     * shared request, and errors are handled for each caller.
+     *
+     * @param key      A key identifying the operation and its arguments, as "operation:arguments".
+     *                 Metrics are recorded under the operation
+     * @param function An {@link Observable} function
+     * @param <T>      The {@link Observable} type
+     * @return A wrapped {@link Observable}
+     */
+    public <T> Observable<T> callShared(String key, RxLambdas.ObservableRequest<T> function) {
+        return SingleFlight.getInstance()
+                .call(key, () -> instrument(operationOf(key), function))
                 .doOnError(this::handleError);
     }
 
+    /**
+     * As {@link #call(String, RxLambdas.CompletableRequest)}, but concurrent callers passing the
+     * same key share a single request via {@link SingleFlight}. Metrics are recorded once for the
+     * shared request, and errors are handled for each caller.
+     *
+     * @param key      A key identifying the operation and its arguments, as "operation:arguments".
+     *                 Metrics are recorded under the operation
+     * @param function A {@link Completable} function
+     * @return A wrapped {@link Completable}
+     */
+    public Completable callShared(String key, RxLambdas.CompletableRequest function) {
+        return shareCompletable(key, function).doOnError(this::handleError);
+    }
+
+    /**
+     * As {@link #callShared(String, RxLambdas.CompletableRequest)}, but for work the user didn't
+     * ask for, such as polling. Only SSL pinning failures emit a {@link ConnectionEvent}, as a
+     * dropped connection in the background shouldn't interrupt the user, and the caller is
+     * expected to retry. Requests are still shared with foreground callers using the same key.
+     *
+     * @param key      A key identifying the operation and its arguments, as "operation:arguments".
+     *                 Metrics are recorded under the operation
+     * @param function A {@link Completable} function
+     * @return A wrapped {@link Completable}
+     */
+    public Completable callSharedInBackground(String key, RxLambdas.CompletableRequest function) {
+        return shareCompletable(key, function).doOnError(this::handlePinningError);
+    }
+
+    private Completable shareCompletable(String key, RxLambdas.CompletableRequest function) {
+        return SingleFlight.getInstance()
+                .call(key, () -> instrument(operationOf(key), function));
+    }
+
+    private <T> Observable<T> instrument(String operation,
+                                         RxLambdas.ObservableRequest<T> function) {
+        OperationMetrics.Operation instrument = metrics.getOperation(operation);
+        return Observable.defer(() -> {
+            long start = instrument.started();
+            return function.apply()
+                    .doOnError(instrument::failed)
+                    .doOnTerminate(() -> instrument.terminated(start))
+                    .doFinally(instrument::finished);
+        });
+    }
+
+    private Completable instrument(String operation, RxLambdas.CompletableRequest function) {
+        OperationMetrics.Operation instrument = metrics.getOperation(operation);
+        return Completable.defer(() -> {
+            long start = instrument.started();
+            return function.apply()
+                    .doOnError(instrument::failed)
+                    .doOnTerminate(() -> instrument.terminated(start))
+                    .doFinally(instrument::finished);
+        });
+    }
+
+    private static String operationOf(String key) {
+        int separator = key.indexOf(':');
+        return separator == -1 ? key : key.substring(0, separator);
+    }
+
     /**
      * Checks the supplied {@link Throwable} and emits a specific {@link ConnectionEvent} as
      * appropriate.
@@ -81,4 +171,10 @@ public class RxPinning {
         }
     }
 
+    private void handlePinningError(Throwable throwable) {
+        if (throwable instanceof SSLPeerUnverifiedException) {
+            rxBus.emitEvent(ConnectionEvent.class, ConnectionEvent.PINNING_FAIL);
+        }
+    }
+
 }
@@ -0,0 +1,95 @@
+package piuk.blockchain.android.data.rxjava;
+
+import android.support.annotation.VisibleForTesting;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+
+/**
+ * Ensures that only one instance of a given request is in flight at a time. Subscribers which
+ * arrive while a request with the same key is running share that request and receive its result,
+ * rather than triggering another round-trip. Once the request terminates the key is released, so
+ * the next subscriber starts a new request.
+ *
+ * Keys should identify both the operation and its arguments, eg "fetchEthAddress:0x1234...". A
+ * key must only ever be used for one return type.
+ *
+ * This is shared process-wide, as the data managers which use it are often scoped to a single
+ * presenter.
+ */
+public final class SingleFlight {
+
+    private static final SingleFlight INSTANCE = new SingleFlight();
+
+    private final ConcurrentHashMap<String, Observable<?>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong sharedRequests = new AtomicLong();
+
+    @VisibleForTesting
+    SingleFlight() {
+        // Use getInstance()
+    }
+
+    public static SingleFlight getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Subscribes to the {@link Observable} returned by the request, unless one with the same key
+     * is already in flight, in which case that one is shared. All values emitted by the shared
+     * request are replayed to late subscribers.
+     *
+     * @param key      A key identifying the operation and its arguments
+     * @param function An {@link Observable} function
+     * @param <T>      The {@link Observable} type
+     * @return An {@link Observable} shared with any concurrent callers using the same key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Observable<T> call(String key, RxLambdas.ObservableRequest<T> function) {
+        return Observable.defer(() -> {
+            Observable<T> existing = (Observable<T>) inFlight.get(key);
+            if (existing != null) {
+                sharedRequests.incrementAndGet();
+                return existing;
+            }
+
+            AtomicReference<Observable<T>> self = new AtomicReference<>();
+            Observable<T> request = Observable.defer(function::apply)
+                    // Only remove this request, a newer one may have replaced it
+                    .doFinally(() -> inFlight.remove(key, self.get()))
+                    .replay()
+                    .refCount();
+            self.set(request);
+
+            Observable<T> raced = (Observable<T>) inFlight.putIfAbsent(key, request);
+            if (raced != null) {
+                sharedRequests.incrementAndGet();
+                return raced;
+            }
+            return request;
+        });
+    }
+
+    /**
+     * Subscribes to the {@link Completable} returned by the request, unless one with the same key
+     * is already in flight, in which case that one is shared.
+     *
+     * @param key      A key identifying the operation and its arguments
+     * @param function A {@link Completable} function
+     * @return A {@link Completable} shared with any concurrent callers using the same key
+     */
+    public Completable call(String key, RxLambdas.CompletableRequest function) {
+        return call(key, () -> function.apply().toObservable()).ignoreElements();
+    }
+
+    /**
+     * Returns the number of times a caller joined a request that was already in flight.
+     */
+    public long getSharedRequestCount() {
+        return sharedRequests.get();
+    }
+
+}
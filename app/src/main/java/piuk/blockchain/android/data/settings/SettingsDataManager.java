@@ -35,7 +35,7 @@ public class SettingsDataManager {
      */
     public Observable<Settings> initSettings(String guid, String sharedKey) {
         settingsService.initSettings(guid, sharedKey);
-        return rxPinning.call(this::fetchSettings)
+        return rxPinning.call("SettingsDataManager.initSettings", this::fetchSettings)
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
@@ -46,7 +46,7 @@ public class SettingsDataManager {
      * @return An {@link Observable<Settings>} object
      */
     public Observable<Settings> getSettings() {
-        return rxPinning.call(this::attemptFetchSettingsFromMemory);
+        return rxPinning.call("SettingsDataManager.getSettings", this::attemptFetchSettingsFromMemory);
     }
 
     /**
@@ -55,7 +55,7 @@ public class SettingsDataManager {
      * @return An {@link Observable<Settings>} object
      */
     private Observable<Settings> fetchSettings() {
-        return rxPinning.call(this::fetchSettingsFromWeb);
+        return rxPinning.call("SettingsDataManager.fetchSettings", this::fetchSettingsFromWeb);
     }
 
     /**
@@ -65,7 +65,7 @@ public class SettingsDataManager {
      * @return {@link Observable<Settings>} wrapping the Settings object
      */
     public Observable<Settings> updateEmail(String email) {
-        return rxPinning.call(() -> settingsService.updateEmail(email))
+        return rxPinning.call("SettingsDataManager.updateEmail", () -> settingsService.updateEmail(email))
                 .flatMap(ignored -> fetchSettings())
                 .compose(RxUtil.applySchedulersToObservable());
     }
@@ -77,7 +77,7 @@ public class SettingsDataManager {
      * @return {@link Observable<Settings>} wrapping the Settings object
      */
     public Observable<Settings> updateSms(String sms) {
-        return rxPinning.call(() -> settingsService.updateSms(sms))
+        return rxPinning.call("SettingsDataManager.updateSms", () -> settingsService.updateSms(sms))
                 .flatMap(ignored -> fetchSettings())
                 .compose(RxUtil.applySchedulersToObservable());
     }
@@ -90,7 +90,7 @@ public class SettingsDataManager {
      * @return {@link Observable<Settings>} wrapping the Settings object
      */
     public Observable<Settings> verifySms(String code) {
-        return rxPinning.call(() -> settingsService.verifySms(code))
+        return rxPinning.call("SettingsDataManager.verifySms", () -> settingsService.verifySms(code))
                 .flatMap(ignored -> fetchSettings())
                 .compose(RxUtil.applySchedulersToObservable());
     }
@@ -102,7 +102,7 @@ public class SettingsDataManager {
      * @return {@link Observable<Settings>} wrapping the Settings object
      */
     public Observable<Settings> updateTor(boolean blocked) {
-        return rxPinning.call(() -> settingsService.updateTor(blocked))
+        return rxPinning.call("SettingsDataManager.updateTor", () -> settingsService.updateTor(blocked))
                 .flatMap(ignored -> fetchSettings())
                 .compose(RxUtil.applySchedulersToObservable());
     }
@@ -115,7 +115,7 @@ public class SettingsDataManager {
      * @see SettingsManager for notification types
      */
     public Observable<Settings> updateTwoFactor(int authType) {
-        return rxPinning.call(() -> settingsService.updateTwoFactor(authType))
+        return rxPinning.call("SettingsDataManager.updateTwoFactor", () -> settingsService.updateTwoFactor(authType))
                 .flatMap(ignored -> fetchSettings())
                 .compose(RxUtil.applySchedulersToObservable());
     }
@@ -131,7 +131,7 @@ public class SettingsDataManager {
     public Observable<Settings> enableNotification(int notificationType, List<Integer> notifications) {
         if (notifications.isEmpty() || notifications.contains(SettingsManager.NOTIFICATION_TYPE_NONE)) {
             // No notification type registered, enable
-            return rxPinning.call(() -> settingsService.enableNotifications(true))
+            return rxPinning.call("SettingsDataManager.enableNotification", () -> settingsService.enableNotifications(true))
                     .flatMap(ignored -> updateNotifications(notificationType))
                     .compose(RxUtil.applySchedulersToObservable());
         } else if (notifications.size() == 1
@@ -140,11 +140,11 @@ public class SettingsDataManager {
                 || (notifications.contains(SettingsManager.NOTIFICATION_TYPE_SMS)
                 && notificationType == SettingsManager.NOTIFICATION_TYPE_EMAIL))) {
             // Contains another type already, send "All"
-            return rxPinning.call(() -> settingsService.enableNotifications(true))
+            return rxPinning.call("SettingsDataManager.enableNotification", () -> settingsService.enableNotifications(true))
                     .flatMap(ignored -> updateNotifications(SettingsManager.NOTIFICATION_TYPE_ALL))
                     .compose(RxUtil.applySchedulersToObservable());
         } else {
-            return rxPinning.call(() -> settingsService.enableNotifications(true))
+            return rxPinning.call("SettingsDataManager.enableNotification", () -> settingsService.enableNotifications(true))
                     .flatMap(ignored -> fetchSettings())
                     .compose(RxUtil.applySchedulersToObservable());
         }
@@ -161,7 +161,7 @@ public class SettingsDataManager {
     public Observable<Settings> disableNotification(int notificationType, List<Integer> notifications) {
         if (notifications.isEmpty() || notifications.contains(SettingsManager.NOTIFICATION_TYPE_NONE)) {
             // No notifications anyway, return Settings
-            return rxPinning.call(this::fetchSettings)
+            return rxPinning.call("SettingsDataManager.disableNotification", this::fetchSettings)
                     .compose(RxUtil.applySchedulersToObservable());
         } else if (notifications.contains(SettingsManager.NOTIFICATION_TYPE_ALL)
                 || (notifications.contains(SettingsManager.NOTIFICATION_TYPE_EMAIL)
@@ -173,17 +173,17 @@ public class SettingsDataManager {
         } else if (notifications.size() == 1) {
             if (notifications.get(0).equals(notificationType)) {
                 // Remove all
-                return rxPinning.call(() -> settingsService.enableNotifications(false))
+                return rxPinning.call("SettingsDataManager.disableNotification", () -> settingsService.enableNotifications(false))
                         .flatMap(ignored -> updateNotifications(SettingsManager.NOTIFICATION_TYPE_NONE))
                         .compose(RxUtil.applySchedulersToObservable());
             } else {
                 // Notification type not present, no need to remove it
-                return rxPinning.call(this::fetchSettings)
+                return rxPinning.call("SettingsDataManager.disableNotification", this::fetchSettings)
                         .compose(RxUtil.applySchedulersToObservable());
             }
         } else {
             // This should never be reached
-            return rxPinning.call(this::fetchSettings)
+            return rxPinning.call("SettingsDataManager.disableNotification", this::fetchSettings)
                     .compose(RxUtil.applySchedulersToObservable());
         }
     }
@@ -196,7 +196,7 @@ public class SettingsDataManager {
      * @see SettingsManager for notification types
      */
     private Observable<Settings> updateNotifications(int notificationType) {
-        return rxPinning.call(() -> settingsService.updateNotifications(notificationType))
+        return rxPinning.call("SettingsDataManager.updateNotifications", () -> settingsService.updateNotifications(notificationType))
                 .flatMap(ignored -> fetchSettings())
                 .compose(RxUtil.applySchedulersToObservable());
     }
@@ -216,7 +216,7 @@ public class SettingsDataManager {
      * @return {@link Observable<Settings>} wrapping the Settings object
      */
     public Observable<Settings> updateBtcUnit(String btcUnit) {
-        return rxPinning.call(() -> settingsService.updateBtcUnit(btcUnit))
+        return rxPinning.call("SettingsDataManager.updateBtcUnit", () -> settingsService.updateBtcUnit(btcUnit))
                 .flatMap(ignored -> fetchSettings())
                 .compose(RxUtil.applySchedulersToObservable());
     }
@@ -228,7 +228,7 @@ public class SettingsDataManager {
      * @return {@link Observable<Settings>} wrapping the Settings object
      */
     public Observable<Settings> updateFiatUnit(String fiatUnit) {
-        return rxPinning.call(() -> settingsService.updateFiatUnit(fiatUnit))
+        return rxPinning.call("SettingsDataManager.updateFiatUnit", () -> settingsService.updateFiatUnit(fiatUnit))
                 .flatMap(ignored -> fetchSettings())
                 .compose(RxUtil.applySchedulersToObservable());
     }
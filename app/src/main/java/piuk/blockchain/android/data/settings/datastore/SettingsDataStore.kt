@@ -2,20 +2,32 @@ package piuk.blockchain.android.data.settings.datastore
 
 import info.blockchain.wallet.api.data.Settings
 import io.reactivex.Observable
-import piuk.blockchain.android.data.stores.DefaultFetchStrategy
-import piuk.blockchain.android.data.stores.FreshFetchStrategy
+import piuk.blockchain.android.data.stores.CachePolicy
+import piuk.blockchain.android.data.stores.TieredFetchStrategy
+import piuk.blockchain.android.data.stores.TieredStore
 import piuk.blockchain.android.util.annotations.Mockable
 
 @Mockable
 class SettingsDataStore(
-        private val memoryStore: SettingsMemoryStore,
+        private val settingsStore: TieredStore<String, Settings>,
         private val webSource: Observable<Settings>
 ) {
 
     fun getSettings(): Observable<Settings> =
-            DefaultFetchStrategy(webSource, memoryStore.getSettings(), memoryStore).fetch()
+            TieredFetchStrategy(KEY_SETTINGS, webSource, settingsStore, POLICY).fetch()
 
     fun fetchSettings(): Observable<Settings> =
-            FreshFetchStrategy(webSource, memoryStore).fetch()
+            settingsStore.fetchFresh(KEY_SETTINGS, webSource, POLICY)
 
-}
\ No newline at end of file
+    companion object {
+
+        private const val KEY_SETTINGS = "settings"
+        /**
+         * Settings are held in memory until they are explicitly refreshed, and never written to
+         * disk as they contain the user's email address and phone number.
+         */
+        @JvmField val POLICY = CachePolicy(CachePolicy.FOREVER)
+
+    }
+
+}
@@ -0,0 +1,120 @@
+package piuk.blockchain.android.data.startup;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.UiThread;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import io.reactivex.Completable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
+
+/**
+ * Runs initialization which isn't needed to draw the first screen after it has been drawn, so that
+ * it doesn't delay cold start.
+ *
+ * Idle tasks run on the main thread, in the order added and one per idle pass of the main looper,
+ * for work which must happen on the UI thread. Once they have all run, background tasks are started
+ * on the IO scheduler, so a background task can rely on every idle task having run. Each task is
+ * recorded as a section in the {@link StartupTracer}, and a failing task is logged without
+ * affecting the others.
+ */
+public class DeferredInitializer {
+
+    private final Deque<Task> idleTasks = new ArrayDeque<>();
+    private final List<Task> backgroundTasks = new ArrayList<>();
+    private final StartupTracer tracer;
+    private final Scheduler backgroundScheduler;
+
+    public DeferredInitializer(StartupTracer tracer) {
+        this(tracer, Schedulers.io());
+    }
+
+    DeferredInitializer(StartupTracer tracer, Scheduler backgroundScheduler) {
+        this.tracer = tracer;
+        this.backgroundScheduler = backgroundScheduler;
+    }
+
+    /**
+     * Adds a task to run on the main thread once it's idle.
+     */
+    public DeferredInitializer onIdle(String name, Runnable task) {
+        idleTasks.add(new Task(name, task));
+        return this;
+    }
+
+    /**
+     * Adds a task to run on a background thread once every idle task has run.
+     */
+    public DeferredInitializer inBackground(String name, Runnable task) {
+        backgroundTasks.add(new Task(name, task));
+        return this;
+    }
+
+    /**
+     * Starts waiting for the main looper to go idle. Must be called from the main thread.
+     */
+    @UiThread
+    public void start() {
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                return runNextIdleTask();
+            }
+        });
+    }
+
+    /**
+     * Runs the next idle task, or starts the background tasks once there are none left.
+     *
+     * @return True if there are more idle tasks to run
+     */
+    boolean runNextIdleTask() {
+        Task task = idleTasks.poll();
+        if (task != null) run(task);
+
+        if (idleTasks.isEmpty()) {
+            startBackgroundTasks();
+            return false;
+        }
+        return true;
+    }
+
+    private void startBackgroundTasks() {
+        for (Task task : backgroundTasks) {
+            Completable.fromAction(() -> run(task))
+                    .subscribeOn(backgroundScheduler)
+                    .subscribe();
+        }
+        backgroundTasks.clear();
+    }
+
+    private void run(Task task) {
+        tracer.beginSection(task.name);
+        try {
+            task.runnable.run();
+        } catch (Exception e) {
+            Timber.e(e, "Deferred initialization of %s failed", task.name);
+        } finally {
+            tracer.endSection(task.name);
+        }
+    }
+
+    private static final class Task {
+
+        final String name;
+        final Runnable runnable;
+
+        Task(String name, Runnable runnable) {
+            this.name = name;
+            this.runnable = runnable;
+        }
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package piuk.blockchain.android.data.startup
+
+import io.reactivex.Completable
+import java.util.concurrent.Callable
+
+/**
+ * Runs the steps needed after login as a dependency graph rather than a single chain, so that
+ * steps which don't depend on each other run concurrently. Each step runs at most once however
+ * many steps depend on it, and is recorded as a section in the [StartupTracer]. Failed steps are
+ * recorded with "(failed)" after their name.
+ *
+ * Critical steps are those the dashboard can't be shown without; [criticalPath] completes as soon
+ * as all of them have, while everything else carries on in [backgroundSteps]. A step must be added
+ * after its dependencies, which keeps the graph acyclic, and a critical step can only depend on
+ * other critical steps.
+ *
+ * @param tracer The trace which records each step
+ */
+class StartupOrchestrator(private val tracer: StartupTracer) {
+
+    private class Step(val critical: Boolean, val completable: Completable)
+
+    private val steps = LinkedHashMap<String, Step>()
+
+    /**
+     * Adds a step which must complete before the dashboard is shown. Its failure fails the
+     * [criticalPath].
+     *
+     * @param name A unique name for the step
+     * @param dependencies The names of the steps to complete first
+     * @param body Creates the work for this step, only once its dependencies have completed
+     */
+    fun addCriticalStep(name: String, dependencies: List<String>, body: Callable<Completable>) =
+            add(name, dependencies, true, body)
+
+    /**
+     * Adds a step which can complete after the dashboard is shown. If it fails, only the steps
+     * which depend on it are skipped.
+     *
+     * @param name A unique name for the step
+     * @param dependencies The names of the steps to complete first
+     * @param body Creates the work for this step, only once its dependencies have completed
+     */
+    fun addStep(name: String, dependencies: List<String>, body: Callable<Completable>) =
+            add(name, dependencies, false, body)
+
+    /**
+     * Completes once every critical step has completed, or fails with the first error.
+     */
+    fun criticalPath(): Completable = Completable.merge(steps.values.filter { it.critical }.map { it.completable })
+
+    /**
+     * Runs every step which isn't critical, and completes once they have all terminated. Fails with
+     * the errors of any failed steps only after the others have terminated.
+     */
+    fun backgroundSteps(): Completable =
+            Completable.mergeDelayError(steps.values.filterNot { it.critical }.map { it.completable })
+
+    private fun add(
+            name: String,
+            dependencies: List<String>,
+            critical: Boolean,
+            body: Callable<Completable>
+    ): StartupOrchestrator {
+        require(!steps.containsKey(name)) { "Step $name was already added" }
+        val upstream = dependencies.map {
+            val dependency = steps[it] ?: throw IllegalArgumentException("$name depends on $it, which must be added first")
+            require(!critical || dependency.critical) { "Critical step $name can't depend on $it" }
+            dependency.completable
+        }
+
+        val run = Completable.defer {
+            val start = tracer.now()
+            body.call()
+                    .doOnComplete { tracer.completeSection(name, start) }
+                    .doOnError { tracer.completeSection("$name (failed)", start) }
+        }
+
+        steps[name] = Step(critical, Completable.merge(upstream).andThen(run).cache())
+        return this
+    }
+
+}
@@ -0,0 +1,246 @@
+package piuk.blockchain.android.data.startup;
+
+import android.support.annotation.VisibleForTesting;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.schedulers.Schedulers;
+import piuk.blockchain.android.BuildConfig;
+import timber.log.Timber;
+
+/**
+ * A lightweight, process-wide trace of cold start, from {@code Application.onCreate} until the
+ * dashboard shows a balance. Records sections and counters which can be exported in the <a
+ * href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">Chrome
+ * trace event format</a> and opened in chrome://tracing.
+ *
+ * Sections started with {@link #beginSection(String)} must be ended on the same thread. Work which
+ * hops threads, such as an Rx chain, should take a timestamp with {@link #now()} and pass it to
+ * {@link #completeSection(String, long)} when done, which is how {@link StartupOrchestrator}
+ * records each step. Only enabled in debug builds, where recording is limited to
+ * {@link #MAX_EVENTS} events.
+ */
+public class StartupTracer {
+
+    public static final String TRACE_FILE_NAME = "startup-trace.json";
+
+    @VisibleForTesting static final int MAX_EVENTS = 10_000;
+
+    private static final int PID = 1;
+    private static final String CATEGORY = "startup";
+
+    private static StartupTracer instance;
+
+    private final List<Event> events = new ArrayList<>();
+    private final Clock clock;
+    private volatile boolean enabled = BuildConfig.DEBUG;
+    private long originNanos;
+
+    /**
+     * Returns the current time in nanoseconds, replaceable for testing.
+     */
+    @VisibleForTesting
+    interface Clock {
+        long nanoTime();
+    }
+
+    @VisibleForTesting
+    StartupTracer() {
+        this(System::nanoTime);
+    }
+
+    @VisibleForTesting
+    StartupTracer(Clock clock) {
+        this.clock = clock;
+        originNanos = clock.nanoTime();
+    }
+
+    public static synchronized StartupTracer getInstance() {
+        if (instance == null) {
+            instance = new StartupTracer();
+        }
+        return instance;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Discards all events and starts a new trace. Called as the process starts.
+     */
+    public synchronized void reset() {
+        events.clear();
+        originNanos = clock.nanoTime();
+    }
+
+    /**
+     * Returns a timestamp to pass to {@link #completeSection(String, long)}.
+     */
+    public long now() {
+        return clock.nanoTime();
+    }
+
+    public void beginSection(String name) {
+        add(new Event(name, 'B', now(), 0L, 0L));
+    }
+
+    public void endSection(String name) {
+        add(new Event(name, 'E', now(), 0L, 0L));
+    }
+
+    /**
+     * Records a section which started at {@code startNanos} and ends now.
+     *
+     * @param name       The name of the section
+     * @param startNanos A timestamp taken with {@link #now()}
+     */
+    public void completeSection(String name, long startNanos) {
+        add(new Event(name, 'X', startNanos, now() - startNanos, 0L));
+    }
+
+    public void counter(String name, long value) {
+        add(new Event(name, 'C', now(), 0L, value));
+    }
+
+    /**
+     * Returns the duration in milliseconds of every completed section, keyed by name. If a section
+     * was recorded more than once, the last one wins.
+     */
+    public synchronized Map<String, Long> getSectionDurations() {
+        Map<String, Long> durations = new HashMap<>();
+        Map<String, Long> open = new HashMap<>();
+        for (Event event : events) {
+            String key = event.threadName + ":" + event.name;
+            if (event.phase == 'B') {
+                open.put(key, event.timestampNanos);
+            } else if (event.phase == 'E' && open.containsKey(key)) {
+                durations.put(event.name, TimeUnit.NANOSECONDS.toMillis(event.timestampNanos - open.remove(key)));
+            } else if (event.phase == 'X') {
+                durations.put(event.name, TimeUnit.NANOSECONDS.toMillis(event.durationNanos));
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Writes the trace in Chrome trace event format.
+     */
+    public void writeChromeTrace(Writer writer) throws IOException {
+        List<Event> snapshot;
+        long origin;
+        synchronized (this) {
+            snapshot = new ArrayList<>(events);
+            origin = originNanos;
+        }
+
+        JsonGenerator generator = new JsonFactory().createGenerator(writer);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("traceEvents");
+        Map<Long, String> threads = new HashMap<>();
+        for (Event event : snapshot) {
+            threads.put(event.threadId, event.threadName);
+            generator.writeStartObject();
+            generator.writeStringField("name", event.name);
+            generator.writeStringField("cat", CATEGORY);
+            generator.writeStringField("ph", String.valueOf(event.phase));
+            generator.writeNumberField("ts", TimeUnit.NANOSECONDS.toMicros(event.timestampNanos - origin));
+            if (event.phase == 'X') {
+                generator.writeNumberField("dur", TimeUnit.NANOSECONDS.toMicros(event.durationNanos));
+            }
+            generator.writeNumberField("pid", PID);
+            generator.writeNumberField("tid", event.threadId);
+            if (event.phase == 'C') {
+                generator.writeObjectFieldStart("args");
+                generator.writeNumberField("value", event.value);
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+        for (Map.Entry<Long, String> thread : threads.entrySet()) {
+            generator.writeStartObject();
+            generator.writeStringField("name", "thread_name");
+            generator.writeStringField("ph", "M");
+            generator.writeNumberField("pid", PID);
+            generator.writeNumberField("tid", thread.getKey());
+            generator.writeObjectFieldStart("args");
+            generator.writeStringField("name", thread.getValue());
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeStringField("displayTimeUnit", "ms");
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    /**
+     * Writes the trace to {@code directory}/{@link #TRACE_FILE_NAME} on a background thread. Does
+     * nothing unless enabled. The file can be pulled from a debug build with {@code adb shell run-as
+     * piuk.blockchain.android cat files/startup-trace.json}.
+     *
+     * @param directory Usually {@code Context.getFilesDir()}
+     */
+    public void writeChromeTraceAsync(File directory) {
+        if (!enabled || directory == null) return;
+
+        Completable.fromAction(() -> {
+            Writer writer = new FileWriter(new File(directory, TRACE_FILE_NAME));
+            try {
+                writeChromeTrace(writer);
+            } finally {
+                writer.close();
+            }
+        }).subscribeOn(Schedulers.io())
+                .subscribe(() -> Timber.d("Startup trace written to %s", directory),
+                        throwable -> Timber.e(throwable, "Failed to write startup trace"));
+    }
+
+    @VisibleForTesting
+    synchronized int getEventCount() {
+        return events.size();
+    }
+
+    private void add(Event event) {
+        if (!enabled) return;
+        synchronized (this) {
+            if (events.size() < MAX_EVENTS) events.add(event);
+        }
+    }
+
+    private static final class Event {
+
+        final String name;
+        final char phase;
+        final long timestampNanos;
+        final long durationNanos;
+        final long value;
+        final long threadId;
+        final String threadName;
+
+        Event(String name, char phase, long timestampNanos, long durationNanos, long value) {
+            Thread thread = Thread.currentThread();
+            this.name = name;
+            this.phase = phase;
+            this.timestampNanos = timestampNanos;
+            this.durationNanos = durationNanos;
+            this.value = value;
+            this.threadId = thread.getId();
+            this.threadName = thread.getName();
+        }
+
+    }
+
+}
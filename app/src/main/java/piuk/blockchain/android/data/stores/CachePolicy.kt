@@ -0,0 +1,32 @@
+package piuk.blockchain.android.data.stores
+
+/**
+ * Describes how long a value held by a [TieredStore] is considered fresh, and what happens once
+ * it isn't.
+ *
+ * @param timeToLive The time in milliseconds after being stored that a value becomes stale
+ * @param staleWhileRevalidate If true, a stale value is emitted immediately followed by the fresh
+ * value from the network. If false, stale values are ignored and the network is awaited.
+ * @param persistToDisk If true, values are also written to the disk tier where one is available,
+ * so that they survive the app being killed
+ */
+data class CachePolicy(
+        val timeToLive: Long,
+        val staleWhileRevalidate: Boolean = false,
+        val persistToDisk: Boolean = false
+) {
+
+    internal fun isFresh(storedAt: Long, now: Long): Boolean =
+            timeToLive == FOREVER || now - storedAt < timeToLive
+
+    companion object {
+
+        /**
+         * A [timeToLive] for values which never go stale, and are only replaced by fetching fresh
+         * data or invalidating the store.
+         */
+        const val FOREVER = Long.MAX_VALUE
+
+    }
+
+}
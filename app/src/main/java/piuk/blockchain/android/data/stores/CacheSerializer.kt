@@ -0,0 +1,12 @@
+package piuk.blockchain.android.data.stores
+
+/**
+ * Converts values to and from bytes so that a [TieredStore] can write them to its disk tier.
+ */
+interface CacheSerializer<T> {
+
+    fun serialize(value: T): ByteArray
+
+    fun deserialize(bytes: ByteArray): T
+
+}
@@ -0,0 +1,65 @@
+package piuk.blockchain.android.data.stores
+
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Hit and miss counters for a [TieredStore]. Counters are updated from whichever thread the
+ * fetch is subscribed on, so are atomic.
+ */
+class CacheStats {
+
+    private val memoryHits = AtomicLong()
+    private val diskHits = AtomicLong()
+    private val staleHits = AtomicLong()
+    private val misses = AtomicLong()
+    private val coalescedRequests = AtomicLong()
+
+    /**
+     * The number of fetches served fresh from memory.
+     */
+    fun getMemoryHits(): Long = memoryHits.get()
+
+    /**
+     * The number of fetches served fresh from disk.
+     */
+    fun getDiskHits(): Long = diskHits.get()
+
+    /**
+     * The number of fetches served a stale value while the network was queried.
+     */
+    fun getStaleHits(): Long = staleHits.get()
+
+    /**
+     * The number of fetches which had to wait for the network.
+     */
+    fun getMisses(): Long = misses.get()
+
+    /**
+     * The number of network requests avoided by joining one already in flight.
+     */
+    fun getCoalescedRequests(): Long = coalescedRequests.get()
+
+    /**
+     * The fraction of fetches served without waiting for the network, between 0 and 1.
+     */
+    fun getHitRate(): Double {
+        val hits = memoryHits.get() + diskHits.get() + staleHits.get()
+        val total = hits + misses.get()
+        return if (total == 0L) 0.0 else hits.toDouble() / total
+    }
+
+    internal fun recordMemoryHit() = memoryHits.incrementAndGet()
+
+    internal fun recordDiskHit() = diskHits.incrementAndGet()
+
+    internal fun recordStaleHit() = staleHits.incrementAndGet()
+
+    internal fun recordMiss() = misses.incrementAndGet()
+
+    internal fun recordCoalescedRequest() = coalescedRequests.incrementAndGet()
+
+    override fun toString(): String =
+            "CacheStats(memoryHits=$memoryHits, diskHits=$diskHits, staleHits=$staleHits, " +
+                    "misses=$misses, coalescedRequests=$coalescedRequests)"
+
+}
@@ -0,0 +1,173 @@
+package piuk.blockchain.android.data.stores
+
+import info.blockchain.wallet.crypto.AESUtil
+import info.blockchain.wallet.payload.PayloadManager
+import org.spongycastle.crypto.PBEParametersGenerator
+import org.spongycastle.crypto.digests.SHA256Digest
+import org.spongycastle.crypto.engines.AESEngine
+import org.spongycastle.crypto.generators.PKCS5S2ParametersGenerator
+import org.spongycastle.crypto.modes.GCMBlockCipher
+import org.spongycastle.crypto.params.AEADParameters
+import org.spongycastle.crypto.params.KeyParameter
+import org.spongycastle.util.encoders.Hex
+import piuk.blockchain.android.util.annotations.Mockable
+import timber.log.Timber
+import java.io.File
+import java.security.SecureRandom
+
+/**
+ * Stores blobs of data on disk, encrypted with AES-GCM using a key derived from the wallet
+ * password. Each blob gets its own file, named by a hash of the wallet GUID and the blob's name so
+ * that no xPubs, addresses or other identifiers leak into the filesystem. The key is derived once
+ * per session and wiped by [clearKey] or [invalidate].
+ *
+ * Nothing can be read or written until the wallet has been decrypted.
+ *
+ * @param parentDir The directory to create [directoryName] in, usually `Context.getFilesDir()`
+ * @param directoryName The directory holding this store's files
+ * @param payloadManager Provides the wallet GUID and password
+ */
+@Mockable
+class EncryptedFileStore(
+        private val parentDir: File,
+        private val directoryName: String,
+        private val payloadManager: PayloadManager
+) {
+
+    private val secureRandom = SecureRandom()
+    private var sessionKey: ByteArray? = null
+    private var sessionGuid: String? = null
+
+    /**
+     * Returns the decrypted contents of a blob, or null if nothing has been stored, the wallet
+     * isn't decrypted or the file is unreadable. Unreadable files are deleted.
+     *
+     * @param name A stable name for the blob
+     */
+    @Synchronized
+    fun read(name: String): ByteArray? {
+        val key = getKey() ?: return null
+        val file = getFile(name) ?: return null
+        if (!file.exists()) return null
+
+        return try {
+            decrypt(file.readBytes(), key)
+        } catch (e: Exception) {
+            Timber.e(e, "Unable to read $directoryName, discarding")
+            file.delete()
+            null
+        }
+    }
+
+    /**
+     * Encrypts and replaces the contents of a blob. The file is written in full before being
+     * swapped in, so a crash never leaves a partially written file behind.
+     *
+     * @param name A stable name for the blob
+     * @param data The plaintext to store
+     */
+    @Synchronized
+    fun write(name: String, data: ByteArray) {
+        val key = getKey() ?: return
+        val file = getFile(name) ?: return
+
+        try {
+            val temp = File(file.parentFile, "${file.name}.tmp")
+            temp.writeBytes(encrypt(data, key))
+            if (!temp.renameTo(file)) temp.delete()
+        } catch (e: Exception) {
+            Timber.e(e, "Unable to write $directoryName")
+        }
+    }
+
+    /**
+     * Deletes a single blob.
+     *
+     * @param name A stable name for the blob
+     */
+    @Synchronized
+    fun delete(name: String) {
+        getFile(name)?.delete()
+    }
+
+    /**
+     * Wipes the in-memory key and deletes every blob. Should be called when the wallet is
+     * unpaired from the device.
+     */
+    @Synchronized
+    fun invalidate() {
+        clearKey()
+        getDirectory().listFiles()?.forEach { it.delete() }
+    }
+
+    /**
+     * Wipes only the in-memory key, leaving the encrypted files in place for the next session.
+     */
+    @Synchronized
+    fun clearKey() {
+        sessionKey?.fill(0)
+        sessionKey = null
+        sessionGuid = null
+    }
+
+    private fun getKey(): ByteArray? {
+        val password = payloadManager.tempPassword ?: return null
+        val guid = payloadManager.payload?.guid ?: return null
+        if (sessionGuid == guid) sessionKey?.let { return it }
+
+        clearKey()
+        val generator = PKCS5S2ParametersGenerator(SHA256Digest()).apply {
+            init(
+                    PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(password.toCharArray()),
+                    guid.toByteArray(Charsets.UTF_8),
+                    AESUtil.PIN_PBKDF2_ITERATIONS
+            )
+        }
+        val derived = (generator.generateDerivedParameters(KEY_BIT_LENGTH) as KeyParameter).key
+        sessionKey = derived
+        sessionGuid = guid
+        return derived
+    }
+
+    private fun getFile(name: String): File? {
+        val guid = payloadManager.payload?.guid ?: return null
+        val digest = SHA256Digest()
+        val input = "$guid:$name".toByteArray(Charsets.UTF_8)
+        val output = ByteArray(digest.digestSize)
+        digest.update(input, 0, input.size)
+        digest.doFinal(output, 0)
+        return File(getDirectory(), String(Hex.encode(output)))
+    }
+
+    private fun getDirectory(): File = File(parentDir, directoryName).apply { mkdirs() }
+
+    private fun encrypt(plaintext: ByteArray, key: ByteArray): ByteArray {
+        val iv = ByteArray(IV_LENGTH).apply { secureRandom.nextBytes(this) }
+        val cipher = GCMBlockCipher(AESEngine()).apply {
+            init(true, AEADParameters(KeyParameter(key), MAC_BIT_LENGTH, iv))
+        }
+        val output = ByteArray(cipher.getOutputSize(plaintext.size))
+        val length = cipher.processBytes(plaintext, 0, plaintext.size, output, 0)
+        cipher.doFinal(output, length)
+        return iv + output
+    }
+
+    private fun decrypt(data: ByteArray, key: ByteArray): ByteArray {
+        val cipher = GCMBlockCipher(AESEngine()).apply {
+            init(false, AEADParameters(KeyParameter(key), MAC_BIT_LENGTH, data.copyOfRange(0, IV_LENGTH)))
+        }
+        val output = ByteArray(cipher.getOutputSize(data.size - IV_LENGTH))
+        val length = cipher.processBytes(data, IV_LENGTH, data.size - IV_LENGTH, output, 0)
+        cipher.doFinal(output, length)
+        return output
+    }
+
+    companion object {
+
+        private const val KEY_BIT_LENGTH = 256
+        private const val MAC_BIT_LENGTH = 128
+        private const val IV_LENGTH = 12
+
+    }
+
+}
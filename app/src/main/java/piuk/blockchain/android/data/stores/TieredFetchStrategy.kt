@@ -0,0 +1,18 @@
+package piuk.blockchain.android.data.stores
+
+import io.reactivex.Observable
+
+/**
+ * Fetches a single key through a [TieredStore], returning the freshest cached value allowed by
+ * the [CachePolicy] and falling back to the web source.
+ */
+class TieredFetchStrategy<K : Any, T : Any>(
+        private val key: K,
+        private val webSource: Observable<T>,
+        private val store: TieredStore<K, T>,
+        private val policy: CachePolicy
+) : FetchStrategy<T>() {
+
+    override fun fetch(): Observable<T> = store.fetch(key, webSource, policy)
+
+}
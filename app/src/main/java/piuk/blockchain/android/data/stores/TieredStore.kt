@@ -0,0 +1,189 @@
+package piuk.blockchain.android.data.stores
+
+import io.reactivex.Observable
+import piuk.blockchain.android.util.annotations.Mockable
+import timber.log.Timber
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * A keyed cache with a memory tier and an optional encrypted disk tier, which sits in front of a
+ * network source. How long values stay fresh and whether stale values are emitted while the
+ * network is queried is decided per fetch by a [CachePolicy].
+ *
+ * Concurrent fetches for the same key share a single network request, and every fetch is counted
+ * in [stats].
+ *
+ * @param defaultPolicy The [CachePolicy] used when none is passed to [fetch]
+ * @param diskStore An optional disk tier, used only for policies which persist to disk
+ * @param serializer Converts values for the disk tier, required if [diskStore] is set
+ * @param clock Returns the current time in milliseconds, replaceable for testing
+ */
+@Mockable
+class TieredStore<K : Any, V : Any> @JvmOverloads constructor(
+        private val defaultPolicy: CachePolicy,
+        private val diskStore: EncryptedFileStore? = null,
+        private val serializer: CacheSerializer<V>? = null,
+        private val clock: () -> Long = { System.currentTimeMillis() }
+) {
+
+    val stats = CacheStats()
+    private val memory = ConcurrentHashMap<Any, Entry<V>>()
+    private val inFlight = ConcurrentHashMap<Any, Observable<V>>()
+
+    /**
+     * Returns the value for a key from the first tier holding it fresh, otherwise from the
+     * network. If the policy allows stale-while-revalidate, a stale value is emitted first and
+     * followed by the network result; errors from the network are then logged rather than
+     * propagated, as the subscriber already has a value.
+     *
+     * @param key The key for the value
+     * @param webSource The network source, only subscribed to if needed
+     * @param policy The [CachePolicy] for this fetch
+     * @return An [Observable] emitting one or two values
+     */
+    fun fetch(key: K, webSource: Observable<V>, policy: CachePolicy = defaultPolicy): Observable<V> =
+            Observable.defer {
+                val memoryEntry = memory[key]
+                val entry = memoryEntry ?: readFromDisk(key, policy)
+                if (memoryEntry == null && entry != null) memory.putIfAbsent(key, entry)
+
+                when {
+                    entry != null && policy.isFresh(entry.storedAt, clock()) -> {
+                        if (memoryEntry != null) stats.recordMemoryHit() else stats.recordDiskHit()
+                        Observable.just(entry.value)
+                    }
+                    entry != null && policy.staleWhileRevalidate -> {
+                        stats.recordStaleHit()
+                        Observable.just(entry.value).concatWith(
+                                getWebObservable(key, webSource, policy)
+                                        .doOnError { Timber.e(it, "Unable to revalidate $key") }
+                                        .onErrorResumeNext(Observable.empty())
+                        )
+                    }
+                    else -> {
+                        stats.recordMiss()
+                        getWebObservable(key, webSource, policy)
+                    }
+                }
+            }
+
+    /**
+     * Ignores any cached value and fetches from the network, storing the result. This always
+     * starts a new request, as one already in flight may have been sent before a change the
+     * caller needs to see. Later calls to [fetch] join this request instead.
+     *
+     * @param key The key for the value
+     * @param webSource The network source
+     * @param policy The [CachePolicy] for this fetch
+     * @return An [Observable] emitting the fresh value
+     */
+    fun fetchFresh(key: K, webSource: Observable<V>, policy: CachePolicy = defaultPolicy): Observable<V> =
+            Observable.defer { getWebObservable(key, webSource, policy, joinInFlight = false) }
+
+    /**
+     * Stores a value in memory, and on disk if the policy persists to disk.
+     */
+    fun put(key: K, value: V, policy: CachePolicy = defaultPolicy) {
+        val entry = Entry(value, clock())
+        memory.put(key, entry)
+        if (policy.persistToDisk) writeToDisk(key, entry)
+    }
+
+    /**
+     * Returns the value held in memory for a key regardless of its age, or null if there isn't one.
+     */
+    fun peek(key: K): V? = memory[key]?.value
+
+    /**
+     * Removes a value from every tier.
+     */
+    fun invalidate(key: K) {
+        memory.remove(key)
+        diskStore?.delete(key.toString())
+    }
+
+    /**
+     * Removes every value held in memory. Values on disk remain encrypted until the disk tier
+     * itself is invalidated.
+     */
+    fun invalidateAll() {
+        memory.clear()
+    }
+
+    private fun getWebObservable(
+            key: K,
+            webSource: Observable<V>,
+            policy: CachePolicy,
+            joinInFlight: Boolean = true
+    ): Observable<V> {
+        if (joinInFlight) {
+            inFlight[key]?.let {
+                stats.recordCoalescedRequest()
+                return it
+            }
+        }
+
+        val self = AtomicReference<Observable<V>>()
+        val request = webSource.doOnNext { put(key, it, policy) }
+                // Only remove this request, a newer one may have replaced it
+                .doFinally { inFlight.remove(key, self.get()) }
+                .replay(1)
+                .refCount()
+        self.set(request)
+
+        if (!joinInFlight) {
+            inFlight.put(key, request)
+            return request
+        }
+
+        val existing = inFlight.putIfAbsent(key, request)
+        return if (existing != null) {
+            stats.recordCoalescedRequest()
+            existing
+        } else {
+            request
+        }
+    }
+
+    private fun readFromDisk(key: K, policy: CachePolicy): Entry<V>? {
+        if (!policy.persistToDisk || diskStore == null || serializer == null) return null
+        val bytes = diskStore.read(key.toString()) ?: return null
+
+        return try {
+            DataInputStream(ByteArrayInputStream(bytes)).use {
+                val storedAt = it.readLong()
+                val value = ByteArray(it.readInt()).apply { it.readFully(this) }
+                Entry(serializer.deserialize(value), storedAt)
+            }
+        } catch (e: Exception) {
+            Timber.e(e, "Unable to read $key from disk, discarding")
+            diskStore.delete(key.toString())
+            null
+        }
+    }
+
+    private fun writeToDisk(key: K, entry: Entry<V>) {
+        if (diskStore == null || serializer == null) return
+
+        try {
+            val value = serializer.serialize(entry.value)
+            val bytes = ByteArrayOutputStream()
+            DataOutputStream(bytes).use {
+                it.writeLong(entry.storedAt)
+                it.writeInt(value.size)
+                it.write(value)
+            }
+            diskStore.write(key.toString(), bytes.toByteArray())
+        } catch (e: Exception) {
+            Timber.e(e, "Unable to write $key to disk")
+        }
+    }
+
+    private class Entry<out V>(val value: V, val storedAt: Long)
+
+}
@@ -0,0 +1,155 @@
+package piuk.blockchain.android.data.stores
+
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import info.blockchain.wallet.payload.PayloadManager
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.data.transactions.CachedDisplayable
+import piuk.blockchain.android.data.transactions.Displayable
+import piuk.blockchain.android.util.annotations.Mockable
+import timber.log.Timber
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.math.BigInteger
+
+/**
+ * Persists the most recent page of [Displayable] objects for each account to disk, so that the
+ * transaction list can be shown immediately on a cold start and then reconciled with the network.
+ *
+ * Each account gets its own blob in an [EncryptedFileStore]. The contents are compact binary
+ * records keyed by Tx hash.
+ */
+@Mockable
+class TransactionDiskStore(private val fileStore: EncryptedFileStore) {
+
+    /**
+     * Returns the persisted list of Txs for a given account, sorted as they were written. Returns
+     * an empty list if nothing has been stored, the wallet isn't decrypted or the file is unreadable.
+     *
+     * @param accountKey A stable identifier for the account, ie an xPub or [PayloadManager.MULTI_ADDRESS_ALL]
+     */
+    @Synchronized
+    fun read(accountKey: String): List<Displayable> {
+        val data = fileStore.read(accountKey) ?: return emptyList()
+
+        return try {
+            decode(data)
+        } catch (e: Exception) {
+            Timber.e(e, "Unable to decode transaction cache, discarding")
+            fileStore.delete(accountKey)
+            emptyList()
+        }
+    }
+
+    /**
+     * Replaces the persisted list of Txs for a given account. Pending Txs are never written as they
+     * are only placeholders until the network confirms them. Duplicate hashes are dropped.
+     *
+     * @param accountKey A stable identifier for the account, ie an xPub or [PayloadManager.MULTI_ADDRESS_ALL]
+     * @param transactions The list of [Displayable] objects to persist
+     */
+    @Synchronized
+    fun write(accountKey: String, transactions: List<Displayable>) {
+        val unique = LinkedHashMap<String, Displayable>()
+        transactions.filterNot { it.isPending }.forEach { unique.put(it.hash, it) }
+        fileStore.write(accountKey, encode(unique.values))
+    }
+
+    /**
+     * Wipes the in-memory key and deletes all persisted Txs. Should be called when the wallet is
+     * unpaired from the device.
+     */
+    fun invalidate() {
+        fileStore.invalidate()
+    }
+
+    /**
+     * Wipes only the in-memory key, leaving the encrypted files in place for the next session.
+     */
+    fun clearKey() {
+        fileStore.clearKey()
+    }
+
+    private fun encode(transactions: Collection<Displayable>): ByteArray {
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { out ->
+            out.writeInt(FORMAT_VERSION)
+            out.writeInt(transactions.size)
+            transactions.forEach {
+                out.writeByte(it.cryptoCurrency.ordinal)
+                out.writeUTF(it.hash)
+                out.writeLong(it.timeStamp)
+                out.writeByte(it.direction.ordinal)
+                out.writeBigInteger(it.total)
+                out.writeBigInteger(it.fee)
+                out.writeInt(it.confirmations)
+                out.writeBoolean(it.watchOnly)
+                out.writeBoolean(it.doubleSpend)
+                out.writeAddressMap(it.inputsMap)
+                out.writeAddressMap(it.outputsMap)
+            }
+        }
+        return bytes.toByteArray()
+    }
+
+    private fun decode(data: ByteArray): List<Displayable> =
+            DataInputStream(ByteArrayInputStream(data)).use { input ->
+                if (input.readInt() != FORMAT_VERSION) return emptyList()
+
+                val count = input.readInt()
+                (0 until count).map {
+                    CachedDisplayable(
+                            cryptoCurrency = CryptoCurrencies.values()[input.readByte().toInt()],
+                            hash = input.readUTF(),
+                            timeStamp = input.readLong(),
+                            direction = TransactionSummary.Direction.values()[input.readByte().toInt()],
+                            total = input.readBigInteger(),
+                            fee = input.readBigInteger(),
+                            confirmations = input.readInt(),
+                            watchOnly = input.readBoolean(),
+                            doubleSpend = input.readBoolean(),
+                            inputsMap = input.readAddressMap(),
+                            outputsMap = input.readAddressMap()
+                    )
+                }
+            }
+
+    private fun DataOutputStream.writeBigInteger(value: BigInteger) {
+        val bytes = value.toByteArray()
+        writeShort(bytes.size)
+        write(bytes)
+    }
+
+    private fun DataInputStream.readBigInteger(): BigInteger {
+        val bytes = ByteArray(readUnsignedShort())
+        readFully(bytes)
+        return BigInteger(bytes)
+    }
+
+    private fun DataOutputStream.writeAddressMap(map: Map<String, BigInteger>) {
+        writeInt(map.size)
+        map.forEach { (address, value) ->
+            writeUTF(address)
+            writeBigInteger(value)
+        }
+    }
+
+    private fun DataInputStream.readAddressMap(): HashMap<String, BigInteger> {
+        val size = readInt()
+        return HashMap<String, BigInteger>(size).apply {
+            repeat(size) { put(readUTF(), readBigInteger()) }
+        }
+    }
+
+    companion object {
+
+        /**
+         * The directory under which the encrypted Txs are stored.
+         */
+        const val DIRECTORY_NAME = "tx_cache"
+        private const val FORMAT_VERSION = 1
+
+    }
+
+}
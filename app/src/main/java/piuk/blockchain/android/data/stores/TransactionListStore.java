@@ -1,45 +1,250 @@
 package piuk.blockchain.android.data.stores;
 
-import info.blockchain.wallet.multiaddress.TransactionSummary;
+import android.support.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import piuk.blockchain.android.data.transactions.Displayable;
 import piuk.blockchain.android.data.transactions.DisplayableDateComparator;
 
 /**
- * Contains both a list of {@link TransactionSummary} objects and also a Map of transaction
- * confirmations keyed to their Transaction's hash.
+ * Contains both a list of {@link Displayable} objects and also an index of the listed Txs keyed to
+ * their hash, for constant time lookups. The number of confirmations of recently seen Txs is kept
+ * separately, so that it survives switching accounts for the Contacts page.
+ * <p>
+ * The list is always kept sorted by date, newest first. Single Txs are placed with a binary
+ * search and pages of Txs are merged in linearly, so the list is never re-sorted as a whole.
+ * Txs are unique by hash; inserting a Tx with a known hash replaces the old entry.
+ * <p>
+ * Txs are written on the IO thread and read on the main thread, so every method which touches the
+ * index or confirmations is synchronized.
  */
 public class TransactionListStore extends ListStore<Displayable> {
 
-    private HashMap<String, Integer> txConfirmationsMap = new HashMap<>();
+    private static final DisplayableDateComparator COMPARATOR = DisplayableDateComparator.INSTANCE;
+
+    /**
+     * The number of recently seen Txs whose confirmations are kept.
+     */
+    private static final int MAX_CONFIRMATIONS = 500;
+
+    private final HashMap<String, Displayable> txIndex = new HashMap<>();
+    private final Map<String, Integer> confirmations =
+            new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                    return size() > MAX_CONFIRMATIONS;
+                }
+            };
 
     public TransactionListStore() {
         // Empty constructor
     }
 
-    public void insertTransactionIntoListAndSort(Displayable transaction) {
-        insertObjectIntoList(transaction);
-        getTxConfirmationsMap().put(transaction.getHash(), transaction.getConfirmations());
-        sort(new DisplayableDateComparator());
+    public synchronized void insertTransactionIntoListAndSort(Displayable transaction) {
+        List<Displayable> list = getList();
+        if (txIndex.containsKey(transaction.getHash())) {
+            removeDuplicates(list, Collections.singleton(transaction.getHash()));
+        }
+        list.add(getInsertionIndex(list, transaction), transaction);
+        index(transaction);
+    }
+
+    /**
+     * Merges a page of Txs into the list. The page is sorted first only if it isn't already, which
+     * is normally the case for Txs returned from the API.
+     *
+     * @param transactions A page of Txs, ideally already sorted newest first
+     */
+    public synchronized void insertTransactions(@Nullable List<Displayable> transactions) {
+        if (transactions == null || transactions.isEmpty()) return;
+
+        List<Displayable> page = transactions;
+        if (!isSorted(page)) {
+            page = new ArrayList<>(transactions);
+            Collections.sort(page, COMPARATOR);
+        }
+
+        Set<String> hashes = new HashSet<>(page.size());
+        boolean hasKnownTxs = false;
+        for (Displayable summary : page) {
+            hashes.add(summary.getHash());
+            if (index(summary) != null) hasKnownTxs = true;
+        }
+
+        List<Displayable> list = getList();
+        if (hasKnownTxs) removeDuplicates(list, hashes);
+        merge(list, page);
+    }
+
+    @Override
+    public synchronized void removeObjectFromList(Displayable object) {
+        super.removeObjectFromList(object);
+        txIndex.remove(object.getHash());
+    }
+
+    /**
+     * Clears the list of Txs and their index, but keeps the confirmations of Txs seen so far.
+     */
+    @Override
+    public synchronized void clearList() {
+        super.clearList();
+        txIndex.clear();
+    }
+
+    /**
+     * Returns the most recent version of a listed Tx with the given hash, or null if it isn't in
+     * the list.
+     *
+     * @param hash The hash of the Tx
+     * @return The matching {@link Displayable}, or null if not found
+     */
+    @Nullable
+    public synchronized Displayable getTxFromHash(String hash) {
+        return txIndex.get(hash);
+    }
+
+    /**
+     * Returns the number of confirmations of a recently seen Tx, even if it belongs to an account
+     * which is no longer listed. This is for displaying confirmations in the Contacts page.
+     *
+     * @param hash The hash of the Tx
+     * @return The number of confirmations, or null if the Tx hasn't been seen recently
+     */
+    @Nullable
+    public synchronized Integer getConfirmations(String hash) {
+        return confirmations.get(hash);
+    }
+
+    /**
+     * Returns all known Txs matching the given hashes, in the order the hashes are supplied.
+     * Unknown hashes are skipped.
+     *
+     * @param hashes A collection of Tx hashes
+     * @return A list of matching {@link Displayable} objects
+     */
+    public synchronized List<Displayable> getTxsFromHashes(Collection<String> hashes) {
+        List<Displayable> result = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            Displayable displayable = txIndex.get(hash);
+            if (displayable != null) result.add(displayable);
+        }
+        return result;
     }
 
-    public void insertTransactions(List<Displayable> transactions) {
-        insertBulk(transactions);
-        for (Displayable summary : transactions) {
-            getTxConfirmationsMap().put(summary.getHash(), summary.getConfirmations());
+    /**
+     * Drops the newest confirmed Txs until no more than the given number remain, so that paging
+     * back through a long history holds a sliding window of it in memory. Pending Txs are kept, as
+     * are the confirmations of those dropped.
+     *
+     * @param maxSize The maximum number of confirmed Txs to keep
+     * @return The number of Txs dropped
+     */
+    public synchronized int trimNewest(int maxSize) {
+        List<Displayable> list = getList();
+        int excess = -maxSize;
+        for (Displayable displayable : list) {
+            if (!displayable.isPending()) excess++;
+        }
+        if (excess <= 0) return 0;
+
+        int dropped = 0;
+        int write = 0;
+        for (int read = 0; read < list.size(); read++) {
+            Displayable displayable = list.get(read);
+            if (dropped < excess && !displayable.isPending()) {
+                txIndex.remove(displayable.getHash());
+                dropped++;
+            } else {
+                list.set(write++, displayable);
+            }
         }
-        sort(new DisplayableDateComparator());
+        list.subList(write, list.size()).clear();
+        return dropped;
     }
 
     /**
-     * Returns a {@link HashMap} where a {@link TransactionSummary} hash is used as a key against
-     * the confirmation number. This is for displaying the confirmation number in the Contacts page.
+     * Clears the list of Txs, the hash index and every known number of confirmations.
      */
-    public HashMap<String, Integer> getTxConfirmationsMap() {
-        return txConfirmationsMap;
+    public synchronized void clearAll() {
+        clearList();
+        confirmations.clear();
+    }
+
+    @Nullable
+    private Displayable index(Displayable transaction) {
+        confirmations.put(transaction.getHash(), transaction.getConfirmations());
+        return txIndex.put(transaction.getHash(), transaction);
+    }
+
+    /**
+     * Merges a sorted page into the sorted list in place, working backwards from the end of the
+     * list so that no intermediate copy is needed. Where timestamps are equal, existing Txs stay
+     * ahead of new ones.
+     */
+    private static void merge(List<Displayable> list, List<Displayable> page) {
+        int existing = list.size();
+        // Grow the list to its final size, the placeholders are overwritten below
+        list.addAll(page);
+        if (existing == 0) return;
+
+        int i = existing - 1;
+        int j = page.size() - 1;
+        int k = list.size() - 1;
+        while (j >= 0) {
+            if (i >= 0 && COMPARATOR.compare(list.get(i), page.get(j)) > 0) {
+                list.set(k--, list.get(i--));
+            } else {
+                list.set(k--, page.get(j--));
+            }
+        }
+    }
+
+    /**
+     * Returns the position after the last Tx that sorts before or alongside the new Tx.
+     */
+    private static int getInsertionIndex(List<Displayable> list, Displayable transaction) {
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (COMPARATOR.compare(list.get(mid), transaction) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isSorted(List<Displayable> list) {
+        for (int i = 1; i < list.size(); i++) {
+            if (COMPARATOR.compare(list.get(i - 1), list.get(i)) > 0) return false;
+        }
+        return true;
+    }
+
+    private static void removeDuplicates(List<Displayable> list, Set<String> hashes) {
+        if (list.isEmpty()) return;
+
+        int write = 0;
+        for (int read = 0; read < list.size(); read++) {
+            Displayable displayable = list.get(read);
+            if (!hashes.contains(displayable.getHash())) {
+                list.set(write++, displayable);
+            }
+        }
+        if (write < list.size()) {
+            list.subList(write, list.size()).clear();
+        }
     }
 
 }
@@ -17,4 +17,13 @@ class DisplayableDateComparator : Comparator<Displayable> {
         }
     }
 
+    companion object {
+
+        /**
+         * A shared instance, as the comparator holds no state.
+         */
+        @JvmField val INSTANCE = DisplayableDateComparator()
+
+    }
+
 }
@@ -7,6 +7,11 @@ import piuk.blockchain.android.data.ethereum.models.CombinedEthModel
 import piuk.blockchain.android.util.annotations.Mockable
 import java.math.BigInteger
 
+/**
+ * A transaction as shown in the transaction list. Implementations should compute any derived
+ * values once on construction rather than in getters, as these are read repeatedly whilst binding
+ * and scrolling the list.
+ */
 abstract class Displayable {
 
     abstract val cryptoCurrency: CryptoCurrencies
@@ -17,6 +22,11 @@ abstract class Displayable {
     abstract val hash: String
     abstract val inputsMap: HashMap<String, BigInteger>
     abstract val outputsMap: HashMap<String, BigInteger>
+    /**
+     * [total] as a long, in satoshis for BTC and in gwei for ETH as amounts in wei can overflow a
+     * long. Derived from the same value as [total], for cheap conversion when binding.
+     */
+    abstract val totalAsLong: Long
     open val confirmations = 0
     open val watchOnly: Boolean = false
     open val doubleSpend: Boolean = false
@@ -31,34 +41,25 @@ data class EthDisplayable(
         private val blockHeight: Long
 ) : Displayable() {
 
-    override val cryptoCurrency: CryptoCurrencies
-        get() = CryptoCurrencies.ETHER
-    override val direction: TransactionSummary.Direction
-        get() = when {
-            combinedEthModel.getAccounts().contains(ethTransaction.from) -> TransactionSummary.Direction.SENT
-            else -> TransactionSummary.Direction.RECEIVED
-        }
-    override val timeStamp: Long
-        get() = ethTransaction.timeStamp
-    override val total: BigInteger
-        get() = when (direction) {
-            TransactionSummary.Direction.RECEIVED -> ethTransaction.value
-            else -> ethTransaction.value.plus(fee)
-        }
-    override val fee: BigInteger
-        get() = ethTransaction.gasUsed.multiply(ethTransaction.gasPrice)
-    override val hash: String
-        get() = ethTransaction.hash
-    override val inputsMap: HashMap<String, BigInteger>
-        get() = HashMap<String, BigInteger>().apply {
-            put(ethTransaction.from, ethTransaction.value)
-        }
-    override val outputsMap: HashMap<String, BigInteger>
-        get() = HashMap<String, BigInteger>().apply {
-            put(ethTransaction.to, ethTransaction.value)
-        }
-    override val confirmations: Int
-        get() = (blockHeight - ethTransaction.blockNumber).toInt()
+    override val cryptoCurrency: CryptoCurrencies = CryptoCurrencies.ETHER
+    override val direction: TransactionSummary.Direction = when {
+        combinedEthModel.getAccounts().contains(ethTransaction.from) -> TransactionSummary.Direction.SENT
+        else -> TransactionSummary.Direction.RECEIVED
+    }
+    override val timeStamp: Long = ethTransaction.timeStamp
+    override val fee: BigInteger = ethTransaction.gasUsed.multiply(ethTransaction.gasPrice)
+    override val total: BigInteger = when (direction) {
+        TransactionSummary.Direction.RECEIVED -> ethTransaction.value
+        else -> ethTransaction.value.plus(fee)
+    }
+    override val totalAsLong: Long = total.divide(WEI_PER_GWEI).toLong()
+    override val hash: String = ethTransaction.hash
+    override val inputsMap: HashMap<String, BigInteger> =
+            hashMapOf(ethTransaction.from to ethTransaction.value)
+    override val outputsMap: HashMap<String, BigInteger> =
+            hashMapOf(ethTransaction.to to ethTransaction.value)
+    override val confirmations: Int = (blockHeight - ethTransaction.blockNumber).toInt()
+
 }
 
 @Mockable
@@ -66,14 +67,15 @@ data class BtcDisplayable(
         private val transactionSummary: TransactionSummary
 ) : Displayable() {
 
+    // Nothing else here is derived, so the rest read straight through to the summary
     override val cryptoCurrency: CryptoCurrencies
         get() = CryptoCurrencies.BTC
     override val direction: TransactionSummary.Direction
         get() = transactionSummary.direction
     override val timeStamp: Long
         get() = transactionSummary.time
-    override val total: BigInteger
-        get() = transactionSummary.total
+    override val total: BigInteger = transactionSummary.total ?: BigInteger.ZERO
+    override val totalAsLong: Long = total.toLong()
     override val fee: BigInteger
         get() = transactionSummary.fee
     override val hash: String
@@ -91,4 +93,36 @@ data class BtcDisplayable(
     override val isPending: Boolean
         get() = transactionSummary.isPending
 
-}
\ No newline at end of file
+}
+
+/**
+ * A [Displayable] restored from the on-disk transaction cache. Holds its values directly, as the
+ * source objects it was built from aren't available until the network responds.
+ */
+data class CachedDisplayable(
+        override val cryptoCurrency: CryptoCurrencies,
+        override val direction: TransactionSummary.Direction,
+        override val timeStamp: Long,
+        override val total: BigInteger,
+        override val fee: BigInteger,
+        override val hash: String,
+        override val inputsMap: HashMap<String, BigInteger>,
+        override val outputsMap: HashMap<String, BigInteger>,
+        override val confirmations: Int,
+        override val watchOnly: Boolean,
+        override val doubleSpend: Boolean
+) : Displayable() {
+
+    override val totalAsLong: Long = when (cryptoCurrency) {
+        CryptoCurrencies.ETHER -> total.divide(WEI_PER_GWEI).toLong()
+        else -> total.toLong()
+    }
+
+}
+
+private val WEI_PER_GWEI = BigInteger.valueOf(1_000_000_000L)
+
+/**
+ * Identifies a position in the transaction history by timestamp and hash, as used for paging.
+ */
+data class TransactionCursor(val timeStamp: Long, val hash: String)
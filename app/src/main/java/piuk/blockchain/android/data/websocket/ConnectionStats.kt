@@ -0,0 +1,79 @@
+package piuk.blockchain.android.data.websocket
+
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Reconnection counters for a single websocket. Counters are updated from OkHttp's threads, so
+ * are atomic.
+ */
+class ConnectionStats {
+
+    private val connections = AtomicLong()
+    private val reconnections = AtomicLong()
+    private val failures = AtomicLong()
+    private val lastTimeToReconnect = AtomicLong()
+    private val totalTimeToReconnect = AtomicLong()
+    private val maxTimeToReconnect = AtomicLong()
+    private val lastTimeToReady = AtomicLong()
+
+    /**
+     * The number of times the socket has opened, including the first.
+     */
+    fun getConnections(): Long = connections.get()
+
+    /**
+     * The number of times the socket has opened again after being dropped.
+     */
+    fun getReconnections(): Long = reconnections.get()
+
+    /**
+     * The number of times the socket has closed or failed unexpectedly, or failed to connect.
+     */
+    fun getFailures(): Long = failures.get()
+
+    /**
+     * The time in milliseconds between the most recent drop and the socket opening again.
+     */
+    fun getLastTimeToReconnectMillis(): Long = lastTimeToReconnect.get()
+
+    /**
+     * The mean time in milliseconds between a drop and the socket opening again.
+     */
+    fun getAverageTimeToReconnectMillis(): Long {
+        val count = reconnections.get()
+        return if (count == 0L) 0L else totalTimeToReconnect.get() / count
+    }
+
+    /**
+     * The longest time in milliseconds between a drop and the socket opening again.
+     */
+    fun getMaxTimeToReconnectMillis(): Long = maxTimeToReconnect.get()
+
+    /**
+     * The time in milliseconds between the socket most recently opening and every subscription
+     * being accepted by it.
+     */
+    fun getLastTimeToReadyMillis(): Long = lastTimeToReady.get()
+
+    internal fun recordConnection() = connections.incrementAndGet()
+
+    internal fun recordFailure() = failures.incrementAndGet()
+
+    internal fun recordReady(timeToReadyMillis: Long) = lastTimeToReady.set(timeToReadyMillis)
+
+    internal fun recordReconnection(timeToReconnectMillis: Long) {
+        reconnections.incrementAndGet()
+        lastTimeToReconnect.set(timeToReconnectMillis)
+        totalTimeToReconnect.addAndGet(timeToReconnectMillis)
+        do {
+            val max = maxTimeToReconnect.get()
+        } while (timeToReconnectMillis > max && !maxTimeToReconnect.compareAndSet(max, timeToReconnectMillis))
+    }
+
+    override fun toString(): String =
+            "ConnectionStats(connections=$connections, reconnections=$reconnections, " +
+                    "failures=$failures, lastTimeToReconnect=${lastTimeToReconnect}ms, " +
+                    "averageTimeToReconnect=${getAverageTimeToReconnectMillis()}ms, " +
+                    "maxTimeToReconnect=${maxTimeToReconnect}ms, lastTimeToReady=${lastTimeToReady}ms)"
+
+}
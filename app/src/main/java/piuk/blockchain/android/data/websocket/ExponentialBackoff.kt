@@ -0,0 +1,50 @@
+package piuk.blockchain.android.data.websocket
+
+import java.util.Random
+
+/**
+ * Produces reconnection delays which double after each failed attempt up to [maxDelayMillis].
+ * Half of each delay is randomised ("equal jitter"), so that clients dropped by the same outage
+ * don't all reconnect in the same instant, while no delay is ever shorter than half its step.
+ *
+ * Not thread safe, callers must synchronise.
+ */
+internal class ExponentialBackoff(
+        private val initialDelayMillis: Long = DEFAULT_INITIAL_DELAY_MILLIS,
+        private val maxDelayMillis: Long = DEFAULT_MAX_DELAY_MILLIS,
+        private val random: Random = Random()
+) {
+
+    /**
+     * The number of delays handed out since the last [reset].
+     */
+    var attempt = 0
+        private set
+
+    /**
+     * Returns the delay before the next attempt, and advances to the next step.
+     */
+    fun nextDelayMillis(): Long {
+        // Cap the shift so that the delay can't overflow however many attempts are made
+        val step = Math.min(maxDelayMillis, initialDelayMillis shl Math.min(attempt, MAX_SHIFT))
+        attempt++
+        val half = step / 2
+        return half + (random.nextDouble() * (step - half)).toLong()
+    }
+
+    /**
+     * Returns to the initial delay, to be called once a connection succeeds.
+     */
+    fun reset() {
+        attempt = 0
+    }
+
+    companion object {
+
+        const val DEFAULT_INITIAL_DELAY_MILLIS = 1_000L
+        const val DEFAULT_MAX_DELAY_MILLIS = 60_000L
+        private const val MAX_SHIFT = 20
+
+    }
+
+}
@@ -0,0 +1,272 @@
+package piuk.blockchain.android.data.websocket;
+
+import android.support.annotation.VisibleForTesting;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import timber.log.Timber;
+
+/**
+ * Owns a single websocket and keeps it connected. When the socket drops it is reopened on its
+ * own, without touching any other socket, after an {@link ExponentialBackoff} delay. Reconnection
+ * is paused entirely while the device is offline and resumes immediately once it's back online.
+ *
+ * Subscriptions are remembered for the lifetime of the supervisor by a {@link
+ * SubscriptionManager}, which batches them into as few frames as possible. Each is sent at most
+ * once per socket, so a reconnect only sends the subscriptions which the new socket is missing.
+ */
+class SocketSupervisor extends WebSocketListener {
+
+    /**
+     * Websocket status code as defined by <a href="http://tools.ietf.org/html/rfc6455#section-7.4">Section
+     * 7.4 of RFC 6455</a>
+     */
+    private static final int STATUS_CODE_NORMAL_CLOSURE = 1000;
+    private static final long CONNECTED = -1L;
+
+    interface MessageListener {
+        void onMessage(String text);
+    }
+
+    private final String name;
+    private final OkHttpClient okHttpClient;
+    private final Request request;
+    private final MessageListener messageListener;
+    private final ExponentialBackoff backoff;
+    private final Scheduler scheduler;
+    private final ConnectionStats stats = new ConnectionStats();
+    private final SubscriptionManager subscriptionManager = new SubscriptionManager();
+
+    private WebSocket socket;
+    private boolean open;
+    private boolean started;
+    private boolean online = true;
+    private long disconnectedAt = CONNECTED;
+    private long openedAt;
+    private boolean ready;
+    private Disposable pendingReconnect;
+
+    SocketSupervisor(String name,
+                     OkHttpClient okHttpClient,
+                     Request request,
+                     MessageListener messageListener) {
+        this(name, okHttpClient, request, messageListener, new ExponentialBackoff(), Schedulers.computation());
+    }
+
+    @VisibleForTesting
+    SocketSupervisor(String name,
+                     OkHttpClient okHttpClient,
+                     Request request,
+                     MessageListener messageListener,
+                     ExponentialBackoff backoff,
+                     Scheduler scheduler) {
+        this.name = name;
+        this.okHttpClient = okHttpClient;
+        this.request = request;
+        this.messageListener = messageListener;
+        this.backoff = backoff;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Opens the socket if it isn't already open or opening, and keeps it open until {@link
+     * #stop()} is called.
+     */
+    synchronized void start() {
+        started = true;
+        connect();
+    }
+
+    /**
+     * Closes the socket and cancels any pending reconnection. Subscriptions are kept and sent again
+     * after the next {@link #start()}.
+     */
+    synchronized void stop() {
+        started = false;
+        cancelPendingReconnect();
+        if (socket != null) {
+            socket.close(STATUS_CODE_NORMAL_CLOSURE, "Websocket deliberately stopped");
+        }
+        socket = null;
+        open = false;
+        disconnectedAt = CONNECTED;
+        backoff.reset();
+    }
+
+    /**
+     * Pauses reconnection while offline. Once back online a dropped socket is reopened immediately
+     * rather than waiting out the remainder of its backoff.
+     *
+     * @param online Whether the device currently has connectivity
+     */
+    synchronized void setOnline(boolean online) {
+        if (this.online == online) return;
+        this.online = online;
+
+        if (!online) {
+            cancelPendingReconnect();
+        } else if (started && socket == null) {
+            cancelPendingReconnect();
+            backoff.reset();
+            connect();
+        }
+    }
+
+    /**
+     * Subscribes now if the socket is open, and again on every future socket.
+     *
+     * @param type  The type of subscription
+     * @param value The xPub, address, GUID or account to subscribe to
+     */
+    synchronized void subscribe(SubscriptionType type, String value) {
+        if (subscriptionManager.add(type, value) && open) sendPending();
+    }
+
+    /**
+     * Stops subscribing on future sockets, and unsubscribes now if the current socket had
+     * accepted the subscription.
+     *
+     * @param type  The type of subscription
+     * @param value The xPub, address, GUID or account to unsubscribe from
+     */
+    synchronized void unsubscribe(SubscriptionType type, String value) {
+        if (!subscriptionManager.remove(type, value) || !open) return;
+
+        try {
+            socket.send(SubscriptionManager.buildUnsubscribeFrame(type, value));
+        } catch (Exception e) {
+            Timber.e(e, "Send to %s websocket failed", name);
+        }
+    }
+
+    /**
+     * Returns true once every subscription has been accepted by the current socket.
+     */
+    synchronized boolean isReady() {
+        return open && subscriptionManager.getPendingCount() == 0;
+    }
+
+    synchronized boolean isOpen() {
+        return open;
+    }
+
+    ConnectionStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket, Response response) {
+        synchronized (this) {
+            if (webSocket != socket) return;
+            open = true;
+            openedAt = now();
+            ready = false;
+            stats.recordConnection();
+            if (disconnectedAt != CONNECTED) {
+                long timeToReconnect = now() - disconnectedAt;
+                stats.recordReconnection(timeToReconnect);
+                Timber.d("%s websocket reconnected after %d ms, %s", name, timeToReconnect, stats);
+                disconnectedAt = CONNECTED;
+            }
+            backoff.reset();
+            sendPending();
+        }
+    }
+
+    @Override
+    public void onMessage(WebSocket webSocket, String text) {
+        messageListener.onMessage(text);
+    }
+
+    @Override
+    public void onClosed(WebSocket webSocket, int code, String reason) {
+        onDisconnected(webSocket);
+    }
+
+    @Override
+    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+        Timber.e(t, "%s websocket failed", name);
+        onDisconnected(webSocket);
+    }
+
+    private synchronized void onDisconnected(WebSocket webSocket) {
+        // Ignore callbacks from sockets which have been closed deliberately or replaced
+        if (webSocket != socket) return;
+
+        socket = null;
+        open = false;
+        stats.recordFailure();
+        if (disconnectedAt == CONNECTED) disconnectedAt = now();
+        scheduleReconnect();
+    }
+
+    private void connect() {
+        if (!started || socket != null) return;
+        if (!online) {
+            Timber.d("%s websocket paused while offline", name);
+            return;
+        }
+
+        subscriptionManager.onSocketReplaced();
+        socket = okHttpClient.newWebSocket(request, this);
+    }
+
+    private void scheduleReconnect() {
+        if (!started || !online || pendingReconnect != null) return;
+
+        long delay = backoff.nextDelayMillis();
+        Timber.d("%s websocket reconnecting in %d ms, attempt %d", name, delay, backoff.getAttempt());
+        Disposable reconnect = Completable.timer(delay, TimeUnit.MILLISECONDS, scheduler)
+                .subscribe(this::onReconnectDue);
+        // A synchronous scheduler may already have run the reconnect
+        if (!reconnect.isDisposed()) pendingReconnect = reconnect;
+    }
+
+    private synchronized void onReconnectDue() {
+        pendingReconnect = null;
+        connect();
+    }
+
+    private void cancelPendingReconnect() {
+        if (pendingReconnect != null) {
+            pendingReconnect.dispose();
+            pendingReconnect = null;
+        }
+    }
+
+    private void sendPending() {
+        List<SubscriptionManager.Frame> frames = subscriptionManager.buildPendingFrames();
+        for (SubscriptionManager.Frame frame : frames) {
+            try {
+                if (socket.send(frame.getText())) {
+                    subscriptionManager.onFrameAccepted(frame);
+                }
+            } catch (Exception e) {
+                Timber.e(e, "Send to %s websocket failed", name);
+            }
+        }
+
+        if (!ready && subscriptionManager.getPendingCount() == 0) {
+            ready = true;
+            long timeToReady = now() - openedAt;
+            stats.recordReady(timeToReady);
+            Timber.d("%s websocket ready after %d ms, %d subscriptions in %d frames",
+                    name, timeToReady, subscriptionManager.getAcknowledgedCount(), frames.size());
+        }
+    }
+
+    private long now() {
+        return scheduler.now(TimeUnit.MILLISECONDS);
+    }
+
+}
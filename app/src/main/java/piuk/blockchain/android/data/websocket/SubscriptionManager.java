@@ -0,0 +1,224 @@
+package piuk.blockchain.android.data.websocket;
+
+import android.support.annotation.VisibleForTesting;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import timber.log.Timber;
+
+/**
+ * Tracks the subscriptions for a single socket and packs them into as few frames as possible.
+ * The websocket protocol reads consecutive JSON objects from a single frame, as the web wallet
+ * does when subscribing to many addresses at once, so subscriptions are written back to back up
+ * to {@link #DEFAULT_MAX_FRAME_CHARS} per frame rather than one frame each.
+ *
+ * A subscription is acknowledged once the frame carrying it has been accepted by the current
+ * socket; the BTC socket has no explicit acknowledgement message. Acknowledgements are reset
+ * whenever the socket is replaced, as a new socket starts with no subscriptions server side.
+ *
+ * Not thread safe, callers must synchronise.
+ */
+class SubscriptionManager {
+
+    /**
+     * Keeps frames well below the size at which servers commonly start fragmenting or rejecting
+     * messages, while still fitting ~140 address subscriptions.
+     */
+    static final int DEFAULT_MAX_FRAME_CHARS = 8 * 1024;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final int maxFrameChars;
+    private final Map<Subscription, Boolean> subscriptions = new LinkedHashMap<>();
+    private int acknowledgedCount;
+
+    SubscriptionManager() {
+        this(DEFAULT_MAX_FRAME_CHARS);
+    }
+
+    @VisibleForTesting
+    SubscriptionManager(int maxFrameChars) {
+        this.maxFrameChars = maxFrameChars;
+    }
+
+    /**
+     * Adds a subscription, which will be included in the next frames built.
+     *
+     * @param type  The type of subscription
+     * @param value The xPub, address, GUID or account to subscribe to
+     * @return false if the subscription was already present
+     */
+    boolean add(SubscriptionType type, String value) {
+        Subscription subscription = new Subscription(type, value);
+        if (subscriptions.containsKey(subscription)) return false;
+        subscriptions.put(subscription, false);
+        return true;
+    }
+
+    /**
+     * Removes a subscription, so that it won't be sent to future sockets.
+     *
+     * @param type  The type of subscription
+     * @param value The xPub, address, GUID or account to unsubscribe from
+     * @return true if the current socket had acknowledged the subscription, in which case it
+     * should be unsubscribed there too
+     */
+    boolean remove(SubscriptionType type, String value) {
+        Boolean acknowledged = subscriptions.remove(new Subscription(type, value));
+        if (acknowledged == null || !acknowledged) return false;
+        acknowledgedCount--;
+        return true;
+    }
+
+    /**
+     * Builds a frame which unsubscribes the current socket from a single subscription.
+     *
+     * @param type  The type of subscription
+     * @param value The xPub, address, GUID or account to unsubscribe from
+     */
+    static String buildUnsubscribeFrame(SubscriptionType type, String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        write(writer, type.getUnsubscribeOp(), type.getField(), value);
+        return writer.toString();
+    }
+
+    /**
+     * Builds frames for every subscription not yet acknowledged by the current socket.
+     */
+    List<Frame> buildPendingFrames() {
+        if (getPendingCount() == 0) return Collections.emptyList();
+
+        List<Frame> frames = new ArrayList<>();
+        StringWriter writer = new StringWriter();
+        List<Subscription> inFrame = new ArrayList<>();
+
+        for (Map.Entry<Subscription, Boolean> entry : subscriptions.entrySet()) {
+            if (entry.getValue()) continue;
+
+            int frameStart = writer.getBuffer().length();
+            try {
+                write(writer, entry.getKey());
+            } catch (IOException e) {
+                Timber.e(e, "Unable to write subscription");
+                writer.getBuffer().setLength(frameStart);
+                continue;
+            }
+
+            // Move the subscription into a new frame if it pushed this one over the limit
+            if (writer.getBuffer().length() > maxFrameChars && !inFrame.isEmpty()) {
+                String overflow = writer.getBuffer().substring(frameStart);
+                writer.getBuffer().setLength(frameStart);
+                frames.add(new Frame(writer.toString(), inFrame));
+                writer = new StringWriter();
+                writer.write(overflow);
+                inFrame = new ArrayList<>();
+            }
+            inFrame.add(entry.getKey());
+        }
+
+        if (!inFrame.isEmpty()) {
+            frames.add(new Frame(writer.toString(), inFrame));
+        }
+        return frames;
+    }
+
+    /**
+     * Marks every subscription in the frame as acknowledged by the current socket.
+     */
+    void onFrameAccepted(Frame frame) {
+        for (Subscription subscription : frame.subscriptions) {
+            Boolean acknowledged = subscriptions.put(subscription, true);
+            if (acknowledged != null && !acknowledged) acknowledgedCount++;
+        }
+    }
+
+    /**
+     * Forgets all acknowledgements, to be called when the socket is replaced.
+     */
+    void onSocketReplaced() {
+        for (Map.Entry<Subscription, Boolean> entry : subscriptions.entrySet()) {
+            entry.setValue(false);
+        }
+        acknowledgedCount = 0;
+    }
+
+    int getAcknowledgedCount() {
+        return acknowledgedCount;
+    }
+
+    int getPendingCount() {
+        return subscriptions.size() - acknowledgedCount;
+    }
+
+    private static void write(StringWriter writer, Subscription subscription) throws IOException {
+        write(writer, subscription.type.getOp(), subscription.type.getField(), subscription.value);
+    }
+
+    private static void write(StringWriter writer, String op, String field, String value)
+            throws IOException {
+        JsonGenerator generator = JSON_FACTORY.createGenerator(writer);
+        generator.writeStartObject();
+        generator.writeStringField("op", op);
+        generator.writeStringField(field, value);
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    /**
+     * A websocket frame holding one or more subscriptions.
+     */
+    static final class Frame {
+
+        private final String text;
+        private final List<Subscription> subscriptions;
+
+        Frame(String text, List<Subscription> subscriptions) {
+            this.text = text;
+            this.subscriptions = subscriptions;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        int getSubscriptionCount() {
+            return subscriptions.size();
+        }
+
+    }
+
+    private static final class Subscription {
+
+        private final SubscriptionType type;
+        private final String value;
+
+        Subscription(SubscriptionType type, String value) {
+            this.type = type;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Subscription)) return false;
+            Subscription that = (Subscription) o;
+            return type == that.type && value.equals(that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + value.hashCode();
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package piuk.blockchain.android.data.websocket;
+
+/**
+ * The subscriptions understood by the BTC and ETH websockets, along with the field carrying the
+ * subscribed value, eg {"op":"addr_sub","addr":"1abc..."}, and the op which reverses them.
+ */
+enum SubscriptionType {
+
+    WALLET("wallet_sub", "wallet_unsub", "guid"),
+    XPUB("xpub_sub", "xpub_unsub", "xpub"),
+    ADDRESS("addr_sub", "addr_unsub", "addr"),
+    ETH_ACCOUNT("account_sub", "account_unsub", "account");
+
+    private final String op;
+    private final String unsubscribeOp;
+    private final String field;
+
+    SubscriptionType(String op, String unsubscribeOp, String field) {
+        this.op = op;
+        this.unsubscribeOp = unsubscribeOp;
+        this.field = field;
+    }
+
+    String getOp() {
+        return op;
+    }
+
+    String getUnsubscribeOp() {
+        return unsubscribeOp;
+    }
+
+    String getField() {
+        return field;
+    }
+
+}
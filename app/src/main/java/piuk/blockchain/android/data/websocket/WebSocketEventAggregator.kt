@@ -0,0 +1,106 @@
+package piuk.blockchain.android.data.websocket
+
+import io.reactivex.Observable
+import io.reactivex.Scheduler
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.subjects.PublishSubject
+import java.util.concurrent.Callable
+import java.util.concurrent.TimeUnit
+
+/**
+ * Collects websocket events which require a refresh and releases them in batches, once no new
+ * events have arrived for [windowMillis]. A burst of incoming Txs, such as a batched exchange
+ * payout, then results in one refresh and one UI update rather than one per Tx. A batch is never
+ * held for more than [maxWaitMillis] after its first event, so a steady stream of events still
+ * refreshes periodically.
+ *
+ * Events may be posted from any thread.
+ */
+internal class WebSocketEventAggregator(
+        private val windowMillis: Long = DEFAULT_WINDOW_MILLIS,
+        private val maxWaitMillis: Long = DEFAULT_MAX_WAIT_MILLIS,
+        private val scheduler: Scheduler = Schedulers.computation()
+) {
+
+    private val events = PublishSubject.create<Event>().toSerialized()
+
+    /**
+     * Records an incoming or outgoing BTC Tx.
+     */
+    fun onBtcTransaction() {
+        events.onNext(Event(btc = true, eth = false))
+    }
+
+    /**
+     * Records an incoming or outgoing ETH Tx.
+     */
+    fun onEthTransaction() {
+        events.onNext(Event(btc = false, eth = true))
+    }
+
+    /**
+     * Records that the wallet payload has changed, which requires all BTC balances and Txs to be
+     * refreshed.
+     */
+    fun onWalletChanged() {
+        events.onNext(Event(btc = true, eth = false))
+    }
+
+    /**
+     * Returns an [Observable] which emits a [WebSocketEventBatch] merging every event received
+     * since the last batch, once the window has passed without further events or the batch has
+     * been held for the maximum wait.
+     */
+    fun getBatches(): Observable<WebSocketEventBatch> =
+            events.publish { shared -> shared.buffer(Callable { getBatchBoundary(shared) }) }
+                    .filter { it.isNotEmpty() }
+                    .map { merge(it) }
+
+    /**
+     * Emits once the current batch should be released. Both timers start from the batch's first
+     * event, and the quiet window restarts with each event after it.
+     */
+    private fun getBatchBoundary(events: Observable<Event>): Observable<Any> =
+            events.take(1).flatMap { first ->
+                Observable.merge<Any>(
+                        events.startWith(first)
+                                .debounce(windowMillis, TimeUnit.MILLISECONDS, scheduler),
+                        Observable.timer(maxWaitMillis, TimeUnit.MILLISECONDS, scheduler)
+                )
+            }.take(1)
+
+    private fun merge(events: List<Event>): WebSocketEventBatch = WebSocketEventBatch(
+            hasBtcChanges = events.any { it.btc },
+            hasEthChanges = events.any { it.eth },
+            eventCount = events.size
+    )
+
+    private class Event(val btc: Boolean, val eth: Boolean)
+
+    companion object {
+
+        /**
+         * The quiet period after the last event before a batch is released.
+         */
+        const val DEFAULT_WINDOW_MILLIS = 1500L
+        /**
+         * The longest a batch is held after its first event, however often events arrive.
+         */
+        const val DEFAULT_MAX_WAIT_MILLIS = 10_000L
+
+    }
+
+}
+
+/**
+ * The merged result of a burst of websocket events.
+ *
+ * @param hasBtcChanges Whether BTC balances and Txs need refreshing
+ * @param hasEthChanges Whether the ETH account needs refreshing
+ * @param eventCount The number of events merged into this batch
+ */
+internal data class WebSocketEventBatch(
+        val hasBtcChanges: Boolean,
+        val hasEthChanges: Boolean,
+        val eventCount: Int
+)
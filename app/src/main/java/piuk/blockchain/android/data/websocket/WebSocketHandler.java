@@ -2,40 +2,50 @@ package piuk.blockchain.android.data.websocket;
 
 import android.app.NotificationManager;
 import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
 import android.support.v4.content.LocalBroadcastManager;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.web3j.utils.Convert;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 import io.reactivex.Completable;
 import io.reactivex.Observable;
-import io.reactivex.ObservableSource;
 import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
-import okhttp3.WebSocket;
-import okhttp3.WebSocketListener;
 import piuk.blockchain.android.R;
 import piuk.blockchain.android.data.api.EnvironmentSettings;
+import piuk.blockchain.android.data.connectivity.ConnectivityStatus;
 import piuk.blockchain.android.data.ethereum.EthDataManager;
 import piuk.blockchain.android.data.ethereum.models.CombinedEthModel;
+import piuk.blockchain.android.data.payload.AddressOwnershipIndex;
 import piuk.blockchain.android.data.payload.PayloadDataManager;
+import piuk.blockchain.android.data.payload.PayloadSyncEngine;
+import piuk.blockchain.android.data.payload.WalletDiff;
 import piuk.blockchain.android.data.rxjava.IgnorableDefaultObserver;
 import piuk.blockchain.android.data.rxjava.RxBus;
 import piuk.blockchain.android.data.rxjava.RxUtil;
+import piuk.blockchain.android.data.websocket.models.BlockMessage;
 import piuk.blockchain.android.data.websocket.models.EthWebsocketResponse;
+import piuk.blockchain.android.data.websocket.models.EthWebsocketTx;
+import piuk.blockchain.android.data.websocket.models.OnChangeMessage;
+import piuk.blockchain.android.data.websocket.models.UtxInput;
+import piuk.blockchain.android.data.websocket.models.UtxMessage;
+import piuk.blockchain.android.data.websocket.models.UtxOutput;
+import piuk.blockchain.android.data.websocket.models.UtxTransaction;
+import piuk.blockchain.android.data.websocket.models.WebSocketMessage;
 import piuk.blockchain.android.ui.balance.BalanceFragment;
 import piuk.blockchain.android.ui.customviews.ToastCustom;
 import piuk.blockchain.android.ui.home.MainActivity;
@@ -45,37 +55,41 @@ import timber.log.Timber;
 
 
 @SuppressWarnings("WeakerAccess")
-class WebSocketHandler extends WebSocketListener {
+class WebSocketHandler {
 
-    private final static long RETRY_INTERVAL = 5 * 1000L;
-    /**
-     * Websocket status code as defined by <a href="http://tools.ietf.org/html/rfc6455#section-7.4">Section
-     * 7.4 of RFC 6455</a>
-     */
-    private static final int STATUS_CODE_NORMAL_CLOSURE = 1000;
-
-    private boolean stoppedDeliberately = false;
     private String[] xpubs;
     private String[] addrs;
     private String ethAccount;
     private EthDataManager ethDataManager;
     private NotificationManager notificationManager;
     private String guid;
-    private HashSet<String> subHashSet = new HashSet<>();
     private HashSet<String> onChangeHashSet = new HashSet<>();
     private EnvironmentSettings environmentSettings;
     private MonetaryUtil monetaryUtil;
     private Context context;
-    private OkHttpClient okHttpClient;
-    private WebSocket btcConnection, ethConnection;
-    private boolean connected;
+    private SocketSupervisor btcSocket, ethSocket;
+    private boolean connectivityReceiverRegistered;
     private PayloadDataManager payloadDataManager;
-    private CompositeDisposable compositeDisposable = new CompositeDisposable();
+    private AddressOwnershipIndex addressOwnershipIndex;
     private RxBus rxBus;
+    private WebSocketEventAggregator eventAggregator = new WebSocketEventAggregator();
+    private Disposable eventBatchDisposable;
+    private PayloadSyncEngine payloadSyncEngine;
+    private WebSocketMessageParser messageParser;
+    private final Map<String, MessageHandler> dispatchTable = new HashMap<>();
+    private final BroadcastReceiver connectivityReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            onConnectivityChanged();
+        }
+    };
 
     public WebSocketHandler(Context context,
                             OkHttpClient okHttpClient,
+                            ObjectMapper objectMapper,
                             PayloadDataManager payloadDataManager,
+                            PayloadSyncEngine payloadSyncEngine,
+                            AddressOwnershipIndex addressOwnershipIndex,
                             EthDataManager ethDataManager,
                             NotificationManager notificationManager,
                             EnvironmentSettings environmentSettings,
@@ -87,8 +101,10 @@ class WebSocketHandler extends WebSocketListener {
                             RxBus rxBus) {
 
         this.context = context;
-        this.okHttpClient = okHttpClient;
+        messageParser = new WebSocketMessageParser(objectMapper);
         this.payloadDataManager = payloadDataManager;
+        this.payloadSyncEngine = payloadSyncEngine;
+        this.addressOwnershipIndex = addressOwnershipIndex;
         this.ethDataManager = ethDataManager;
         this.notificationManager = notificationManager;
         this.environmentSettings = environmentSettings;
@@ -98,36 +114,66 @@ class WebSocketHandler extends WebSocketListener {
         this.addrs = addrs;
         this.ethAccount = ethAccount;
         this.rxBus = rxBus;
+        addressOwnershipIndex.setEthAccount(ethAccount);
+
+        btcSocket = new SocketSupervisor(
+                "BTC",
+                okHttpClient,
+                buildRequest(environmentSettings.getBtcWebsocketUrl()),
+                this::onMessage);
+        ethSocket = new SocketSupervisor(
+                "ETH",
+                okHttpClient,
+                buildRequest(environmentSettings.getEthWebsocketUrl()),
+                this::onMessage);
+
+        dispatchTable.put(UtxMessage.OP, message -> onUtxMessage((UtxMessage) message));
+        dispatchTable.put(OnChangeMessage.OP, message -> onChangeMessage((OnChangeMessage) message));
+        dispatchTable.put(EthWebsocketResponse.OP, message -> onEthMessage((EthWebsocketResponse) message));
+        dispatchTable.put(BlockMessage.OP, message ->
+                Timber.d("New block %d", ((BlockMessage) message).getHeight()));
     }
 
     public void subscribeToXpub(String xpub) {
         if (xpub != null && !xpub.isEmpty()) {
-            sendToBtcConnection("{\"op\":\"xpub_sub\", \"xpub\":\"" + xpub + "\"}");
+            btcSocket.subscribe(SubscriptionType.XPUB, xpub);
         }
     }
 
     public void subscribeToAddress(String address) {
         if (address != null && !address.isEmpty()) {
-            sendToBtcConnection("{\"op\":\"addr_sub\", \"addr\":\"" + address + "\"}");
+            btcSocket.subscribe(SubscriptionType.ADDRESS, address);
+        }
+    }
+
+    private void unsubscribeFromXpub(String xpub) {
+        if (xpub != null && !xpub.isEmpty()) {
+            btcSocket.unsubscribe(SubscriptionType.XPUB, xpub);
+        }
+    }
+
+    private void unsubscribeFromAddress(String address) {
+        if (address != null && !address.isEmpty()) {
+            btcSocket.unsubscribe(SubscriptionType.ADDRESS, address);
         }
     }
 
     private void subscribeToEthAccount(String ethAddress) {
         if (ethAddress != null && !ethAddress.isEmpty()) {
-            sendToEthConnection("{\"op\":\"account_sub\", \"account\":\"" + ethAddress + "\"}");
+            ethSocket.subscribe(SubscriptionType.ETH_ACCOUNT, ethAddress);
         }
     }
 
     /**
-     * Starts listening for updates to subscribed xpubs and addresses. Will attempt reconnection
-     * every 5 seconds if it cannot connect immediately.
+     * Starts listening for updates to subscribed xpubs and addresses. Each socket reconnects on its
+     * own with exponential backoff if it drops, and reconnection is paused while offline.
      */
     public void start() {
-        stop();
-        stoppedDeliberately = false;
-        connectToWebSocket()
-                .doOnError(throwable -> attemptReconnection())
-                .subscribe(new IgnorableDefaultObserver<>());
+        subscribeToEventBatches();
+        registerConnectivityReceiver();
+        subscribe();
+        btcSocket.start();
+        ethSocket.start();
     }
 
     /**
@@ -135,52 +181,34 @@ class WebSocketHandler extends WebSocketListener {
      * #start()} is called
      */
     public void stopPermanently() {
-        stoppedDeliberately = true;
-        stop();
-    }
-
-    private void stop() {
-        if (isConnected()) {
-            btcConnection.close(STATUS_CODE_NORMAL_CLOSURE, "Websocket deliberately stopped");
-            ethConnection.close(STATUS_CODE_NORMAL_CLOSURE, "Websocket deliberately stopped");
-            btcConnection = null;
-            ethConnection = null;
+        btcSocket.stop();
+        ethSocket.stop();
+        unregisterConnectivityReceiver();
+        if (eventBatchDisposable != null) {
+            eventBatchDisposable.dispose();
+            eventBatchDisposable = null;
         }
     }
 
-    private void sendToBtcConnection(String message) {
-        // Make sure each message is only sent once per socket lifetime
-        if (!subHashSet.contains(message)) {
-            try {
-                if (isConnected()) {
-                    btcConnection.send(message);
-                    subHashSet.add(message);
-                }
-            } catch (Exception e) {
-                Timber.e(e, "Send to BTC websocket failed");
-            }
-        }
+    /**
+     * Returns reconnection counts and timings for the BTC socket.
+     */
+    public ConnectionStats getBtcConnectionStats() {
+        return btcSocket.getStats();
     }
 
-    private void sendToEthConnection(String message) {
-        // Make sure each message is only sent once per socket lifetime
-        if (!subHashSet.contains(message)) {
-            try {
-                if (isConnected()) {
-                    ethConnection.send(message);
-                    subHashSet.add(message);
-                }
-            } catch (Exception e) {
-                Timber.e(e, "Send to ETH websocket failed");
-            }
-        }
+    /**
+     * Returns reconnection counts and timings for the ETH socket.
+     */
+    public ConnectionStats getEthConnectionStats() {
+        return ethSocket.getStats();
     }
 
     private void subscribe() {
         if (guid == null) {
             return;
         }
-        sendToBtcConnection("{\"op\":\"wallet_sub\",\"guid\":\"" + guid + "\"}");
+        btcSocket.subscribe(SubscriptionType.WALLET, guid);
 
         for (String xpub : xpubs) {
             subscribeToXpub(xpub);
@@ -193,31 +221,58 @@ class WebSocketHandler extends WebSocketListener {
         subscribeToEthAccount(ethAccount);
     }
 
-    private void attemptReconnection() {
-        if (compositeDisposable.size() == 0 && !stoppedDeliberately) {
-            compositeDisposable.add(
-                    getReconnectionObservable()
-                            .subscribe(
-                                    value -> Timber.d("attemptReconnection: " + value),
-                                    throwable -> Timber.e(throwable, "Attempt reconnection failed")));
+    private void registerConnectivityReceiver() {
+        if (!connectivityReceiverRegistered) {
+            context.registerReceiver(
+                    connectivityReceiver,
+                    new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+            connectivityReceiverRegistered = true;
         }
+        onConnectivityChanged();
     }
 
-    private Observable<Long> getReconnectionObservable() {
-        return Observable.interval(RETRY_INTERVAL, TimeUnit.MILLISECONDS)
-                .takeUntil((ObservableSource<Object>) aLong -> isConnected())
-                .doOnNext(tick -> start());
+    private void unregisterConnectivityReceiver() {
+        if (connectivityReceiverRegistered) {
+            context.unregisterReceiver(connectivityReceiver);
+            connectivityReceiverRegistered = false;
+        }
     }
 
-    private boolean isConnected() {
-        return btcConnection != null && ethConnection != null && connected;
+    private void onConnectivityChanged() {
+        boolean online = ConnectivityStatus.hasConnectivity(context);
+        btcSocket.setOnline(online);
+        ethSocket.setOnline(online);
     }
 
-    private void updateBalancesAndTransactions() {
-        payloadDataManager.updateAllBalances()
+    private void subscribeToEventBatches() {
+        if (eventBatchDisposable == null || eventBatchDisposable.isDisposed()) {
+            eventBatchDisposable = eventAggregator.getBatches()
+                    .subscribe(
+                            this::onEventBatch,
+                            throwable -> Timber.e(throwable, "Websocket event batching failed"));
+        }
+    }
+
+    /**
+     * Refreshes everything affected by a burst of websocket events once, and then notifies the UI
+     * once.
+     */
+    private void onEventBatch(WebSocketEventBatch batch) {
+        Timber.d("Refreshing after %d websocket events", batch.getEventCount());
+
+        Completable btcRefresh = batch.getHasBtcChanges()
+                ? payloadDataManager.updateAllBalances()
                 .andThen(payloadDataManager.updateAllTransactions())
-                .doOnComplete(this::sendBroadcast)
-                .subscribe(new IgnorableDefaultObserver<>());
+                : Completable.complete();
+
+        Completable ethRefresh = batch.getHasEthChanges() && ethDataManager.getEthWallet() != null
+                ? downloadEthTransactions().ignoreElements()
+                : Completable.complete();
+
+        Completable.mergeArrayDelayError(btcRefresh, ethRefresh)
+                .subscribe(
+                        this::sendBroadcast,
+                        throwable -> Timber.e(throwable, "Websocket refresh failed"));
     }
 
     private void sendBroadcast() {
@@ -225,210 +280,140 @@ class WebSocketHandler extends WebSocketListener {
         LocalBroadcastManager.getInstance(context).sendBroadcast(intent);
     }
 
-    private void startWebSocket() {
-        Request btcRequest = new Request.Builder()
-                .url(environmentSettings.getBtcWebsocketUrl())
+    private Request buildRequest(String url) {
+        return new Request.Builder()
+                .url(url)
                 .addHeader("Origin", "https://blockchain.info")
                 .build();
-
-        Request ethRequest = new Request.Builder()
-                .url(environmentSettings.getEthWebsocketUrl())
-                .addHeader("Origin", "https://blockchain.info")
-                .build();
-
-        btcConnection = okHttpClient.newWebSocket(btcRequest, this);
-        ethConnection = okHttpClient.newWebSocket(ethRequest, this);
     }
 
-    @Override
-    public void onOpen(WebSocket webSocket, Response response) {
-        super.onOpen(webSocket, response);
-        connected = true;
-        compositeDisposable.clear();
-        subscribe();
-    }
+    private void onMessage(String text) {
+        WebSocketMessage message;
+        try {
+            message = messageParser.parse(text);
+        } catch (IOException e) {
+            Timber.e(e, "Unable to parse websocket message");
+            if (payloadDataManager.getWallet() == null) sendBroadcast();
+            return;
+        }
 
-    @Override
-    public void onMessage(WebSocket webSocket, String text) {
-        super.onMessage(webSocket, text);
         if (payloadDataManager.getWallet() != null) {
-            JSONObject jsonObject;
-            try {
-                jsonObject = new JSONObject(text);
-                attemptParseMessage(text, jsonObject);
-            } catch (JSONException je) {
-                Timber.e(je);
+            MessageHandler handler = dispatchTable.get(message.getOp());
+            if (handler != null) {
+                try {
+                    handler.handle(message);
+                } catch (Exception e) {
+                    Timber.e(e, "Unable to handle websocket message %s", message.getOp());
+                }
             }
-        } else if (text.contains("account_sub")) {
-            attemptParseEthMessage(text);
+        } else if (message instanceof EthWebsocketResponse) {
+            onEthMessage((EthWebsocketResponse) message);
         } else {
             // Ignore content and broadcast anyway so that SwipeToReceive can update
             sendBroadcast();
         }
     }
 
-    @Override
-    public void onClosed(WebSocket webSocket, int code, String reason) {
-        super.onClosed(webSocket, code, reason);
-        connected = false;
-        attemptReconnection();
-    }
+    private void onEthMessage(EthWebsocketResponse response) {
+        EthWebsocketTx tx = response.getTx();
+        if (tx == null) {
+            sendBroadcast();
+            return;
+        }
 
-    @Override
-    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
-        super.onFailure(webSocket, t, response);
-        connected = false;
-        attemptReconnection();
-    }
+        String from = tx.getFrom();
+        String to = tx.getTo();
+        // Check if money was received or sent
+        if (!addressOwnershipIndex.isOwnEthAccount(from)
+                && addressOwnershipIndex.isOwnEthAccount(to)
+                && tx.getValue() != null) {
+            String title = context.getString(R.string.app_name);
+            String marquee = context.getString(R.string.received_ethereum)
+                    + " "
+                    + Convert.fromWei(new BigDecimal(tx.getValue()), Convert.Unit.ETHER)
+                    + " ETH";
+
+            String text = marquee
+                    + " "
+                    + context.getString(R.string.from).toLowerCase() + " " + from;
+
+            triggerNotification(title, marquee, text);
+        }
 
-    private Completable connectToWebSocket() {
-        return Completable.fromCallable(() -> {
-            subHashSet.clear();
-            startWebSocket();
-            return Void.TYPE;
-        }).compose(RxUtil.applySchedulersToCompletable());
+        eventAggregator.onEthTransaction();
     }
 
-    private void attemptParseEthMessage(String message) {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            EthWebsocketResponse response = mapper.readValue(message, EthWebsocketResponse.class);
-
-            String from = response.getTx().getFrom();
-            String to = response.getTx().getTo();
-            // Check if money was received or sent
-            if (ethAccount != null && !ethAccount.equals(from) && ethAccount.equals(to)) {
-                String title = context.getString(R.string.app_name);
-                String marquee = context.getString(R.string.received_ethereum)
-                        + " "
-                        + Convert.fromWei(new BigDecimal(response.getTx().getValue()), Convert.Unit.ETHER)
-                        + " ETH";
-
-                String text = marquee
-                        + " "
-                        + context.getString(R.string.from).toLowerCase() + " " + response.getTx().getFrom();
-
-                triggerNotification(title, marquee, text);
+    private void onUtxMessage(UtxMessage message) {
+        UtxTransaction transaction = message.getTransaction();
+        if (transaction == null) return;
+
+        long totalValue = 0L;
+        String inAddr = null;
+
+        for (UtxInput input : transaction.getInputs()) {
+            UtxOutput prevOut = input.getPreviousOutput();
+            if (prevOut == null) continue;
+
+            long value = prevOut.getValue() != null ? prevOut.getValue() : 0L;
+            String address = prevOut.getAddress();
+            if (prevOut.getXpub() != null) {
+                totalValue -= value;
+            } else if (address != null) {
+                if (addressOwnershipIndex.isOwnLegacyAddress(address)) {
+                    totalValue -= value;
+                } else if (inAddr == null) {
+                    inAddr = address;
+                }
             }
+        }
 
-            if (ethDataManager.getEthWallet() != null) {
-                downloadEthTransactions()
-                        .subscribe(
-                                combinedEthModel -> sendBroadcast(),
-                                throwable -> Timber.e(throwable, "downloadEthTransactions failed"));
+        for (UtxOutput output : transaction.getOutputs()) {
+            long value = output.getValue() != null ? output.getValue() : 0L;
+            String address = output.getAddress();
+            if (address != null && transaction.getHash() != null) {
+                rxBus.emitEvent(WebSocketReceiveEvent.class, new WebSocketReceiveEvent(
+                        address,
+                        transaction.getHash()
+                ));
+            }
+            if (output.getXpub() != null) {
+                totalValue += value;
+            } else if (addressOwnershipIndex.isOwnLegacyAddress(address)) {
+                totalValue += value;
             }
-        } catch (Exception e) {
-            Timber.e(e);
-            sendBroadcast();
         }
-    }
 
-    // TODO: 20/09/2017 Here we should probably parse this info into objects rather than doing it manually
-    // TODO: 20/09/2017 Get a list of all possible payloads construct objects
-    private void attemptParseMessage(String message, JSONObject jsonObject) {
-        try {
-            String op = (String) jsonObject.get("op");
-            if (op.equals("utx") && jsonObject.has("x")) {
-                JSONObject objX = (JSONObject) jsonObject.get("x");
-
-                long value = 0L;
-                long totalValue = 0L;
-                String inAddr = null;
-
-                if (objX.has("inputs")) {
-                    JSONArray inputArray = (JSONArray) objX.get("inputs");
-                    JSONObject inputObj;
-                    for (int j = 0; j < inputArray.length(); j++) {
-                        inputObj = (JSONObject) inputArray.get(j);
-                        if (inputObj.has("prev_out")) {
-                            JSONObject prevOutObj = (JSONObject) inputObj.get("prev_out");
-                            if (prevOutObj.has("value")) {
-                                value = prevOutObj.getLong("value");
-                            }
-                            if (prevOutObj.has("xpub")) {
-                                totalValue -= value;
-                            } else if (prevOutObj.has("addr")) {
-                                if (payloadDataManager.getWallet().containsLegacyAddress((String) prevOutObj.get("addr"))) {
-                                    totalValue -= value;
-                                } else if (inAddr == null) {
-                                    inAddr = (String) prevOutObj.get("addr");
-                                }
-                            }
-                        }
-                    }
-                }
+        if (totalValue > 0L) {
+            String title = context.getString(R.string.app_name);
+            String marquee = context.getString(R.string.received_bitcoin)
+                    + " "
+                    + monetaryUtil.getBtcFormat().format((double) totalValue / 1e8)
+                    + " BTC";
+            String text = marquee
+                    + " "
+                    + context.getString(R.string.from).toLowerCase()
+                    + " "
+                    + inAddr;
+
+            triggerNotification(title, marquee, text);
+        }
 
-                if (objX.has("out")) {
-                    JSONArray outArray = (JSONArray) objX.get("out");
-                    JSONObject outObj;
-                    for (int j = 0; j < outArray.length(); j++) {
-                        outObj = (JSONObject) outArray.get(j);
-                        if (outObj.has("value")) {
-                            value = outObj.getLong("value");
-                        }
-                        if (outObj.has("addr") && objX.has("hash")) {
-                            rxBus.emitEvent(WebSocketReceiveEvent.class, new WebSocketReceiveEvent(
-                                    (String) outObj.get("addr"),
-                                    (String) objX.get("hash")
-                            ));
-                        }
-                        if (outObj.has("xpub")) {
-                            totalValue += value;
-                        } else if (outObj.has("addr")) {
-                            if (payloadDataManager.getWallet().containsLegacyAddress((String) outObj.get("addr"))) {
-                                totalValue += value;
-                            }
-                        }
-                    }
-                }
+        eventAggregator.onBtcTransaction();
+    }
 
-                String title = context.getString(R.string.app_name);
-                if (totalValue > 0L) {
-                    String marquee = context.getString(R.string.received_bitcoin)
-                            + " "
-                            + monetaryUtil.getBtcFormat().format((double) totalValue / 1e8)
-                            + " BTC";
-                    String text = marquee;
-                    if (totalValue > 0) {
-                        text += " "
-                                + context.getString(R.string.from).toLowerCase()
-                                + " "
-                                + inAddr;
-                    }
-
-                    triggerNotification(title, marquee, text);
-                }
+    private void onChangeMessage(OnChangeMessage message) {
+        final String localChecksum = payloadDataManager.getPayloadChecksum();
+        final String remoteChecksum = message.getChecksum();
+        boolean isSameChecksum = remoteChecksum != null && remoteChecksum.equals(localChecksum);
 
-                updateBalancesAndTransactions();
-
-            } else if (op.equals("on_change")) {
-                final String localChecksum = payloadDataManager.getPayloadChecksum();
-                boolean isSameChecksum = false;
-                if (jsonObject.has("x")) {
-                    JSONObject x = jsonObject.getJSONObject("x");
-                    if (x.has("checksum")) {
-                        final String remoteChecksum = x.getString("checksum");
-                        isSameChecksum = remoteChecksum.equals(localChecksum);
-                    }
-                }
+        if (!onChangeHashSet.contains(remoteChecksum) && !isSameChecksum) {
+            // Remote update to wallet data detected
+            payloadSyncEngine.sync(remoteChecksum)
+                    .subscribe(
+                            this::onWalletChanged,
+                            throwable -> Timber.e(throwable, "Payload sync failed"));
 
-                if (!onChangeHashSet.contains(message) && !isSameChecksum) {
-                    // Remote update to wallet data detected
-                    if (payloadDataManager.getTempPassword() != null) {
-                        // Download changed payload
-                        //noinspection ThrowableResultOfMethodCallIgnored
-                        downloadChangedPayload().subscribe(
-                                () -> showToast().subscribe(new IgnorableDefaultObserver<>()),
-                                throwable -> Timber.e(throwable, "downloadChangedPayload failed"));
-                    }
-
-                    onChangeHashSet.add(message);
-                }
-            } else if (message.contains("account_sub")) {
-                attemptParseEthMessage(message);
-            }
-        } catch (Exception e) {
-            Timber.e(e, "attemptParseMessage");
+            onChangeHashSet.add(remoteChecksum);
         }
     }
 
@@ -442,14 +427,49 @@ class WebSocketHandler extends WebSocketListener {
                 .subscribeOn(AndroidSchedulers.mainThread());
     }
 
-    private Completable downloadChangedPayload() {
-        return Completable.fromCallable(() -> {
-            payloadDataManager.initializeAndDecrypt(
-                    payloadDataManager.getWallet().getSharedKey(),
-                    payloadDataManager.getWallet().getGuid(),
-                    payloadDataManager.getTempPassword()).subscribe(this::updateBalancesAndTransactions);
-            return Void.TYPE;
-        }).compose(RxUtil.applySchedulersToCompletable());
+    /**
+     * Applies only what changed in a remotely updated payload: new and restored accounts and
+     * addresses are subscribed to, removed and archived ones are unsubscribed from, and balances
+     * and Txs are only refreshed if the watched addresses changed. Label, note and address book
+     * edits just redraw the UI.
+     */
+    private void onWalletChanged(WalletDiff diff) {
+        if (diff.isEmpty()) return;
+
+        addressOwnershipIndex.onWalletChanged(diff);
+
+        for (String xpub : diff.getAddedAccounts()) {
+            subscribeToXpub(xpub);
+        }
+        for (String xpub : diff.getUnarchivedAccounts()) {
+            subscribeToXpub(xpub);
+        }
+        for (String xpub : diff.getRemovedAccounts()) {
+            unsubscribeFromXpub(xpub);
+        }
+        for (String xpub : diff.getArchivedAccounts()) {
+            unsubscribeFromXpub(xpub);
+        }
+        for (String address : diff.getAddedLegacyAddresses()) {
+            subscribeToAddress(address);
+        }
+        for (String address : diff.getUnarchivedLegacyAddresses()) {
+            subscribeToAddress(address);
+        }
+        for (String address : diff.getRemovedLegacyAddresses()) {
+            unsubscribeFromAddress(address);
+        }
+        for (String address : diff.getArchivedLegacyAddresses()) {
+            unsubscribeFromAddress(address);
+        }
+
+        if (diff.getRequiresTransactionRefresh()) {
+            eventAggregator.onWalletChanged();
+        } else {
+            sendBroadcast();
+        }
+
+        showToast().subscribe(new IgnorableDefaultObserver<>());
     }
 
     private Observable<CombinedEthModel> downloadEthTransactions() {
@@ -474,4 +494,8 @@ class WebSocketHandler extends WebSocketListener {
                 1000);
     }
 
+    private interface MessageHandler {
+        void handle(WebSocketMessage message);
+    }
+
 }
@@ -0,0 +1,33 @@
+package piuk.blockchain.android.data.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+
+import piuk.blockchain.android.data.websocket.models.WebSocketMessage;
+
+/**
+ * Decodes websocket frames into typed {@link WebSocketMessage} objects. The underlying reader is
+ * built once and is thread safe, so a single instance can be shared by every socket.
+ */
+class WebSocketMessageParser {
+
+    private final ObjectReader reader;
+
+    WebSocketMessageParser(ObjectMapper objectMapper) {
+        reader = objectMapper.readerFor(WebSocketMessage.class);
+    }
+
+    /**
+     * Decodes a single frame in one streaming pass.
+     *
+     * @param message The raw text of the frame
+     * @return The matching {@link WebSocketMessage} subtype
+     * @throws IOException If the frame isn't valid JSON
+     */
+    WebSocketMessage parse(String message) throws IOException {
+        return reader.readValue(message);
+    }
+
+}
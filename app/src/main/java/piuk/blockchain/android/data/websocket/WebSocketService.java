@@ -11,6 +11,11 @@ import android.os.IBinder;
 import android.support.annotation.Nullable;
 import android.support.v4.content.LocalBroadcastManager;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import info.blockchain.wallet.payload.data.Account;
+import info.blockchain.wallet.payload.data.LegacyAddress;
+
 import java.util.List;
 
 import javax.inject.Inject;
@@ -18,7 +23,9 @@ import javax.inject.Inject;
 import okhttp3.OkHttpClient;
 import piuk.blockchain.android.data.api.EnvironmentSettings;
 import piuk.blockchain.android.data.ethereum.EthDataManager;
+import piuk.blockchain.android.data.payload.AddressOwnershipIndex;
 import piuk.blockchain.android.data.payload.PayloadDataManager;
+import piuk.blockchain.android.data.payload.PayloadSyncEngine;
 import piuk.blockchain.android.data.rxjava.RxBus;
 import piuk.blockchain.android.injection.Injector;
 import piuk.blockchain.android.ui.swipetoreceive.SwipeToReceiveHelper;
@@ -34,11 +41,14 @@ public class WebSocketService extends Service {
     public static final String X_PUB = "x_pub";
     private final IBinder binder = new LocalBinder();
     @Inject protected PayloadDataManager payloadDataManager;
+    @Inject protected PayloadSyncEngine payloadSyncEngine;
+    @Inject protected AddressOwnershipIndex addressOwnershipIndex;
     @Inject protected EthDataManager ethDataManager;
     @Inject protected PrefsUtil prefsUtil;
     @Inject protected NotificationManager notificationManager;
     @Inject protected SwipeToReceiveHelper swipeToReceiveHelper;
     @Inject protected OkHttpClient okHttpClient;
+    @Inject protected ObjectMapper objectMapper;
     @Inject protected RxBus rxBus;
     @Thunk WebSocketHandler webSocketHandler;
 
@@ -75,7 +85,10 @@ public class WebSocketService extends Service {
         webSocketHandler = new WebSocketHandler(
                 getApplicationContext(),
                 okHttpClient,
+                objectMapper,
                 payloadDataManager,
+                payloadSyncEngine,
+                addressOwnershipIndex,
                 ethDataManager,
                 notificationManager,
                 new EnvironmentSettings(),
@@ -102,8 +115,10 @@ public class WebSocketService extends Service {
 
             final String[] xpubs = new String[nbAccounts];
             for (int i = 0; i < nbAccounts; i++) {
-                String s = payloadDataManager.getWallet().getHdWallets().get(0).getAccounts().get(i).getXpub();
-                if (s != null && !s.isEmpty()) {
+                Account account = payloadDataManager.getWallet().getHdWallets().get(0).getAccounts().get(i);
+                String s = account.getXpub();
+                // Archived accounts aren't watched, see WebSocketHandler#onWalletChanged
+                if (s != null && !s.isEmpty() && !account.isArchived()) {
                     xpubs[i] = s;
                 }
             }
@@ -118,9 +133,10 @@ public class WebSocketService extends Service {
             int nbLegacy = payloadDataManager.getWallet().getLegacyAddressList().size();
             final String[] addrs = new String[nbLegacy];
             for (int i = 0; i < nbLegacy; i++) {
-                String s = payloadDataManager.getWallet().getLegacyAddressList().get(i).getAddress();
-                if (s != null && !s.isEmpty()) {
-                    addrs[i] = payloadDataManager.getWallet().getLegacyAddressList().get(i).getAddress();
+                LegacyAddress legacyAddress = payloadDataManager.getWallet().getLegacyAddressList().get(i);
+                String s = legacyAddress.getAddress();
+                if (s != null && !s.isEmpty() && legacyAddress.getTag() != LegacyAddress.ARCHIVED_ADDRESS) {
+                    addrs[i] = s;
                 }
             }
 
@@ -16,10 +16,10 @@ import java.math.BigInteger;
         creatorVisibility = JsonAutoDetect.Visibility.NONE,
         isGetterVisibility = JsonAutoDetect.Visibility.NONE
 )
-public class EthWebsocketResponse {
+public class EthWebsocketResponse extends WebSocketMessage {
+
+    public static final String OP = "account_sub";
 
-    @JsonProperty("op")
-    private String op;
     @JsonProperty("account")
     private String account;
     @JsonProperty("balance")
@@ -31,10 +31,6 @@ public class EthWebsocketResponse {
     @JsonProperty("tx")
     private EthWebsocketTx tx;
 
-    public String getOp() {
-        return op;
-    }
-
     public String getAccount() {
         return account;
     }
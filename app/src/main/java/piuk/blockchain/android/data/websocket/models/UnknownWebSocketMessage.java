@@ -0,0 +1,12 @@
+package piuk.blockchain.android.data.websocket.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * A websocket frame with an op that the app doesn't handle, such as a subscription
+ * acknowledgement.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UnknownWebSocketMessage extends WebSocketMessage {
+
+}
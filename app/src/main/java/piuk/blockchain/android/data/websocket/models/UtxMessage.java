@@ -0,0 +1,31 @@
+package piuk.blockchain.android.data.websocket.models;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * An unconfirmed Tx touching one of the subscribed xPubs or addresses.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonAutoDetect(
+        fieldVisibility = JsonAutoDetect.Visibility.NONE,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        setterVisibility = JsonAutoDetect.Visibility.NONE,
+        creatorVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE
+)
+public class UtxMessage extends WebSocketMessage {
+
+    public static final String OP = "utx";
+
+    @JsonProperty("x")
+    private UtxTransaction transaction;
+
+    public UtxTransaction getTransaction() {
+        return transaction;
+    }
+
+}
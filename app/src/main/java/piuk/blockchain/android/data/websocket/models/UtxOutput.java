@@ -0,0 +1,41 @@
+package piuk.blockchain.android.data.websocket.models;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonAutoDetect(
+        fieldVisibility = JsonAutoDetect.Visibility.NONE,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        setterVisibility = JsonAutoDetect.Visibility.NONE,
+        creatorVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE
+)
+public class UtxOutput {
+
+    @JsonProperty("addr")
+    private String address;
+    @JsonProperty("value")
+    private Long value;
+    @JsonProperty("xpub")
+    private UtxXpub xpub;
+
+    public String getAddress() {
+        return address;
+    }
+
+    public Long getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the xPub this output belongs to. Only present for outputs owned by a subscribed xPub.
+     */
+    public UtxXpub getXpub() {
+        return xpub;
+    }
+
+}
@@ -0,0 +1,41 @@
+package piuk.blockchain.android.data.websocket.models;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonAutoDetect(
+        fieldVisibility = JsonAutoDetect.Visibility.NONE,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        setterVisibility = JsonAutoDetect.Visibility.NONE,
+        creatorVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE
+)
+public class UtxTransaction {
+
+    @JsonProperty("hash")
+    private String hash;
+    @JsonProperty("inputs")
+    private List<UtxInput> inputs;
+    @JsonProperty("out")
+    private List<UtxOutput> outputs;
+
+    public String getHash() {
+        return hash;
+    }
+
+    public List<UtxInput> getInputs() {
+        return inputs != null ? inputs : Collections.emptyList();
+    }
+
+    public List<UtxOutput> getOutputs() {
+        return outputs != null ? outputs : Collections.emptyList();
+    }
+
+}
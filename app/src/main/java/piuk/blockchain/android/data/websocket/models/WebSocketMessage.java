@@ -0,0 +1,46 @@
+package piuk.blockchain.android.data.websocket.models;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * The base type for every frame received from the BTC and ETH websockets. The concrete type is
+ * chosen by the "op" field while parsing, so each frame is decoded in a single pass. Frames with
+ * an unrecognised op are decoded as {@link UnknownWebSocketMessage}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonAutoDetect(
+        fieldVisibility = JsonAutoDetect.Visibility.NONE,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        setterVisibility = JsonAutoDetect.Visibility.NONE,
+        creatorVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE
+)
+@JsonTypeInfo(
+        use = JsonTypeInfo.Id.NAME,
+        include = JsonTypeInfo.As.EXISTING_PROPERTY,
+        property = "op",
+        visible = true,
+        defaultImpl = UnknownWebSocketMessage.class
+)
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = UtxMessage.class, name = UtxMessage.OP),
+        @JsonSubTypes.Type(value = OnChangeMessage.class, name = OnChangeMessage.OP),
+        @JsonSubTypes.Type(value = BlockMessage.class, name = BlockMessage.OP),
+        @JsonSubTypes.Type(value = EthWebsocketResponse.class, name = EthWebsocketResponse.OP)
+})
+public abstract class WebSocketMessage {
+
+    @JsonProperty("op")
+    private String op;
+
+    public String getOp() {
+        return op;
+    }
+
+}
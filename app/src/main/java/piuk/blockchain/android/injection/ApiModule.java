@@ -1,10 +1,14 @@
 package piuk.blockchain.android.injection;
 
+import android.content.Context;
 import android.util.Log;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import info.blockchain.wallet.api.WalletApi;
 import info.blockchain.wallet.payload.PayloadManager;
 
+import java.io.File;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
@@ -15,13 +19,25 @@ import javax.inject.Singleton;
 
 import dagger.Module;
 import dagger.Provides;
+import okhttp3.Cache;
 import okhttp3.CertificatePinner;
 import okhttp3.ConnectionSpec;
 import okhttp3.OkHttpClient;
+import piuk.blockchain.android.BuildConfig;
 import piuk.blockchain.android.data.access.AccessState;
 import piuk.blockchain.android.data.api.ApiInterceptor;
+import piuk.blockchain.android.data.api.ApiMetricsInterceptor;
+import piuk.blockchain.android.data.api.CachePolicyInterceptor;
 import piuk.blockchain.android.data.api.ConnectionApi;
+import piuk.blockchain.android.data.api.EndpointMetrics;
 import piuk.blockchain.android.data.api.EnvironmentSettings;
+import piuk.blockchain.android.data.api.HttpCachePolicies;
+import piuk.blockchain.android.data.api.NetworkEventListener;
+import piuk.blockchain.android.data.api.NetworkProfile;
+import piuk.blockchain.android.data.api.NetworkProfileInterceptor;
+import piuk.blockchain.android.data.api.OfflineCacheInterceptor;
+import piuk.blockchain.android.data.api.SharedObjectMapper;
+import piuk.blockchain.android.data.connectivity.ConnectivityStatus;
 import piuk.blockchain.android.data.notifications.NotificationTokenManager;
 import piuk.blockchain.android.data.rxjava.RxBus;
 import piuk.blockchain.android.data.notifications.NotificationService;
@@ -38,8 +54,9 @@ import retrofit2.converter.jackson.JacksonConverterFactory;
 public class ApiModule {
 
     private static final String TAG = ApiModule.class.getSimpleName();
-    private static final int API_TIMEOUT = 30;
     private static final int PING_INTERVAL = 10;
+    private static final String HTTP_CACHE_DIRECTORY = "http";
+    private static final long HTTP_CACHE_SIZE = 10 * 1024 * 1024;
 
     @Provides
     protected PayloadManager providePayloadManager() {
@@ -63,7 +80,28 @@ public class ApiModule {
 
     @Provides
     @Singleton
-    protected OkHttpClient provideOkHttpClient() {
+    protected EndpointMetrics provideEndpointMetrics() {
+        return new EndpointMetrics();
+    }
+
+    @Provides
+    @Singleton
+    protected Cache provideHttpCache(Context context) {
+        return new Cache(new File(context.getCacheDir(), HTTP_CACHE_DIRECTORY), HTTP_CACHE_SIZE);
+    }
+
+    @Provides
+    @Singleton
+    protected NetworkProfile provideNetworkProfile() {
+        return NetworkProfile.DEFAULT;
+    }
+
+    @Provides
+    @Singleton
+    protected OkHttpClient provideOkHttpClient(NetworkProfile networkProfile,
+                                               EndpointMetrics endpointMetrics,
+                                               Cache cache,
+                                               Context context) {
         CertificatePinner certificatePinner = new CertificatePinner.Builder()
                 .add("api.blockchain.info", "sha256/Z87j23nY+/WSTtsgE/O4ZcDVhevBohFPgPMU6rV2iSw=")
                 .add("blockchain.info", "sha256/Z87j23nY+/WSTtsgE/O4ZcDVhevBohFPgPMU6rV2iSw=")
@@ -71,13 +109,29 @@ public class ApiModule {
 
         OkHttpClient.Builder builder = new OkHttpClient.Builder()
                 .connectionSpecs(Collections.singletonList(ConnectionSpec.MODERN_TLS))
-                .connectTimeout(API_TIMEOUT, TimeUnit.SECONDS)
-                .readTimeout(API_TIMEOUT, TimeUnit.SECONDS)
-                .writeTimeout(API_TIMEOUT, TimeUnit.SECONDS)
+                .protocols(networkProfile.getProtocols())
+                .connectionPool(networkProfile.createConnectionPool())
+                .connectTimeout(networkProfile.getConnectTimeoutSeconds(), TimeUnit.SECONDS)
+                .readTimeout(networkProfile.getReadTimeoutSeconds(), TimeUnit.SECONDS)
+                .writeTimeout(networkProfile.getWriteTimeoutSeconds(), TimeUnit.SECONDS)
                 .pingInterval(PING_INTERVAL, TimeUnit.SECONDS)
+                // Only idempotent requests are retried, by NetworkProfileInterceptor
                 .retryOnConnectionFailure(false)
                 .certificatePinner(certificatePinner)
-                .addInterceptor(new ApiInterceptor());
+                .cache(cache)
+                .eventListenerFactory(new NetworkEventListener.Factory(endpointMetrics))
+                .addInterceptor(new ApiMetricsInterceptor(endpointMetrics))
+                .addInterceptor(new OfflineCacheInterceptor(HttpCachePolicies.DEFAULT,
+                        () -> ConnectivityStatus.hasConnectivity(context)))
+                .addInterceptor(new NetworkProfileInterceptor(networkProfile))
+                .addNetworkInterceptor(new CachePolicyInterceptor(HttpCachePolicies.DEFAULT));
+
+        // Logging is left out of release builds entirely
+        if (BuildConfig.DEBUG) {
+            builder.addInterceptor(new ApiInterceptor(ApiInterceptor.Level.BODY, ApiInterceptor.DEFAULT_MAX_BODY_BYTES));
+        } else if (BuildConfig.DOGFOOD) {
+            builder.addInterceptor(new ApiInterceptor(ApiInterceptor.Level.BASIC, ApiInterceptor.DEFAULT_MAX_BODY_BYTES));
+        }
 
         /*
           Enable TLS specific version V.1.2
@@ -95,8 +149,14 @@ public class ApiModule {
 
     @Provides
     @Singleton
-    protected JacksonConverterFactory provideJacksonConverterFactory() {
-        return JacksonConverterFactory.create();
+    protected ObjectMapper provideObjectMapper() {
+        return SharedObjectMapper.getInstance();
+    }
+
+    @Provides
+    @Singleton
+    protected JacksonConverterFactory provideJacksonConverterFactory(ObjectMapper objectMapper) {
+        return JacksonConverterFactory.create(objectMapper);
     }
 
     @Provides
@@ -9,6 +9,7 @@ import piuk.blockchain.android.BlockchainApplication;
 import piuk.blockchain.android.data.contacts.ContactsDataManager;
 import piuk.blockchain.android.data.notifications.FcmCallbackService;
 import piuk.blockchain.android.data.notifications.InstanceIdService;
+import piuk.blockchain.android.ui.auth.EnvironmentSwitcher;
 import piuk.blockchain.android.ui.base.BaseAuthActivity;
 import piuk.blockchain.android.util.AppUtil;
 import piuk.blockchain.android.util.ExchangeRateFactory;
@@ -48,4 +49,6 @@ public interface ApplicationComponent {
     void inject(FcmCallbackService fcmCallbackService);
 
     void inject(BaseAuthActivity baseAuthActivity);
+
+    void inject(EnvironmentSwitcher environmentSwitcher);
 }
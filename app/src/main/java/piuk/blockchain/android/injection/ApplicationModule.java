@@ -12,6 +12,7 @@ import dagger.Module;
 import dagger.Provides;
 import piuk.blockchain.android.data.access.AccessState;
 import piuk.blockchain.android.data.api.EnvironmentSettings;
+import piuk.blockchain.android.data.auth.DerivedKeyCache;
 import piuk.blockchain.android.data.cache.DynamicFeeCache;
 import piuk.blockchain.android.data.currency.CurrencyState;
 import piuk.blockchain.android.data.rxjava.RxBus;
@@ -56,8 +57,13 @@ public class ApplicationModule {
     }
 
     @Provides
-    protected AESUtilWrapper provideAesUtils() {
-        return new AESUtilWrapper();
+    protected DerivedKeyCache provideDerivedKeyCache() {
+        return DerivedKeyCache.getInstance();
+    }
+
+    @Provides
+    protected AESUtilWrapper provideAesUtils(DerivedKeyCache derivedKeyCache) {
+        return new AESUtilWrapper(derivedKeyCache);
     }
 
     @Provides
@@ -33,8 +33,10 @@ import piuk.blockchain.android.data.exchange.BuyConditions;
 import piuk.blockchain.android.data.exchange.BuyDataManager;
 import piuk.blockchain.android.data.exchange.ExchangeService;
 import piuk.blockchain.android.data.fingerprint.FingerprintAuthImpl;
+import piuk.blockchain.android.data.payload.AddressOwnershipIndex;
 import piuk.blockchain.android.data.payload.PayloadDataManager;
 import piuk.blockchain.android.data.payload.PayloadService;
+import piuk.blockchain.android.data.payload.PayloadSyncEngine;
 import piuk.blockchain.android.data.payments.PaymentService;
 import piuk.blockchain.android.data.payments.SendDataManager;
 import piuk.blockchain.android.data.rxjava.RxBus;
@@ -42,6 +44,7 @@ import piuk.blockchain.android.data.settings.SettingsDataManager;
 import piuk.blockchain.android.data.settings.SettingsService;
 import piuk.blockchain.android.data.settings.datastore.SettingsDataStore;
 import piuk.blockchain.android.data.stores.PendingTransactionListStore;
+import piuk.blockchain.android.data.stores.TransactionDiskStore;
 import piuk.blockchain.android.data.stores.TransactionListStore;
 import piuk.blockchain.android.ui.fingerprint.FingerprintHelper;
 import piuk.blockchain.android.ui.receive.WalletAccountHelper;
@@ -100,11 +103,13 @@ public class DataManagerModule {
     @PresenterScope
     protected TransactionListDataManager provideTransactionListDataManager(PayloadManager payloadManager,
                                                                            EthDataManager ethDataManager,
-                                                                           TransactionListStore transactionListStore) {
+                                                                           TransactionListStore transactionListStore,
+                                                                           TransactionDiskStore transactionDiskStore) {
         return new TransactionListDataManager(
                 payloadManager,
                 ethDataManager,
-                transactionListStore);
+                transactionListStore,
+                transactionDiskStore);
     }
 
     @Provides
@@ -119,8 +124,20 @@ public class DataManagerModule {
     @PresenterScope
     protected PayloadDataManager providePayloadDataManager(PayloadManager payloadManager,
                                                            PrivateKeyFactory privateKeyFactory,
+                                                           AddressOwnershipIndex addressOwnershipIndex,
                                                            RxBus rxBus) {
-        return new PayloadDataManager(new PayloadService(payloadManager), privateKeyFactory, payloadManager, rxBus);
+        return new PayloadDataManager(
+                new PayloadService(payloadManager),
+                privateKeyFactory,
+                payloadManager,
+                addressOwnershipIndex,
+                rxBus);
+    }
+
+    @Provides
+    @PresenterScope
+    protected PayloadSyncEngine providePayloadSyncEngine(PayloadDataManager payloadDataManager) {
+        return new PayloadSyncEngine(payloadDataManager);
     }
 
     @Provides
@@ -13,6 +13,7 @@ public enum Injector {
 
     private ApplicationComponent applicationComponent;
     private PresenterComponent presenterComponent;
+    private DataManagerModule dataManagerModule;
 
     public static Injector getInstance() {
         return INSTANCE;
@@ -34,7 +35,9 @@ public enum Injector {
                 .apiModule(apiModule)
                 .build();
 
-        presenterComponent = applicationComponent.plus(managerModule);
+        // The presenter component is built when the first presenter is injected
+        dataManagerModule = managerModule;
+        presenterComponent = null;
     }
 
     public ApplicationComponent getAppComponent() {
@@ -43,7 +46,8 @@ public enum Injector {
 
     public PresenterComponent getPresenterComponent() {
         if (presenterComponent == null) {
-            presenterComponent = applicationComponent.plus(new DataManagerModule());
+            presenterComponent = applicationComponent.plus(
+                    dataManagerModule != null ? dataManagerModule : new DataManagerModule());
         }
         return presenterComponent;
     }
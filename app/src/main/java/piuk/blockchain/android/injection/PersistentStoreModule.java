@@ -1,15 +1,22 @@
 package piuk.blockchain.android.injection;
 
+import android.content.Context;
+
+import info.blockchain.wallet.payload.PayloadManager;
+
 import javax.inject.Singleton;
 
 import dagger.Module;
 import dagger.Provides;
 import piuk.blockchain.android.data.contacts.datastore.ContactsMapStore;
 import piuk.blockchain.android.data.ethereum.EthDataStore;
+import piuk.blockchain.android.data.payload.AddressOwnershipIndex;
 import piuk.blockchain.android.data.settings.SettingsService;
 import piuk.blockchain.android.data.settings.datastore.SettingsDataStore;
-import piuk.blockchain.android.data.settings.datastore.SettingsMemoryStore;
+import piuk.blockchain.android.data.stores.EncryptedFileStore;
 import piuk.blockchain.android.data.stores.PendingTransactionListStore;
+import piuk.blockchain.android.data.stores.TieredStore;
+import piuk.blockchain.android.data.stores.TransactionDiskStore;
 import piuk.blockchain.android.data.stores.TransactionListStore;
 
 @Module
@@ -18,7 +25,9 @@ class PersistentStoreModule {
     @Provides
     @Singleton
     SettingsDataStore provideSettingsDataStore(SettingsService settingsService) {
-        return new SettingsDataStore(new SettingsMemoryStore(), settingsService.getSettingsObservable());
+        return new SettingsDataStore(
+                new TieredStore<>(SettingsDataStore.POLICY),
+                settingsService.getSettingsObservable());
     }
 
     @Provides
@@ -33,6 +42,21 @@ class PersistentStoreModule {
         return new TransactionListStore();
     }
 
+    @Provides
+    @Singleton
+    TransactionDiskStore provideTransactionDiskStore(Context context, PayloadManager payloadManager) {
+        return new TransactionDiskStore(new EncryptedFileStore(
+                context.getFilesDir(),
+                TransactionDiskStore.DIRECTORY_NAME,
+                payloadManager));
+    }
+
+    @Provides
+    @Singleton
+    AddressOwnershipIndex provideAddressOwnershipIndex(PayloadManager payloadManager) {
+        return new AddressOwnershipIndex(payloadManager);
+    }
+
     @Provides
     @Singleton
     ContactsMapStore provideContactsMapStore() {
@@ -1,5 +1,7 @@
 package piuk.blockchain.android.injection;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import info.blockchain.wallet.contacts.Contacts;
 import info.blockchain.wallet.payload.PayloadManager;
 import info.blockchain.wallet.settings.SettingsManager;
@@ -24,8 +26,10 @@ class ServiceModule {
 
     @Provides
     @Singleton
-    ExchangeService provideExchangeService(PayloadManager payloadManager, RxBus rxBus) {
-        return new ExchangeService(payloadManager, rxBus);
+    ExchangeService provideExchangeService(PayloadManager payloadManager,
+                                           RxBus rxBus,
+                                           ObjectMapper objectMapper) {
+        return new ExchangeService(payloadManager, rxBus, objectMapper);
     }
 
     @Provides
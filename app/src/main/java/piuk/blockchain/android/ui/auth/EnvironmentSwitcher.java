@@ -3,20 +3,28 @@ package piuk.blockchain.android.ui.auth;
 import android.content.Context;
 import android.support.v7.app.AlertDialog;
 
+import javax.inject.Inject;
+
 import piuk.blockchain.android.R;
 import piuk.blockchain.android.data.access.AccessState;
+import piuk.blockchain.android.data.api.EndpointMetrics;
+import piuk.blockchain.android.data.metrics.OperationMetrics;
+import piuk.blockchain.android.injection.Injector;
 import piuk.blockchain.android.ui.account.AccountPresenter;
 import piuk.blockchain.android.ui.customviews.ToastCustom;
 import piuk.blockchain.android.util.AppRate;
 import piuk.blockchain.android.util.AppUtil;
 import piuk.blockchain.android.util.PrefsUtil;
 
-class EnvironmentSwitcher {
+@SuppressWarnings("WeakerAccess")
+public class EnvironmentSwitcher {
 
     private Context context;
     private PrefsUtil prefsUtil;
+    @Inject protected EndpointMetrics endpointMetrics;
 
     EnvironmentSwitcher(Context context, PrefsUtil prefsUtil) {
+        Injector.getInstance().getAppComponent().inject(this);
         this.context = context;
         this.prefsUtil = prefsUtil;
     }
@@ -24,11 +32,31 @@ class EnvironmentSwitcher {
     void showDebugMenu() {
         new AlertDialog.Builder(context, R.style.AlertDialogStyle)
                 .setTitle("Debug settings")
-                .setMessage("Select 'Reset Timers' to reset various device timers and saved states, such as warning dialogs, onboarding etc.\n\nSelect 'Wipe Wallet' to log out and completely reset this app.")
+                .setMessage("Select 'Reset Timers' to reset various device timers and saved states, such as warning dialogs, onboarding etc.\n\nSelect 'Wipe Wallet' to log out and completely reset this app.\n\nSelect 'Network Metrics' to see latency and errors for each network operation, and latency, connection phases and cache hits for each endpoint.")
                 .setPositiveButton("Reset Timers", (dialogInterface, i) -> resetAllTimers())
                 .setNegativeButton("Reset Wallet", (dialogInterface, i) ->
                         new AppUtil(context).clearCredentialsAndRestart())
-                .setNeutralButton(android.R.string.cancel, null)
+                .setNeutralButton("Network Metrics", (dialogInterface, i) -> showNetworkMetrics())
+                .create()
+                .show();
+    }
+
+    private void showNetworkMetrics() {
+        OperationMetrics operationMetrics = OperationMetrics.getInstance();
+        String operations = operationMetrics.dump();
+        String endpoints = endpointMetrics.toString();
+        String message = "Operations\n\n"
+                + (operations.isEmpty() ? "No network operations yet" : operations)
+                + "\n\nEndpoints\n\n"
+                + (endpoints.isEmpty() ? "No requests yet" : endpoints);
+        new AlertDialog.Builder(context, R.style.AlertDialogStyle)
+                .setTitle("Network Metrics")
+                .setMessage(message)
+                .setPositiveButton(android.R.string.ok, null)
+                .setNegativeButton("Clear", (dialogInterface, i) -> {
+                    operationMetrics.clear();
+                    endpointMetrics.clear();
+                })
                 .create()
                 .show();
     }
@@ -30,7 +30,9 @@ import piuk.blockchain.android.R;
 import piuk.blockchain.android.data.access.AccessState;
 import piuk.blockchain.android.data.answers.Logging;
 import piuk.blockchain.android.data.auth.AuthDataManager;
+import piuk.blockchain.android.data.auth.LoginTimer;
 import piuk.blockchain.android.data.payload.PayloadDataManager;
+import piuk.blockchain.android.data.startup.StartupTracer;
 import piuk.blockchain.android.ui.base.BasePresenter;
 import piuk.blockchain.android.ui.customviews.ToastCustom;
 import piuk.blockchain.android.ui.fingerprint.FingerprintHelper;
@@ -229,6 +231,7 @@ public class PinEntryPresenter extends BasePresenter<PinEntryView> {
     @VisibleForTesting
     void updatePayload(String password) {
         getView().showProgressDialog(R.string.decrypting_wallet, null);
+        long start = StartupTracer.getInstance().now();
 
         getCompositeDisposable().add(
                 mPayloadDataManager.initializeAndDecrypt(
@@ -236,10 +239,12 @@ public class PinEntryPresenter extends BasePresenter<PinEntryView> {
                         mPrefsUtil.getValue(PrefsUtil.KEY_GUID, ""),
                         password)
                         .doAfterTerminate(() -> {
+                            StartupTracer.getInstance().completeSection("PinEntryPresenter.updatePayload", start);
                             getView().dismissProgressDialog();
                             mCanShowFingerprintDialog = true;
                         })
                         .subscribe(() -> {
+                            LoginTimer.getInstance().mark(LoginTimer.Phase.DECRYPT_PAYLOAD);
                             mAppUtil.setSharedKey(mPayloadDataManager.getWallet().getSharedKey());
 
                             setAccountLabelIfNecessary();
@@ -362,8 +367,11 @@ public class PinEntryPresenter extends BasePresenter<PinEntryView> {
 
     private void validatePIN(String pin) {
         getView().showProgressDialog(R.string.validating_pin, null);
+        if (!mValidatingPinForResult) LoginTimer.getInstance().start();
+        long start = StartupTracer.getInstance().now();
 
         mAuthDataManager.validatePin(pin)
+                .doAfterTerminate(() -> StartupTracer.getInstance().completeSection("PinEntryPresenter.validatePin", start))
                 .subscribe(password -> {
                     getView().dismissProgressDialog();
                     if (password != null) {
@@ -8,6 +8,7 @@ import android.support.v4.content.LocalBroadcastManager
 import android.support.v7.app.AlertDialog
 import android.support.v7.widget.AppCompatSpinner
 import android.support.v7.widget.LinearLayoutManager
+import android.support.v7.widget.RecyclerView
 import android.support.v7.widget.SimpleItemAnimator
 import android.view.LayoutInflater
 import android.view.MotionEvent
@@ -464,6 +465,15 @@ class BalanceFragment : BaseFragment<BalanceView, BalancePresenter>(), BalanceVi
 
         recyclerview.layoutManager = LinearLayoutManager(context)
         recyclerview.adapter = balanceAdapter
+        recyclerview.addOnScrollListener(object : RecyclerView.OnScrollListener() {
+            override fun onScrolled(recyclerView: RecyclerView, dx: Int, dy: Int) {
+                if (dy <= 0) return
+                val layoutManager = recyclerView.layoutManager as LinearLayoutManager
+                if (layoutManager.findLastVisibleItemPosition() >= layoutManager.itemCount - PREFETCH_DISTANCE) {
+                    presenter.onScrolledNearEnd()
+                }
+            }
+        })
         // Disable blinking animations in RecyclerView
         val animator = recyclerview.itemAnimator
         if (animator is SimpleItemAnimator) animator.supportsChangeAnimations = false
@@ -517,6 +527,8 @@ class BalanceFragment : BaseFragment<BalanceView, BalancePresenter>(), BalanceVi
         const val KEY_TRANSACTION_LIST_POSITION = "transaction_list_position"
         const val KEY_TRANSACTION_HASH = "transaction_hash"
         private const val ARGUMENT_BROADCASTING_PAYMENT = "broadcasting_payment"
+        // Start loading the next page of Txs when this many rows from the end
+        private const val PREFETCH_DISTANCE = 10
 
         @JvmStatic
         fun newInstance(broadcastingPayment: Boolean): BalanceFragment {
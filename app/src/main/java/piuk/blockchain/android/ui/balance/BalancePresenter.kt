@@ -9,6 +9,7 @@ import info.blockchain.wallet.ethereum.data.EthAddressResponse
 import info.blockchain.wallet.payload.data.LegacyAddress
 import io.reactivex.Completable
 import io.reactivex.Observable
+import io.reactivex.disposables.CompositeDisposable
 import io.reactivex.schedulers.Schedulers
 import org.web3j.utils.Convert
 import piuk.blockchain.android.R
@@ -64,6 +65,8 @@ class BalancePresenter @Inject constructor(
 
     @VisibleForTesting val activeAccountAndAddressList: MutableList<ItemAccount> = mutableListOf()
     private val displayList: MutableList<Any> = mutableListOf()
+    // Tx requests for the chosen account, cancelled when another account is chosen
+    private val accountDisposables = CompositeDisposable()
     private val monetaryUtil: MonetaryUtil by unsafeLazy { MonetaryUtil(getBtcUnitType()) }
 
     @SuppressLint("VisibleForTests")
@@ -90,6 +93,7 @@ class BalancePresenter @Inject constructor(
         contactsEventObservable?.let { rxBus.unregister(ContactsEvent::class.java, it) }
         notificationObservable?.let { rxBus.unregister(NotificationPayload::class.java, it) }
         authEventObservable?.let { rxBus.unregister(AuthEvent::class.java, it) }
+        accountDisposables.clear()
         super.onViewDestroyed()
     }
 
@@ -110,12 +114,14 @@ class BalancePresenter @Inject constructor(
             return
 
         view.setUiState(UiState.LOADING)
+        accountDisposables.clear()
         chosenAccount = activeAccountAndAddressList[if (position >= 0) position else 0]
         chosenAccount?.let {
             Observable.merge(
                     getBalanceObservable(it),
                     getTransactionsListObservable(it)
             ).compose(RxUtil.addObservableToCompositeDisposable(this))
+                    .doOnSubscribe { accountDisposables.add(it) }
                     .doOnError { Timber.e(it) }
                     .subscribe(
                             { /* No-op */ },
@@ -137,6 +143,21 @@ class BalancePresenter @Inject constructor(
         }
     }
 
+    /**
+     * Called when the transaction list has been scrolled close to the end, so that the next page
+     * can be loaded before the user reaches it.
+     */
+    internal fun onScrolledNearEnd() {
+        chosenAccount?.let {
+            transactionListDataManager.fetchNextPage(it)
+                    .compose(RxUtil.addObservableToCompositeDisposable(this))
+                    .doOnSubscribe { accountDisposables.add(it) }
+                    .subscribe(
+                            { onTransactionsLoaded(it) },
+                            { Timber.e(it) })
+        }
+    }
+
     internal fun setViewType(isBtc: Boolean) {
         currencyState.isDisplayingCryptoCurrency = isBtc
         view.onViewTypeChanged(isBtc, getBtcUnitType())
@@ -467,18 +488,23 @@ class BalancePresenter @Inject constructor(
     }
 
     private fun getTransactionsListObservable(itemAccount: ItemAccount) =
-            transactionListDataManager.fetchTransactions(itemAccount, 50, 0)
-                    .doAfterTerminate(this::storeSwipeReceiveAddresses)
-                    .doOnNext {
-                        displayList.removeAll { it is Displayable }
-                        displayList.addAll(it)
-
-                        when {
-                            displayList.isEmpty() -> view.setUiState(UiState.EMPTY)
-                            else -> view.setUiState(UiState.CONTENT)
-                        }
-                        view.onTransactionsUpdated(displayList)
-                    }
+            transactionListDataManager.fetchTransactions(
+                    itemAccount,
+                    TransactionListDataManager.PAGE_SIZE,
+                    0
+            ).doAfterTerminate(this::storeSwipeReceiveAddresses)
+                    .doOnNext { onTransactionsLoaded(it) }
+
+    private fun onTransactionsLoaded(transactions: List<Displayable>) {
+        displayList.removeAll { it is Displayable }
+        displayList.addAll(transactions)
+
+        when {
+            displayList.isEmpty() -> view.setUiState(UiState.EMPTY)
+            else -> view.setUiState(UiState.CONTENT)
+        }
+        view.onTransactionsUpdated(displayList)
+    }
 
     private fun getBalanceObservable(itemAccount: ItemAccount): Observable<Nothing> {
         return if (chosenAccount?.type == ItemAccount.TYPE.ETHEREUM) {
@@ -567,6 +593,7 @@ class BalancePresenter @Inject constructor(
             subscribe({
                 displayList.clear()
                 transactionListDataManager.clearTransactionList()
+                if (it == AuthEvent.UNPAIR) transactionListDataManager.clearPersistedTransactions()
                 contactsDataManager.resetContacts()
             })
         }
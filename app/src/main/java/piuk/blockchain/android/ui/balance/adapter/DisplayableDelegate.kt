@@ -28,7 +28,6 @@ import piuk.blockchain.android.util.extensions.getContext
 import piuk.blockchain.android.util.extensions.gone
 import piuk.blockchain.android.util.extensions.inflate
 import piuk.blockchain.android.util.extensions.visible
-import java.math.BigDecimal
 import java.text.DecimalFormat
 
 class DisplayableDelegate<in T>(
@@ -45,6 +44,7 @@ class DisplayableDelegate<in T>(
     private val prefsUtil = PrefsUtil(activity)
     private val monetaryUtil = MonetaryUtil(prefsUtil.getValue(PrefsUtil.KEY_BTC_UNITS, MonetaryUtil.UNIT_BTC))
     private val dateUtil = DateUtil(activity)
+    private val ethFormat = DecimalFormat.getInstance().apply { maximumFractionDigits = 8 }
     private var transactionDisplayMap = mutableMapOf<String, ContactTransactionDisplayModel>()
 
     override fun isForViewType(items: List<T>, position: Int): Boolean =
@@ -64,15 +64,10 @@ class DisplayableDelegate<in T>(
         val tx = items[position] as Displayable
 
         val fiatString = prefsUtil.getValue(PrefsUtil.KEY_SELECTED_FIAT, PrefsUtil.DEFAULT_CURRENCY)
-        val balance = when (tx.cryptoCurrency) {
-            CryptoCurrencies.BTC -> BigDecimal(tx.total).divide(BigDecimal.valueOf(1e8))
-            CryptoCurrencies.ETHER -> BigDecimal(tx.total).divide(BigDecimal.valueOf(1e18))
-            else -> throw IllegalArgumentException("BCC is not currently supported")
-        }
-
+        // Primitive maths only, as this is called for every row whilst scrolling
         val fiatBalance = when (tx.cryptoCurrency) {
-            CryptoCurrencies.BTC -> balance.multiply(BigDecimal(btcExchangeRate))
-            CryptoCurrencies.ETHER -> balance.multiply(BigDecimal(ethExchangeRate))
+            CryptoCurrencies.BTC -> tx.totalAsLong / 1e8 * btcExchangeRate
+            CryptoCurrencies.ETHER -> tx.totalAsLong / 1e9 * ethExchangeRate
             else -> throw IllegalArgumentException("BCC is not currently supported")
         }
 
@@ -103,8 +98,8 @@ class DisplayableDelegate<in T>(
 
         viewHolder.result.text = getDisplaySpannable(
                 tx.cryptoCurrency,
-                tx.total.toDouble(),
-                fiatBalance.toDouble(),
+                tx.totalAsLong,
+                fiatBalance,
                 fiatString
         )
         viewHolder.watchOnly.visibility = if (tx.watchOnly) View.VISIBLE else View.GONE
@@ -194,7 +189,7 @@ class DisplayableDelegate<in T>(
 
     private fun getDisplaySpannable(
             cryptoCurrency: CryptoCurrencies,
-            cryptoAmount: Double,
+            cryptoAmount: Long,
             fiatAmount: Double,
             fiatString: String
     ): Spannable {
@@ -209,8 +204,8 @@ class DisplayableDelegate<in T>(
                         spannable.length,
                         Spannable.SPAN_EXCLUSIVE_EXCLUSIVE)
             } else {
-                val number = DecimalFormat.getInstance().apply { maximumFractionDigits = 8 }
-                        .run { format(cryptoAmount / 1e18) }
+                // ETH amounts are in gwei, see Displayable.totalAsLong
+                val number = ethFormat.format(cryptoAmount / 1e9)
 
                 spannable = Spannable.Factory.getInstance().newSpannable(
                         "$number ETH")
@@ -20,6 +20,7 @@ import uk.co.chrisjenx.calligraphy.TypefaceUtils;
 
 import javax.inject.Inject;
 
+import dagger.Lazy;
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
@@ -41,7 +42,8 @@ public class BaseAuthActivity extends AppCompatActivity {
     private static CompositeDisposable compositeDisposable;
     private static Observable<ConnectionEvent> connectionEventObservable;
     private AlertDialog mAlertDialog;
-    @Inject protected SSLVerifyUtil mSSLVerifyUtil;
+    // Lazy, as building it builds the OkHttpClient, which isn't needed to draw the first screen
+    @Inject protected Lazy<SSLVerifyUtil> mSSLVerifyUtil;
     @Inject protected PrefsUtil mPrefsUtil;
     @Inject protected RxBus rxBus;
 
@@ -202,7 +204,7 @@ public class BaseAuthActivity extends AppCompatActivity {
                 .setCancelable(false);
 
         if (!forceExit) {
-            builder.setPositiveButton(R.string.retry, (d, id) -> mSSLVerifyUtil.validateSSL());
+            builder.setPositiveButton(R.string.retry, (d, id) -> mSSLVerifyUtil.get().validateSSL());
         }
 
         builder.setNegativeButton(R.string.exit, (d, id) -> finish());
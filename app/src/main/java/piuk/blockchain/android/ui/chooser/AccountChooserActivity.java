@@ -9,7 +9,6 @@ import android.support.v7.widget.LinearLayoutManager;
 import android.view.View;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.List;
 
@@ -17,6 +16,7 @@ import javax.inject.Inject;
 
 import piuk.blockchain.android.BuildConfig;
 import piuk.blockchain.android.R;
+import piuk.blockchain.android.data.api.SharedObjectMapper;
 import piuk.blockchain.android.data.contacts.models.PaymentRequestType;
 import piuk.blockchain.android.databinding.ActivityAccountChooserBinding;
 import piuk.blockchain.android.injection.Injector;
@@ -101,7 +101,7 @@ public class AccountChooserActivity extends BaseMvpActivity<AccountChooserView,
             if (object != null) {
                 try {
                     Intent intent = new Intent();
-                    intent.putExtra(EXTRA_SELECTED_ITEM, new ObjectMapper().writeValueAsString(object));
+                    intent.putExtra(EXTRA_SELECTED_ITEM, SharedObjectMapper.getInstance().writeValueAsString(object));
                     intent.putExtra(EXTRA_SELECTED_OBJECT_TYPE, object.getClass().getName());
                     setResult(RESULT_OK, intent);
                     finish();
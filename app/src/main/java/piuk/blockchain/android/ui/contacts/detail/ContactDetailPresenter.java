@@ -355,8 +355,9 @@ public class ContactDetailPresenter extends BasePresenter<ContactDetailView> {
                 summary.setHash(fctx.getTxHash());
                 summary.setTime(fctx.getLastUpdated());
                 summary.setTotal(BigInteger.valueOf(fctx.getIntendedAmount()));
-                if (transactionListDataManager.getTxConfirmationsMap().containsKey(summary.getHash())) {
-                    summary.setConfirmations(transactionListDataManager.getTxConfirmationsMap().get(summary.getHash()));
+                Integer confirmations = transactionListDataManager.getTxConfirmations(summary.getHash());
+                if (confirmations != null) {
+                    summary.setConfirmations(confirmations);
                 } else {
                     // Assume confirmed
                     summary.setConfirmations(3);
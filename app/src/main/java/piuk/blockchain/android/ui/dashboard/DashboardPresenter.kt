@@ -2,6 +2,7 @@ package piuk.blockchain.android.ui.dashboard
 
 import android.support.annotation.VisibleForTesting
 import io.reactivex.Observable
+import io.reactivex.disposables.Disposable
 import org.web3j.utils.Convert
 import piuk.blockchain.android.R
 import piuk.blockchain.android.data.charts.ChartsDataManager
@@ -53,6 +54,9 @@ class DashboardPresenter @Inject constructor(
     private var timeSpan = TimeSpan.MONTH
     @VisibleForTesting var btcBalance: Long = 0L
     @VisibleForTesting var ethBalance: BigInteger = BigInteger.ZERO
+    private var balancesLoaded = false
+    // Held apart from the CompositeDisposable, which is cleared whenever the chart changes
+    private var pricesDisposable: Disposable? = null
 
     override fun onViewReady() {
         cryptoCurrency = currencyState.cryptoCurrency
@@ -67,10 +71,19 @@ class DashboardPresenter @Inject constructor(
                         { /* No-op */ },
                         { Timber.e(it) }
                 )
+
+        // Prices are polled while the app is in the foreground, so this replays the latest and
+        // then pushes each change
+        pricesDisposable = exchangeRateFactory.getPriceFeed()
+                .subscribe(
+                        { onPricesUpdated() },
+                        { Timber.e(it) }
+                )
     }
 
     override fun onViewDestroyed() {
         rxBus.unregister(MetadataEvent::class.java, metadataObservable)
+        pricesDisposable?.dispose()
         super.onViewDestroyed()
     }
 
@@ -85,7 +98,6 @@ class DashboardPresenter @Inject constructor(
         cryptoCurrency = currencyState.cryptoCurrency
         updateChartsData(timeSpan)
         updateAllBalances()
-        updatePrices()
     }
 
     internal fun getCurrentCryptoCurrency(): Int {
@@ -101,13 +113,12 @@ class DashboardPresenter @Inject constructor(
         updateCryptoBalances()
     }
 
-    private fun updatePrices() {
-        exchangeRateFactory.updateTickers()
-                .compose(RxUtil.addCompletableToCompositeDisposable(this))
-                .subscribe(
-                        { updateCryptoPrice() },
-                        { Timber.e(it) }
-                )
+    private fun onPricesUpdated() {
+        updateCryptoPrice()
+        if (balancesLoaded) {
+            updateCryptoBalances()
+            updateTotalBalance()
+        }
     }
 
     private fun updateCryptoPrice() {
@@ -159,16 +170,9 @@ class DashboardPresenter @Inject constructor(
                                     type = ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY
                                 })
                                 ethBalance = ethAddressResponse.getTotalBalance()
+                                balancesLoaded = true
                                 updateCryptoBalances()
-
-                                val btcFiat = exchangeRateFactory.getLastBtcPrice(getFiatCurrency()) * (btcBalance / 1e8)
-                                val ethFiat = BigDecimal(exchangeRateFactory.getLastEthPrice(getFiatCurrency()))
-                                        .multiply(Convert.fromWei(BigDecimal(ethBalance), Convert.Unit.ETHER))
-
-                                val totalDouble = btcFiat.plus(ethFiat.toDouble())
-
-                                val totalString = "${getCurrencySymbol()}${monetaryUtil.getFiatFormat(getFiatCurrency()).format(totalDouble)}"
-                                view.updateTotalBalance(totalString)
+                                updateTotalBalance()
                             }
                 }
                 .compose(RxUtil.addCompletableToCompositeDisposable(this))
@@ -178,6 +182,17 @@ class DashboardPresenter @Inject constructor(
                 )
     }
 
+    private fun updateTotalBalance() {
+        val btcFiat = exchangeRateFactory.getLastBtcPrice(getFiatCurrency()) * (btcBalance / 1e8)
+        val ethFiat = BigDecimal(exchangeRateFactory.getLastEthPrice(getFiatCurrency()))
+                .multiply(Convert.fromWei(BigDecimal(ethBalance), Convert.Unit.ETHER))
+
+        val totalDouble = btcFiat.plus(ethFiat.toDouble())
+
+        val totalString = "${getCurrencySymbol()}${monetaryUtil.getFiatFormat(getFiatCurrency()).format(totalDouble)}"
+        view.updateTotalBalance(totalString)
+    }
+
     private fun updateCryptoBalances() {
         view.updateBtcBalance(getBtcBalanceString(
                 currencyState.isDisplayingCryptoCurrency,
@@ -269,7 +269,6 @@ public class MainActivity extends BaseMvpActivity<MainView, MainPresenter> imple
     protected void onResume() {
         super.onResume();
         appUtil.deleteQR();
-        getPresenter().updateTicker();
         if (!handlingResult) {
             resetNavigationDrawer();
         }
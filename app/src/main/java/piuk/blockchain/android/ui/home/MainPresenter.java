@@ -30,6 +30,8 @@ import piuk.blockchain.android.data.access.AccessState;
 import piuk.blockchain.android.data.api.EnvironmentSettings;
 import piuk.blockchain.android.data.auth.AuthDataManager;
 import piuk.blockchain.android.data.auth.AuthService;
+import piuk.blockchain.android.data.auth.DerivedKeyCache;
+import piuk.blockchain.android.data.auth.LoginTimer;
 import piuk.blockchain.android.data.cache.DynamicFeeCache;
 import piuk.blockchain.android.data.contacts.ContactsDataManager;
 import piuk.blockchain.android.data.contacts.models.ContactsEvent;
@@ -45,6 +47,8 @@ import piuk.blockchain.android.data.rxjava.RxBus;
 import piuk.blockchain.android.data.rxjava.RxUtil;
 import piuk.blockchain.android.data.services.EventService;
 import piuk.blockchain.android.data.settings.SettingsDataManager;
+import piuk.blockchain.android.data.startup.StartupOrchestrator;
+import piuk.blockchain.android.data.startup.StartupTracer;
 import piuk.blockchain.android.data.websocket.WebSocketService;
 import piuk.blockchain.android.ui.base.BasePresenter;
 import piuk.blockchain.android.ui.customviews.ToastCustom;
@@ -59,6 +63,15 @@ import timber.log.Timber;
 
 public class MainPresenter extends BasePresenter<MainView> {
 
+    private static final String STEP_METADATA_NODES = "metadataNodes";
+    private static final String STEP_ETH_WALLET = "ethWallet";
+    private static final String STEP_TICKERS = "tickers";
+    private static final String STEP_BTC_FEES = "btcFees";
+    private static final String STEP_ETH_FEES = "ethFees";
+    private static final String STEP_WALLET_OPTIONS = "walletOptions";
+    private static final String STEP_SETTINGS = "settings";
+    private static final String STEP_SWIPE_ADDRESSES = "swipeAddresses";
+
     private OSUtil osUtil;
     private SwipeToReceiveHelper swipeToReceiveHelper;
     private Observable<NotificationPayload> notificationObservable;
@@ -82,6 +95,7 @@ public class MainPresenter extends BasePresenter<MainView> {
     private CurrencyState currencyState;
     private AuthDataManager authDataManager;
 
+    // Re-emits the wallet options fetched at startup, which won't change during an active session
     ReplaySubject<WalletOptions> walletOptionsSource = ReplaySubject.create(1);
 
     @Inject
@@ -155,22 +169,12 @@ public class MainPresenter extends BasePresenter<MainView> {
 
             initMetadataElements();
 
-            initReplaySubjects();
+            subscribeToPrices();
 
             doWalletOptionsChecks();
         }
     }
 
-    /**
-     * ReplaySubjects will re-emit items it observed.
-     * It is safe to assumed that walletOptions and
-     * the user's country code won't change during an active session.
-     */
-    private void initReplaySubjects() {
-        Observable<WalletOptions> walletOptionsStream = authDataManager.getWalletOptions();
-        walletOptionsStream.subscribeWith(walletOptionsSource);
-    }
-
     /*
     Only used for mobile_notice at the moment.
     WalletOptions api is also accessed in BuyDataManager - This should be improved soon.
@@ -212,23 +216,59 @@ public class MainPresenter extends BasePresenter<MainView> {
         return prompt;
     }
 
+    /**
+     * Runs the steps needed once logged in. Metadata nodes, the ETH wallet and tickers are needed
+     * before the dashboard can be shown; fees, wallet options, settings and swipe-to-receive
+     * addresses carry on in the background. Steps which don't depend on each other run
+     * concurrently. Prompts are shown once the critical path has terminated, even if it failed.
+     */
     void initMetadataElements() {
-        initMetadataNodesObservable()
-                .compose(RxUtil.addObservableToCompositeDisposable(this))
-                .flatMap(metadataNodeFactory -> ethWalletObservable(metadataNodeFactory.getMetadataNode()))
-                .flatMapCompletable(metadataNodeFactory -> {
-                    //Initialise contacts
-                    //contactsDataManager.initContactsService(metadataNodeFactory.getMetadataNode(), metadataNodeFactory.getSharedMetadataNode());
-                    //payloadDataManager.registerMdid()
-                    //contactsDataManager.publishXpub()
-                    return Completable.complete();
-                })
-                .andThen(feesCompletable())
+        StartupTracer tracer = StartupTracer.getInstance();
+        StartupOrchestrator orchestrator = new StartupOrchestrator(tracer);
+        orchestrator
+                .addCriticalStep(STEP_METADATA_NODES, Collections.emptyList(),
+                        () -> initMetadataNodesObservable().ignoreElements())
+                .addCriticalStep(STEP_ETH_WALLET, Collections.singletonList(STEP_METADATA_NODES),
+                        () -> payloadDataManager.getMetadataNodeFactory()
+                                .flatMap(metadataNodeFactory -> ethWalletObservable(metadataNodeFactory.getMetadataNode()))
+                                .ignoreElements())
+                // The dashboard can show cached prices if this fails
+                .addCriticalStep(STEP_TICKERS, Collections.emptyList(),
+                        () -> exchangeRateFactory.updateTickers()
+                                .doOnError(Timber::e)
+                                .onErrorComplete())
+                .addStep(STEP_BTC_FEES, Collections.emptyList(),
+                        () -> feeDataManager.getBtcFeeOptions()
+                                .doOnNext(btcFeeOptions -> dynamicFeeCache.setBtcFeeOptions(btcFeeOptions))
+                                .ignoreElements())
+                .addStep(STEP_ETH_FEES, Collections.emptyList(),
+                        () -> feeDataManager.getEthFeeOptions()
+                                .doOnNext(ethFeeOptions -> dynamicFeeCache.setEthFeeOptions(ethFeeOptions))
+                                .ignoreElements())
+                .addStep(STEP_WALLET_OPTIONS, Collections.emptyList(),
+                        () -> authDataManager.getWalletOptions()
+                                .doOnNext(walletOptionsSource::onNext)
+                                .ignoreElements())
+                .addStep(STEP_SETTINGS, Collections.emptyList(),
+                        () -> settingsDataManager.getSettings()
+                                .compose(RxUtil.applySchedulersToObservable())
+                                .ignoreElements())
+                // Deriving addresses is CPU intensive, so keep it off the critical path. Only the
+                // payload is needed, so this runs even if metadata fails
+                .addStep(STEP_SWIPE_ADDRESSES, Collections.emptyList(),
+                        this::swipeReceiveAddressesCompletable);
+
+        long start = tracer.now();
+        orchestrator.criticalPath()
+                .compose(RxUtil.addCompletableToCompositeDisposable(this))
                 .doAfterTerminate(() -> {
+                            tracer.completeSection("MainPresenter.criticalPath", start);
                             getView().hideProgressDialog();
 
+                            // Prompts are shown over the dashboard, whether or not setup succeeded
                             initPrompts(getView().getActivityContext());
-                            storeSwipeReceiveAddresses();
+                            tracer.counter("DerivedKeyCache.misses", DerivedKeyCache.getInstance().getMisses());
+                            LoginTimer.getInstance().finish();
 
                             rxBus.emitEvent(MetadataEvent.class, MetadataEvent.SETUP_COMPLETE);
 
@@ -255,16 +295,20 @@ public class MainPresenter extends BasePresenter<MainView> {
                         getView().showMetadataNodeFailure();
                     }
                 });
+
+        orchestrator.backgroundSteps()
+                .compose(RxUtil.addCompletableToCompositeDisposable(this))
+                .doAfterTerminate(() -> {
+                    Timber.d("Startup sections: %s", tracer.getSectionDurations());
+                    tracer.writeChromeTraceAsync(applicationContext.getFilesDir());
+                })
+                .subscribe(() -> { /* No-op */ }, Timber::e);
     }
 
-    private void storeSwipeReceiveAddresses() {
+    private Completable swipeReceiveAddressesCompletable() {
         // Defer to background thread as deriving addresses is quite processor intensive
-        Completable.fromCallable(() -> {
-            swipeToReceiveHelper.updateAndStoreBitcoinAddresses();
-            return Void.TYPE;
-        }).subscribeOn(Schedulers.computation())
-                .compose(RxUtil.addCompletableToCompositeDisposable(this))
-                .subscribe(() -> { /* No-op*/ }, Timber::e);
+        return Completable.fromAction(() -> swipeToReceiveHelper.updateAndStoreBitcoinAddresses())
+                .subscribeOn(Schedulers.computation());
     }
 
     private Observable<MetadataNodeFactory> initMetadataNodesObservable() {
@@ -283,15 +327,6 @@ public class MainPresenter extends BasePresenter<MainView> {
                 });
     }
 
-    private Completable feesCompletable() {
-        return feeDataManager.getBtcFeeOptions()
-                .doOnNext(btcFeeOptions -> dynamicFeeCache.setBtcFeeOptions(btcFeeOptions))
-                .flatMap(ignored -> feeDataManager.getEthFeeOptions())
-                .doOnNext(ethFeeOptions -> dynamicFeeCache.setEthFeeOptions(ethFeeOptions))
-                .compose(RxUtil.applySchedulersToObservable())
-                .flatMapCompletable(feeOptions -> exchangeRateFactory.updateTickers());
-    }
-
     void checkForMessages() {
         getCompositeDisposable().add(contactsDataManager.fetchContacts()
                 .andThen(contactsDataManager.getContactList())
@@ -342,14 +377,18 @@ public class MainPresenter extends BasePresenter<MainView> {
         dismissAnnouncementIfOnboardingCompleted();
     }
 
-    void updateTicker() {
-        getCompositeDisposable().add(
-                exchangeRateFactory.updateTickers()
-                        .subscribe(
-                                () -> {
-                                    // No-op
-                                },
-                                Throwable::printStackTrace));
+    /**
+     * Keeps prices fresh for every screen hosted here while the app is in the foreground, so
+     * that they needn't each fetch them.
+     */
+    private void subscribeToPrices() {
+        exchangeRateFactory.getPriceFeed()
+                .compose(RxUtil.addObservableToCompositeDisposable(this))
+                .subscribe(
+                        priceSnapshot -> {
+                            // No-op
+                        },
+                        Timber::e);
     }
 
     private void startWebSocketService() {
@@ -8,6 +8,7 @@ import piuk.blockchain.android.data.notifications.FcmCallbackService.EXTRA_CONTA
 import piuk.blockchain.android.data.payload.PayloadDataManager
 import piuk.blockchain.android.data.rxjava.RxUtil
 import piuk.blockchain.android.data.settings.SettingsDataManager
+import piuk.blockchain.android.data.startup.StartupTracer
 import piuk.blockchain.android.ui.base.BasePresenter
 import piuk.blockchain.android.ui.customviews.ToastCustom
 import piuk.blockchain.android.util.AppUtil
@@ -23,6 +24,12 @@ class LauncherPresenter @Inject constructor(
 ) : BasePresenter<LauncherView>() {
 
     override fun onViewReady() {
+        StartupTracer.getInstance().beginSection("LauncherPresenter.onViewReady")
+        routeLaunch()
+        StartupTracer.getInstance().endSection("LauncherPresenter.onViewReady")
+    }
+
+    private fun routeLaunch() {
         val intent = view.getPageIntent()
         val action = intent.action
         val scheme = intent.scheme
@@ -80,10 +87,12 @@ class LauncherPresenter @Inject constructor(
      * object from memory when the user is logged in.
      */
     private fun initSettings() {
+        val start = StartupTracer.getInstance().now()
         settingsDataManager.initSettings(
                 payloadDataManager.wallet.guid,
                 payloadDataManager.wallet.sharedKey)
                 .doOnComplete { accessState.setIsLoggedIn(true) }
+                .doOnTerminate { StartupTracer.getInstance().completeSection("LauncherPresenter.initSettings", start) }
                 .compose(RxUtil.addObservableToCompositeDisposable(this))
                 .subscribe({ settings ->
                     checkOnboardingStatus(settings)
@@ -21,7 +21,6 @@ import android.text.TextWatcher
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
-import com.fasterxml.jackson.databind.ObjectMapper
 import info.blockchain.wallet.contacts.data.Contact
 import info.blockchain.wallet.payload.data.Account
 import info.blockchain.wallet.payload.data.LegacyAddress
@@ -37,6 +36,7 @@ import kotlinx.android.synthetic.main.include_to_row.*
 import piuk.blockchain.android.BuildConfig
 import piuk.blockchain.android.R
 import piuk.blockchain.android.data.access.AccessState
+import piuk.blockchain.android.data.api.SharedObjectMapper
 import piuk.blockchain.android.data.contacts.models.PaymentRequestType
 import piuk.blockchain.android.data.currency.CryptoCurrencies
 import piuk.blockchain.android.data.rxjava.IgnorableDefaultObserver
@@ -431,7 +431,7 @@ class ReceiveFragment : BaseFragment<ReceiveView, ReceivePresenter>(), ReceiveVi
 
             try {
                 val type: Class<*> = Class.forName(data.getStringExtra(EXTRA_SELECTED_OBJECT_TYPE))
-                val any = ObjectMapper().readValue(data.getStringExtra(EXTRA_SELECTED_ITEM), type)
+                val any = SharedObjectMapper.getInstance().readValue(data.getStringExtra(EXTRA_SELECTED_ITEM), type)
 
                 when (any) {
                     is LegacyAddress -> presenter.onLegacyAddressSelected(any)
@@ -453,7 +453,7 @@ class ReceiveFragment : BaseFragment<ReceiveView, ReceivePresenter>(), ReceiveVi
                 && data != null) {
 
             try {
-                val contact = ObjectMapper().readValue(
+                val contact = SharedObjectMapper.getInstance().readValue(
                         data.getStringExtra(EXTRA_SELECTED_ITEM),
                         Contact::class.java
                 )
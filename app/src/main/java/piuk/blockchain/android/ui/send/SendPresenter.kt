@@ -4,7 +4,6 @@ import android.content.Intent
 import android.support.design.widget.Snackbar
 import android.text.Editable
 import android.widget.EditText
-import com.fasterxml.jackson.databind.ObjectMapper
 import info.blockchain.api.data.UnspentOutputs
 import info.blockchain.wallet.api.WalletApi
 import info.blockchain.wallet.api.data.FeeOptions
@@ -28,6 +27,7 @@ import piuk.blockchain.android.R
 import piuk.blockchain.android.data.answers.Logging
 import piuk.blockchain.android.data.answers.PaymentSentEvent
 import piuk.blockchain.android.data.api.EnvironmentSettings
+import piuk.blockchain.android.data.api.SharedObjectMapper
 import piuk.blockchain.android.data.auth.AuthService
 import piuk.blockchain.android.data.cache.DynamicFeeCache
 import piuk.blockchain.android.data.currency.CryptoCurrencies
@@ -1119,7 +1119,7 @@ class SendPresenter @Inject constructor(
         
         try {
             val type: Class<*> = Class.forName(data?.getStringExtra(AccountChooserActivity.EXTRA_SELECTED_OBJECT_TYPE))
-            val any = ObjectMapper().readValue(data?.getStringExtra(AccountChooserActivity.EXTRA_SELECTED_ITEM), type)
+            val any = SharedObjectMapper.getInstance().readValue(data?.getStringExtra(AccountChooserActivity.EXTRA_SELECTED_ITEM), type)
 
             when (any) {
                 is LegacyAddress -> onSendingBtcLegacyAddressSelected(any)
@@ -1138,7 +1138,7 @@ class SendPresenter @Inject constructor(
     internal fun selectReceivingAccount(data: Intent?) {
         try {
             val type: Class<*> = Class.forName(data?.getStringExtra(AccountChooserActivity.EXTRA_SELECTED_OBJECT_TYPE))
-            val any = ObjectMapper().readValue(data?.getStringExtra(AccountChooserActivity.EXTRA_SELECTED_ITEM), type)
+            val any = SharedObjectMapper.getInstance().readValue(data?.getStringExtra(AccountChooserActivity.EXTRA_SELECTED_ITEM), type)
 
             when (any) {
                 is LegacyAddress -> onReceivingBtcLegacyAddressSelected(any)
@@ -85,8 +85,7 @@ public class TransactionHelper {
                     outputMap.put(outputAddress, outputValue);
                 }
 
-            } else if (payloadDataManager.getWallet().getLegacyAddressStringList().contains(outputAddress)
-                    || payloadDataManager.getWallet().getWatchOnlyAddressStringList().contains(outputAddress)) {
+            } else if (payloadDataManager.isOwnLegacyAddress(outputAddress)) {
                 // If output address belongs to a legacy address we own - we have to check if it's change
                 // If it goes back to same address AND if it's not the total amount sent
                 // (inputs x and y could send to output y in which case y is not receiving change, but rather the total amount)
@@ -3,14 +3,60 @@ package piuk.blockchain.android.util;
 import info.blockchain.wallet.crypto.AESUtil;
 import info.blockchain.wallet.exceptions.DecryptionException;
 
+import org.spongycastle.crypto.BufferedBlockCipher;
 import org.spongycastle.crypto.InvalidCipherTextException;
+import org.spongycastle.crypto.engines.AESEngine;
+import org.spongycastle.crypto.modes.CBCBlockCipher;
+import org.spongycastle.crypto.paddings.ISO10126d2Padding;
+import org.spongycastle.crypto.paddings.PaddedBufferedBlockCipher;
+import org.spongycastle.crypto.params.KeyParameter;
+import org.spongycastle.crypto.params.ParametersWithIV;
+import org.spongycastle.util.encoders.Base64;
 
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+
+import piuk.blockchain.android.data.auth.DerivedKeyCache;
 
 public class AESUtilWrapper {
 
+    private static final int IV_LENGTH = 16;
+
+    private final DerivedKeyCache derivedKeyCache;
+
+    public AESUtilWrapper(DerivedKeyCache derivedKeyCache) {
+        this.derivedKeyCache = derivedKeyCache;
+    }
+
+    /**
+     * Equivalent to {@link AESUtil#decrypt(String, String, int)}, but the PBKDF2 key is taken from
+     * the {@link DerivedKeyCache} so that it's only derived once per session for each ciphertext.
+     */
     public String decrypt(String ciphertext, String password, int iterations) throws UnsupportedEncodingException, InvalidCipherTextException, DecryptionException {
-        return AESUtil.decrypt(ciphertext, password, iterations);
+        byte[] cipherdata = Base64.decode(ciphertext);
+        if (cipherdata.length <= IV_LENGTH) {
+            throw new DecryptionException("Ciphertext is too short.");
+        }
+
+        byte[] iv = Arrays.copyOfRange(cipherdata, 0, IV_LENGTH);
+        byte[] input = Arrays.copyOfRange(cipherdata, IV_LENGTH, cipherdata.length);
+        byte[] key = derivedKeyCache.getOrDerive(password, iv, iterations);
+
+        BufferedBlockCipher cipher = new PaddedBufferedBlockCipher(
+                new CBCBlockCipher(new AESEngine()), new ISO10126d2Padding());
+        cipher.init(false, new ParametersWithIV(new KeyParameter(key), iv));
+        Arrays.fill(key, (byte) 0);
+
+        byte[] buf = new byte[cipher.getOutputSize(input.length)];
+        int len = cipher.processBytes(input, 0, input.length, buf, 0);
+        len += cipher.doFinal(buf, len);
+
+        String result = new String(buf, 0, len, "UTF-8");
+        if (result.isEmpty()) {
+            throw new DecryptionException("Decrypted string is empty.");
+        }
+
+        return result;
     }
 
     public String encrypt(String plaintext, String password, int iterations) throws Exception {
@@ -7,6 +7,11 @@ import info.blockchain.wallet.exceptions.ApiException
 import info.blockchain.wallet.prices.PriceApi
 import io.reactivex.Completable
 import io.reactivex.Observable
+import io.reactivex.Single
+import io.reactivex.functions.BiFunction
+import piuk.blockchain.android.data.cache.PriceCache
+import piuk.blockchain.android.data.cache.PriceFeed
+import piuk.blockchain.android.data.cache.PriceSnapshot
 import piuk.blockchain.android.data.currency.CryptoCurrencies
 import piuk.blockchain.android.data.rxjava.RxBus
 import piuk.blockchain.android.data.rxjava.RxPinning
@@ -16,7 +21,6 @@ import piuk.blockchain.android.util.annotations.Mockable
 import piuk.blockchain.android.util.helperfunctions.unsafeLazy
 import java.math.BigDecimal
 import java.math.BigInteger
-import java.util.*
 import javax.inject.Inject
 
 /**
@@ -35,9 +39,8 @@ class ExchangeRateFactory private constructor() {
     private final val priceApi by unsafeLazy { PriceApi() }
     private final val api: ExchangeRates
     private final val rxPinning: RxPinning
-    // Ticker data
-    private var btcTickerData: TreeMap<String, TickerItem>? = null
-    private var ethTickerData: TreeMap<String, TickerItem>? = null
+    private final val priceCache: PriceCache
+    private final val priceFeed: PriceFeed
 
     @Inject final lateinit var prefsUtil: PrefsUtil
     @Inject final lateinit var rxBus: RxBus
@@ -52,11 +55,51 @@ class ExchangeRateFactory private constructor() {
                 BlockchainFramework.getApiCode()
         )
         rxPinning = RxPinning(rxBus)
+        priceCache = PriceCache(prefsUtil)
+        priceFeed = PriceFeed(
+                priceCache,
+                Completable.defer { pollTickers() },
+                PriceFeed.foregroundOf(ApplicationLifeCycle.getInstance())
+        )
+    }
+
+    /**
+     * Fetches the latest BTC and ETH tickers, unless those held are younger than
+     * [PriceCache.timeToLive]. Concurrent callers share a single request.
+     */
+    fun updateTickers(): Completable = Completable.defer {
+        if (priceCache.isFresh()) Completable.complete() else refreshTickers()
     }
 
-    fun updateTickers(): Completable = rxPinning.call {
-        getBtcTicker().mergeWith(getEthTicker())
-    }.compose(RxUtil.applySchedulersToCompletable())
+    /**
+     * Fetches the latest BTC and ETH tickers regardless of the age of those held. Concurrent
+     * callers share a single request.
+     */
+    fun refreshTickers(): Completable =
+            rxPinning.callShared(TICKERS_KEY) { fetchTickers() }
+                    .compose(RxUtil.applySchedulersToCompletable())
+
+    /**
+     * As [refreshTickers], for polls by the [PriceFeed]. Losing the connection doesn't interrupt
+     * the user, as the feed retries.
+     */
+    private fun pollTickers(): Completable =
+            rxPinning.callSharedInBackground(TICKERS_KEY) { fetchTickers() }
+                    .compose(RxUtil.applySchedulersToCompletable())
+
+    private fun fetchTickers(): Completable = Single.zip(
+            getBtcTicker(),
+            getEthTicker(),
+            BiFunction<Map<String, TickerItem>, Map<String, TickerItem>, PriceSnapshot> { btc, eth ->
+                priceCache.update(btc, eth)
+            }
+    ).toCompletable()
+
+    /**
+     * Returns a feed of prices, which emits the latest [PriceSnapshot] on subscribing and then
+     * whenever prices change, polling only while the app is in the foreground. See [PriceFeed].
+     */
+    fun getPriceFeed(): Observable<PriceSnapshot> = priceFeed.prices
 
     fun getLastBtcPrice(currencyName: String) = getLastPrice(currencyName, CryptoCurrencies.BTC)
 
@@ -68,10 +111,10 @@ class ExchangeRateFactory private constructor() {
             currency = "USD"
         }
 
-        return getBtcTickerItem(currency)?.symbol ?: "$"
+        return priceCache.getTickerItem(currency, CryptoCurrencies.BTC)?.symbol ?: "$"
     }
 
-    fun getCurrencyLabels(): Array<String> = btcTickerData!!.keys.toTypedArray()
+    fun getCurrencyLabels(): Array<String> = priceCache.getCurrencies().toTypedArray()
 
     /**
      * Returns the historic value of a number of Satoshi at a given time in a given currency.
@@ -85,7 +128,7 @@ class ExchangeRateFactory private constructor() {
             satoshis: Long,
             currency: String,
             timeInSeconds: Long
-    ): Observable<Double> = rxPinning.call<Double> {
+    ): Observable<Double> = rxPinning.call<Double>("ExchangeRateFactory.getBtcHistoricPrice") {
         priceApi.getHistoricPrice("btc", currency, timeInSeconds)
                 .map {
                     val exchangeRate = BigDecimal.valueOf(it)
@@ -108,7 +151,7 @@ class ExchangeRateFactory private constructor() {
             wei: BigInteger,
             currency: String,
             timeInSeconds: Long
-    ): Observable<Double> = rxPinning.call<Double> {
+    ): Observable<Double> = rxPinning.call<Double>("ExchangeRateFactory.getEthHistoricPrice") {
         priceApi.getHistoricPrice("eth", currency, timeInSeconds)
                 .map {
                     val exchangeRate = BigDecimal.valueOf(it)
@@ -120,80 +163,37 @@ class ExchangeRateFactory private constructor() {
     }
 
     private fun getLastPrice(currencyName: String, cryptoCurrency: CryptoCurrencies): Double {
-        val prefsKey: String
-        val tickerData: TreeMap<String, TickerItem>?
-
-        when (cryptoCurrency) {
-            CryptoCurrencies.BTC -> {
-                prefsKey = PREF_LAST_KNOWN_BTC_PRICE
-                tickerData = btcTickerData
-            }
-            CryptoCurrencies.ETHER -> {
-                prefsKey = PREF_LAST_KNOWN_ETH_PRICE
-                tickerData = ethTickerData
-            }
-            else -> throw IllegalArgumentException("BCC is not currently supported")
-        }
         var currency = currencyName
         if (currency.isEmpty()) {
             currency = "USD"
         }
 
-        var lastPrice: Double
-        val lastKnown = prefsUtil.getValue("$prefsKey$currency", "0.0").toDouble()
-
-        if (tickerData == null) {
-            lastPrice = lastKnown
-        } else {
-            val tickerItem = when (cryptoCurrency) {
-                CryptoCurrencies.BTC -> getBtcTickerItem(currency)
-                CryptoCurrencies.ETHER -> getEthTickerItem(currency)
-                else -> throw IllegalArgumentException("BCC is not currently supported")
-            }
-
-            lastPrice = tickerItem?.last ?: 0.0
-
-            if (lastPrice > 0.0) {
-                prefsUtil.setValue("$prefsKey$currency", lastPrice.toString())
-            } else {
-                lastPrice = lastKnown
-            }
-        }
-
-        return lastPrice
+        return priceCache.getLastPrice(currency, cryptoCurrency)
     }
 
     @Suppress("DEPRECATION")
-    private fun getBtcTicker(): Completable = Completable.fromCallable {
+    private fun getBtcTicker(): Single<Map<String, TickerItem>> = Single.fromCallable {
         val call = api.btcTickerMap.execute()
         if (call.isSuccessful) {
-            btcTickerData = call.body()
-            Void.TYPE
+            call.body()!!
         } else {
             throw ApiException(call.errorBody()!!.string())
         }
     }
 
     @Suppress("DEPRECATION")
-    private fun getEthTicker(): Completable = Completable.fromCallable {
+    private fun getEthTicker(): Single<Map<String, TickerItem>> = Single.fromCallable {
         val call = api.ethTickerMap.execute()
         if (call.isSuccessful) {
-            ethTickerData = call.body()
-            Void.TYPE
+            call.body()!!
         } else {
             throw ApiException(call.errorBody()!!.string())
         }
     }
 
-    private fun getBtcTickerItem(currencyName: String) = btcTickerData!![currencyName]
-
-    private fun getEthTickerItem(currencyName: String) = ethTickerData!![currencyName]
-
     companion object {
 
-        private const val PREF_LAST_KNOWN_BTC_PRICE = "LAST_KNOWN_BTC_VALUE_FOR_CURRENCY_"
-        private const val PREF_LAST_KNOWN_ETH_PRICE = "LAST_KNOWN_ETH_VALUE_FOR_CURRENCY_"
-
+        private const val TICKERS_KEY = "ExchangeRateFactory.updateTickers"
         private val SATOSHIS_PER_BITCOIN = BigDecimal.valueOf(100_000_000L)
         private val WEI_PER_ETHER = BigDecimal.valueOf(1e18)
 
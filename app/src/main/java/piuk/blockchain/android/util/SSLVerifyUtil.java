@@ -34,7 +34,7 @@ public class SSLVerifyUtil {
      * which will handle the response appropriately.
      */
     public void validateSSL() {
-        rxPinning.call(() -> connectionApi.getExplorerConnection())
+        rxPinning.call("SSLVerifyUtil.validateSSL", () -> connectionApi.getExplorerConnection())
                 .subscribeOn(Schedulers.io())
                 .subscribe(new IgnorableDefaultObserver<>());
     }
@@ -0,0 +1,86 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.MediaType
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.RequestBody
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.amshove.kluent.`should equal`
+import org.junit.After
+import org.junit.Test
+import timber.log.Timber
+
+class ApiInterceptorTest {
+
+    private val server = MockWebServer()
+    private val logs = mutableListOf<String>()
+
+    @After
+    fun tearDown() {
+        Timber.uprootAll()
+        server.shutdown()
+    }
+
+    @Test
+    fun `body larger than the logged prefix reaches the caller intact`() {
+        // Arrange
+        val body = "x".repeat(ApiInterceptor.DEFAULT_MAX_BODY_BYTES.toInt() * 4)
+        server.enqueue(MockResponse().setBody(body))
+        val client = client(ApiInterceptor(ApiInterceptor.Level.BODY))
+        // Act
+        val response = client.newCall(Request.Builder().url(server.url("/multiaddr")).build()).execute()
+        // Assert
+        response.body()!!.string() `should equal` body
+    }
+
+    @Test
+    fun `post body is still sent after logging`() {
+        // Arrange
+        server.enqueue(MockResponse().setBody("{}"))
+        val client = client(ApiInterceptor(ApiInterceptor.Level.BODY))
+        val requestBody = RequestBody.create(MediaType.parse("application/json"), """{"guid":"1234"}""")
+        // Act
+        client.newCall(Request.Builder().url(server.url("/wallet")).post(requestBody).build()).execute().close()
+        // Assert
+        server.takeRequest().body.readUtf8() `should equal` """{"guid":"1234"}"""
+    }
+
+    @Test
+    fun `level none passes the response through untouched`() {
+        // Arrange
+        server.enqueue(MockResponse().setResponseCode(500).setBody("error"))
+        val client = client(ApiInterceptor(ApiInterceptor.Level.NONE))
+        // Act
+        val response = client.newCall(Request.Builder().url(server.url("/ticker")).build()).execute()
+        // Assert
+        response.code() `should equal` 500
+        response.body()!!.string() `should equal` "error"
+    }
+
+    @Test
+    fun `only bodies longer than the limit are logged as truncated`() {
+        // Arrange
+        Timber.plant(object : Timber.Tree() {
+            override fun log(priority: Int, tag: String?, message: String, t: Throwable?) {
+                logs.add(message)
+            }
+        })
+        server.enqueue(MockResponse().setBody("12345678"))
+        server.enqueue(MockResponse().setBody("123456789"))
+        val client = client(ApiInterceptor(ApiInterceptor.Level.BODY, 8))
+        // Act
+        client.newCall(Request.Builder().url(server.url("/exact")).build()).execute().close()
+        val exact = logs.last()
+        client.newCall(Request.Builder().url(server.url("/longer")).build()).execute().close()
+        val longer = logs.last()
+        // Assert
+        exact.endsWith("\n12345678") `should equal` true
+        longer.endsWith("\n12345678… (truncated)") `should equal` true
+    }
+
+    private fun client(interceptor: ApiInterceptor) = OkHttpClient.Builder()
+            .addInterceptor(interceptor)
+            .build()
+
+}
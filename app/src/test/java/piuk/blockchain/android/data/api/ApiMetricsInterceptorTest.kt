@@ -0,0 +1,61 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.amshove.kluent.`should equal`
+import org.junit.After
+import org.junit.Test
+
+class ApiMetricsInterceptorTest {
+
+    private val server = MockWebServer()
+    private val metrics = EndpointMetrics()
+    private val client = OkHttpClient.Builder()
+            .addInterceptor(ApiMetricsInterceptor(metrics))
+            .build()
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `records latency and bytes once the body is read`() {
+        // Arrange
+        server.enqueue(MockResponse().setBody("x".repeat(2_000)))
+        // Act
+        client.newCall(Request.Builder().url(server.url("/multiaddr")).build()).execute().body()!!.string()
+        // Assert
+        val endpoint = metrics.getEndpoints().single()
+        endpoint.latency.snapshot().count `should equal` 1L
+        endpoint.responseBytes.snapshot().sum `should equal` 2_000L
+        endpoint.getErrorCount() `should equal` 0L
+    }
+
+    @Test
+    fun `identifiers in the path share one endpoint`() {
+        // Arrange
+        server.enqueue(MockResponse().setBody("{}"))
+        server.enqueue(MockResponse().setBody("{}"))
+        // Act
+        listOf("/rawaddr/1BoatSLRHtKNngkdXEeobR76b53LETtpyT", "/rawaddr/1JArS6jzE3AJ9sZ3aFij1BmTcpFGgN86hA")
+                .forEach { client.newCall(Request.Builder().url(server.url(it)).build()).execute().close() }
+        // Assert
+        val endpoint = metrics.getEndpoints().single()
+        endpoint.name `should equal` "GET ${server.hostName}/rawaddr/:id"
+        endpoint.latency.snapshot().count `should equal` 2L
+    }
+
+    @Test
+    fun `unsuccessful responses count as errors`() {
+        // Arrange
+        server.enqueue(MockResponse().setResponseCode(503))
+        // Act
+        client.newCall(Request.Builder().url(server.url("/ticker")).build()).execute().close()
+        // Assert
+        metrics.getEndpoints().single().getErrorCount() `should equal` 1L
+    }
+
+}
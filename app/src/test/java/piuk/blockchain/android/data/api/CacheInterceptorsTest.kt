@@ -0,0 +1,136 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.Cache
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.amshove.kluent.`should equal`
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class CacheInterceptorsTest {
+
+    @get:Rule val temporaryFolder = TemporaryFolder()
+    private val server = MockWebServer()
+    private val metrics = EndpointMetrics()
+    private var online = true
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `fresh response is served from the cache`() {
+        // Arrange
+        server.enqueue(MockResponse().setBody(TICKER))
+        val client = client(HttpCachePolicy("/ticker", 60, 60))
+        // Act
+        val first = get(client, "/ticker")
+        val second = get(client, "/ticker")
+        // Assert
+        first `should equal` TICKER
+        second `should equal` TICKER
+        server.requestCount `should equal` 1
+        val endpoint = metrics.getEndpoints().single()
+        endpoint.getCacheHitCount() `should equal` 1L
+        endpoint.getCacheMissCount() `should equal` 1L
+        endpoint.getBytesSaved() `should equal` TICKER.length.toLong()
+    }
+
+    @Test
+    fun `expired response is revalidated with its etag`() {
+        // Arrange
+        server.enqueue(MockResponse().setBody(TICKER).setHeader("ETag", "\"v1\""))
+        server.enqueue(MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""))
+        val client = client(HttpCachePolicy("/ticker", 0, 60))
+        // Act
+        get(client, "/ticker")
+        val second = get(client, "/ticker")
+        // Assert
+        second `should equal` TICKER
+        server.takeRequest()
+        server.takeRequest().getHeader("If-None-Match") `should equal` "\"v1\""
+        metrics.getEndpoints().single().getConditionalCacheHitCount() `should equal` 1L
+    }
+
+    @Test
+    fun `stale response is served when offline`() {
+        // Arrange
+        server.enqueue(MockResponse().setBody(TICKER))
+        val client = client(HttpCachePolicy("/ticker", 0, 60))
+        get(client, "/ticker")
+        online = false
+        // Act
+        val offline = get(client, "/ticker")
+        // Assert
+        offline `should equal` TICKER
+        server.requestCount `should equal` 1
+    }
+
+    @Test
+    fun `offline request without a cached response goes to the network`() {
+        // Arrange
+        server.enqueue(MockResponse().setBody(TICKER))
+        val client = client(HttpCachePolicy("/ticker", 60, 60))
+        online = false
+        // Act
+        val response = get(client, "/ticker")
+        // Assert
+        response `should equal` TICKER
+        server.requestCount `should equal` 1
+    }
+
+    @Test
+    fun `endpoints without a policy aren't cached`() {
+        // Arrange
+        server.enqueue(MockResponse().setBody("{}"))
+        server.enqueue(MockResponse().setBody("{}"))
+        val client = client(HttpCachePolicy("/ticker", 60, 60))
+        // Act
+        get(client, "/multiaddr")
+        get(client, "/multiaddr")
+        // Assert
+        server.requestCount `should equal` 2
+    }
+
+    @Test
+    fun `server caching headers aren't overridden`() {
+        // Arrange
+        server.enqueue(MockResponse().setBody(TICKER).setHeader("Cache-Control", "no-store"))
+        server.enqueue(MockResponse().setBody(TICKER)
+                .setHeader("Cache-Control", "private, max-age=60"))
+        server.enqueue(MockResponse().setBody(TICKER))
+        val client = client(HttpCachePolicy("/ticker", 60, 60))
+        // Act
+        get(client, "/ticker")
+        get(client, "/ticker")
+        get(client, "/ticker")
+        // Assert
+        server.requestCount `should equal` 2
+        metrics.getEndpoints().single().getCacheHitCount() `should equal` 1L
+    }
+
+    private fun client(policy: HttpCachePolicy): OkHttpClient {
+        val policies = HttpCachePolicies(listOf(policy))
+        return OkHttpClient.Builder()
+                .cache(Cache(temporaryFolder.newFolder("http"), 1024 * 1024))
+                .addInterceptor(ApiMetricsInterceptor(metrics))
+                .addInterceptor(OfflineCacheInterceptor(policies) { online })
+                .addNetworkInterceptor(CachePolicyInterceptor(policies))
+                .build()
+    }
+
+    private fun get(client: OkHttpClient, path: String) =
+            client.newCall(Request.Builder().url(server.url(path)).build()).execute().body()!!.string()
+
+    companion object {
+
+        private const val TICKER = """{"USD":{"15m":6000.0,"last":6000.0,"symbol":"$"}}"""
+
+    }
+
+}
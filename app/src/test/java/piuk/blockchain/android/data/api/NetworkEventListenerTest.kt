@@ -0,0 +1,58 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.OkHttpClient
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.amshove.kluent.`should equal`
+import org.junit.After
+import org.junit.Test
+
+class NetworkEventListenerTest {
+
+    private val server = MockWebServer()
+    private val metrics = EndpointMetrics()
+    private val client = OkHttpClient.Builder()
+            .eventListenerFactory(NetworkEventListener.Factory(metrics))
+            .build()
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `records phases and reuses the pooled connection`() {
+        // Arrange
+        server.enqueue(MockResponse().setBody("{}"))
+        server.enqueue(MockResponse().setBody("{}"))
+        // Act
+        repeat(2) {
+            client.newCall(Request.Builder().url(server.url("/ticker")).build()).execute().body()!!.string()
+        }
+        // Assert
+        val endpoint = metrics.getEndpoints().single()
+        endpoint.connectLatency.snapshot().count `should equal` 1L
+        endpoint.timeToFirstByte.snapshot().count `should equal` 2L
+        endpoint.getNewConnectionCount() `should equal` 1L
+        endpoint.getReusedConnectionCount() `should equal` 1L
+        endpoint.getProtocolCounts() `should equal` mapOf(Protocol.HTTP_1_1 to 2L)
+    }
+
+    @Test
+    fun `failure to connect is counted`() {
+        // Arrange
+        val url = server.url("/ticker")
+        server.shutdown()
+        // Act
+        try {
+            client.newCall(Request.Builder().url(url).build()).execute()
+        } catch (ignored: Exception) {
+            // Expected
+        }
+        // Assert
+        metrics.getEndpoints().single().getConnectFailureCount() `should equal` 1L
+    }
+
+}
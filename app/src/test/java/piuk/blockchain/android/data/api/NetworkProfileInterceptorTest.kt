@@ -0,0 +1,72 @@
+package piuk.blockchain.android.data.api
+
+import okhttp3.MediaType
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.RequestBody
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.SocketPolicy
+import org.amshove.kluent.`should equal`
+import org.junit.After
+import org.junit.Test
+import java.io.IOException
+import java.net.SocketTimeoutException
+import java.util.concurrent.TimeUnit
+
+class NetworkProfileInterceptorTest {
+
+    private val server = MockWebServer()
+    private val profile = NetworkProfile.DEFAULT.copy(
+            readTimeoutOverrides = mapOf("/ticker" to 1),
+            maxIdempotentRetries = 1
+    )
+    private val client = OkHttpClient.Builder()
+            .retryOnConnectionFailure(false)
+            .addInterceptor(NetworkProfileInterceptor(profile))
+            .build()
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `failed get is retried`() {
+        // Arrange
+        server.enqueue(MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START))
+        server.enqueue(MockResponse().setBody("{}"))
+        // Act
+        val response = client.newCall(Request.Builder().url(server.url("/multiaddr")).build()).execute()
+        // Assert
+        response.body()!!.string() `should equal` "{}"
+        server.requestCount `should equal` 2
+    }
+
+    @Test(expected = IOException::class)
+    fun `failed post isn't retried`() {
+        // Arrange
+        server.enqueue(MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START))
+        server.enqueue(MockResponse().setBody("{}"))
+        val body = RequestBody.create(MediaType.parse("text/plain"), "tx")
+        // Act
+        try {
+            client.newCall(Request.Builder().url(server.url("/pushtx")).post(body).build()).execute()
+        } finally {
+            // Assert
+            server.requestCount `should equal` 1
+        }
+    }
+
+    @Test(expected = SocketTimeoutException::class)
+    fun `endpoint read timeout is applied`() {
+        // Arrange
+        repeat(2) {
+            server.enqueue(MockResponse().setBody("{}").setHeadersDelay(3, TimeUnit.SECONDS))
+        }
+        // Act
+        client.newCall(Request.Builder().url(server.url("/ticker")).build()).execute()
+        // Assert
+    }
+
+}
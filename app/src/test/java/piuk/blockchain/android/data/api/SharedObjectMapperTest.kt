@@ -0,0 +1,38 @@
+package piuk.blockchain.android.data.api
+
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import piuk.blockchain.android.data.exchange.models.ExchangeData
+
+class SharedObjectMapperTest {
+
+    @Test
+    fun `readers are built once per type`() {
+        // Arrange
+
+        // Act
+        val first = SharedObjectMapper.readerFor(ExchangeData::class.java)
+        val second = SharedObjectMapper.readerFor(ExchangeData::class.java)
+        // Assert
+        first `should be` second
+    }
+
+    @Test
+    fun `warmed up reader parses exchange data`() {
+        // Arrange
+        SharedObjectMapper.warmUp()
+        // Act
+        val data: ExchangeData = SharedObjectMapper.readerFor(ExchangeData::class.java).readValue(EXCHANGE_DATA)
+        // Assert
+        data.coinify.user `should equal` 12345
+        data.sfox `should equal` null
+    }
+
+    companion object {
+
+        private const val EXCHANGE_DATA = """{"coinify":{"user":12345,"offline_token":"token","trades":[]}}"""
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package piuk.blockchain.android.data.auth
+
+import info.blockchain.wallet.crypto.AESUtil
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import piuk.blockchain.android.util.AESUtilWrapper
+
+class DerivedKeyCacheTest {
+
+    private val subject = DerivedKeyCache()
+    private val aesUtilWrapper = AESUtilWrapper(subject)
+
+    @Test
+    fun `decrypt matches library and only derives key once`() {
+        // Arrange
+        val ciphertext = AESUtil.encrypt("PASSWORD", "KEY", AESUtil.PIN_PBKDF2_ITERATIONS)
+        // Act
+        val first = aesUtilWrapper.decrypt(ciphertext, "KEY", AESUtil.PIN_PBKDF2_ITERATIONS)
+        val second = aesUtilWrapper.decrypt(ciphertext, "KEY", AESUtil.PIN_PBKDF2_ITERATIONS)
+        // Assert
+        first `should equal` "PASSWORD"
+        second `should equal` "PASSWORD"
+        subject.misses `should equal` 1
+        subject.hits `should equal` 1
+    }
+
+    @Test
+    fun `keys differ by password salt and iterations`() {
+        // Arrange
+        val salt = ByteArray(16) { it.toByte() }
+        val otherSalt = ByteArray(16) { (it + 1).toByte() }
+        // Act
+        val key = subject.getOrDerive("password", salt, 10)
+        val keys = listOf(
+                subject.getOrDerive("password2", salt, 10),
+                subject.getOrDerive("password", otherSalt, 10),
+                subject.getOrDerive("password", salt, 11)
+        )
+        // Assert
+        keys.none { it.contentEquals(key) } `should equal` true
+        subject.misses `should equal` 4
+        subject.size() `should equal` 4
+    }
+
+    @Test
+    fun `returned key is a copy`() {
+        // Arrange
+        val salt = ByteArray(16)
+        val key = subject.getOrDerive("password", salt, 10)
+        val expected = key.clone()
+        // Act
+        key.fill(0)
+        // Assert
+        subject.getOrDerive("password", salt, 10).contentEquals(expected) `should equal` true
+    }
+
+    @Test
+    fun `clear removes every key`() {
+        // Arrange
+        val salt = ByteArray(16)
+        subject.getOrDerive("password", salt, 10)
+        // Act
+        subject.clear()
+        subject.getOrDerive("password", salt, 10)
+        // Assert
+        subject.misses `should equal` 2
+        subject.hits `should equal` 0
+    }
+
+    @Test
+    fun `oldest keys are evicted`() {
+        // Arrange
+        val salt = ByteArray(16)
+        // Act
+        (0 until 20).forEach { subject.getOrDerive("password$it", salt, 10) }
+        // Assert
+        subject.size() `should equal` 8
+    }
+
+}
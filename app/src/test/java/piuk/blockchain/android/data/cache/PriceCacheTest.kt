@@ -0,0 +1,110 @@
+package piuk.blockchain.android.data.cache
+
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.doAnswer
+import com.nhaarman.mockito_kotlin.doReturn
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.times
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.api.data.TickerItem
+import org.amshove.kluent.`should equal to`
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.util.PrefsUtil
+
+class PriceCacheTest {
+
+    private lateinit var subject: PriceCache
+    private val prefsUtil: PrefsUtil = mock()
+    private var now = 0L
+
+    @Before
+    fun setUp() {
+        whenever(prefsUtil.getValue(any(), any<String>())).thenAnswer { it.arguments[1] }
+        subject = PriceCache(prefsUtil, TTL, { now })
+    }
+
+    @Test
+    fun `is fresh only within time to live of an update`() {
+        // Arrange
+        val freshBeforeUpdate = subject.isFresh()
+        subject.update(tickers("USD" to 5000.0), tickers("USD" to 300.0))
+        now = TTL - 1
+        val freshWithinTtl = subject.isFresh()
+        // Act
+        now = TTL
+        // Assert
+        freshBeforeUpdate `should equal to` false
+        freshWithinTtl `should equal to` true
+        subject.isFresh() `should equal to` false
+    }
+
+    @Test
+    fun `reads prices from tickers without touching prefs`() {
+        // Arrange
+        subject.update(tickers("USD" to 5000.0, "GBP" to 4000.0), tickers("USD" to 300.0))
+        // Act
+        val btcPrice = subject.getLastPrice("GBP", CryptoCurrencies.BTC)
+        val ethPrice = subject.getLastPrice("USD", CryptoCurrencies.ETHER)
+        // Assert
+        btcPrice `should equal to` 4000.0
+        ethPrice `should equal to` 300.0
+        subject.getCurrencies() `should equal` setOf("GBP", "USD")
+        verify(prefsUtil, times(1)).setValue(any(), any<String>())
+    }
+
+    @Test
+    fun `persists prices only when they change`() {
+        // Arrange
+        subject.update(tickers("USD" to 5000.0), tickers("USD" to 300.0))
+        // Act
+        subject.update(tickers("USD" to 5000.0), tickers("USD" to 300.0))
+        subject.update(tickers("USD" to 5001.0), tickers("USD" to 300.0))
+        // Assert
+        verify(prefsUtil, times(2)).setValue(any(), any<String>())
+    }
+
+    @Test
+    fun `falls back to persisted prices before first update`() {
+        // Arrange
+        val writer = PriceCache(prefsUtil, TTL, { now })
+        var persisted = ""
+        doAnswer { persisted = it.arguments[1] as String }
+                .whenever(prefsUtil).setValue(any(), any<String>())
+        writer.update(tickers("USD" to 5000.0), tickers("USD" to 300.0))
+        whenever(prefsUtil.getValue(any(), any<String>())).thenReturn(persisted)
+        // Act
+        val price = subject.getLastPrice("USD", CryptoCurrencies.BTC)
+        // Assert
+        price `should equal to` 5000.0
+        subject.getCurrencies() `should equal` setOf("USD")
+    }
+
+    @Test
+    fun `falls back to legacy per currency prices`() {
+        // Arrange
+        whenever(prefsUtil.getValue("LAST_KNOWN_ETH_VALUE_FOR_CURRENCY_EUR", "0.0"))
+                .thenReturn("250.0")
+        // Act
+        val price = subject.getLastPrice("EUR", CryptoCurrencies.ETHER)
+        // Assert
+        price `should equal to` 250.0
+        verify(prefsUtil, never()).setValue(any(), any<String>())
+    }
+
+    private fun tickers(vararg prices: Pair<String, Double>): Map<String, TickerItem> =
+            prices.associate { (currency, last) ->
+                currency to mock<TickerItem> { on { this.last } doReturn last }
+            }.toSortedMap()
+
+    companion object {
+
+        private const val TTL = 60_000L
+
+    }
+
+}
@@ -0,0 +1,136 @@
+package piuk.blockchain.android.data.cache
+
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.doReturn
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.api.data.TickerItem
+import io.reactivex.Completable
+import io.reactivex.subjects.BehaviorSubject
+import org.amshove.kluent.`should equal to`
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.util.PrefsUtil
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+class PriceFeedTest : RxTest() {
+
+    private lateinit var subject: PriceFeed
+    private lateinit var priceCache: PriceCache
+    private val prefsUtil: PrefsUtil = mock()
+    private val foreground = BehaviorSubject.createDefault(false)
+    private var now = 0L
+    private var refreshes = 0
+    private var failures = 0
+    private var btcPrice = 5000.0
+
+    @Before
+    override fun setUp() {
+        super.setUp()
+        whenever(prefsUtil.getValue(any(), any<String>())).thenAnswer { it.arguments[1] }
+        priceCache = PriceCache(prefsUtil, TTL, { now })
+        val refresh = Completable.fromAction {
+            refreshes++
+            if (failures > 0) {
+                failures--
+                throw IOException()
+            }
+            priceCache.update(tickers(btcPrice), tickers(300.0))
+        }
+        subject = PriceFeed(priceCache, refresh, foreground)
+    }
+
+    @Test
+    fun `polls only while in the foreground`() {
+        // Arrange
+        val testObserver = subject.prices.test()
+        val refreshesInBackground = refreshes
+        // Act
+        foreground.onNext(true)
+        advanceTime(TTL)
+        foreground.onNext(false)
+        advanceTime(TTL * 10)
+        // Assert
+        refreshesInBackground `should equal to` 0
+        refreshes `should equal to` 2
+        testObserver.assertValueCount(1)
+    }
+
+    @Test
+    fun `emits only when prices change`() {
+        // Arrange
+        foreground.onNext(true)
+        val testObserver = subject.prices.test()
+        // Act
+        advanceTime(TTL)
+        btcPrice = 5001.0
+        advanceTime(TTL)
+        // Assert
+        refreshes `should equal to` 3
+        testObserver.assertValueCount(2)
+        testObserver.values().last().getLastPrice("USD", CryptoCurrencies.BTC)!! `should equal to` 5001.0
+    }
+
+    @Test
+    fun `returning to the foreground reuses fresh prices`() {
+        // Arrange
+        foreground.onNext(true)
+        val testObserver = subject.prices.test()
+        foreground.onNext(false)
+        // Act
+        now += TTL - 1
+        foreground.onNext(true)
+        // Assert
+        refreshes `should equal to` 1
+        testObserver.assertValueCount(1)
+    }
+
+    @Test
+    fun `retries failed refreshes with backoff`() {
+        // Arrange
+        failures = 2
+        foreground.onNext(true)
+        val testObserver = subject.prices.test()
+        val refreshesBeforeRetry = refreshes
+        // Act
+        advanceTime(PriceFeed.INITIAL_RETRY_DELAY)
+        val refreshesAfterFirstRetry = refreshes
+        advanceTime(PriceFeed.INITIAL_RETRY_DELAY * 2)
+        // Assert
+        refreshesBeforeRetry `should equal to` 1
+        refreshesAfterFirstRetry `should equal to` 2
+        refreshes `should equal to` 3
+        testObserver.assertValueCount(1)
+        testObserver.assertNoErrors()
+    }
+
+    @Test
+    fun `retry delay doubles up to the maximum`() {
+        // Arrange
+
+        // Act
+        val delays = (1..10).map { PriceFeed.getRetryDelay(it) }
+        // Assert
+        delays[0] `should equal to` PriceFeed.INITIAL_RETRY_DELAY
+        delays[1] `should equal to` PriceFeed.INITIAL_RETRY_DELAY * 2
+        delays.last() `should equal to` PriceFeed.MAX_RETRY_DELAY
+    }
+
+    private fun advanceTime(millis: Long) {
+        now += millis
+        testScheduler.advanceTimeBy(millis, TimeUnit.MILLISECONDS)
+    }
+
+    private fun tickers(last: Double): Map<String, TickerItem> =
+            mapOf("USD" to mock<TickerItem> { on { this.last } doReturn last })
+
+    companion object {
+
+        private const val TTL = 60_000L
+
+    }
+
+}
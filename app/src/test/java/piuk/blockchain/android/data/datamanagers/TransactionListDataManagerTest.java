@@ -13,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -24,21 +25,30 @@ import io.reactivex.observers.TestObserver;
 import piuk.blockchain.android.RxTest;
 import piuk.blockchain.android.data.ethereum.EthDataManager;
 import piuk.blockchain.android.data.ethereum.models.CombinedEthModel;
+import piuk.blockchain.android.data.stores.TransactionDiskStore;
 import piuk.blockchain.android.data.stores.TransactionListStore;
 import piuk.blockchain.android.data.transactions.BtcDisplayable;
 import piuk.blockchain.android.data.transactions.Displayable;
 import piuk.blockchain.android.ui.account.ItemAccount;
 
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public class TransactionListDataManagerTest extends RxTest {
 
     @Mock private PayloadManager payloadManager;
     @Mock private EthDataManager ethDataManager;
+    @Mock private TransactionDiskStore transactionDiskStore;
     private TransactionListStore transactionListStore;
     private TransactionListDataManager subject;
 
@@ -52,7 +62,8 @@ public class TransactionListDataManagerTest extends RxTest {
         subject = new TransactionListDataManager(
                 payloadManager,
                 ethDataManager,
-                transactionListStore);
+                transactionListStore,
+                transactionDiskStore);
     }
 
     @Test
@@ -171,6 +182,13 @@ public class TransactionListDataManagerTest extends RxTest {
         EthLatestBlock latestBlock = mock(EthLatestBlock.class);
         EthTransaction transaction = mock(EthTransaction.class);
         when(transaction.getHash()).thenReturn("hash");
+        when(transaction.getTimeStamp()).thenReturn(1000000L);
+        when(transaction.getBlockNumber()).thenReturn(1L);
+        when(transaction.getFrom()).thenReturn("from");
+        when(transaction.getTo()).thenReturn("to");
+        when(transaction.getValue()).thenReturn(BigInteger.TEN);
+        when(transaction.getGasUsed()).thenReturn(BigInteger.ONE);
+        when(transaction.getGasPrice()).thenReturn(BigInteger.ONE);
         CombinedEthModel ethModel = mock(CombinedEthModel.class);
         when(ethDataManager.getLatestBlock()).thenReturn(Observable.just(latestBlock));
         when(ethDataManager.getEthTransactions()).thenReturn(Observable.just(transaction));
@@ -214,10 +232,13 @@ public class TransactionListDataManagerTest extends RxTest {
         // Arrange
         Displayable tx0 = mock(BtcDisplayable.class);
         when(tx0.getTimeStamp()).thenReturn(0L);
+        when(tx0.getHash()).thenReturn("hash0");
         Displayable tx1 = mock(BtcDisplayable.class);
         when(tx1.getTimeStamp()).thenReturn(500L);
+        when(tx1.getHash()).thenReturn("hash1");
         Displayable tx2 = mock(BtcDisplayable.class);
         when(tx2.getTimeStamp()).thenReturn(1000L);
+        when(tx2.getHash()).thenReturn("hash2");
         transactionListStore.insertTransactions(Arrays.asList(tx1, tx0));
         // Act
         List<Displayable> value = subject.insertTransactionIntoListAndReturnSorted(tx2);
@@ -228,6 +249,169 @@ public class TransactionListDataManagerTest extends RxTest {
         assertEquals(tx0, value.get(2));
     }
 
+    @Test
+    public void insertTransactionsMergesPageAndReplacesDuplicates() throws Exception {
+        // Arrange
+        Displayable tx0 = mock(BtcDisplayable.class);
+        when(tx0.getTimeStamp()).thenReturn(0L);
+        when(tx0.getHash()).thenReturn("hash0");
+        Displayable tx1 = mock(BtcDisplayable.class);
+        when(tx1.getTimeStamp()).thenReturn(500L);
+        when(tx1.getHash()).thenReturn("hash1");
+        Displayable tx2 = mock(BtcDisplayable.class);
+        when(tx2.getTimeStamp()).thenReturn(1000L);
+        when(tx2.getHash()).thenReturn("hash2");
+        Displayable tx1Updated = mock(BtcDisplayable.class);
+        when(tx1Updated.getTimeStamp()).thenReturn(500L);
+        when(tx1Updated.getHash()).thenReturn("hash1");
+        when(tx1Updated.getConfirmations()).thenReturn(6);
+        transactionListStore.insertTransactions(Arrays.asList(tx2, tx0));
+        // Act
+        transactionListStore.insertTransactions(Collections.singletonList(tx1));
+        transactionListStore.insertTransactions(Collections.singletonList(tx1Updated));
+        // Assert
+        List<Displayable> value = subject.getTransactionList();
+        assertEquals(3, value.size());
+        assertEquals(tx2, value.get(0));
+        assertEquals(tx1Updated, value.get(1));
+        assertEquals(tx0, value.get(2));
+        assertEquals(Integer.valueOf(6), subject.getTxConfirmations("hash1"));
+    }
+
+    @Test
+    public void fetchTransactionsEmitsPersistedTransactionsFirst() throws Exception {
+        // Arrange
+        TransactionSummary summary = new TransactionSummary();
+        summary.setDirection(TransactionSummary.Direction.RECEIVED);
+        summary.setFee(BigInteger.ONE);
+        summary.setTotal(BigInteger.TEN);
+        summary.setHash("hash");
+        summary.setInputsMap(new HashMap<>());
+        summary.setOutputsMap(new HashMap<>());
+        summary.setTime(1000000L);
+        when(payloadManager.getAllTransactions(50, 0))
+                .thenReturn(Collections.singletonList(summary));
+        Displayable cached = mock(Displayable.class);
+        when(transactionDiskStore.read(PayloadManager.MULTI_ADDRESS_ALL))
+                .thenReturn(Collections.singletonList(cached));
+        ItemAccount itemAccount = new ItemAccount();
+        itemAccount.setType(ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY);
+        // Act
+        TestObserver<List<Displayable>> testObserver = subject.fetchTransactions(itemAccount, 50, 0).test();
+        // Assert
+        verify(transactionDiskStore).read(PayloadManager.MULTI_ADDRESS_ALL);
+        verify(transactionDiskStore).write(eq(PayloadManager.MULTI_ADDRESS_ALL), anyList());
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        assertEquals(cached, testObserver.values().get(0).get(0));
+        assertEquals("hash", testObserver.values().get(1).get(0).getHash());
+    }
+
+    @Test
+    public void fetchTransactionsNextPageDoesNotTouchDisk() throws Exception {
+        // Arrange
+        when(payloadManager.getAllTransactions(50, 50)).thenReturn(Collections.emptyList());
+        ItemAccount itemAccount = new ItemAccount();
+        itemAccount.setType(ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY);
+        // Act
+        TestObserver<List<Displayable>> testObserver = subject.fetchTransactions(itemAccount, 50, 50).test();
+        // Assert
+        verify(payloadManager).getAllTransactions(50, 50);
+        verifyZeroInteractions(transactionDiskStore);
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+    }
+
+    @Test
+    public void fetchNextPageUsesLoadedCountAsOffset() throws Exception {
+        // Arrange
+        List<TransactionSummary> firstPage = createSummaries(0, TransactionListDataManager.PAGE_SIZE);
+        List<TransactionSummary> secondPage = createSummaries(TransactionListDataManager.PAGE_SIZE, 10);
+        when(payloadManager.getAllTransactions(TransactionListDataManager.PAGE_SIZE, 0)).thenReturn(firstPage);
+        when(payloadManager.getAllTransactions(TransactionListDataManager.PAGE_SIZE, TransactionListDataManager.PAGE_SIZE))
+                .thenReturn(secondPage);
+        ItemAccount itemAccount = new ItemAccount();
+        itemAccount.setType(ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY);
+        subject.fetchTransactions(itemAccount, TransactionListDataManager.PAGE_SIZE, 0).test();
+        // Act
+        TestObserver<List<Displayable>> testObserver = subject.fetchNextPage(itemAccount).test();
+        // Assert
+        verify(payloadManager).getAllTransactions(TransactionListDataManager.PAGE_SIZE, TransactionListDataManager.PAGE_SIZE);
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        assertEquals(TransactionListDataManager.PAGE_SIZE + 10, subject.getTransactionList().size());
+        assertFalse(subject.hasMorePages());
+        assertEquals(2, subject.getPageLoadTimes().size());
+    }
+
+    @Test
+    public void fetchNextPageKeepsPagingPastMaxAndDropsNewest() throws Exception {
+        // Arrange
+        int pageSize = TransactionListDataManager.PAGE_SIZE;
+        when(payloadManager.getAllTransactions(eq(pageSize), anyInt())).thenAnswer(invocation ->
+                createSummaries(invocation.<Integer>getArgument(1), pageSize));
+        ItemAccount itemAccount = new ItemAccount();
+        itemAccount.setType(ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY);
+        subject.fetchTransactions(itemAccount, pageSize, 0).test();
+        // Act
+        int pages = TransactionListDataManager.MAX_TRANSACTIONS / pageSize + 1;
+        for (int i = 0; i < pages; i++) {
+            subject.fetchNextPage(itemAccount).test().assertComplete();
+        }
+        // Assert
+        verify(payloadManager).getAllTransactions(pageSize, pageSize * pages);
+        assertEquals(TransactionListDataManager.MAX_TRANSACTIONS, subject.getTransactionList().size());
+        subject.getTxFromHash("hash0").test().assertError(NoSuchElementException.class);
+        assertEquals("hash" + (pageSize * (pages + 1) - 1),
+                subject.getTransactionList().get(TransactionListDataManager.MAX_TRANSACTIONS - 1).getHash());
+        assertTrue(subject.hasMorePages());
+    }
+
+    @Test
+    public void fetchNextPageContinuesPastBoundaryWithinOneTimestamp() throws Exception {
+        // Arrange
+        int pageSize = TransactionListDataManager.PAGE_SIZE;
+        List<TransactionSummary> firstPage = createSummaries(0, pageSize);
+        List<TransactionSummary> secondPage = createSummaries(pageSize, pageSize);
+        long boundary = firstPage.get(pageSize - 1).getTime();
+        for (TransactionSummary summary : secondPage) {
+            summary.setTime(boundary);
+        }
+        when(payloadManager.getAllTransactions(pageSize, 0)).thenReturn(firstPage);
+        when(payloadManager.getAllTransactions(pageSize, pageSize)).thenReturn(secondPage);
+        ItemAccount itemAccount = new ItemAccount();
+        itemAccount.setType(ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY);
+        subject.fetchTransactions(itemAccount, pageSize, 0).test();
+        // Act
+        subject.fetchNextPage(itemAccount).test();
+        // Assert
+        assertEquals(pageSize * 2, subject.getTransactionList().size());
+        assertTrue(subject.hasMorePages());
+    }
+
+    @Test
+    public void fetchNextPageEthereumReturnsEmpty() throws Exception {
+        // Arrange
+        ItemAccount itemAccount = new ItemAccount();
+        itemAccount.setType(ItemAccount.TYPE.ETHEREUM);
+        // Act
+        TestObserver<List<Displayable>> testObserver = subject.fetchNextPage(itemAccount).test();
+        // Assert
+        verifyZeroInteractions(ethDataManager);
+        testObserver.assertComplete();
+        testObserver.assertNoValues();
+    }
+
+    @Test
+    public void clearPersistedTransactions() throws Exception {
+        // Arrange
+
+        // Act
+        subject.clearPersistedTransactions();
+        // Assert
+        verify(transactionDiskStore).invalidate();
+    }
+
     @Test
     public void getBtcBalanceAccountTagAll() throws Exception {
         // Arrange
@@ -344,13 +528,62 @@ public class TransactionListDataManagerTest extends RxTest {
     }
 
     @Test
-    public void getTxConfirmationsMap() throws Exception {
+    public void getTxsFromHashes() {
+        // Arrange
+        Displayable tx0 = mock(BtcDisplayable.class);
+        when(tx0.getHash()).thenReturn("hash0");
+        Displayable tx1 = mock(BtcDisplayable.class);
+        when(tx1.getHash()).thenReturn("hash1");
+        transactionListStore.insertTransactions(Arrays.asList(tx0, tx1));
+        // Act
+        List<Displayable> result = subject.getTxsFromHashes(Arrays.asList("hash1", "unknown", "hash0"));
+        // Assert
+        assertEquals(Arrays.asList(tx1, tx0), result);
+    }
+
+    @Test
+    public void getTxConfirmationsSurvivesAccountSwitch() throws Exception {
+        // Arrange
+        Displayable tx0 = mock(BtcDisplayable.class);
+        when(tx0.getHash()).thenReturn("hash0");
+        when(tx0.getConfirmations()).thenReturn(3);
+        transactionListStore.insertTransactions(Collections.singletonList(tx0));
+        when(payloadManager.getImportedAddressesTransactions(50, 0)).thenReturn(Collections.emptyList());
+        ItemAccount itemAccount = new ItemAccount();
+        itemAccount.setType(ItemAccount.TYPE.ALL_LEGACY);
+        // Act
+        subject.fetchTransactions(itemAccount, 50, 0).test();
+        Integer result = subject.getTxConfirmations("hash0");
+        // Assert
+        assertEquals(Collections.emptyList(), subject.getTransactionList());
+        assertEquals(Integer.valueOf(3), result);
+    }
+
+    @Test
+    public void getTxConfirmationsUnknown() throws Exception {
         // Arrange
 
         // Act
-        HashMap<String, Integer> result = subject.getTxConfirmationsMap();
+        Integer result = subject.getTxConfirmations("hash");
         // Assert
-        assertNotNull(result);
+        assertNull(result);
+    }
+
+    private List<TransactionSummary> createSummaries(int start, int count) {
+        List<TransactionSummary> summaries = new ArrayList<>();
+        for (int i = start; i < start + count; i++) {
+            TransactionSummary summary = new TransactionSummary();
+            summary.setDirection(TransactionSummary.Direction.RECEIVED);
+            summary.setFee(BigInteger.ONE);
+            summary.setTotal(BigInteger.TEN);
+            summary.setHash("hash" + i);
+            summary.setInputsMap(new HashMap<>());
+            summary.setOutputsMap(new HashMap<>());
+            // Newest first
+            summary.setTime(1000000L - i);
+            summaries.add(summary);
+        }
+        return summaries;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package piuk.blockchain.android.data.metrics
+
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+
+class HistogramTest {
+
+    private val subject = Histogram(longArrayOf(10, 100, 1_000))
+
+    @Test
+    fun `percentiles report the bucket upper bound`() {
+        // Arrange
+        (1..9).forEach { subject.record(5) }
+        subject.record(500)
+        // Act
+        val snapshot = subject.snapshot()
+        // Assert
+        snapshot.count `should equal` 10L
+        snapshot.percentile(50.0) `should equal` 10L
+        snapshot.percentile(99.0) `should equal` 500L
+        snapshot.max `should equal` 500L
+        snapshot.mean `should equal` 54L
+    }
+
+    @Test
+    fun `values above the last bound are reported as the max`() {
+        // Arrange
+        subject.record(5_000)
+        // Act
+        val snapshot = subject.snapshot()
+        // Assert
+        snapshot.percentile(50.0) `should equal` 5_000L
+    }
+
+    @Test
+    fun `empty histogram reports zero`() {
+        // Arrange
+
+        // Act
+        val snapshot = subject.snapshot()
+        // Assert
+        snapshot.percentile(90.0) `should equal` 0L
+        snapshot.mean `should equal` 0L
+    }
+
+}
@@ -0,0 +1,118 @@
+package piuk.blockchain.android.data.payload
+
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.wallet.payload.PayloadManager
+import info.blockchain.wallet.payload.data.LegacyAddress
+import info.blockchain.wallet.payload.data.Wallet
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+
+class AddressOwnershipIndexTest {
+
+    private lateinit var subject: AddressOwnershipIndex
+    private val payloadManager: PayloadManager = mock()
+    private val wallet: Wallet = mock()
+    private val legacyAddresses = mutableListOf<LegacyAddress>()
+
+    @Before
+    fun setUp() {
+        whenever(payloadManager.payload).thenReturn(wallet)
+        whenever(wallet.legacyAddressList).thenReturn(legacyAddresses)
+        whenever(wallet.legacyAddressStringList).thenAnswer { legacyAddresses.map { it.address } }
+        subject = AddressOwnershipIndex(payloadManager)
+    }
+
+    @Test
+    fun `isOwnLegacyAddress matches every imported address and nothing else`() {
+        // Arrange
+        (0 until 500).forEach { legacyAddresses.add(legacyAddress("1Own$it")) }
+        // Act
+        val own = (0 until 500).count { subject.isOwnLegacyAddress("1Own$it") }
+        val foreign = (0 until 10_000).count { subject.isOwnLegacyAddress("1Foreign$it") }
+        // Assert
+        own `should equal` 500
+        foreign `should equal` 0
+        subject.rebuildCount `should equal` 1
+    }
+
+    @Test
+    fun `addLegacyAddress updates index in place`() {
+        // Arrange
+        legacyAddresses.add(legacyAddress("1Own0"))
+        subject.isOwnLegacyAddress("1Own0")
+        legacyAddresses.add(legacyAddress("1Own1"))
+        // Act
+        subject.addLegacyAddress("1Own1")
+        // Assert
+        subject.isOwnLegacyAddress("1Own1") `should equal` true
+        subject.rebuildCount `should equal` 1
+    }
+
+    @Test
+    fun `index is rebuilt when address is added elsewhere`() {
+        // Arrange
+        legacyAddresses.add(legacyAddress("1Own0"))
+        subject.isOwnLegacyAddress("1Own0")
+        // Act
+        legacyAddresses.add(legacyAddress("1Own1"))
+        // Assert
+        subject.isOwnLegacyAddress("1Own1") `should equal` true
+        subject.rebuildCount `should equal` 2
+    }
+
+    @Test
+    fun `index is rebuilt when a sync swaps one address for another`() {
+        // Arrange
+        legacyAddresses.add(legacyAddress("1Own0"))
+        subject.isOwnLegacyAddress("1Own0")
+        legacyAddresses[0] = legacyAddress("1Own1")
+        // Act
+        subject.onWalletChanged(WalletDiff(
+                addedLegacyAddresses = setOf("1Own1"),
+                removedLegacyAddresses = setOf("1Own0")
+        ))
+        // Assert
+        subject.isOwnLegacyAddress("1Own0") `should equal` false
+        subject.isOwnLegacyAddress("1Own1") `should equal` true
+        subject.rebuildCount `should equal` 2
+    }
+
+    @Test
+    fun `index is rebuilt when wallet is replaced`() {
+        // Arrange
+        legacyAddresses.add(legacyAddress("1Own0"))
+        subject.isOwnLegacyAddress("1Own0")
+        // Act
+        whenever(payloadManager.payload).thenReturn(null)
+        // Assert
+        subject.isOwnLegacyAddress("1Own0") `should equal` false
+    }
+
+    @Test
+    fun `isOwnEthAccount ignores case`() {
+        // Arrange
+        subject.setEthAccount("0xAbC123")
+        // Act
+        val result = subject.isOwnEthAccount("0xabc123")
+        // Assert
+        result `should equal` true
+        subject.isOwnEthAccount("0xdef456") `should equal` false
+    }
+
+    @Test
+    fun `isOwnAddress falls back to HD addresses`() {
+        // Arrange
+        whenever(payloadManager.isOwnHDAddress("1HdAddress")).thenReturn(true)
+        // Act
+        val result = subject.isOwnAddress("1HdAddress")
+        // Assert
+        result `should equal` true
+        subject.isOwnAddress("1Foreign") `should equal` false
+    }
+
+    private fun legacyAddress(address: String): LegacyAddress =
+            mock<LegacyAddress>().apply { whenever(this.address).thenReturn(address) }
+
+}
@@ -32,6 +32,7 @@ class PayloadDataManagerTest : RxTest() {
     private val payloadService: PayloadService = mock()
     private val payloadManager: PayloadManager = mock(defaultAnswer = RETURNS_DEEP_STUBS)
     private val privateKeyFactory: PrivateKeyFactory = mock()
+    private val addressOwnershipIndex: AddressOwnershipIndex = mock()
     private val rxBus = RxBus()
 
     @Before
@@ -39,7 +40,7 @@ class PayloadDataManagerTest : RxTest() {
     override fun setUp() {
         super.setUp()
 
-        subject = PayloadDataManager(payloadService, privateKeyFactory, payloadManager, rxBus)
+        subject = PayloadDataManager(payloadService, privateKeyFactory, payloadManager, addressOwnershipIndex, rxBus)
     }
 
     @Test
@@ -630,6 +631,19 @@ class PayloadDataManagerTest : RxTest() {
         result shouldEqual true
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun isOwnLegacyAddress() {
+        // Arrange
+        val address = "ADDRESS"
+        whenever(addressOwnershipIndex.isOwnLegacyAddress(address)).thenReturn(true)
+        // Act
+        val result = subject.isOwnLegacyAddress(address)
+        // Assert
+        result shouldEqual true
+        verify(addressOwnershipIndex).isOwnLegacyAddress(address)
+    }
+
     @Test
     @Throws(Exception::class)
     fun loadNodes() {
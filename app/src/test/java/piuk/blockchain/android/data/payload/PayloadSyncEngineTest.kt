@@ -0,0 +1,197 @@
+package piuk.blockchain.android.data.payload
+
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.doReturn
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.wallet.payload.data.Account
+import info.blockchain.wallet.payload.data.AddressBook
+import info.blockchain.wallet.payload.data.HDWallet
+import info.blockchain.wallet.payload.data.LegacyAddress
+import info.blockchain.wallet.payload.data.Wallet
+import io.reactivex.Completable
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+
+class PayloadSyncEngineTest : RxTest() {
+
+    private lateinit var subject: PayloadSyncEngine
+    private val payloadDataManager: PayloadDataManager = mock()
+    private val oldWallet = createWallet(
+            accounts = listOf(createAccount("xpub0", "Main")),
+            legacyAddresses = listOf(createLegacyAddress("address0", "Imported")),
+            notes = mapOf("hash0" to "Rent")
+    )
+
+    @Before
+    override fun setUp() {
+        super.setUp()
+        whenever(payloadDataManager.wallet).thenReturn(oldWallet)
+        whenever(payloadDataManager.tempPassword).thenReturn("PASSWORD")
+        whenever(payloadDataManager.payloadChecksum).thenReturn("LOCAL")
+        subject = PayloadSyncEngine(payloadDataManager)
+    }
+
+    @Test
+    fun `sync emits diff of accounts addresses and notes`() {
+        // Arrange
+        val newWallet = createWallet(
+                accounts = listOf(createAccount("xpub0", "Savings"), createAccount("xpub1", "New")),
+                legacyAddresses = emptyList(),
+                notes = mapOf("hash0" to "Rent", "hash1" to "Coffee")
+        )
+        givenPayloadUpdatesTo(newWallet, "REMOTE")
+        // Act
+        val testObserver = subject.sync("REMOTE").test()
+        // Assert
+        testObserver.assertComplete()
+        val diff = testObserver.values()[0]
+        diff.addedAccounts `should equal` setOf("xpub1")
+        diff.changedAccounts `should equal` setOf("xpub0")
+        diff.removedLegacyAddresses `should equal` setOf("address0")
+        diff.changedNotes `should equal` setOf("hash1")
+        diff.addressBookChanged `should equal` false
+        diff.requiresTransactionRefresh `should equal` true
+    }
+
+    @Test
+    fun `note edits do not require transaction refresh`() {
+        // Arrange
+        val newWallet = createWallet(
+                accounts = listOf(createAccount("xpub0", "Main")),
+                legacyAddresses = listOf(createLegacyAddress("address0", "Imported")),
+                notes = mapOf("hash0" to "Rent for May")
+        )
+        givenPayloadUpdatesTo(newWallet, "REMOTE")
+        // Act
+        val testObserver = subject.sync("REMOTE").test()
+        // Assert
+        val diff = testObserver.values()[0]
+        diff.changedNotes `should equal` setOf("hash0")
+        diff.requiresTransactionRefresh `should equal` false
+        diff.isEmpty `should equal` false
+    }
+
+    @Test
+    fun `sync skips download when checksum matches local payload`() {
+        // Arrange
+
+        // Act
+        val testObserver = subject.sync("LOCAL").test()
+        // Assert
+        testObserver.assertComplete()
+        testObserver.assertNoValues()
+        verify(payloadDataManager, never()).initializeAndDecrypt(any(), any(), any())
+    }
+
+    @Test
+    fun `sync skips download when checksum was already synced`() {
+        // Arrange
+        givenPayloadUpdatesTo(oldWallet, "REMOTE")
+        subject.sync("REMOTE").test()
+        whenever(payloadDataManager.payloadChecksum).thenReturn("LOCAL_AGAIN")
+        givenPayloadUpdatesTo(oldWallet, "REMOTE")
+        // Act
+        val testObserver = subject.sync("REMOTE").test()
+        // Assert
+        testObserver.assertComplete()
+        testObserver.assertNoValues()
+    }
+
+    @Test
+    fun `sync skips download without password`() {
+        // Arrange
+        whenever(payloadDataManager.tempPassword).thenReturn(null)
+        // Act
+        val testObserver = subject.sync("REMOTE").test()
+        // Assert
+        testObserver.assertNoValues()
+        verify(payloadDataManager, never()).initializeAndDecrypt(any(), any(), any())
+    }
+
+    @Test
+    fun `address book edit is detected`() {
+        // Arrange
+        val old = WalletSnapshot.of(createWallet(addressBook = listOf(createAddressBook("1abc", "Alice"))))
+        val new = WalletSnapshot.of(createWallet(addressBook = listOf(createAddressBook("1abc", "Bob"))))
+        // Act
+        val diff = WalletDiff.between(old, new)
+        // Assert
+        diff.addressBookChanged `should equal` true
+        diff.requiresTransactionRefresh `should equal` false
+    }
+
+    @Test
+    fun `archiving and restoring are detected`() {
+        // Arrange
+        val old = WalletSnapshot.of(createWallet(
+                accounts = listOf(createAccount("xpub0", "Main"), createAccount("xpub1", "Old", true)),
+                legacyAddresses = listOf(createLegacyAddress("address0", "Imported"))
+        ))
+        val new = WalletSnapshot.of(createWallet(
+                accounts = listOf(createAccount("xpub0", "Main", true), createAccount("xpub1", "Old")),
+                legacyAddresses = listOf(
+                        createLegacyAddress("address0", "Imported", LegacyAddress.ARCHIVED_ADDRESS)
+                )
+        ))
+        // Act
+        val diff = WalletDiff.between(old, new)
+        // Assert
+        diff.archivedAccounts `should equal` setOf("xpub0")
+        diff.unarchivedAccounts `should equal` setOf("xpub1")
+        diff.archivedLegacyAddresses `should equal` setOf("address0")
+        diff.unarchivedLegacyAddresses `should equal` emptySet<String>()
+        diff.requiresTransactionRefresh `should equal` true
+    }
+
+    private fun givenPayloadUpdatesTo(wallet: Wallet, checksum: String) {
+        whenever(payloadDataManager.initializeAndDecrypt(any(), any(), any())).thenReturn(
+                Completable.fromAction {
+                    whenever(payloadDataManager.wallet).thenReturn(wallet)
+                    whenever(payloadDataManager.payloadChecksum).thenReturn(checksum)
+                })
+    }
+
+    private fun createWallet(
+            accounts: List<Account> = emptyList(),
+            legacyAddresses: List<LegacyAddress> = emptyList(),
+            notes: Map<String, String> = emptyMap(),
+            addressBook: List<AddressBook> = emptyList()
+    ): Wallet {
+        val hdWallet: HDWallet = mock { on { this.accounts } doReturn accounts }
+        return mock {
+            on { sharedKey } doReturn "SHARED_KEY"
+            on { guid } doReturn "GUID"
+            on { hdWallets } doReturn listOf(hdWallet)
+            on { legacyAddressList } doReturn legacyAddresses
+            on { txNotes } doReturn notes
+            on { this.addressBook } doReturn addressBook
+        }
+    }
+
+    private fun createAccount(xpub: String, label: String, archived: Boolean = false): Account = mock {
+        on { this.xpub } doReturn xpub
+        on { this.label } doReturn label
+        on { isArchived } doReturn archived
+    }
+
+    private fun createLegacyAddress(
+            address: String,
+            label: String,
+            tag: Int = LegacyAddress.NORMAL_ADDRESS
+    ): LegacyAddress = mock {
+        on { this.address } doReturn address
+        on { this.label } doReturn label
+        on { this.tag } doReturn tag
+    }
+
+    private fun createAddressBook(address: String, label: String): AddressBook = mock {
+        on { this.address } doReturn address
+        on { this.label } doReturn label
+    }
+
+}
@@ -0,0 +1,109 @@
+package piuk.blockchain.android.data.rxjava
+
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.verify
+import io.reactivex.Completable
+import io.reactivex.Observable
+import io.reactivex.subjects.PublishSubject
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+import piuk.blockchain.android.data.connectivity.ConnectionEvent
+import piuk.blockchain.android.data.metrics.OperationMetrics
+import java.io.IOException
+import javax.net.ssl.SSLPeerUnverifiedException
+
+class RxPinningTest : RxTest() {
+
+    private lateinit var subject: RxPinning
+    private val rxBus: RxBus = mock()
+    private val metrics = OperationMetrics()
+
+    @Before
+    @Throws(Exception::class)
+    override fun setUp() {
+        super.setUp()
+
+        subject = RxPinning(rxBus, metrics)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `successful call records latency`() {
+        // Arrange
+
+        // Act
+        subject.call<String>(OPERATION) { Observable.just("VALUE") }.test()
+        // Assert
+        val operation = metrics.getOperations().single()
+        operation.name `should equal` OPERATION
+        operation.latency.snapshot().count `should equal` 1L
+        operation.getInFlightCount() `should equal` 0
+        operation.getErrorCount() `should equal` 0L
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `failed call records error type and emits connection event`() {
+        // Arrange
+
+        // Act
+        val testObserver = subject.call(OPERATION) { Completable.error(IOException()) }.test()
+        // Assert
+        testObserver.assertError(IOException::class.java)
+        metrics.getOperation(OPERATION).getErrorCounts() `should equal` mapOf("IOException" to 1L)
+        verify(rxBus).emitEvent(ConnectionEvent::class.java, ConnectionEvent.NO_CONNECTION)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `in flight calls are counted until disposed`() {
+        // Arrange
+        val response = PublishSubject.create<String>()
+        // Act
+        val testObserver = subject.call<String>(OPERATION) { response }.test()
+        val inFlight = metrics.getOperation(OPERATION).getInFlightCount()
+        testObserver.dispose()
+        // Assert
+        inFlight `should equal` 1
+        metrics.getOperation(OPERATION).getInFlightCount() `should equal` 0
+        metrics.getOperation(OPERATION).latency.snapshot().count `should equal` 0L
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `shared call is recorded under the operation of its key`() {
+        // Arrange
+
+        // Act
+        subject.callShared<String>("$OPERATION:arguments") { Observable.just("VALUE") }.test()
+        // Assert
+        metrics.getOperations().map { it.name } `should equal` listOf(OPERATION)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `background call reports pinning failures but not lost connections`() {
+        // Arrange
+        val pinningFailure = SSLPeerUnverifiedException("")
+        // Act
+        subject.callSharedInBackground(OPERATION) { Completable.error(IOException()) }
+                .test()
+                .assertError(IOException::class.java)
+        subject.callSharedInBackground(OPERATION) { Completable.error(pinningFailure) }
+                .test()
+                .assertError(SSLPeerUnverifiedException::class.java)
+        // Assert
+        verify(rxBus, never()).emitEvent(ConnectionEvent::class.java, ConnectionEvent.NO_CONNECTION)
+        verify(rxBus).emitEvent(ConnectionEvent::class.java, ConnectionEvent.PINNING_FAIL)
+    }
+
+    companion object {
+
+        private const val OPERATION = "PayloadDataManager.updateAllBalances"
+
+    }
+
+}
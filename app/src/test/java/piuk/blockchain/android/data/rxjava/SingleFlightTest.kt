@@ -0,0 +1,109 @@
+package piuk.blockchain.android.data.rxjava
+
+import io.reactivex.Completable
+import io.reactivex.Observable
+import io.reactivex.subjects.CompletableSubject
+import io.reactivex.subjects.PublishSubject
+import org.amshove.kluent.shouldEqual
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+
+class SingleFlightTest : RxTest() {
+
+    private lateinit var subject: SingleFlight
+
+    @Before
+    @Throws(Exception::class)
+    override fun setUp() {
+        super.setUp()
+
+        subject = SingleFlight()
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun concurrentCallersShareRequest() {
+        // Arrange
+        val response = PublishSubject.create<String>()
+        var requests = 0
+        val request = RxLambdas.ObservableRequest<String> { requests++; response }
+        // Act
+        val first = subject.call(KEY, request).test()
+        val second = subject.call(KEY, request).test()
+        response.onNext("VALUE")
+        response.onComplete()
+        // Assert
+        first.assertValues("VALUE")
+        first.assertComplete()
+        second.assertValues("VALUE")
+        second.assertComplete()
+        requests shouldEqual 1
+        subject.sharedRequestCount shouldEqual 1L
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun keyReleasedAfterCompletion() {
+        // Arrange
+        var requests = 0
+        val request = RxLambdas.ObservableRequest<String> { requests++; Observable.just("VALUE") }
+        // Act
+        subject.call(KEY, request).test()
+        val testObserver = subject.call(KEY, request).test()
+        // Assert
+        testObserver.assertValues("VALUE")
+        requests shouldEqual 2
+        subject.sharedRequestCount shouldEqual 0L
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun differentKeysDontShare() {
+        // Arrange
+        var requests = 0
+        val request = RxLambdas.ObservableRequest<String> { requests++; Observable.never() }
+        // Act
+        subject.call(KEY, request).test()
+        subject.call("OTHER_KEY", request).test()
+        // Assert
+        requests shouldEqual 2
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun errorSharedWithAllCallers() {
+        // Arrange
+        val response = CompletableSubject.create()
+        var requests = 0
+        val request = RxLambdas.CompletableRequest { requests++; response }
+        // Act
+        val first = subject.call(KEY, request).test()
+        val second = subject.call(KEY, request).test()
+        response.onError(Throwable())
+        // Assert
+        first.assertError(Throwable::class.java)
+        second.assertError(Throwable::class.java)
+        requests shouldEqual 1
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun disposingAllCallersReleasesKey() {
+        // Arrange
+        var requests = 0
+        val request = RxLambdas.CompletableRequest { requests++; Completable.never() }
+        // Act
+        subject.call(KEY, request).test().dispose()
+        subject.call(KEY, request).test()
+        // Assert
+        requests shouldEqual 2
+    }
+
+    companion object {
+
+        private const val KEY = "KEY"
+
+    }
+
+}
@@ -1,47 +1,50 @@
 package piuk.blockchain.android.data.settings.datastore
 
-import com.nhaarman.mockito_kotlin.verify
-import com.nhaarman.mockito_kotlin.whenever
 import info.blockchain.wallet.api.data.Settings
 import io.reactivex.Observable
+import org.amshove.kluent.`should equal to`
 import org.amshove.kluent.mock
 import org.junit.Test
 import piuk.blockchain.android.RxTest
-import piuk.blockchain.android.data.stores.Optional
+import piuk.blockchain.android.data.stores.TieredStore
 
 class SettingsDataStoreTest : RxTest() {
 
     private lateinit var subject: SettingsDataStore
     private lateinit var webSource: Observable<Settings>
-    private val memoryStore: SettingsMemoryStore = mock()
+    private val settingsStore = TieredStore<String, Settings>(SettingsDataStore.POLICY)
 
     @Test
-    fun `getSettings using DefaultFetchStrategy from websource`() {
+    fun `getSettings from websource then memory`() {
         // Arrange
         val mockSettings: Settings = mock()
-        webSource = Observable.just(mockSettings)
-        whenever(memoryStore.getSettings()).thenReturn(Observable.just(Optional.None))
-        whenever(memoryStore.store(mockSettings)).thenReturn(Observable.just(mockSettings))
-        subject = SettingsDataStore(memoryStore, webSource)
+        var webCalls = 0
+        webSource = Observable.fromCallable { webCalls++; mockSettings }
+        subject = SettingsDataStore(settingsStore, webSource)
         // Act
-        val testObserver = subject.getSettings().test()
+        val first = subject.getSettings().test()
+        val second = subject.getSettings().test()
         // Assert
-        verify(memoryStore).getSettings()
-        testObserver.assertValue { it == mockSettings }
+        first.assertValue { it == mockSettings }
+        second.assertValue { it == mockSettings }
+        webCalls `should equal to` 1
+        settingsStore.stats.getMemoryHits() `should equal to` 1L
+        settingsStore.stats.getMisses() `should equal to` 1L
     }
 
     @Test
     fun fetchSettings() {
         // Arrange
+        val oldSettings: Settings = mock()
         val mockSettings: Settings = mock()
+        settingsStore.put("settings", oldSettings)
         webSource = Observable.just(mockSettings)
-        whenever(memoryStore.store(mockSettings)).thenReturn(Observable.just(mockSettings))
-        subject = SettingsDataStore(memoryStore, webSource)
+        subject = SettingsDataStore(settingsStore, webSource)
         // Act
         val testObserver = subject.fetchSettings().test()
         // Assert
-        verify(memoryStore).store(mockSettings)
         testObserver.assertValue { it == mockSettings }
+        subject.getSettings().test().assertValue { it == mockSettings }
     }
 
-}
\ No newline at end of file
+}
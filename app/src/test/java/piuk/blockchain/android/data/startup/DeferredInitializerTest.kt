@@ -0,0 +1,66 @@
+package piuk.blockchain.android.data.startup
+
+import io.reactivex.schedulers.TestScheduler
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+
+class DeferredInitializerTest {
+
+    private lateinit var subject: DeferredInitializer
+    private val tracer = StartupTracer()
+    private val scheduler = TestScheduler()
+    private val ran = mutableListOf<String>()
+
+    @Before
+    fun setUp() {
+        tracer.setEnabled(true)
+        subject = DeferredInitializer(tracer, scheduler)
+    }
+
+    @Test
+    fun `runs one idle task per idle pass, then background tasks`() {
+        // Arrange
+        subject.onIdle("first") { ran.add("first") }
+                .onIdle("second") { ran.add("second") }
+                .inBackground("third") { ran.add("third") }
+        // Act
+        val moreAfterFirst = subject.runNextIdleTask()
+        val ranAfterFirst = ran.toList()
+        val moreAfterSecond = subject.runNextIdleTask()
+        val ranAfterSecond = ran.toList()
+        scheduler.triggerActions()
+        // Assert
+        moreAfterFirst `should equal` true
+        ranAfterFirst `should equal` listOf("first")
+        moreAfterSecond `should equal` false
+        ranAfterSecond `should equal` listOf("first", "second")
+        ran `should equal` listOf("first", "second", "third")
+    }
+
+    @Test
+    fun `failing task doesn't stop the others and is traced`() {
+        // Arrange
+        subject.onIdle("failing") { throw IllegalStateException() }
+                .onIdle("second") { ran.add("second") }
+        // Act
+        subject.runNextIdleTask()
+        subject.runNextIdleTask()
+        // Assert
+        ran `should equal` listOf("second")
+        tracer.getSectionDurations().keys `should equal` setOf("failing", "second")
+    }
+
+    @Test
+    fun `background tasks start on the first idle pass when there are no idle tasks`() {
+        // Arrange
+        subject.inBackground("background") { ran.add("background") }
+        // Act
+        val more = subject.runNextIdleTask()
+        scheduler.triggerActions()
+        // Assert
+        more `should equal` false
+        ran `should equal` listOf("background")
+    }
+
+}
@@ -0,0 +1,126 @@
+package piuk.blockchain.android.data.startup
+
+import io.reactivex.Completable
+import io.reactivex.subjects.CompletableSubject
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.Callable
+
+class StartupOrchestratorTest {
+
+    private var time = 0L
+    private val tracer = StartupTracer(StartupTracer.Clock { time * 1_000_000L })
+    private val subject = StartupOrchestrator(tracer)
+
+    @Before
+    fun setUp() {
+        tracer.setEnabled(true)
+    }
+
+    @Test
+    fun `independent steps run concurrently`() {
+        // Arrange
+        val nodes = CompletableSubject.create()
+        val tickers = CompletableSubject.create()
+        subject.addCriticalStep("nodes", emptyList(), Callable { nodes })
+                .addCriticalStep("tickers", emptyList(), Callable { tickers })
+        // Act
+        val testObserver = subject.criticalPath().test()
+        // Assert
+        nodes.hasObservers() `should equal` true
+        tickers.hasObservers() `should equal` true
+        nodes.onComplete()
+        testObserver.assertNotComplete()
+        tickers.onComplete()
+        testObserver.assertComplete()
+    }
+
+    @Test
+    fun `step waits for its dependencies and runs once`() {
+        // Arrange
+        val nodes = CompletableSubject.create()
+        var nodesRuns = 0
+        var ethStarted = false
+        subject.addCriticalStep("nodes", emptyList(), Callable { nodesRuns++; nodes })
+                .addCriticalStep("eth", listOf("nodes"), Callable { ethStarted = true; Completable.complete() })
+                .addStep("swipe", listOf("nodes"), Callable { Completable.complete() })
+        // Act
+        val critical = subject.criticalPath().test()
+        val background = subject.backgroundSteps().test()
+        ethStarted `should equal` false
+        nodes.onComplete()
+        // Assert
+        ethStarted `should equal` true
+        nodesRuns `should equal` 1
+        critical.assertComplete()
+        background.assertComplete()
+    }
+
+    @Test
+    fun `critical path does not wait for background steps`() {
+        // Arrange
+        val fees = CompletableSubject.create()
+        subject.addCriticalStep("nodes", emptyList(), Callable { Completable.complete() })
+                .addStep("fees", emptyList(), Callable { fees })
+        // Act
+        val critical = subject.criticalPath().test()
+        val background = subject.backgroundSteps().test()
+        // Assert
+        critical.assertComplete()
+        background.assertNotComplete()
+    }
+
+    @Test
+    fun `background failure skips dependents only`() {
+        // Arrange
+        var promptsStarted = false
+        subject.addCriticalStep("nodes", emptyList(), Callable { Completable.complete() })
+                .addStep("settings", emptyList(), Callable { Completable.error(Throwable()) })
+                .addStep("prompts", listOf("settings"), Callable { promptsStarted = true; Completable.complete() })
+                .addStep("fees", emptyList(), Callable { Completable.complete() })
+        // Act
+        val critical = subject.criticalPath().test()
+        val background = subject.backgroundSteps().test()
+        // Assert
+        critical.assertComplete()
+        background.assertError(Throwable::class.java)
+        promptsStarted `should equal` false
+        tracer.getSectionDurations().keys `should equal` setOf("nodes", "settings (failed)", "fees")
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `critical step cannot depend on background step`() {
+        // Arrange
+        subject.addStep("fees", emptyList(), Callable { Completable.complete() })
+        // Act
+        subject.addCriticalStep("nodes", listOf("fees"), Callable { Completable.complete() })
+        // Assert
+
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `dependencies must be added first`() {
+        // Arrange
+
+        // Act
+        subject.addCriticalStep("eth", listOf("nodes"), Callable { Completable.complete() })
+        // Assert
+
+    }
+
+    @Test
+    fun `tracer records duration of each step`() {
+        // Arrange
+        val nodes = CompletableSubject.create()
+        subject.addCriticalStep("nodes", emptyList(), Callable { nodes })
+                .addCriticalStep("eth", listOf("nodes"), Callable { Completable.complete() })
+        subject.criticalPath().test()
+        // Act
+        time = 150L
+        nodes.onComplete()
+        // Assert
+        tracer.getSectionDurations() `should equal` mapOf("nodes" to 150L, "eth" to 0L)
+    }
+
+}
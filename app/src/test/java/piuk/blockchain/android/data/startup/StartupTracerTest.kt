@@ -0,0 +1,84 @@
+package piuk.blockchain.android.data.startup
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import java.io.StringWriter
+
+class StartupTracerTest {
+
+    private val subject = StartupTracer()
+
+    @Before
+    fun setUp() {
+        subject.setEnabled(true)
+    }
+
+    @Test
+    fun `exports sections and counters as chrome trace`() {
+        // Arrange
+        subject.beginSection("Injector.init")
+        subject.endSection("Injector.init")
+        subject.completeSection("PinEntryPresenter.validatePin", subject.now())
+        subject.counter("DerivedKeyCache.misses", 2)
+        val writer = StringWriter()
+        // Act
+        subject.writeChromeTrace(writer)
+        // Assert
+        val events = ObjectMapper().readTree(writer.toString()).get("traceEvents")
+        events.map { it.get("ph").asText() } `should equal` listOf("B", "E", "X", "C", "M")
+        events[0].get("name").asText() `should equal` "Injector.init"
+        events[2].has("dur") `should equal` true
+        events[3].get("args").get("value").asLong() `should equal` 2L
+        events[4].get("args").get("name").asText() `should equal` Thread.currentThread().name
+    }
+
+    @Test
+    fun `section durations pair begin and end`() {
+        // Arrange
+        subject.beginSection("Application.onCreate")
+        subject.beginSection("PRNGFixes")
+        subject.endSection("PRNGFixes")
+        // Act
+        val durations = subject.getSectionDurations()
+        // Assert
+        durations.keys `should equal` setOf("PRNGFixes")
+    }
+
+    @Test
+    fun `completed sections are timed from their start`() {
+        // Arrange
+        var time = 0L
+        val tracer = StartupTracer(StartupTracer.Clock { time })
+        tracer.setEnabled(true)
+        val start = tracer.now()
+        // Act
+        time = 250_000_000L
+        tracer.completeSection("ethWallet", start)
+        // Assert
+        tracer.getSectionDurations() `should equal` mapOf("ethWallet" to 250L)
+    }
+
+    @Test
+    fun `nothing is recorded when disabled`() {
+        // Arrange
+        subject.setEnabled(false)
+        // Act
+        subject.beginSection("Application.onCreate")
+        subject.counter("DerivedKeyCache.misses", 1)
+        // Assert
+        subject.eventCount `should equal` 0
+    }
+
+    @Test
+    fun `recording is capped`() {
+        // Arrange
+
+        // Act
+        (0..StartupTracer.MAX_EVENTS).forEach { subject.counter("count", it.toLong()) }
+        // Assert
+        subject.eventCount `should equal` StartupTracer.MAX_EVENTS
+    }
+
+}
@@ -0,0 +1,143 @@
+package piuk.blockchain.android.data.stores
+
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.wallet.payload.PayloadManager
+import info.blockchain.wallet.payload.data.Wallet
+import org.amshove.kluent.`should equal to`
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class EncryptedFileStoreTest {
+
+    @get:Rule val tempFolder = TemporaryFolder()
+
+    private lateinit var subject: EncryptedFileStore
+    private val payloadManager: PayloadManager = mock()
+    private val wallet: Wallet = mock()
+
+    @Before
+    fun setUp() {
+        whenever(payloadManager.tempPassword).thenReturn(PASSWORD)
+        whenever(payloadManager.payload).thenReturn(wallet)
+        whenever(wallet.guid).thenReturn(GUID)
+        subject = EncryptedFileStore(tempFolder.root, DIRECTORY, payloadManager)
+    }
+
+    @Test
+    fun `write then read returns the plaintext`() {
+        // Arrange
+        subject.write(NAME, PLAINTEXT)
+        // Act
+        val result = subject.read(NAME)
+        // Assert
+        result!!.toList() `should equal` PLAINTEXT.toList()
+        // Written via a temp file, which must not be left behind
+        val file = getFiles().single()
+        file.name.contains(NAME) `should equal to` false
+        String(file.readBytes(), Charsets.ISO_8859_1).contains(String(PLAINTEXT)) `should equal to` false
+    }
+
+    @Test
+    fun `tampered file is discarded`() {
+        // Arrange
+        subject.write(NAME, PLAINTEXT)
+        val file = getFiles().single()
+        val bytes = file.readBytes()
+        bytes[bytes.size - 1] = (bytes[bytes.size - 1].toInt() xor 1).toByte()
+        file.writeBytes(bytes)
+        // Act
+        val result = subject.read(NAME)
+        // Assert
+        result `should equal` null
+        file.exists() `should equal to` false
+    }
+
+    @Test
+    fun `truncated file is discarded`() {
+        // Arrange
+        subject.write(NAME, PLAINTEXT)
+        val file = getFiles().single()
+        file.writeBytes(file.readBytes().copyOf(5))
+        // Act
+        val result = subject.read(NAME)
+        // Assert
+        result `should equal` null
+        file.exists() `should equal to` false
+    }
+
+    @Test
+    fun `another wallet can't read the blob`() {
+        // Arrange
+        subject.write(NAME, PLAINTEXT)
+        whenever(wallet.guid).thenReturn("other-guid")
+        // Act
+        val result = subject.read(NAME)
+        // Assert
+        result `should equal` null
+        getFiles().size `should equal to` 1
+    }
+
+    @Test
+    fun `another password can't read the blob`() {
+        // Arrange
+        subject.write(NAME, PLAINTEXT)
+        subject.clearKey()
+        whenever(payloadManager.tempPassword).thenReturn("other-password")
+        // Act
+        val result = subject.read(NAME)
+        // Assert
+        result `should equal` null
+    }
+
+    @Test
+    fun `nothing is read or written before the wallet is decrypted`() {
+        // Arrange
+        whenever(payloadManager.tempPassword).thenReturn(null)
+        // Act
+        subject.write(NAME, PLAINTEXT)
+        // Assert
+        subject.read(NAME) `should equal` null
+        getFiles().size `should equal to` 0
+    }
+
+    @Test
+    fun `clearKey keeps files for the next session`() {
+        // Arrange
+        subject.write(NAME, PLAINTEXT)
+        // Act
+        subject.clearKey()
+        // Assert
+        getFiles().size `should equal to` 1
+        subject.read(NAME)!!.toList() `should equal` PLAINTEXT.toList()
+    }
+
+    @Test
+    fun `invalidate deletes every file`() {
+        // Arrange
+        subject.write(NAME, PLAINTEXT)
+        subject.write("other", PLAINTEXT)
+        // Act
+        subject.invalidate()
+        // Assert
+        getFiles().size `should equal to` 0
+        subject.read(NAME) `should equal` null
+    }
+
+    private fun getFiles(): List<File> = File(tempFolder.root, DIRECTORY).listFiles()?.toList() ?: emptyList()
+
+    companion object {
+
+        private const val DIRECTORY = "encrypted"
+        private const val NAME = "xpub6CUGRUonZSQ4TWtTMmzXdrXDtypWKiKrhko4egpiMZbpiaQL2jkwSB1icqYh2cfDfVxdx4df"
+        private const val GUID = "a09910d9-1906-4ea1-a956-2508c3fe0661"
+        private const val PASSWORD = "password"
+        private val PLAINTEXT = "some transactions".toByteArray(Charsets.UTF_8)
+
+    }
+
+}
@@ -0,0 +1,201 @@
+package piuk.blockchain.android.data.stores
+
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.wallet.payload.PayloadManager
+import info.blockchain.wallet.payload.data.Wallet
+import io.reactivex.Observable
+import io.reactivex.subjects.PublishSubject
+import org.amshove.kluent.`should equal to`
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import piuk.blockchain.android.RxTest
+import java.io.File
+
+class TieredStoreTest : RxTest() {
+
+    @get:Rule val tempFolder = TemporaryFolder()
+
+    private lateinit var subject: TieredStore<String, String>
+    private val payloadManager: PayloadManager = mock()
+    private val wallet: Wallet = mock()
+    private var now = 0L
+    private var webCalls = 0
+    private val webSource = Observable.fromCallable { webCalls++; "FRESH$webCalls" }
+
+    @Before
+    override fun setUp() {
+        super.setUp()
+        subject = TieredStore(CachePolicy(TTL), clock = { now })
+        whenever(payloadManager.tempPassword).thenReturn("password")
+        whenever(payloadManager.payload).thenReturn(wallet)
+        whenever(wallet.guid).thenReturn("guid")
+    }
+
+    @Test
+    fun `fetch returns memory value within time to live`() {
+        // Arrange
+        subject.fetch(KEY, webSource).test()
+        now = TTL - 1
+        // Act
+        val testObserver = subject.fetch(KEY, webSource).test()
+        // Assert
+        testObserver.assertValues("FRESH1")
+        webCalls `should equal to` 1
+        subject.stats.getMisses() `should equal to` 1L
+        subject.stats.getMemoryHits() `should equal to` 1L
+    }
+
+    @Test
+    fun `fetch refetches once time to live has passed`() {
+        // Arrange
+        subject.fetch(KEY, webSource).test()
+        now = TTL
+        // Act
+        val testObserver = subject.fetch(KEY, webSource).test()
+        // Assert
+        testObserver.assertValues("FRESH2")
+        subject.stats.getMisses() `should equal to` 2L
+        subject.stats.getHitRate() `should equal to` 0.0
+    }
+
+    @Test
+    fun `fetch stale while revalidate emits cached then fresh`() {
+        // Arrange
+        val policy = CachePolicy(TTL, staleWhileRevalidate = true)
+        subject.fetch(KEY, webSource, policy).test()
+        now = TTL
+        // Act
+        val testObserver = subject.fetch(KEY, webSource, policy).test()
+        // Assert
+        testObserver.assertValues("FRESH1", "FRESH2")
+        testObserver.assertComplete()
+        subject.peek(KEY) `should equal to` "FRESH2"
+        subject.stats.getStaleHits() `should equal to` 1L
+    }
+
+    @Test
+    fun `fetch stale while revalidate swallows network error`() {
+        // Arrange
+        val policy = CachePolicy(TTL, staleWhileRevalidate = true)
+        subject.put(KEY, "CACHED", policy)
+        now = TTL
+        // Act
+        val testObserver = subject.fetch(KEY, Observable.error(Throwable()), policy).test()
+        // Assert
+        testObserver.assertValues("CACHED")
+        testObserver.assertNoErrors()
+    }
+
+    @Test
+    fun `concurrent fetches share one request`() {
+        // Arrange
+        val response = PublishSubject.create<String>()
+        var subscriptions = 0
+        val source = response.doOnSubscribe { subscriptions++ }
+        // Act
+        val first = subject.fetch(KEY, source).test()
+        val second = subject.fetch(KEY, source).test()
+        response.onNext("VALUE")
+        response.onComplete()
+        // Assert
+        first.assertValues("VALUE")
+        second.assertValues("VALUE")
+        subscriptions `should equal to` 1
+        subject.stats.getCoalescedRequests() `should equal to` 1L
+    }
+
+    @Test
+    fun `invalidate forces network fetch`() {
+        // Arrange
+        subject.fetch(KEY, webSource).test()
+        // Act
+        subject.invalidate(KEY)
+        val testObserver = subject.fetch(KEY, webSource).test()
+        // Assert
+        testObserver.assertValues("FRESH2")
+    }
+
+    @Test
+    fun `fetch reads encrypted value from disk after restart`() {
+        // Arrange
+        createDiskBackedStore().put(KEY, "PERSISTED", DISK_POLICY)
+        val restarted = createDiskBackedStore()
+        // Act
+        val testObserver = restarted.fetch(KEY, webSource, DISK_POLICY).test()
+        // Assert
+        testObserver.assertValues("PERSISTED")
+        webCalls `should equal to` 0
+        restarted.stats.getDiskHits() `should equal to` 1L
+        String(getDiskFile().readBytes()).contains("PERSISTED") `should equal to` false
+    }
+
+    @Test
+    fun `fetch keeps time to live of disk value after restart`() {
+        // Arrange
+        createDiskBackedStore().put(KEY, "PERSISTED", DISK_POLICY)
+        now = TTL
+        val restarted = createDiskBackedStore()
+        // Act
+        val testObserver = restarted.fetch(KEY, webSource, DISK_POLICY).test()
+        // Assert
+        testObserver.assertValues("FRESH1")
+        restarted.stats.getMisses() `should equal to` 1L
+    }
+
+    @Test
+    fun `fetch discards unreadable disk value`() {
+        // Arrange
+        createDiskBackedStore().put(KEY, "PERSISTED", DISK_POLICY)
+        getDiskFile().writeBytes(byteArrayOf(1, 2, 3))
+        val restarted = createDiskBackedStore()
+        // Act
+        val testObserver = restarted.fetch(KEY, Observable.just("FRESH"), DISK_POLICY).test()
+        // Assert
+        testObserver.assertValues("FRESH")
+        restarted.stats.getMisses() `should equal to` 1L
+        createDiskBackedStore().fetch(KEY, webSource, DISK_POLICY).test().assertValues("FRESH")
+    }
+
+    @Test
+    fun `fetch discards disk value with bad framing`() {
+        // Arrange
+        val diskStore = EncryptedFileStore(tempFolder.root, DIRECTORY, payloadManager)
+        diskStore.write(KEY, byteArrayOf(1, 2, 3))
+        val restarted = TieredStore(CachePolicy(TTL), diskStore, StringSerializer, { now })
+        // Act
+        val testObserver = restarted.fetch(KEY, webSource, DISK_POLICY).test()
+        // Assert
+        testObserver.assertValues("FRESH1")
+        diskStore.read(KEY)!!.size `should equal to` 8 + 4 + "FRESH1".length
+    }
+
+    private fun createDiskBackedStore(): TieredStore<String, String> = TieredStore(
+            CachePolicy(TTL),
+            EncryptedFileStore(tempFolder.root, DIRECTORY, payloadManager),
+            StringSerializer,
+            { now }
+    )
+
+    private fun getDiskFile(): File = File(tempFolder.root, DIRECTORY).listFiles().single()
+
+    private object StringSerializer : CacheSerializer<String> {
+
+        override fun serialize(value: String): ByteArray = value.toByteArray(Charsets.UTF_8)
+
+        override fun deserialize(bytes: ByteArray): String = String(bytes, Charsets.UTF_8)
+
+    }
+
+    companion object {
+
+        private const val KEY = "KEY"
+        private const val TTL = 1000L
+        private const val DIRECTORY = "tiered"
+        private val DISK_POLICY = CachePolicy(TTL, persistToDisk = true)
+
+    }
+
+}
@@ -0,0 +1,104 @@
+package piuk.blockchain.android.data.stores
+
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.doAnswer
+import com.nhaarman.mockito_kotlin.doReturn
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.data.transactions.CachedDisplayable
+import piuk.blockchain.android.data.transactions.Displayable
+import java.math.BigInteger
+
+class TransactionDiskStoreTest {
+
+    private lateinit var subject: TransactionDiskStore
+    private val fileStore: EncryptedFileStore = mock()
+    private val blobs = HashMap<String, ByteArray>()
+
+    @Before
+    fun setUp() {
+        doAnswer { blobs.put(it.arguments[0] as String, it.arguments[1] as ByteArray) }
+                .whenever(fileStore).write(any(), any())
+        whenever(fileStore.read(any())).thenAnswer { blobs[it.arguments[0] as String] }
+        subject = TransactionDiskStore(fileStore)
+    }
+
+    @Test
+    fun `written txs are read back unchanged`() {
+        // Arrange
+        val btc = tx("btc", CryptoCurrencies.BTC, 2_100_000_000_000_000L)
+        val eth = tx("eth", CryptoCurrencies.ETHER, 0L).copy(
+                total = BigInteger("123456789012345678901234"),
+                direction = TransactionSummary.Direction.SENT,
+                confirmations = 12,
+                watchOnly = true,
+                doubleSpend = true
+        )
+        // Act
+        subject.write(KEY, listOf(btc, eth))
+        // Assert
+        subject.read(KEY) `should equal` listOf(btc, eth)
+    }
+
+    @Test
+    fun `pending txs and duplicate hashes aren't written`() {
+        // Arrange
+        val confirmed = tx("confirmed", CryptoCurrencies.BTC, 1L)
+        val pending = mock<Displayable> {
+            on { hash } doReturn "pending"
+            on { isPending } doReturn true
+        }
+        // Act
+        subject.write(KEY, listOf(confirmed, pending, confirmed))
+        // Assert
+        subject.read(KEY) `should equal` listOf(confirmed)
+    }
+
+    @Test
+    fun `undecodable blob is discarded`() {
+        // Arrange
+        blobs.put(KEY, byteArrayOf(0, 0, 0, 1, 0, 0, 0, 5))
+        // Act
+        val result = subject.read(KEY)
+        // Assert
+        result `should equal` emptyList()
+        verify(fileStore).delete(KEY)
+    }
+
+    @Test
+    fun `other format versions are ignored`() {
+        // Arrange
+        blobs.put(KEY, byteArrayOf(0, 0, 0, 2, 0, 0, 0, 0))
+        // Act
+        val result = subject.read(KEY)
+        // Assert
+        result `should equal` emptyList()
+    }
+
+    private fun tx(hash: String, cryptoCurrency: CryptoCurrencies, total: Long) = CachedDisplayable(
+            cryptoCurrency = cryptoCurrency,
+            direction = TransactionSummary.Direction.RECEIVED,
+            timeStamp = 1_500_000_000L,
+            total = BigInteger.valueOf(total),
+            fee = BigInteger.valueOf(10_000L),
+            hash = hash,
+            inputsMap = hashMapOf("1BoatSLRHtKNngkdXEeobR76b53LETtpyT" to BigInteger.valueOf(total)),
+            outputsMap = hashMapOf("1dice8EMZmqKvrGE4Qc9bUFf9PX3xaYDp" to BigInteger.ONE),
+            confirmations = 0,
+            watchOnly = false,
+            doubleSpend = false
+    )
+
+    companion object {
+
+        private const val KEY = "all"
+
+    }
+
+}
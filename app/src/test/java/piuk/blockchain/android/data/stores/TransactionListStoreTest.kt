@@ -0,0 +1,95 @@
+package piuk.blockchain.android.data.stores
+
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.data.transactions.CachedDisplayable
+import piuk.blockchain.android.data.transactions.Displayable
+import java.math.BigInteger
+
+class TransactionListStoreTest {
+
+    @Test
+    fun `getTxFromHash returns latest version of tx`() {
+        // Arrange
+        val subject = TransactionListStore()
+        subject.insertTransactions(createTransactions(10))
+        val updated = createTransaction(5, confirmations = 6)
+        // Act
+        subject.insertTransactionIntoListAndSort(updated)
+        // Assert
+        subject.getTxFromHash("hash5") `should equal` updated
+        subject.list.size `should equal` 10
+    }
+
+    @Test
+    fun `getTxFromHash finds the right tx in a large store`() {
+        // Arrange
+        val subject = TransactionListStore()
+        subject.insertTransactions(createTransactions(20_000))
+        // Act
+        val found = (0 until 20_000 step 997).map { subject.getTxFromHash("hash$it")!! }
+        // Assert
+        found.map { it.hash } `should equal` (0 until 20_000 step 997).map { "hash$it" }
+        found.map { it.timeStamp } `should equal` (0 until 20_000 step 997).map { it.toLong() }
+    }
+
+    @Test
+    fun `clearList clears index but keeps confirmations`() {
+        // Arrange
+        val subject = TransactionListStore()
+        subject.insertTransactionIntoListAndSort(createTransaction(1, confirmations = 3))
+        // Act
+        subject.clearList()
+        subject.insertTransactions(createTransactions(1))
+        // Assert
+        subject.getTxFromHash("hash1") `should equal` null
+        subject.getConfirmations("hash1") `should equal` 3
+        subject.getTxsFromHashes(listOf("hash0", "hash1")).map { it.hash } `should equal` listOf("hash0")
+    }
+
+    @Test
+    fun `clearAll clears confirmations`() {
+        // Arrange
+        val subject = TransactionListStore()
+        subject.insertTransactions(createTransactions(2))
+        // Act
+        subject.clearAll()
+        // Assert
+        subject.list.isEmpty() `should equal` true
+        subject.getConfirmations("hash0") `should equal` null
+    }
+
+    @Test
+    fun `trimNewest drops newest txs but keeps their confirmations`() {
+        // Arrange
+        val subject = TransactionListStore()
+        subject.insertTransactions(createTransactions(10))
+        // Act
+        val dropped = subject.trimNewest(4)
+        // Assert
+        dropped `should equal` 6
+        subject.list.map { it.hash } `should equal` (3 downTo 0).map { "hash$it" }
+        subject.getTxFromHash("hash9") `should equal` null
+        subject.getConfirmations("hash9") `should equal` 0
+    }
+
+    private fun createTransactions(count: Int): List<Displayable> =
+            (count - 1 downTo 0).map { createTransaction(it) }
+
+    private fun createTransaction(index: Int, confirmations: Int = 0) = CachedDisplayable(
+            cryptoCurrency = CryptoCurrencies.BTC,
+            direction = TransactionSummary.Direction.RECEIVED,
+            timeStamp = index.toLong(),
+            total = BigInteger.TEN,
+            fee = BigInteger.ONE,
+            hash = "hash$index",
+            inputsMap = HashMap(),
+            outputsMap = HashMap(),
+            confirmations = confirmations,
+            watchOnly = false,
+            doubleSpend = false
+    )
+
+}
@@ -0,0 +1,49 @@
+package piuk.blockchain.android.data.transactions
+
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import org.amshove.kluent.`should equal to`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import java.math.BigInteger
+
+class TransactionDtosTest {
+
+    @Test
+    fun `btc total and totalAsLong come from one snapshot`() {
+        // Arrange
+        val summary: TransactionSummary = mock()
+        whenever(summary.total).thenReturn(BigInteger.valueOf(2_100_000_000_000_000L))
+        val subject = BtcDisplayable(summary)
+        // Act
+        whenever(summary.total).thenReturn(BigInteger.ONE)
+        // Assert
+        subject.total `should equal` BigInteger.valueOf(2_100_000_000_000_000L)
+        subject.totalAsLong `should equal to` 2_100_000_000_000_000L
+    }
+
+    @Test
+    fun `eth totalAsLong is in gwei without overflowing`() {
+        // Arrange
+        val wei = BigInteger("123456789012345678901234")
+        // Act
+        val subject = CachedDisplayable(
+                cryptoCurrency = CryptoCurrencies.ETHER,
+                direction = TransactionSummary.Direction.RECEIVED,
+                timeStamp = 0L,
+                total = wei,
+                fee = BigInteger.ZERO,
+                hash = "hash",
+                inputsMap = HashMap(),
+                outputsMap = HashMap(),
+                confirmations = 0,
+                watchOnly = false,
+                doubleSpend = false
+        )
+        // Assert
+        subject.totalAsLong `should equal to` 123456789012345L
+    }
+
+}
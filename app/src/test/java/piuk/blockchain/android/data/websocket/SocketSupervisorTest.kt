@@ -0,0 +1,152 @@
+package piuk.blockchain.android.data.websocket
+
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.times
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import io.reactivex.schedulers.TestScheduler
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.WebSocket
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+import java.util.Random
+import java.util.concurrent.TimeUnit
+
+class SocketSupervisorTest : RxTest() {
+
+    private lateinit var subject: SocketSupervisor
+    private val scheduler = TestScheduler()
+    private val okHttpClient: OkHttpClient = mock()
+    private val request = Request.Builder().url("https://localhost/inv").build()
+    private val messageListener: SocketSupervisor.MessageListener = mock()
+    private val sockets = mutableListOf<WebSocket>()
+    // Always picks the shortest delay in each step, ie half of it
+    private val backoff = ExponentialBackoff(1_000L, 8_000L, object : Random() {
+        override fun nextDouble() = 0.0
+    })
+
+    @Before
+    override fun setUp() {
+        super.setUp()
+        whenever(okHttpClient.newWebSocket(any(), any())).thenAnswer {
+            mock<WebSocket>().apply {
+                whenever(send(any<String>())).thenReturn(true)
+                sockets.add(this)
+            }
+        }
+        subject = SocketSupervisor("BTC", okHttpClient, request, messageListener, backoff, scheduler)
+    }
+
+    @Test
+    fun `reconnects with exponential backoff`() {
+        // Arrange
+        subject.start()
+        // Act
+        subject.onFailure(sockets[0], Throwable(), null)
+        scheduler.advanceTimeBy(499, TimeUnit.MILLISECONDS)
+        sockets.size `should equal` 1
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS)
+        sockets.size `should equal` 2
+        subject.onFailure(sockets[1], Throwable(), null)
+        scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS)
+        sockets.size `should equal` 2
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS)
+        // Assert
+        sockets.size `should equal` 3
+    }
+
+    @Test
+    fun `backoff is capped and reset on open`() {
+        // Arrange
+
+        // Act
+        val delays = (0 until 6).map { backoff.nextDelayMillis() }
+        backoff.reset()
+        // Assert
+        delays `should equal` listOf(500L, 1_000L, 2_000L, 4_000L, 4_000L, 4_000L)
+        backoff.nextDelayMillis() `should equal` 500L
+    }
+
+    @Test
+    fun `reconnect only sends subscriptions once per socket`() {
+        // Arrange
+        subject.subscribe(SubscriptionType.WALLET, "guid")
+        subject.start()
+        subject.onOpen(sockets[0], null)
+        subject.subscribe(SubscriptionType.XPUB, "xpub")
+        subject.subscribe(SubscriptionType.XPUB, "xpub")
+        // Act
+        subject.onClosed(sockets[0], 1006, "")
+        scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS)
+        subject.onOpen(sockets[1], null)
+        // Assert
+        verify(sockets[0]).send(WALLET_SUB)
+        verify(sockets[0], times(1)).send(XPUB_SUB)
+        verify(sockets[1]).send(WALLET_SUB + XPUB_SUB)
+        subject.isReady `should equal` true
+    }
+
+    @Test
+    fun `reconnection is paused while offline`() {
+        // Arrange
+        subject.start()
+        subject.onOpen(sockets[0], null)
+        // Act
+        subject.setOnline(false)
+        subject.onFailure(sockets[0], Throwable(), null)
+        scheduler.advanceTimeBy(1, TimeUnit.MINUTES)
+        sockets.size `should equal` 1
+        subject.setOnline(true)
+        // Assert
+        sockets.size `should equal` 2
+    }
+
+    @Test
+    fun `callbacks from stopped socket are ignored`() {
+        // Arrange
+        subject.start()
+        subject.onOpen(sockets[0], null)
+        // Act
+        subject.stop()
+        subject.onClosed(sockets[0], 1000, "")
+        scheduler.advanceTimeBy(1, TimeUnit.MINUTES)
+        // Assert
+        verify(sockets[0]).close(1000, "Websocket deliberately stopped")
+        verify(okHttpClient, times(1)).newWebSocket(any(), any())
+        subject.isOpen `should equal` false
+    }
+
+    @Test
+    fun `stats record reconnections and time to reconnect`() {
+        // Arrange
+        subject.start()
+        subject.onOpen(sockets[0], null)
+        // Act
+        subject.onFailure(sockets[0], Throwable(), null)
+        scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS)
+        subject.onFailure(sockets[1], Throwable(), null)
+        scheduler.advanceTimeBy(1_000, TimeUnit.MILLISECONDS)
+        scheduler.advanceTimeBy(250, TimeUnit.MILLISECONDS)
+        subject.onOpen(sockets[2], null)
+        // Assert
+        val stats = subject.stats
+        stats.getConnections() `should equal` 2L
+        stats.getReconnections() `should equal` 1L
+        stats.getFailures() `should equal` 2L
+        stats.getLastTimeToReconnectMillis() `should equal` 1_750L
+        verify(messageListener, never()).onMessage(any())
+    }
+
+    companion object {
+
+        private const val WALLET_SUB = """{"op":"wallet_sub","guid":"guid"}"""
+        private const val XPUB_SUB = """{"op":"xpub_sub","xpub":"xpub"}"""
+
+    }
+
+}
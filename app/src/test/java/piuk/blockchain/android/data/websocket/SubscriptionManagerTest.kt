@@ -0,0 +1,139 @@
+package piuk.blockchain.android.data.websocket
+
+import com.nhaarman.mockito_kotlin.mock
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.WebSocket
+import okhttp3.WebSocketListener
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.amshove.kluent.`should equal`
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class SubscriptionManagerTest {
+
+    private val server = MockWebServer()
+    private val okHttpClient = OkHttpClient()
+    private var supervisor: SocketSupervisor? = null
+
+    @After
+    fun tearDown() {
+        supervisor?.stop()
+        okHttpClient.dispatcher().executorService().shutdown()
+        okHttpClient.connectionPool().evictAll()
+        server.shutdown()
+    }
+
+    @Test
+    fun `subscriptions are packed into as few frames as fit`() {
+        // Arrange
+        val subject = SubscriptionManager(100)
+        (0 until 6).forEach { subject.add(SubscriptionType.ADDRESS, "address$it") }
+        // Act
+        val frames = subject.buildPendingFrames()
+        // Assert
+        // Each subscription is 35 chars, so two fit in each frame
+        frames.size `should equal` 3
+        frames.map { it.subscriptionCount } `should equal` listOf(2, 2, 2)
+        frames[0].text `should equal` """{"op":"addr_sub","addr":"address0"}{"op":"addr_sub","addr":"address1"}"""
+    }
+
+    @Test
+    fun `values are escaped`() {
+        // Arrange
+        val subject = SubscriptionManager()
+        subject.add(SubscriptionType.WALLET, "a\"b")
+        // Act
+        val frames = subject.buildPendingFrames()
+        // Assert
+        frames[0].text `should equal` """{"op":"wallet_sub","guid":"a\"b"}"""
+    }
+
+    @Test
+    fun `only unacknowledged subscriptions are rebuilt`() {
+        // Arrange
+        val subject = SubscriptionManager()
+        subject.add(SubscriptionType.WALLET, "guid") `should equal` true
+        subject.add(SubscriptionType.WALLET, "guid") `should equal` false
+        subject.buildPendingFrames().forEach { subject.onFrameAccepted(it) }
+        subject.add(SubscriptionType.XPUB, "xpub")
+        // Act
+        val frames = subject.buildPendingFrames()
+        // Assert
+        frames.size `should equal` 1
+        frames[0].text `should equal` """{"op":"xpub_sub","xpub":"xpub"}"""
+        subject.acknowledgedCount `should equal` 1
+        subject.pendingCount `should equal` 1
+    }
+
+    @Test
+    fun `replacing socket resets acknowledgements`() {
+        // Arrange
+        val subject = SubscriptionManager()
+        subject.add(SubscriptionType.WALLET, "guid")
+        subject.add(SubscriptionType.XPUB, "xpub")
+        subject.buildPendingFrames().forEach { subject.onFrameAccepted(it) }
+        // Act
+        subject.onSocketReplaced()
+        // Assert
+        subject.pendingCount `should equal` 2
+        subject.buildPendingFrames()[0].subscriptionCount `should equal` 2
+    }
+
+    @Test
+    fun `removed subscriptions are not sent to later sockets`() {
+        // Arrange
+        val subject = SubscriptionManager()
+        subject.add(SubscriptionType.XPUB, "xpub0")
+        subject.add(SubscriptionType.XPUB, "xpub1")
+        subject.buildPendingFrames().forEach { subject.onFrameAccepted(it) }
+        // Act
+        val acknowledged = subject.remove(SubscriptionType.XPUB, "xpub0")
+        subject.onSocketReplaced()
+        // Assert
+        acknowledged `should equal` true
+        subject.remove(SubscriptionType.XPUB, "xpub0") `should equal` false
+        subject.buildPendingFrames()[0].text `should equal` """{"op":"xpub_sub","xpub":"xpub1"}"""
+        SubscriptionManager.buildUnsubscribeFrame(SubscriptionType.XPUB, "xpub0") `should equal`
+                """{"op":"xpub_unsub","xpub":"xpub0"}"""
+    }
+
+    @Test
+    fun `wallet with many addresses is ready after a few frames`() {
+        // Arrange
+        val frames = Collections.synchronizedList(mutableListOf<String>())
+        val latch = CountDownLatch(ADDRESSES + 1)
+        server.enqueue(MockResponse().withWebSocketUpgrade(object : WebSocketListener() {
+            override fun onMessage(webSocket: WebSocket, text: String) {
+                frames.add(text)
+                Regex("\"op\"").findAll(text).forEach { latch.countDown() }
+            }
+        }))
+        val request = Request.Builder().url(server.url("/inv")).build()
+        val subject = SocketSupervisor("BTC", okHttpClient, request, mock())
+        supervisor = subject
+        subject.subscribe(SubscriptionType.WALLET, "guid")
+        (0 until ADDRESSES).forEach {
+            subject.subscribe(SubscriptionType.ADDRESS, "1BoatSLRHtKNngkdXEeobR76b53LETtpy$it")
+        }
+        // Act
+        subject.start()
+        val received = latch.await(10, TimeUnit.SECONDS)
+        // Assert
+        assertTrue("Only received ${ADDRESSES + 1 - latch.count} subscriptions", received)
+        assertTrue("Sent in ${frames.size} frames", frames.size <= ADDRESSES / 100)
+        subject.stats.getConnections() `should equal` 1L
+    }
+
+    companion object {
+
+        private const val ADDRESSES = 300
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package piuk.blockchain.android.data.websocket
+
+import io.reactivex.schedulers.TestScheduler
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+import java.util.concurrent.TimeUnit
+
+class WebSocketEventAggregatorTest : RxTest() {
+
+    private lateinit var subject: WebSocketEventAggregator
+    private val scheduler = TestScheduler()
+
+    @Before
+    override fun setUp() {
+        super.setUp()
+        subject = WebSocketEventAggregator(WINDOW, MAX_WAIT, scheduler)
+    }
+
+    @Test
+    fun `burst of events is released as one batch`() {
+        // Arrange
+        val testObserver = subject.getBatches().test()
+        // Act
+        (0 until 20).forEach {
+            subject.onBtcTransaction()
+            scheduler.advanceTimeBy(WINDOW / 2, TimeUnit.MILLISECONDS)
+        }
+        testObserver.assertNoValues()
+        scheduler.advanceTimeBy(WINDOW, TimeUnit.MILLISECONDS)
+        // Assert
+        testObserver.assertValueCount(1)
+        val batch = testObserver.values()[0]
+        batch.eventCount `should equal` 20
+        batch.hasBtcChanges `should equal` true
+        batch.hasEthChanges `should equal` false
+    }
+
+    @Test
+    fun `events separated by the window are released separately`() {
+        // Arrange
+        val testObserver = subject.getBatches().test()
+        // Act
+        subject.onBtcTransaction()
+        scheduler.advanceTimeBy(WINDOW, TimeUnit.MILLISECONDS)
+        subject.onEthTransaction()
+        scheduler.advanceTimeBy(WINDOW, TimeUnit.MILLISECONDS)
+        // Assert
+        testObserver.assertValueCount(2)
+        testObserver.values()[0].hasEthChanges `should equal` false
+        testObserver.values()[1].hasEthChanges `should equal` true
+        testObserver.values()[1].hasBtcChanges `should equal` false
+    }
+
+    @Test
+    fun `steady stream of events is released after the maximum wait`() {
+        // Arrange
+        val testObserver = subject.getBatches().test()
+        // Act
+        (0 until 60).forEach {
+            subject.onBtcTransaction()
+            scheduler.advanceTimeBy(WINDOW / 2, TimeUnit.MILLISECONDS)
+        }
+        // Assert
+        testObserver.assertValueCount(1)
+        testObserver.values()[0].eventCount `should equal` 40
+    }
+
+    companion object {
+
+        private const val WINDOW = 1000L
+        private const val MAX_WAIT = WINDOW * 20
+
+    }
+
+}
@@ -0,0 +1,173 @@
+package piuk.blockchain.android.data.websocket
+
+import org.amshove.kluent.`should be instance of`
+import org.amshove.kluent.`should equal`
+import org.json.JSONObject
+import org.junit.Ignore
+import org.junit.Test
+import piuk.blockchain.android.data.api.SharedObjectMapper
+import piuk.blockchain.android.data.websocket.models.BlockMessage
+import piuk.blockchain.android.data.websocket.models.EthWebsocketResponse
+import piuk.blockchain.android.data.websocket.models.OnChangeMessage
+import piuk.blockchain.android.data.websocket.models.UnknownWebSocketMessage
+import piuk.blockchain.android.data.websocket.models.UtxMessage
+import java.io.IOException
+import java.math.BigInteger
+
+class WebSocketMessageParserTest {
+
+    private val subject = WebSocketMessageParser(SharedObjectMapper.getInstance())
+
+    @Test
+    fun `parse utx message`() {
+        // Arrange
+
+        // Act
+        val message = subject.parse(UTX_MESSAGE)
+        // Assert
+        message `should be instance of` UtxMessage::class.java
+        val transaction = (message as UtxMessage).transaction
+        transaction.hash `should equal` "a1b2c3"
+        transaction.inputs.size `should equal` 1
+        transaction.inputs[0].previousOutput.address `should equal` "1SenderAddress"
+        transaction.inputs[0].previousOutput.value `should equal` 20000L
+        transaction.outputs.size `should equal` 2
+        transaction.outputs[0].xpub.xpub `should equal` "xpub6Ownxpub"
+        transaction.outputs[1].xpub `should equal` null
+    }
+
+    @Test
+    fun `parse on_change message`() {
+        // Arrange
+
+        // Act
+        val message = subject.parse(ON_CHANGE_MESSAGE)
+        // Assert
+        message `should be instance of` OnChangeMessage::class.java
+        (message as OnChangeMessage).checksum `should equal` "d41d8cd98f00b204"
+    }
+
+    @Test
+    fun `parse block message`() {
+        // Arrange
+
+        // Act
+        val message = subject.parse(BLOCK_MESSAGE)
+        // Assert
+        message `should be instance of` BlockMessage::class.java
+        (message as BlockMessage).height `should equal` 490000L
+        message.hash `should equal` "0000000000000000001"
+    }
+
+    @Test
+    fun `parse eth message`() {
+        // Arrange
+
+        // Act
+        val message = subject.parse(ETH_MESSAGE)
+        // Assert
+        message `should be instance of` EthWebsocketResponse::class.java
+        val tx = (message as EthWebsocketResponse).tx
+        tx.from `should equal` "0xfrom"
+        tx.to `should equal` "0xto"
+        tx.value `should equal` BigInteger("1000000000000000000")
+    }
+
+    @Test
+    fun `parse unknown op falls back to unknown message`() {
+        // Arrange
+
+        // Act
+        val message = subject.parse("{\"op\":\"pong\"}")
+        // Assert
+        message `should be instance of` UnknownWebSocketMessage::class.java
+        message.op `should equal` "pong"
+    }
+
+    @Test(expected = IOException::class)
+    fun `parse invalid json throws`() {
+        // Arrange
+
+        // Act
+        subject.parse("not json")
+        // Assert
+
+    }
+
+    /**
+     * Reports the cost per frame of parsing against walking a JSONObject. Timings depend on the
+     * machine, so this only prints them and is run by hand rather than with the suite.
+     */
+    @Ignore("Benchmark, remove to report the cost per frame")
+    @Test
+    fun `benchmark parse against walking a JSONObject`() {
+        // Arrange
+        // Warm up
+        repeat(5) {
+            timeLegacyParse(FRAMES)
+            timeParse(FRAMES)
+        }
+        // Act
+        val legacyNanos = (0 until 5).map { timeLegacyParse(FRAMES) }.min()!!
+        val parserNanos = (0 until 5).map { timeParse(FRAMES) }.min()!!
+        // Assert
+        println("Legacy: ${legacyNanos / FRAMES} ns/frame, parser: ${parserNanos / FRAMES} ns/frame")
+    }
+
+    private fun timeParse(frames: Int): Long {
+        val start = System.nanoTime()
+        for (i in 0 until frames) {
+            (subject.parse(UTX_MESSAGE) as UtxMessage).transaction.outputs.forEach { it.value }
+        }
+        return System.nanoTime() - start
+    }
+
+    /**
+     * Mirrors the manual walk previously done in [WebSocketHandler].
+     */
+    private fun timeLegacyParse(frames: Int): Long {
+        val start = System.nanoTime()
+        for (i in 0 until frames) {
+            val json = JSONObject(UTX_MESSAGE)
+            if (json.getString("op") == "utx") {
+                val x = json.getJSONObject("x")
+                val outputs = x.getJSONArray("out")
+                for (j in 0 until outputs.length()) {
+                    outputs.getJSONObject(j).getLong("value")
+                }
+            }
+        }
+        return System.nanoTime() - start
+    }
+
+    companion object {
+
+        private const val FRAMES = 2_000
+
+        private const val UTX_MESSAGE = """
+            {"op":"utx","x":{"lock_time":0,"ver":1,"size":225,"time":1508246400,"tx_index":300000001,
+            "vin_sz":1,"vout_sz":2,"hash":"a1b2c3","relayed_by":"0.0.0.0",
+            "inputs":[{"sequence":4294967295,"script":"47304402",
+            "prev_out":{"spent":true,"tx_index":299999999,"type":0,"addr":"1SenderAddress",
+            "value":20000,"n":0,"script":"76a914"}}],
+            "out":[{"spent":false,"tx_index":300000001,"type":0,"addr":"1OwnAddress","value":15000,
+            "n":0,"script":"76a914","xpub":{"m":"xpub6Ownxpub","path":"M/0/3"}},
+            {"spent":false,"tx_index":300000001,"type":0,"addr":"1ChangeAddress","value":4000,"n":1,
+            "script":"76a914"}]}}
+            """
+
+        private const val ON_CHANGE_MESSAGE = """{"op":"on_change","x":{"checksum":"d41d8cd98f00b204"}}"""
+
+        private const val BLOCK_MESSAGE =
+                """{"op":"block","x":{"height":490000,"hash":"0000000000000000001","time":1508246400}}"""
+
+        private const val ETH_MESSAGE = """
+            {"op":"account_sub","account":"0xto","balance":"1000000000000000000","nonce":0,
+            "txHash":"0xhash","tx":{"blockHash":"0xblock","blockNumber":4400000,"from":"0xfrom",
+            "gas":21000,"gasPrice":"20000000000","hash":"0xhash","input":"0x","nonce":3,"to":"0xto",
+            "transactionIndex":10,"value":"1000000000000000000","v":"0x1c","r":"0xr","s":"0xs"}}
+            """
+
+    }
+
+}
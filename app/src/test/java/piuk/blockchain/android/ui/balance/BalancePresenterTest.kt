@@ -8,6 +8,7 @@ import info.blockchain.wallet.payload.data.LegacyAddress
 import io.reactivex.Completable
 import io.reactivex.Observable
 import io.reactivex.Single
+import io.reactivex.subjects.PublishSubject
 import org.amshove.kluent.`should equal to`
 import org.junit.Before
 import org.junit.Test
@@ -164,6 +165,36 @@ class BalancePresenterTest {
         verifyNoMoreInteractions(view)
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun `onAccountChosen cancels fetch for previous account`() {
+        // Arrange
+        val firstAccount = ItemAccount()
+        val secondAccount = ItemAccount()
+        val pendingFetch = PublishSubject.create<List<Displayable>>()
+        subject.activeAccountAndAddressList.add(firstAccount)
+        subject.activeAccountAndAddressList.add(secondAccount)
+        whenever(payloadDataManager.updateAllBalances()).thenReturn(Completable.complete())
+        whenever(transactionListDataManager.getBtcBalance(any())).thenReturn(0L)
+        whenever(transactionListDataManager.fetchTransactions(firstAccount, 50, 0))
+                .thenReturn(pendingFetch)
+        whenever(transactionListDataManager.fetchTransactions(secondAccount, 50, 0))
+                .thenReturn(Observable.just(emptyList()))
+        whenever(currencyState.isDisplayingCryptoCurrency).thenReturn(true)
+        whenever(prefsUtil.getValue(PrefsUtil.KEY_SELECTED_FIAT, PrefsUtil.DEFAULT_CURRENCY))
+                .thenReturn("USD")
+        whenever(prefsUtil.getValue(PrefsUtil.KEY_BTC_UNITS, MonetaryUtil.UNIT_BTC))
+                .thenReturn(0)
+        whenever(exchangeRateFactory.getLastBtcPrice("USD")).thenReturn(2717.0)
+        subject.onAccountChosen(0)
+        // Act
+        subject.onAccountChosen(1)
+        // Assert
+        pendingFetch.hasObservers() `should equal to` false
+        verify(transactionListDataManager).fetchTransactions(secondAccount, 50, 0)
+        verify(view).setUiState(UiState.EMPTY)
+    }
+
     @Test
     @Throws(Exception::class)
     fun `onAccountChosen success empty account update ui with empty state`() {
@@ -224,6 +255,25 @@ class BalancePresenterTest {
         verifyNoMoreInteractions(view)
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun `onScrolledNearEnd appends next page`() {
+        // Arrange
+        val itemAccount = ItemAccount()
+        val displayable: Displayable = mock()
+        subject.chosenAccount = itemAccount
+        whenever(transactionListDataManager.fetchNextPage(itemAccount))
+                .thenReturn(Observable.just(listOf(displayable)))
+        // Act
+        subject.onScrolledNearEnd()
+        // Assert
+        verify(transactionListDataManager).fetchNextPage(itemAccount)
+        verifyNoMoreInteractions(transactionListDataManager)
+        verify(view).setUiState(UiState.CONTENT)
+        verify(view).onTransactionsUpdated(listOf(displayable))
+        verifyNoMoreInteractions(view)
+    }
+
     @Test
     @Throws(Exception::class)
     fun `onRefreshRequested failure`() {
@@ -7,6 +7,7 @@ import org.amshove.kluent.any
 import org.amshove.kluent.mock
 import org.junit.Before
 import org.junit.Test
+import piuk.blockchain.android.data.cache.PriceSnapshot
 import piuk.blockchain.android.data.charts.ChartsDataManager
 import piuk.blockchain.android.data.charts.models.ChartDatumDto
 import piuk.blockchain.android.data.currency.CryptoCurrencies
@@ -68,6 +69,7 @@ class DashboardPresenterTest {
         whenever(currencyState.isDisplayingCryptoCurrency).thenReturn(true)
         val metadataObservable = Observable.just(MetadataEvent.SETUP_COMPLETE)
         whenever(rxBus.register(MetadataEvent::class.java)).thenReturn(metadataObservable)
+        whenever(exchangeRateFactory.getPriceFeed()).thenReturn(Observable.empty())
         whenever(prefsUtil.getValue(PrefsUtil.KEY_ONBOARDING_COMPLETE, false))
                 .thenReturn(true)
         whenever(appUtil.isNewlyCreated).thenReturn(false)
@@ -110,6 +112,7 @@ class DashboardPresenterTest {
         verify(exchangeRateFactory, times(2)).getLastBtcPrice("USD")
         verify(exchangeRateFactory, times(2)).getLastEthPrice("USD")
         verify(exchangeRateFactory).getSymbol("USD")
+        verify(exchangeRateFactory).getPriceFeed()
         verifyNoMoreInteractions(exchangeRateFactory)
     }
 
@@ -121,6 +124,7 @@ class DashboardPresenterTest {
         whenever(currencyState.isDisplayingCryptoCurrency).thenReturn(true)
         val metadataObservable = Observable.just(MetadataEvent.SETUP_COMPLETE)
         whenever(rxBus.register(MetadataEvent::class.java)).thenReturn(metadataObservable)
+        whenever(exchangeRateFactory.getPriceFeed()).thenReturn(Observable.empty())
         whenever(prefsUtil.getValue(PrefsUtil.KEY_ONBOARDING_COMPLETE, false))
                 .thenReturn(false)
         whenever(appUtil.isNewlyCreated).thenReturn(true)
@@ -165,6 +169,7 @@ class DashboardPresenterTest {
         verify(exchangeRateFactory, atLeastOnce()).getLastBtcPrice("USD")
         verify(exchangeRateFactory, times(2)).getLastEthPrice("USD")
         verify(exchangeRateFactory, atLeastOnce()).getSymbol("USD")
+        verify(exchangeRateFactory).getPriceFeed()
         verifyNoMoreInteractions(exchangeRateFactory)
         verify(buyDataManager).canBuy
         verifyNoMoreInteractions(buyDataManager)
@@ -178,6 +183,7 @@ class DashboardPresenterTest {
         whenever(currencyState.isDisplayingCryptoCurrency).thenReturn(true)
         val metadataObservable = Observable.just(MetadataEvent.SETUP_COMPLETE)
         whenever(rxBus.register(MetadataEvent::class.java)).thenReturn(metadataObservable)
+        whenever(exchangeRateFactory.getPriceFeed()).thenReturn(Observable.empty())
         whenever(prefsUtil.getValue(PrefsUtil.KEY_ONBOARDING_COMPLETE, false))
                 .thenReturn(true)
         whenever(appUtil.isNewlyCreated).thenReturn(false)
@@ -221,6 +227,7 @@ class DashboardPresenterTest {
         verify(exchangeRateFactory, times(2)).getLastBtcPrice("USD")
         verify(exchangeRateFactory, times(2)).getLastEthPrice("USD")
         verify(exchangeRateFactory).getSymbol("USD")
+        verify(exchangeRateFactory).getPriceFeed()
         verifyNoMoreInteractions(exchangeRateFactory)
     }
 
@@ -235,6 +242,27 @@ class DashboardPresenterTest {
         verify(rxBus).unregister(eq(MetadataEvent::class.java), anyOrNull())
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun `price feed updates price, but not balances before they load`() {
+        // Arrange
+        whenever(currencyState.cryptoCurrency).thenReturn(CryptoCurrencies.BTC)
+        whenever(rxBus.register(MetadataEvent::class.java)).thenReturn(Observable.empty())
+        whenever(exchangeRateFactory.getPriceFeed())
+                .thenReturn(Observable.just(PriceSnapshot(emptyMap(), emptyMap(), 0L)))
+        whenever(prefsUtil.getValue(PrefsUtil.KEY_SELECTED_FIAT, PrefsUtil.DEFAULT_CURRENCY))
+                .thenReturn("USD")
+        whenever(prefsUtil.getValue(PrefsUtil.KEY_BTC_UNITS, MonetaryUtil.UNIT_BTC)).thenReturn(0)
+        whenever(exchangeRateFactory.getLastBtcPrice("USD")).thenReturn(3.0)
+        whenever(exchangeRateFactory.getSymbol("USD")).thenReturn("$")
+        // Act
+        subject.onViewReady()
+        // Assert
+        verify(view).notifyItemAdded(any(), eq(0))
+        verify(view).updateCryptoCurrencyPrice(any())
+        verifyNoMoreInteractions(view)
+    }
+
     @Test
     @Throws(Exception::class)
     fun `updateSelectedCurrency BTC`() {
@@ -302,7 +330,6 @@ class DashboardPresenterTest {
         whenever(exchangeRateFactory.getSymbol("USD")).thenReturn("$")
         whenever(chartsDataManager.getMonthPrice(CryptoCurrencies.BTC, "USD"))
                 .thenReturn(Observable.just(mock(ChartDatumDto::class)))
-        whenever(exchangeRateFactory.updateTickers()).thenReturn(Completable.complete())
         val combinedEthModel: CombinedEthModel = mock()
         whenever(ethDataManager.fetchEthAddress()).thenReturn(Observable.just(combinedEthModel))
         whenever(payloadDataManager.updateAllBalances()).thenReturn(Completable.complete())
@@ -320,7 +347,6 @@ class DashboardPresenterTest {
         subject.onResume()
         // Assert
         verify(view, times(3)).updateChartState(any())
-        verify(view).updateCryptoCurrencyPrice(any())
         verify(view).updateBtcBalance("210.0 BTC")
         verify(view).updateEthBalance("0.00000002 ETH")
         verify(view).updateTotalBalance("\$420.00")
@@ -337,7 +363,6 @@ class DashboardPresenterTest {
         verifyNoMoreInteractions(transactionListDataManager)
         verify(exchangeRateFactory, atLeastOnce()).getLastBtcPrice("USD")
         verify(exchangeRateFactory, times(2)).getLastEthPrice("USD")
-        verify(exchangeRateFactory).updateTickers()
         verify(exchangeRateFactory, atLeastOnce()).getSymbol("USD")
         verifyNoMoreInteractions(exchangeRateFactory)
     }
@@ -0,0 +1,210 @@
+package piuk.blockchain.android.ui.home
+
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.timeout
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.wallet.api.data.FeeOptions
+import info.blockchain.wallet.api.data.Settings
+import info.blockchain.wallet.api.data.WalletOptions
+import info.blockchain.wallet.ethereum.EthereumWallet
+import info.blockchain.wallet.metadata.MetadataNodeFactory
+import info.blockchain.wallet.payload.PayloadManager
+import io.reactivex.Completable
+import io.reactivex.Observable
+import io.reactivex.android.plugins.RxAndroidPlugins
+import io.reactivex.schedulers.Schedulers
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.bitcoinj.crypto.DeterministicKey
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentMatchers.anyBoolean
+import org.mockito.ArgumentMatchers.anyString
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import piuk.blockchain.android.BlockchainTestApplication
+import piuk.blockchain.android.BuildConfig
+import piuk.blockchain.android.data.auth.AuthDataManager
+import piuk.blockchain.android.data.contacts.ContactsDataManager
+import piuk.blockchain.android.data.datamanagers.FeeDataManager
+import piuk.blockchain.android.data.datamanagers.PromptManager
+import piuk.blockchain.android.data.ethereum.EthDataManager
+import piuk.blockchain.android.data.payload.PayloadDataManager
+import piuk.blockchain.android.data.settings.SettingsDataManager
+import piuk.blockchain.android.data.startup.StartupTracer
+import piuk.blockchain.android.util.ExchangeRateFactory
+import piuk.blockchain.android.util.PrefsUtil
+import java.util.concurrent.TimeUnit
+
+/**
+ * Replays cold start against a local backend where every request takes [LATENCY_MILLIS]. Application
+ * start is checked against generous budgets which only catch gross regressions. The post-login
+ * critical path is checked against its structure rather than the clock: it must take less than its
+ * steps laid end to end, which only holds if the steps which don't depend on each other run
+ * concurrently.
+ */
+@Config(sdk = intArrayOf(23), constants = BuildConfig::class, application = BlockchainTestApplication::class)
+@RunWith(RobolectricTestRunner::class)
+class StartupBenchmarkTest {
+
+    private lateinit var subject: MainPresenter
+    private val server = MockWebServer()
+    private val okHttpClient = OkHttpClient()
+    private val tracer = StartupTracer.getInstance()
+    private val view: MainView = mock()
+    private val prefsUtil: PrefsUtil = mock()
+    private val payloadDataManager: PayloadDataManager = mock()
+    private val ethDataManager: EthDataManager = mock()
+    private val exchangeRateFactory: ExchangeRateFactory = mock()
+    private val feeDataManager: FeeDataManager = mock()
+    private val authDataManager: AuthDataManager = mock()
+    private val settingsDataManager: SettingsDataManager = mock()
+    private val promptManager: PromptManager = mock()
+    private val contactsDataManager: ContactsDataManager = mock()
+    private lateinit var applicationDurations: Map<String, Long>
+
+    @Before
+    fun setUp() {
+        // Robolectric has already created the application, so keep its sections before resetting
+        applicationDurations = tracer.getSectionDurations()
+        tracer.reset()
+        tracer.setEnabled(true)
+        // Observe on a real thread rather than the looper, which Robolectric doesn't run by itself
+        RxAndroidPlugins.setMainThreadSchedulerHandler { Schedulers.single() }
+        server.setDispatcher(object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest) =
+                    MockResponse().setBody("{}").setBodyDelay(LATENCY_MILLIS, TimeUnit.MILLISECONDS)
+        })
+
+        val metadataNodeFactory: MetadataNodeFactory = mock()
+        whenever(metadataNodeFactory.metadataNode).thenReturn(mock<DeterministicKey>())
+        whenever(payloadDataManager.loadNodes()).thenReturn(backend("/metadata", true))
+        whenever(payloadDataManager.metadataNodeFactory).thenReturn(Observable.just(metadataNodeFactory))
+        whenever(ethDataManager.initEthereumWallet(any(), any()))
+                .thenReturn(backend("/eth/account", mock<EthereumWallet>()))
+        whenever(exchangeRateFactory.updateTickers()).thenReturn(backend("/ticker", true).ignoreElements())
+        whenever(feeDataManager.btcFeeOptions).thenReturn(backend("/fees", mock<FeeOptions>()))
+        whenever(feeDataManager.ethFeeOptions).thenReturn(backend("/eth/fees", mock<FeeOptions>()))
+        whenever(authDataManager.walletOptions).thenReturn(backend("/wallet-options", mock<WalletOptions>()))
+        whenever(settingsDataManager.settings).thenReturn(backend("/settings", mock<Settings>()))
+        whenever(promptManager.getCustomPrompts(any(), any())).thenReturn(Observable.just(emptyList()))
+        whenever(contactsDataManager.fetchContacts()).thenReturn(Completable.complete())
+        whenever(contactsDataManager.contactList).thenReturn(Observable.empty())
+        whenever(prefsUtil.getValue(anyString(), anyString())).thenReturn("")
+        whenever(prefsUtil.getValue(anyString(), anyBoolean())).thenReturn(false)
+
+        subject = MainPresenter(
+                prefsUtil,
+                mock(),
+                mock(),
+                mock<PayloadManager>(),
+                payloadDataManager,
+                contactsDataManager,
+                RuntimeEnvironment.application,
+                mock(),
+                settingsDataManager,
+                mock(),
+                mock(),
+                exchangeRateFactory,
+                mock(),
+                feeDataManager,
+                mock(),
+                promptManager,
+                ethDataManager,
+                mock(),
+                mock(),
+                authDataManager
+        )
+        subject.initView(view)
+    }
+
+    @After
+    fun tearDown() {
+        tracer.setEnabled(BuildConfig.DEBUG)
+        RxAndroidPlugins.reset()
+        server.shutdown()
+    }
+
+    @Test
+    fun `application onCreate is within budget`() {
+        // Arrange
+        // Robolectric has already created the application for this test, only traced in debug
+        assumeTrue(BuildConfig.DEBUG)
+        // Act
+
+        // Assert
+        assertWithinBudget(applicationDurations, "Application.onCreate", APPLICATION_BUDGET_MILLIS)
+        assertWithinBudget(applicationDurations, "Injector.init", INJECTOR_BUDGET_MILLIS)
+    }
+
+    @Test
+    fun `critical path steps run concurrently`() {
+        // Arrange
+
+        // Act
+        subject.initMetadataElements()
+        verify(view, timeout(TIMEOUT_MILLIS)).hideProgressDialog()
+        // Assert
+        val durations = tracer.getSectionDurations()
+        val criticalPath = durations["MainPresenter.criticalPath"]!!
+        val sequential = listOf("metadataNodes", "ethWallet", "tickers").map { durations[it]!! }.sum()
+        assertTrue("Critical path took $criticalPath ms, its steps $sequential ms end to end in $durations",
+                criticalPath < sequential)
+    }
+
+    @Test
+    fun `background steps are traced`() {
+        // Arrange
+
+        // Act
+        subject.initMetadataElements()
+        verify(view, timeout(TIMEOUT_MILLIS)).hideProgressDialog()
+        // Assert
+        val durations = awaitSection("settings")
+        listOf("metadataNodes", "ethWallet", "tickers", "btcFees", "ethFees", "walletOptions", "settings")
+                .forEach { assertTrue("$it wasn't traced in $durations", durations.containsKey(it)) }
+    }
+
+    private fun <T> backend(path: String, value: T): Observable<T> = Observable.fromCallable {
+        okHttpClient.newCall(Request.Builder().url(server.url(path)).build()).execute().close()
+        value
+    }.subscribeOn(Schedulers.io())
+
+    private fun awaitSection(section: String): Map<String, Long> {
+        val deadline = System.currentTimeMillis() + TIMEOUT_MILLIS
+        var durations = tracer.getSectionDurations()
+        while (!durations.containsKey(section) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+            durations = tracer.getSectionDurations()
+        }
+        return durations
+    }
+
+    private fun assertWithinBudget(durations: Map<String, Long>, section: String, budgetMillis: Long) {
+        val duration = durations[section]
+        assertTrue("$section wasn't traced", duration != null)
+        assertTrue("$section took $duration ms, budget is $budgetMillis ms", duration!! <= budgetMillis)
+    }
+
+    companion object {
+
+        private const val LATENCY_MILLIS = 200L
+        private const val TIMEOUT_MILLIS = 10_000L
+        // Generous, as Robolectric is far slower than a device; catches gross regressions only
+        private const val APPLICATION_BUDGET_MILLIS = 5_000L
+        private const val INJECTOR_BUDGET_MILLIS = 1_000L
+
+    }
+
+}
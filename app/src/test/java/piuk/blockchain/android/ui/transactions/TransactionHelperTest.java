@@ -1,7 +1,6 @@
 package piuk.blockchain.android.ui.transactions;
 
 import info.blockchain.wallet.multiaddress.TransactionSummary;
-import info.blockchain.wallet.payload.data.Wallet;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Before;
@@ -10,17 +9,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.math.BigInteger;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 
 import piuk.blockchain.android.data.payload.PayloadDataManager;
 import piuk.blockchain.android.data.transactions.BtcDisplayable;
 
 import static junit.framework.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public class TransactionHelperTest {
@@ -97,9 +92,7 @@ public class TransactionHelperTest {
         transaction.setInputsMap(inputs);
         transaction.setOutputsMap(inputs);
 
-        Wallet payload = mock(Wallet.class);
-        when(payload.getLegacyAddressStringList()).thenReturn(Collections.emptyList());
-        when(payloadDataManager.getWallet()).thenReturn(payload);
+        when(payloadDataManager.isOwnLegacyAddress(anyString())).thenReturn(false);
         // Act
         Pair<HashMap<String, BigInteger>, HashMap<String, BigInteger>> value =
                 subject.filterNonChangeAddresses(new BtcDisplayable(transaction));
@@ -123,16 +116,10 @@ public class TransactionHelperTest {
         outputs.put("key2", new BigInteger("15"));
         transaction.setOutputsMap(outputs);
 
-        Wallet payload = mock(Wallet.class);
-        when(payload.getLegacyAddressStringList()).thenReturn(Collections.emptyList());
-        when(payloadDataManager.getWallet()).thenReturn(payload);
-
-        Wallet mockPayload = mock(Wallet.class);
-        List<String> legacyStrings = Arrays.asList("key0", "key1");
-        List<String> watchOnlyStrings = Collections.singletonList("key2");
-        when(mockPayload.getLegacyAddressStringList()).thenReturn(legacyStrings);
-        when(mockPayload.getWatchOnlyAddressStringList()).thenReturn(watchOnlyStrings);
-        when(payloadDataManager.getWallet()).thenReturn(mockPayload);
+        // key0 and key1 are legacy addresses, key2 is watch-only
+        when(payloadDataManager.isOwnLegacyAddress("key0")).thenReturn(true);
+        when(payloadDataManager.isOwnLegacyAddress("key1")).thenReturn(true);
+        when(payloadDataManager.isOwnLegacyAddress("key2")).thenReturn(true);
         // Act
         Pair<HashMap<String, BigInteger>, HashMap<String, BigInteger>> value =
                 subject.filterNonChangeAddresses(new BtcDisplayable(transaction));
@@ -154,12 +141,7 @@ public class TransactionHelperTest {
         outputs.put("key0", new BigInteger("1"));
         transaction.setOutputsMap(outputs);
 
-        Wallet mockPayload = mock(Wallet.class);
-        List<String> legacyStrings = Arrays.asList("key0", "key1");
-        List<String> watchOnlyStrings = Collections.singletonList("key2");
-        when(mockPayload.getLegacyAddressStringList()).thenReturn(legacyStrings);
-        when(mockPayload.getWatchOnlyAddressStringList()).thenReturn(watchOnlyStrings);
-        when(payloadDataManager.getWallet()).thenReturn(mockPayload);
+        when(payloadDataManager.isOwnLegacyAddress("key0")).thenReturn(true);
         when(payloadDataManager.isOwnHDAddress(anyString())).thenReturn(true);
         // Act
         Pair<HashMap<String, BigInteger>, HashMap<String, BigInteger>> value =